@@ -61,4 +61,15 @@ public @interface CompositeEndpoint {
    * @return the response body class; never {@code null}
    */
   Class<?> value();
+
+  /**
+   * Whether the endpoint is idempotent, so that a failed sub-request targeting it may be
+   * retried when {@code composite.retry.enabled} is {@code true}.
+   *
+   * <p>{@code GET} and {@code HEAD} endpoints are always considered idempotent; set this
+   * for other methods, e.g. a {@code PUT} that replaces a resource.
+   *
+   * @return {@code true} if repeating the request has no additional effect
+   */
+  boolean idempotent() default false;
 }
@@ -0,0 +1,55 @@
+package io.github.nabilcarel.composite.autoconfigure;
+
+import io.github.nabilcarel.composite.config.EndpointRegistry;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+/**
+ * Spring Boot Actuator endpoint for the composite
+ * {@link EndpointRegistry endpoint registry}.
+ *
+ * <p>Registered only when the {@code spring-boot-actuator} dependency is on the classpath,
+ * and exposed over HTTP like any other actuator endpoint, e.g. with
+ * {@code management.endpoints.web.exposure.include=composite}:
+ * <pre class="code">
+ * GET  /actuator/composite   # number of registered endpoints and time of the last scan
+ * POST /actuator/composite   # rescan the handler mappings, e.g. after registerMapping
+ * </pre>
+ *
+ * @see EndpointRegistry#refresh()
+ * @since 0.0.1
+ */
+@Endpoint(id = "composite")
+@RequiredArgsConstructor
+public class CompositeActuatorEndpoint {
+
+    private final EndpointRegistry endpointRegistry;
+
+    /**
+     * Describes the registered endpoints.
+     *
+     * @return the {@code availableEndpoints} count and the {@code lastRefresh} time
+     */
+    @ReadOperation
+    public Map<String, Object> registry() {
+        Map<String, Object> registry = new LinkedHashMap<>();
+        registry.put("availableEndpoints", endpointRegistry.getAvailableEndpoints().size());
+        registry.put("lastRefresh", endpointRegistry.getLastRefresh());
+        return registry;
+    }
+
+    /**
+     * Rescans the handler mappings for composite endpoints.
+     *
+     * @return the registry description after the scan
+     */
+    @WriteOperation
+    public Map<String, Object> refresh() {
+        endpointRegistry.refresh();
+        return registry();
+    }
+}
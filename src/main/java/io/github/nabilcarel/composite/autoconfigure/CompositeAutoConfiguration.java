@@ -3,35 +3,63 @@ package io.github.nabilcarel.composite.autoconfigure;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.nabilcarel.composite.config.CompositeLoopbackProperties;
 import io.github.nabilcarel.composite.config.CompositeProperties;
+import io.github.nabilcarel.composite.config.CompositeTemplateRegistry;
 import io.github.nabilcarel.composite.config.EndpointRegistry;
 import io.github.nabilcarel.composite.config.filter.CompositeRequestFilter;
 import io.github.nabilcarel.composite.controller.CompositeController;
+import io.github.nabilcarel.composite.controller.CompositeReactiveHandler;
+import io.github.nabilcarel.composite.metrics.CompositeMetrics;
+import io.github.nabilcarel.composite.metrics.CompositeObservations;
+import io.github.nabilcarel.composite.metrics.MicrometerCompositeMetrics;
 import io.github.nabilcarel.composite.model.ResponseTracker;
 import io.github.nabilcarel.composite.service.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import io.netty.channel.ChannelOption;
+import io.netty.channel.unix.DomainSocketAddress;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import javax.net.ssl.SSLException;
+import org.apache.catalina.connector.Connector;
 import org.springframework.core.env.Environment;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
-import org.springframework.boot.web.servlet.context.ServletWebServerInitializedEvent;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.core.Ordered;
+import org.springframework.lang.Nullable;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.util.ClassUtils;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
 
 /**
  * Spring Boot auto-configuration for the Composite library.
@@ -51,18 +79,31 @@ import reactor.netty.http.client.HttpClient;
  *       — the reactive WebClient used for loopback sub-requests, configured from
  *       {@link CompositeLoopbackProperties}. Customise by declaring a bean named
  *       {@code compositeWebClient}.</li>
+ *   <li>{@link reactor.netty.resources.ConnectionProvider compositeConnectionProvider} — the
+ *       dedicated connection pool behind the loopback WebClient, configured from
+ *       {@code composite.loopback.pool}.</li>
+ *   <li>{@link io.github.nabilcarel.composite.metrics.CompositeMetrics} — Micrometer
+ *       instrumentation when a {@code MeterRegistry} is available, otherwise a no-op.</li>
+ *   <li>{@link io.github.nabilcarel.composite.metrics.CompositeObservations} — tracing
+ *       observations for batches and sub-requests, backed by the application's
+ *       {@code ObservationRegistry}.</li>
  *   <li>A {@link java.util.concurrent.ConcurrentMap} keyed by request ID, acting as the
  *       in-flight
  *       {@link io.github.nabilcarel.composite.model.ResponseTracker ResponseTracker}
  *       store.</li>
  *   <li>A {@link org.springframework.boot.web.servlet.FilterRegistrationBean} for the
  *       {@link io.github.nabilcarel.composite.config.filter.CompositeRequestFilter
- *       CompositeRequestFilter}.</li>
+ *       CompositeRequestFilter} (servlet applications only).</li>
+ *   <li>A {@link org.springframework.web.reactive.function.server.RouterFunction} routing
+ *       to the {@link CompositeReactiveHandler} (reactive applications only).</li>
+ *   <li>The {@link CompositeActuatorEndpoint composite} actuator endpoint, which can
+ *       rescan the registered endpoints (when Spring Boot Actuator is present).</li>
  * </ul>
  *
  * <p>The {@code compositeWebClient} bean is created lazily and resolves the loopback port
- * from the {@link org.springframework.boot.web.servlet.context.ServletWebServerInitializedEvent
- * ServletWebServerInitializedEvent}.
+ * from the {@link org.springframework.boot.web.context.WebServerInitializedEvent
+ * WebServerInitializedEvent}, which is published by both the servlet and the reactive
+ * embedded servers.
  *
  * @see CompositeProperties
  * @see CompositeLoopbackProperties
@@ -77,12 +118,16 @@ import reactor.netty.http.client.HttpClient;
         CompositeRequestFilter.class,
         CompositeController.class,
         EndpointRegistry.class,
+        CompositeTemplateRegistry.class,
         AuthenticationForwardingServiceImpl.class,
         CompositeRequestServiceImpl.class,
         CompositeRequestValidatorImpl.class,
-        ReferenceResolverServiceImpl.class
+        ReferenceResolverServiceImpl.class,
+        SubRequestRetrier.class,
+        SubRequestHedger.class,
+        CircuitBreakerRegistry.class
 })
-public class CompositeAutoConfiguration implements ApplicationListener<ServletWebServerInitializedEvent> {
+public class CompositeAutoConfiguration implements ApplicationListener<WebServerInitializedEvent> {
     private final CompositeProperties properties;
     private final Environment environment;
     private int serverPort;
@@ -109,17 +154,19 @@ public class CompositeAutoConfiguration implements ApplicationListener<ServletWe
      * CompositeRequestFilter} as a servlet filter.
      *
      * <p>The filter is mapped to the URL pattern defined by
-     * {@code composite.filter-pattern} and runs near the end of the filter
+     * {@code composite.filter-pattern} and to the template executions under
+     * {@code {basePath}/templates/}, and runs near the end of the filter
      * chain ({@link Ordered#LOWEST_PRECEDENCE} minus one).
      *
      * @param filter the filter bean to register
      * @return the configured {@link FilterRegistrationBean}
      */
     @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
     public FilterRegistrationBean<CompositeRequestFilter> compositeFilter(CompositeRequestFilter filter) {
         FilterRegistrationBean<CompositeRequestFilter> registrationBean = new FilterRegistrationBean<>();
         registrationBean.setFilter(filter);
-        registrationBean.addUrlPatterns(properties.getFilterPattern());
+        registrationBean.addUrlPatterns(properties.getFilterPattern(), properties.getBasePath() + "/templates/*");
         registrationBean.setOrder(Ordered.LOWEST_PRECEDENCE - 1);
         return registrationBean;
     }
@@ -136,6 +183,30 @@ public class CompositeAutoConfiguration implements ApplicationListener<ServletWe
         return new ConcurrentHashMap<>();
     }
 
+    /**
+     * Fallback {@link CompositeMetrics} used when Micrometer is not on the classpath.
+     *
+     * @return {@link CompositeMetrics#NOOP}
+     */
+    @Bean
+    @ConditionalOnMissingBean(CompositeMetrics.class)
+    public CompositeMetrics compositeMetrics() {
+        return CompositeMetrics.NOOP;
+    }
+
+    /**
+     * Provides the {@link CompositeObservations} used to trace composite batches and their
+     * sub-requests, backed by the application's {@link ObservationRegistry} if there is one.
+     *
+     * @param observationRegistry the application's observation registry, if any
+     * @return the composite observation support
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public CompositeObservations compositeObservations(ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new CompositeObservations(observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP));
+    }
+
     /**
      * Captures the server port once the embedded web server has started so that the lazily
      * created {@link #loopbackWebClient} can construct the correct base URL.
@@ -143,7 +214,7 @@ public class CompositeAutoConfiguration implements ApplicationListener<ServletWe
      * {@inheritDoc}
      */
     @Override
-    public void onApplicationEvent(ServletWebServerInitializedEvent event) {
+    public void onApplicationEvent(WebServerInitializedEvent event) {
         this.serverPort = event.getWebServer().getPort();
         log.info("Composite endpoint library initialized on port {}", serverPort);
         if (properties.isDebugEnabled()) {
@@ -158,36 +229,155 @@ public class CompositeAutoConfiguration implements ApplicationListener<ServletWe
      * <p>The bean is {@link org.springframework.context.annotation.Lazy @Lazy} so that it
      * is not created until the first composite request arrives — by which point the server
      * port will have been captured via
-     * {@link #onApplicationEvent(ServletWebServerInitializedEvent)}.
+     * {@link #onApplicationEvent(WebServerInitializedEvent)}.
      *
      * <p>Override by declaring a bean named {@code compositeWebClient} in your application
      * context.
      *
+     * <p>With {@code composite.loopback.protocol=h2c} the client speaks HTTP/2 over
+     * cleartext using prior knowledge, so concurrent sub-requests are multiplexed as
+     * streams over a few connections instead of opening one connection each.
+     *
+     * <p>The client does not encode URLs: sub-request URLs arrive already encoded by the
+     * {@link io.github.nabilcarel.composite.service.ReferenceResolverService#resolveUrl
+     * reference resolver}, and encoding them again would turn {@code %20} into
+     * {@code %2520}.
+     *
      * @param loopbackProperties loopback configuration (protocol, timeouts, SSL)
+     * @param connectionProvider the dedicated loopback connection pool
+     * @param loopResources      event loops for the domain socket transport, or
+     *                           {@code null} when it is disabled
+     * @param observations       observation support whose registry instruments the
+     *                           client and propagates trace context to sub-requests
      * @return a configured {@link WebClient} targeting {@code {protocol}://localhost:{port}}
      */
     @Bean("compositeWebClient")
     @Lazy
     @ConditionalOnMissingBean(name = "compositeWebClient")
-    public WebClient loopbackWebClient(CompositeLoopbackProperties loopbackProperties) {
+    public WebClient loopbackWebClient(CompositeLoopbackProperties loopbackProperties,
+                                       @Qualifier("compositeConnectionProvider") ConnectionProvider connectionProvider,
+                                       @Qualifier("compositeLoopResources") @Nullable LoopResources loopResources,
+                                       CompositeObservations observations) {
         String protocol = loopbackProperties.getProtocol();
-        String baseUrl = String.format("%s://localhost:%d", protocol, serverPort);
+        boolean h2c = "h2c".equalsIgnoreCase(protocol);
+        String baseUrl = String.format("%s://localhost:%d", h2c ? "http" : protocol, serverPort);
         log.info("Creating WebClient with baseUrl: {}", baseUrl);
 
-        HttpClient httpClient = HttpClient.create()
+        HttpClient httpClient = HttpClient.create(connectionProvider)
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) loopbackProperties.getConnectTimeout().toMillis())
                 .responseTimeout(loopbackProperties.getResponseTimeout());
 
         if ("https".equalsIgnoreCase(protocol)) {
             httpClient = configureHttpsClient(httpClient, loopbackProperties);
+        } else if (h2c) {
+            httpClient = configureH2cClient(httpClient);
         }
 
+        if (loopbackProperties.getDomainSocket().isEnabled()) {
+            httpClient = configureDomainSocketClient(httpClient, loopbackProperties.getDomainSocket(), loopResources);
+        }
+
+        DefaultUriBuilderFactory uriBuilderFactory = new DefaultUriBuilderFactory(baseUrl);
+        uriBuilderFactory.setEncodingMode(DefaultUriBuilderFactory.EncodingMode.NONE);
+
         return WebClient.builder()
-                .baseUrl(baseUrl)
+                .uriBuilderFactory(uriBuilderFactory)
                 .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .observationRegistry(observations.getRegistry())
                 .build();
     }
 
+    /**
+     * Provides the dedicated connection pool used by the loopback {@link WebClient},
+     * configured from {@code composite.loopback.pool}.
+     *
+     * <p>A dedicated pool keeps composite fan-out from competing with other Reactor Netty
+     * clients in the application for connections, and lets its size, queueing and
+     * eviction be tuned independently. The pool is disposed when the context closes.
+     *
+     * @param loopbackProperties loopback configuration supplying the pool settings
+     * @return a {@link ConnectionProvider} named {@code composite-loopback}
+     */
+    @Bean(name = "compositeConnectionProvider", destroyMethod = "dispose")
+    @Lazy
+    @ConditionalOnMissingBean(name = "compositeConnectionProvider")
+    public ConnectionProvider loopbackConnectionProvider(CompositeLoopbackProperties loopbackProperties) {
+        CompositeLoopbackProperties.Pool pool = loopbackProperties.getPool();
+        ConnectionProvider.Builder builder = ConnectionProvider.builder("composite-loopback")
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .evictInBackground(pool.getEvictionInterval());
+
+        if (pool.getMaxIdleTime() != null) {
+            builder.maxIdleTime(pool.getMaxIdleTime());
+        }
+        if (pool.getMaxLifeTime() != null) {
+            builder.maxLifeTime(pool.getMaxLifeTime());
+        }
+        if (pool.getLeasingStrategy() == CompositeLoopbackProperties.LeasingStrategy.LIFO) {
+            builder.lifo();
+        } else {
+            builder.fifo();
+        }
+        if (pool.isMetricsEnabled()) {
+            if (ClassUtils.isPresent("io.micrometer.core.instrument.Metrics", getClass().getClassLoader())) {
+                builder.metrics(true);
+            } else {
+                log.warn("composite.loopback.pool.metrics-enabled is true but Micrometer is not on the classpath; "
+                        + "pool metrics are disabled.");
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Provides the event loops used by the domain socket loopback transport. Only created
+     * when {@code composite.loopback.domain-socket.enabled=true}; disposed on shutdown.
+     *
+     * @param loopbackProperties loopback configuration supplying the thread count
+     * @return dedicated {@link LoopResources}
+     */
+    @Bean(name = "compositeLoopResources", destroyMethod = "dispose")
+    @Lazy
+    @ConditionalOnProperty(name = "composite.loopback.domain-socket.enabled", havingValue = "true")
+    @ConditionalOnMissingBean(name = "compositeLoopResources")
+    public LoopResources loopbackLoopResources(CompositeLoopbackProperties loopbackProperties) {
+        return LoopResources.create("composite-loopback",
+                loopbackProperties.getDomainSocket().getEventLoopThreads(), true);
+    }
+
+    private HttpClient configureDomainSocketClient(HttpClient httpClient,
+                                                   CompositeLoopbackProperties.DomainSocket domainSocket,
+                                                   @Nullable LoopResources loopResources) {
+        if (!LoopResources.hasNativeSupport()) {
+            log.warn("Composite loopback domain socket requested but no native transport (epoll/kqueue) "
+                    + "is available; falling back to TCP on localhost:{}", serverPort);
+            return httpClient;
+        }
+
+        log.info("Composite loopback using Unix domain socket {}", domainSocket.getPath());
+        HttpClient client = httpClient.remoteAddress(() -> new DomainSocketAddress(domainSocket.getPath()));
+        return loopResources != null ? client.runOn(loopResources, true) : client;
+    }
+
+    private HttpClient configureH2cClient(HttpClient httpClient) {
+        boolean serverHttp2Enabled = environment.getProperty("server.http2.enabled", Boolean.class, false);
+
+        if (!serverHttp2Enabled) {
+            log.warn("""
+                    Composite loopback configured for h2c but server HTTP/2 is not enabled.
+                    Either:
+                      - Set server.http2.enabled=true (without server.ssl.enabled) to accept h2c
+                      - Or change composite.loopback.protocol=http for HTTP/1.1 loopback
+                    Attempting to proceed, but connections will likely fail.""");
+        }
+
+        // Prior knowledge: no HTTP/1.1 Upgrade round trip, every stream shares the connection
+        return httpClient.protocol(HttpProtocol.H2C);
+    }
+
     private HttpClient configureHttpsClient(HttpClient httpClient, CompositeLoopbackProperties loopbackProperties) {
         boolean serverSslEnabled = environment.getProperty("server.ssl.enabled", Boolean.class, false);
 
@@ -221,4 +411,108 @@ public class CompositeAutoConfiguration implements ApplicationListener<ServletWe
 
         return httpClient;
     }
+
+    /**
+     * Publishes composite metrics to the application's {@link MeterRegistry} when
+     * Micrometer is on the classpath.
+     */
+    @Configuration
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    static class MicrometerMetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(CompositeMetrics.class)
+        public CompositeMetrics micrometerCompositeMetrics(ObjectProvider<MeterRegistry> meterRegistry,
+                                                           ConcurrentMap<String, ResponseTracker> responseStore) {
+            MeterRegistry registry = meterRegistry.getIfUnique();
+            return registry != null ? new MicrometerCompositeMetrics(registry, responseStore) : CompositeMetrics.NOOP;
+        }
+    }
+
+    /**
+     * Registers the {@code composite} actuator endpoint when Spring Boot Actuator is on the
+     * classpath.
+     */
+    @Configuration
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+    static class ActuatorConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public CompositeActuatorEndpoint compositeActuatorEndpoint(EndpointRegistry endpointRegistry) {
+            return new CompositeActuatorEndpoint(endpointRegistry);
+        }
+    }
+
+    /**
+     * Registers the composite endpoints in reactive (WebFlux) applications, where the
+     * servlet {@link CompositeRequestFilter} and {@link CompositeController} are not
+     * available.
+     */
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    @ConditionalOnProperty(name = "composite.controller.enabled", havingValue = "true", matchIfMissing = true)
+    static class ReactiveCompositeConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public CompositeReactiveHandler compositeReactiveHandler(
+                ObjectProvider<CompositeRequestService> requestService,
+                CompositeRequestValidator validator,
+                @Qualifier("compositeObjectMapper") ObjectMapper objectMapper,
+                ConcurrentMap<String, ResponseTracker> responseStore,
+                CompositeProperties properties,
+                CompositeMetrics metrics,
+                CompositeObservations observations,
+                CompositeTemplateRegistry templateRegistry) {
+            return new CompositeReactiveHandler(requestService, validator, objectMapper, responseStore, properties,
+                    metrics, observations, templateRegistry);
+        }
+
+        /**
+         * Routes {@code POST {basePath}/execute}, {@code POST {basePath}/templates/{name}} and
+         * {@code GET {basePath}/endpoints} to the {@link CompositeReactiveHandler}.
+         *
+         * @param handler    the reactive composite handler
+         * @param properties composite configuration supplying the base path
+         * @return the composite {@link RouterFunction}
+         */
+        @Bean
+        public RouterFunction<ServerResponse> compositeRouterFunction(CompositeReactiveHandler handler,
+                                                                     CompositeProperties properties) {
+            String basePath = properties.getBasePath();
+            return RouterFunctions.route(RequestPredicates.POST(basePath + "/execute"), handler::execute)
+                    .andRoute(RequestPredicates.POST(basePath + "/templates/{name}"), handler::executeTemplate)
+                    .andRoute(RequestPredicates.GET(basePath + "/endpoints"), handler::getAvailableEndpoints);
+        }
+    }
+
+    /**
+     * Adds an embedded Tomcat connector listening on the loopback Unix domain socket, so
+     * that the domain socket transport works without any extra server configuration.
+     */
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnClass(name = "org.apache.catalina.startup.Tomcat")
+    @ConditionalOnProperty(name = {"composite.loopback.domain-socket.enabled",
+            "composite.loopback.domain-socket.server-connector"}, havingValue = "true")
+    static class DomainSocketConnectorConfiguration {
+
+        @Bean
+        public WebServerFactoryCustomizer<TomcatServletWebServerFactory> compositeDomainSocketConnector(
+                CompositeLoopbackProperties loopbackProperties) {
+            return factory -> {
+                Path socketPath = Path.of(loopbackProperties.getDomainSocket().getPath());
+                try {
+                    // A socket file left behind by an unclean shutdown would make the bind fail
+                    Files.deleteIfExists(socketPath);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Cannot remove stale composite loopback socket " + socketPath, e);
+                }
+                Connector connector = new Connector();
+                connector.setProperty("unixDomainSocketPath", socketPath.toString());
+                factory.addAdditionalTomcatConnectors(connector);
+            };
+        }
+    }
 }
@@ -2,6 +2,9 @@ package io.github.nabilcarel.composite.autoconfigure;
 
 import io.github.nabilcarel.composite.config.EndpointRegistry;
 import io.github.nabilcarel.composite.model.ResponseTracker;
+import io.github.nabilcarel.composite.service.CircuitBreaker;
+import io.github.nabilcarel.composite.service.CircuitBreakerRegistry;
+import java.util.Map;
 import java.util.concurrent.ConcurrentMap;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.actuate.health.Health;
@@ -13,12 +16,14 @@ import org.springframework.stereotype.Component;
  * Spring Boot Actuator {@link HealthIndicator} for the Composite library.
  *
  * <p>Registered only when the {@code spring-boot-actuator} dependency is on the classpath.
- * Reports {@code UP} at all times and exposes two detail values:
+ * Reports {@code UP} at all times and exposes the following detail values:
  * <ul>
  *   <li>{@code activeCompositeRequests} — the number of composite requests currently
  *       in-flight (entries in the shared response store).</li>
  *   <li>{@code availableEndpoints} — the number of endpoints registered for composite
  *       execution.</li>
+ *   <li>{@code circuitBreakers} — the state of each endpoint circuit breaker, keyed by
+ *       {@code "METHOD pattern"}; only present when circuit breakers are in use.</li>
  * </ul>
  *
  * <p>Access via the standard Actuator health endpoint:
@@ -36,13 +41,16 @@ public class CompositeHealthIndicator implements HealthIndicator {
 
     private final ConcurrentMap<String, ResponseTracker> responseStore;
     private final EndpointRegistry endpointRegistry;
+    private final CircuitBreakerRegistry circuitBreakers;
 
     /**
      * Returns the health status of the Composite library.
      *
      * <p>Always reports {@link Health#up() UP}. The detail values can be used for
      * operational monitoring — a persistently high {@code activeCompositeRequests} count
-     * may indicate that composite requests are timing out without being cleaned up.
+     * may indicate that composite requests are timing out without being cleaned up. An
+     * open circuit breaker does not make the application unhealthy: only the composite
+     * requests using that endpoint are affected.
      *
      * @return a {@link Health} instance with composite-specific detail
      */
@@ -51,7 +59,13 @@ public class CompositeHealthIndicator implements HealthIndicator {
         int activeCompositeRequests = responseStore.size();
         int availableEndpoints = endpointRegistry.getAvailableEndpoints().size();
 
-        return Health.up().withDetail("activeCompositeRequests", activeCompositeRequests)
-                .withDetail("availableEndpoints", availableEndpoints).build();
+        Health.Builder health = Health.up().withDetail("activeCompositeRequests", activeCompositeRequests)
+                .withDetail("availableEndpoints", availableEndpoints);
+
+        Map<String, CircuitBreaker.State> circuitBreakerStates = circuitBreakers.getStates();
+        if (!circuitBreakerStates.isEmpty()) {
+            health.withDetail("circuitBreakers", circuitBreakerStates);
+        }
+        return health.build();
     }
 }
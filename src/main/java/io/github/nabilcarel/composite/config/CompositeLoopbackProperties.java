@@ -20,11 +20,32 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * {@code composite.loopback.trust-self-signed-certificates=true},
  * but never enable that option in production.
  *
+ * <h2>HTTP/2 cleartext</h2>
+ * <p>With {@code composite.loopback.protocol=h2c} and {@code server.http2.enabled=true},
+ * loopback calls are multiplexed as HTTP/2 streams. This avoids one TCP connection per
+ * concurrent sub-request during large fan-outs. Tomcat, Jetty and Reactor Netty all
+ * accept prior-knowledge h2c once HTTP/2 is enabled on a cleartext connector.
+ *
+ * <h2>Unix domain socket</h2>
+ * <p>On Linux, {@code composite.loopback.domain-socket.enabled=true} routes loopback calls
+ * over a Unix domain socket instead of TCP on {@code localhost}, lowering per-call latency
+ * and kernel CPU. See {@link DomainSocket}.
+ *
+ * <h2>Connection pool</h2>
+ * <p>Loopback calls use a dedicated Reactor Netty connection pool rather than the
+ * global shared one, so that composite traffic can be sized and observed independently.
+ * The pool is configured under {@code composite.loopback.pool}. When sub-requests queue
+ * under burst load they wait for a connection here, so {@code max-connections} and
+ * {@code pending-acquire-timeout} bound how long a burst can stall.
+ *
  * <h2>Example</h2>
  * <pre class="code">
  * composite.loopback.protocol=https
  * composite.loopback.connect-timeout=3s
  * composite.loopback.response-timeout=15s
+ * composite.loopback.pool.max-connections=200
+ * composite.loopback.pool.max-idle-time=30s
+ * composite.loopback.pool.metrics-enabled=true
  * </pre>
  *
  * @see CompositeProperties
@@ -50,9 +71,12 @@ public final class CompositeLoopbackProperties {
     private Duration responseTimeout = Duration.ofSeconds(10);
 
     /**
-     * Protocol used for loopback calls: {@code http} or {@code https}.
+     * Protocol used for loopback calls: {@code http}, {@code https} or {@code h2c}.
      *
-     * <p>Must match the protocol on which your application is listening. Defaults to
+     * <p>Must match the protocol on which your application is listening. {@code h2c}
+     * sends HTTP/2 over cleartext with prior knowledge, multiplexing all concurrent
+     * sub-requests over a small number of connections; it requires
+     * {@code server.http2.enabled=true} on a non-TLS connector. Defaults to
      * {@code http}.
      */
     private String protocol = "http";
@@ -66,4 +90,131 @@ public final class CompositeLoopbackProperties {
      * Defaults to {@code false}.
      */
     private boolean trustSelfSignedCertificates = false;
-}
\ No newline at end of file
+
+    /** Connection pool used for loopback calls. */
+    private Pool pool = new Pool();
+
+    /** Unix domain socket transport for loopback calls. */
+    private DomainSocket domainSocket = new DomainSocket();
+
+    // -------------------------------------------------------------------------
+    // Nested configuration classes
+    // -------------------------------------------------------------------------
+
+    /**
+     * Configuration of the dedicated Reactor Netty
+     * {@link reactor.netty.resources.ConnectionProvider ConnectionProvider} backing the
+     * loopback {@code WebClient}.
+     *
+     * @since 0.0.1
+     */
+    @Getter
+    @Setter
+    public static class Pool {
+
+        /**
+         * Maximum number of open connections to the loopback server.
+         * Defaults to {@code 500}.
+         */
+        private int maxConnections = 500;
+
+        /**
+         * Maximum number of sub-requests allowed to wait for a connection once all
+         * {@link #maxConnections} are leased. {@code -1} uses Reactor Netty's default of
+         * twice {@code max-connections}.
+         * Defaults to {@code -1}.
+         */
+        private int pendingAcquireMaxCount = -1;
+
+        /**
+         * Maximum time a sub-request waits for a connection before failing.
+         * Defaults to {@code 45s}.
+         */
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(45);
+
+        /**
+         * Time after which an idle connection is closed. {@code null} keeps idle
+         * connections open until the server closes them.
+         */
+        private Duration maxIdleTime;
+
+        /**
+         * Maximum lifetime of a connection, regardless of activity. {@code null} means
+         * no limit.
+         */
+        private Duration maxLifeTime;
+
+        /**
+         * Interval at which idle and expired connections are evicted in the background.
+         * {@link Duration#ZERO} only evicts connections when they are next acquired.
+         * Defaults to {@code 0}.
+         */
+        private Duration evictionInterval = Duration.ZERO;
+
+        /**
+         * Order in which idle connections are leased. {@code LIFO} keeps a small set of
+         * connections hot and lets the rest idle out; {@code FIFO} spreads load evenly
+         * over all connections.
+         * Defaults to {@code FIFO}.
+         */
+        private LeasingStrategy leasingStrategy = LeasingStrategy.FIFO;
+
+        /**
+         * Whether to publish Reactor Netty pool metrics ({@code reactor.netty.connection.provider.*})
+         * to the global Micrometer registry. Requires Micrometer on the classpath.
+         * Defaults to {@code false}.
+         */
+        private boolean metricsEnabled = false;
+    }
+
+    /**
+     * Configuration of the Unix domain socket loopback transport.
+     *
+     * <p>Sub-requests always target the same process, so TCP on {@code localhost} is
+     * unnecessary. When enabled, the loopback client connects to {@link #path} instead of
+     * the server port, skipping the TCP/IP stack. This requires a native Reactor Netty
+     * transport (epoll on Linux, kqueue on macOS); otherwise the client falls back to TCP.
+     * On Tomcat an additional connector listening on the same socket is registered
+     * automatically; other servers must expose the socket themselves.
+     *
+     * @since 0.0.1
+     */
+    @Getter
+    @Setter
+    public static class DomainSocket {
+
+        /**
+         * Whether loopback calls use the Unix domain socket at {@link #path}.
+         * Defaults to {@code false}.
+         */
+        private boolean enabled = false;
+
+        /**
+         * File system path of the socket. Must be writable by the application and
+         * unique per instance running on the host.
+         * Defaults to {@code /tmp/composite-loopback.sock}.
+         */
+        private String path = "/tmp/composite-loopback.sock";
+
+        /**
+         * Number of event-loop threads dedicated to loopback I/O.
+         * Defaults to the number of available processors.
+         */
+        private int eventLoopThreads = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Whether to register an embedded Tomcat connector listening on {@link #path}.
+         * Disable when the socket is provided by other means.
+         * Defaults to {@code true}.
+         */
+        private boolean serverConnector = true;
+    }
+
+    /** Lease order for idle pooled connections. */
+    public enum LeasingStrategy {
+        /** Lease the least recently used connection first. */
+        FIFO,
+        /** Lease the most recently used connection first. */
+        LIFO
+    }
+}
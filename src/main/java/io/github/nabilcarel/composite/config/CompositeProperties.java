@@ -1,8 +1,12 @@
 package io.github.nabilcarel.composite.config;
 
+import io.github.nabilcarel.composite.model.request.ExecutionMode;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -62,7 +66,8 @@ public class CompositeProperties {
      * Maximum number of sub-requests permitted in a single composite request.
      *
      * <p>Requests that exceed this limit are rejected during validation. Defaults to
-     * {@code 25}.
+     * {@code 25}. Raising it into the thousands is supported; such batches are dispatched
+     * as described by {@link LargeBatch}.
      */
     private int maxSubRequestsPerComposite = 25;
 
@@ -105,7 +110,8 @@ public class CompositeProperties {
      *
      * <p>When set, each individual loopback call is constrained to this duration. When
      * {@code null} (the default), the overall {@link #requestTimeout} is used as the
-     * per-sub-request limit.
+     * per-sub-request limit. Either way the limit is capped to the time left before the
+     * composite request's own deadline.
      */
     private Duration subRequestTimeout;
 
@@ -121,6 +127,38 @@ public class CompositeProperties {
     /** Security-related configuration. */
     private Security security = new Security();
 
+    /** Production-safe timing breakdown configuration. */
+    private Timing timing = new Timing();
+
+    /** Deadline propagation configuration. */
+    private Deadline deadline = new Deadline();
+
+    /** Retry configuration for idempotent sub-requests. */
+    private Retry retry = new Retry();
+
+    /** Hedging configuration for idempotent sub-requests. */
+    private Hedging hedging = new Hedging();
+
+    /** Per-endpoint circuit breaker configuration. */
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    /** Configuration of the cache of endpoint match results. */
+    private EndpointCache endpointCache = new EndpointCache();
+
+    /** Configuration of the cache of validated execution plans. */
+    private PlanCache planCache = new PlanCache();
+
+    /** Dispatch configuration for composites with many sub-requests. */
+    private LargeBatch largeBatch = new LargeBatch();
+
+    /**
+     * Composite templates declared in configuration, keyed by template name. Templates can
+     * also be declared as
+     * {@link io.github.nabilcarel.composite.model.request.CompositeTemplate CompositeTemplate}
+     * beans.
+     */
+    private Map<String, Template> templates = new LinkedHashMap<>();
+
     // -------------------------------------------------------------------------
     // Nested configuration classes
     // -------------------------------------------------------------------------
@@ -186,4 +224,347 @@ public class CompositeProperties {
          */
         private List<String> forwardedHeaders = new ArrayList<>();
     }
+
+    /**
+     * Configuration of the per-composite timing breakdown.
+     *
+     * <p>Unlike {@link #debugEnabled debug mode}, timing output contains only durations
+     * and {@code referenceId}s — never URLs, headers or bodies — so it is safe to enable
+     * in production. Timings are always recorded; these options only control whether they
+     * are returned to the client.
+     *
+     * @since 0.0.1
+     */
+    @Getter
+    @Setter
+    public static class Timing {
+
+        /**
+         * Whether to add a {@code Server-Timing} header with the total time, the critical
+         * path time, and a queued/resolve/network/parse breakdown per sub-request.
+         * Defaults to {@code false}.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Whether to also include the breakdown as a {@code timings} block in the
+         * {@link io.github.nabilcarel.composite.model.response.CompositeResponse}.
+         * Only applies when {@link #enabled} is {@code true}.
+         * Defaults to {@code false}.
+         */
+        private boolean includeInBody = false;
+    }
+
+    /**
+     * Configuration of deadline propagation to sub-request handlers.
+     *
+     * <p>Every composite request has an absolute deadline {@link #requestTimeout} after it
+     * was accepted. Sub-requests are always bounded by it; these options control whether
+     * the remaining budget is also announced to the handlers, so they can give up early.
+     *
+     * @since 0.0.1
+     */
+    @Getter
+    @Setter
+    public static class Deadline {
+
+        /**
+         * Whether to send the remaining budget, in milliseconds, with every sub-request.
+         * Defaults to {@code true}.
+         */
+        private boolean propagate = true;
+
+        /**
+         * Header carrying the remaining budget in milliseconds.
+         * Defaults to {@code X-Composite-Deadline}.
+         */
+        private String headerName = "X-Composite-Deadline";
+    }
+
+    /**
+     * Configuration of automatic retries for idempotent sub-requests.
+     *
+     * <p>Only {@code GET} and {@code HEAD} sub-requests, and sub-requests targeting an
+     * endpoint declared with
+     * {@link io.github.nabilcarel.composite.annotation.CompositeEndpoint#idempotent()
+     * idempotent = true}, are retried. A sub-request is retried when the connection fails
+     * or the response status is one of {@link #retryOnStatus}. Retries back off
+     * exponentially with jitter, never extend past the composite deadline, and draw from a
+     * global budget so that they cannot multiply load during an incident.
+     *
+     * @since 0.0.1
+     */
+    @Getter
+    @Setter
+    public static class Retry {
+
+        /** Whether retries are enabled. Defaults to {@code false}. */
+        private boolean enabled = false;
+
+        /** Maximum number of attempts, including the first one. Defaults to {@code 3}. */
+        private int maxAttempts = 3;
+
+        /** Backoff before the first retry; doubled for each further retry. Defaults to {@code 50ms}. */
+        private Duration initialBackoff = Duration.ofMillis(50);
+
+        /** Upper bound of the backoff. Defaults to {@code 1s}. */
+        private Duration maxBackoff = Duration.ofSeconds(1);
+
+        /**
+         * Jitter factor between {@code 0} and {@code 1}: each backoff is randomised by up to
+         * this fraction in either direction. Defaults to {@code 0.5}.
+         */
+        private double jitter = 0.5;
+
+        /** Response statuses that are retried. Defaults to {@code 502} and {@code 503}. */
+        private List<Integer> retryOnStatus = new ArrayList<>(List.of(502, 503));
+
+        /**
+         * Retries allowed per retry-eligible sub-request, as a fraction. Defaults to
+         * {@code 0.1}, i.e. retries add at most 10% to the loopback traffic.
+         */
+        private double budgetRatio = 0.1;
+
+        /**
+         * Retries that may be spent in a burst before the ratio applies. Defaults to
+         * {@code 10}.
+         */
+        private int budgetMaxTokens = 10;
+    }
+
+    /**
+     * Configuration of hedged sub-requests, which trade a little extra load for a shorter
+     * latency tail.
+     *
+     * <p>When enabled, an idempotent sub-request (see {@link Retry}) that has not completed
+     * after its endpoint's {@link #percentile} latency, as observed in-process, is sent a
+     * second time and the first response wins. Hedges are capped by a budget in the same
+     * way as retries.
+     *
+     * @since 0.0.1
+     */
+    @Getter
+    @Setter
+    public static class Hedging {
+
+        /** Whether hedging is enabled. Defaults to {@code false}. */
+        private boolean enabled = false;
+
+        /**
+         * Latency percentile of the endpoint after which a hedge is sent. Defaults to
+         * {@code 0.95}.
+         */
+        private double percentile = 0.95;
+
+        /**
+         * Samples an endpoint needs before it is hedged, so the percentile is meaningful.
+         * Defaults to {@code 100}.
+         */
+        private int minSamples = 100;
+
+        /**
+         * Approximate number of recent samples each endpoint's latency histogram reflects.
+         * Defaults to {@code 1000}.
+         */
+        private int window = 1000;
+
+        /**
+         * Hedges allowed per eligible sub-request, as a fraction. Defaults to {@code 0.05},
+         * i.e. hedging adds at most 5% to the loopback traffic.
+         */
+        private double budgetRatio = 0.05;
+
+        /** Hedges that may be sent in a burst before the ratio applies. Defaults to {@code 10}. */
+        private int budgetMaxTokens = 10;
+    }
+
+    /**
+     * Configuration of the circuit breakers that guard each registered endpoint.
+     *
+     * <p>When an endpoint keeps failing or responding slowly, its breaker opens and
+     * sub-requests targeting it complete immediately with {@code 503 Service Unavailable}
+     * instead of waiting for the sub-request timeout. Breaker states are reported by the
+     * composite health indicator and the {@code composite.circuitbreaker.*} meters.
+     *
+     * @since 0.0.1
+     */
+    @Getter
+    @Setter
+    public static class CircuitBreaker {
+
+        /** Whether circuit breakers are enabled. Defaults to {@code false}. */
+        private boolean enabled = false;
+
+        /** Number of recent calls the failure and slow-call rates are computed over. Defaults to {@code 50}. */
+        private int slidingWindowSize = 50;
+
+        /** Calls required in the window before the breaker may open. Defaults to {@code 20}. */
+        private int minimumCalls = 20;
+
+        /**
+         * Fraction of failed calls ({@code 5xx} or errors, including timeouts) that opens
+         * the breaker. Defaults to {@code 0.5}.
+         */
+        private double failureRateThreshold = 0.5;
+
+        /** Fraction of slow calls that opens the breaker. Defaults to {@code 0.8}. */
+        private double slowCallRateThreshold = 0.8;
+
+        /** Duration from which a call counts as slow. Defaults to {@code 2s}. */
+        private Duration slowCallDuration = Duration.ofSeconds(2);
+
+        /** How long an open breaker rejects calls before probing. Defaults to {@code 10s}. */
+        private Duration waitDurationInOpenState = Duration.ofSeconds(10);
+
+        /**
+         * Probe calls let through by a half-open breaker; they must all succeed for it to
+         * close. Defaults to {@code 3}.
+         */
+        private int permittedCallsInHalfOpenState = 3;
+    }
+
+    /**
+     * Configuration of the cache in front of
+     * {@link EndpointRegistry#getEndpointInformations endpoint matching}.
+     *
+     * <p>Composites tend to target the same URLs and URL templates again and again, such as
+     * {@code /api/users/me} or {@code /api/users/${user.id}}. The cache remembers the
+     * endpoint each (method, path) pair matched, or that it matched none, and is cleared
+     * whenever the registered endpoints change. Hits and misses are reported as the
+     * {@code composite.endpoint.cache} meter.
+     *
+     * @since 0.0.1
+     */
+    @Getter
+    @Setter
+    public static class EndpointCache {
+
+        /** Whether endpoint match results are cached. Defaults to {@code true}. */
+        private boolean enabled = true;
+
+        /** Maximum number of cached (method, path) pairs. Defaults to {@code 1000}. */
+        private int maximumSize = 1000;
+    }
+
+    /**
+     * Configuration of the cache of validated
+     * {@link io.github.nabilcarel.composite.model.ExecutionPlan execution plans}.
+     *
+     * <p>Clients tend to send the same few composite shapes with different values. The
+     * cache keys each valid composite by its
+     * {@link io.github.nabilcarel.composite.model.RequestShape structural fingerprint} and
+     * remembers its execution plan, so that a request of a known shape skips dependency
+     * analysis. Shapes are keyed on the endpoint patterns the sub-requests match, so
+     * requests for different resources of the same endpoints share an entry. Entries are
+     * discarded whenever the registered endpoints change. Hits and misses are reported as
+     * the {@code composite.plan.cache} meter.
+     *
+     * @since 0.0.1
+     */
+    @Getter
+    @Setter
+    public static class PlanCache {
+
+        /** Whether validated execution plans are cached. Defaults to {@code true}. */
+        private boolean enabled = true;
+
+        /** Maximum number of cached request shapes. Defaults to {@code 500}. */
+        private int maximumSize = 500;
+    }
+
+    /**
+     * Dispatch configuration for composites with many sub-requests, such as data-sync
+     * clients submitting thousands of operations at once.
+     *
+     * <p>A composite with more than {@code threshold} sub-requests is dispatched in chunks:
+     * sub-requests whose dependencies are satisfied wait in a queue, and at most
+     * {@code maxConcurrency} of them are in flight at any time. Smaller composites dispatch
+     * every ready sub-request at once.
+     *
+     * @since 0.0.1
+     */
+    @Getter
+    @Setter
+    public static class LargeBatch {
+
+        /**
+         * Number of sub-requests above which a composite is dispatched under
+         * {@code maxConcurrency}. Defaults to {@code 100}.
+         */
+        private int threshold = 100;
+
+        /**
+         * Maximum number of sub-requests of a large composite in flight at once. Defaults
+         * to {@code 64}.
+         */
+        private int maxConcurrency = 64;
+
+        /**
+         * Returns the concurrency cap for a composite of the given size.
+         *
+         * @param subRequestCount the number of sub-requests in the composite
+         * @return {@code maxConcurrency} for a large composite, or {@code 0} (unbounded)
+         */
+        public int concurrencyFor(int subRequestCount) {
+            return subRequestCount > threshold ? maxConcurrency : 0;
+        }
+    }
+
+    /**
+     * A composite template declared in configuration, for example:
+     * <pre class="code">
+     * composite:
+     *   templates:
+     *     dashboard:
+     *       parameters: [userId]
+     *       sub-requests:
+     *         - reference-id: user
+     *           method: GET
+     *           url: /api/users/{{userId}}
+     *         - reference-id: orders
+     *           method: GET
+     *           url: /api/orders?userId=${user.id}
+     * </pre>
+     *
+     * @see io.github.nabilcarel.composite.model.request.CompositeTemplate
+     * @since 0.0.1
+     */
+    @Getter
+    @Setter
+    public static class Template {
+
+        /** The names of the parameters a client must supply. */
+        private List<String> parameters = new ArrayList<>();
+
+        /** The sub-requests, with {@code {{name}}} parameter placeholders. */
+        private List<TemplateSubRequest> subRequests = new ArrayList<>();
+
+        /** How the batch reacts to a failed sub-request. Defaults to {@code partial}. */
+        private ExecutionMode executionMode = ExecutionMode.PARTIAL;
+    }
+
+    /**
+     * A sub-request of a {@link Template} declared in configuration.
+     *
+     * @since 0.0.1
+     */
+    @Getter
+    @Setter
+    public static class TemplateSubRequest {
+
+        /** The reference ID of the sub-request. */
+        private String referenceId;
+
+        /** The HTTP method of the sub-request. */
+        private String method;
+
+        /** The URL of the sub-request. */
+        private String url;
+
+        /** Headers of the sub-request. */
+        private Map<String, String> headers = new HashMap<>();
+
+        /** The request body, as a JSON document; {@code null} for none. */
+        private String body;
+    }
 }
@@ -0,0 +1,403 @@
+package io.github.nabilcarel.composite.config;
+
+import static io.github.nabilcarel.composite.util.Patterns.TEMPLATE_PARAMETER_PATTERN;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import io.github.nabilcarel.composite.model.ExecutionPlan;
+import io.github.nabilcarel.composite.model.request.CompositeRequest;
+import io.github.nabilcarel.composite.model.request.CompositeTemplate;
+import io.github.nabilcarel.composite.model.request.SubRequestDto;
+import io.github.nabilcarel.composite.service.CompositeRequestValidator;
+import java.util.*;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registry of the {@link CompositeTemplate composite templates} executed with
+ * {@code POST {basePath}/templates/{name}}.
+ *
+ * <p>Templates are collected from {@link CompositeTemplate} beans and from
+ * {@code composite.templates} when the application is ready, and compiled once: their
+ * parameter placeholders are checked against the declared parameters, the sub-requests are
+ * validated like any composite request, with every {@code {{name}}} in a URL standing for a
+ * single path segment, and the resulting endpoint matches and
+ * {@link ExecutionPlan execution plan} are kept. An invalid template fails startup.
+ *
+ * <p>Executing a template then costs a {@link #validateParameters parameter check} and a
+ * {@link #bind bind}: the parameter values are substituted into copies of the compiled
+ * sub-requests, which carry the compiled endpoint matches, and the compiled plan is bound to
+ * them. A parameter value may not contain a {@code ${...}} placeholder, so it cannot change
+ * the dependency graph. A value used in a URL may not contain any of {@code / ? # &}
+ * either, so it cannot change which endpoint a sub-request targets or add query parameters;
+ * it is substituted as is and percent-encoded once, when the URL is resolved.
+ *
+ * @see CompositeTemplate
+ * @since 0.0.1
+ */
+@Component
+@Slf4j
+public class CompositeTemplateRegistry implements ApplicationListener<ApplicationReadyEvent> {
+
+    /** Stands in for URL parameters while a template is validated. */
+    private static final String SAMPLE_SEGMENT = "0";
+
+    /** Characters a URL parameter value may not contain. */
+    private static final String URL_DELIMITERS = "/?#&";
+
+    private final ObjectProvider<CompositeTemplate> templateBeans;
+    private final CompositeProperties properties;
+    private final CompositeRequestValidator validator;
+    private final ObjectMapper objectMapper;
+
+    /** The compiled templates by name; {@code null} until the first compilation. */
+    @Nullable
+    private volatile Map<String, CompiledTemplate> templates;
+
+    /**
+     * Creates a registry.
+     *
+     * @param templateBeans the templates declared as beans
+     * @param properties    the composite configuration, for the templates declared in it
+     * @param validator     validates the templates' sub-requests
+     * @param objectMapper  parses the request bodies of templates declared in configuration
+     */
+    public CompositeTemplateRegistry(ObjectProvider<CompositeTemplate> templateBeans,
+                                     CompositeProperties properties,
+                                     CompositeRequestValidator validator,
+                                     @Qualifier("compositeObjectMapper") ObjectMapper objectMapper) {
+        this.templateBeans = templateBeans;
+        this.properties = properties;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void onApplicationEvent(@NonNull ApplicationReadyEvent event) {
+        compile();
+    }
+
+    /**
+     * Validates and compiles every declared template, replacing the registered ones.
+     *
+     * @return the number of registered templates
+     * @throws IllegalStateException if a template is invalid
+     */
+    public synchronized int compile() {
+        Map<String, CompiledTemplate> compiled = new LinkedHashMap<>();
+        List<CompositeTemplate> declared = new ArrayList<>();
+        templateBeans.orderedStream().forEach(declared::add);
+        properties.getTemplates().forEach((name, template) -> declared.add(fromProperties(name, template)));
+
+        for (CompositeTemplate template : declared) {
+            if (compiled.containsKey(template.getName())) {
+                throw new IllegalStateException("Duplicate composite template: " + template.getName());
+            }
+            compiled.put(template.getName(), compile(template));
+        }
+
+        templates = Collections.unmodifiableMap(compiled);
+        log.info("Registered {} composite templates", compiled.size());
+        return compiled.size();
+    }
+
+    /**
+     * Returns the names of the registered templates.
+     *
+     * @return an unmodifiable set of template names
+     */
+    public Set<String> getTemplateNames() {
+        return current().keySet();
+    }
+
+    /**
+     * Checks the parameter values supplied for a template.
+     *
+     * @param name       the template name
+     * @param parameters the JSON object of parameter values; {@code null} or a missing node
+     *                   if none were sent
+     * @return a list of human-readable error messages; empty if the template can be bound
+     */
+    public List<String> validateParameters(String name, @Nullable JsonNode parameters) {
+        CompiledTemplate template = current().get(name);
+        if (template == null) {
+            return List.of("Unknown composite template: " + name);
+        }
+        JsonNode values = parameters == null || parameters.isNull() || parameters.isMissingNode() ? null : parameters;
+        if (values != null && !values.isObject()) {
+            return List.of("Template parameters must be a JSON object");
+        }
+
+        List<String> errors = new ArrayList<>();
+        for (String parameter : template.template().getParameters()) {
+            JsonNode value = values != null ? values.get(parameter) : null;
+            if (value == null || value.isNull()) {
+                errors.add("Missing template parameter: " + parameter);
+            } else if (value.isContainerNode() ? value.toString().contains("${") : value.asText().contains("${")) {
+                errors.add("Template parameter must not contain a placeholder: " + parameter);
+            } else if (template.urlParameters().contains(parameter) && containsUrlDelimiter(text(values, parameter))) {
+                errors.add("Template parameter used in a URL must not contain any of " + URL_DELIMITERS + ": " + parameter);
+            }
+        }
+        if (values != null) {
+            values.fieldNames().forEachRemaining(field -> {
+                if (!template.template().getParameters().contains(field)) {
+                    errors.add("Unknown template parameter: " + field);
+                }
+            });
+        }
+        return errors;
+    }
+
+    /**
+     * Binds parameter values to a template, producing a composite request ready to be
+     * executed without further validation.
+     *
+     * @param name       the template name; must be registered
+     * @param parameters parameter values that passed {@link #validateParameters}
+     * @return the bound composite request, carrying its execution plan
+     */
+    public CompositeRequest bind(String name, @Nullable JsonNode parameters) {
+        CompiledTemplate template = current().get(name);
+        if (template == null) {
+            throw new IllegalArgumentException("Unknown composite template: " + name);
+        }
+
+        List<SubRequestDto> subRequests = new ArrayList<>(template.subRequests().size());
+        for (SubRequestDto compiled : template.subRequests()) {
+            SubRequestDto bound = SubRequestDto.builder()
+                    .referenceId(compiled.getReferenceId())
+                    .method(compiled.getMethod())
+                    .url(substitute(compiled.getUrl(), parameter -> text(parameters, parameter)))
+                    .headers(bindHeaders(compiled.getHeaders(), parameters))
+                    .body(compiled.getBody() != null ? bindBody(compiled.getBody().deepCopy(), parameters) : null)
+                    .build();
+            bound.setEndpointInfo(compiled.getEndpointInfo());
+            subRequests.add(bound);
+        }
+
+        return CompositeRequest.builder()
+                .subRequests(subRequests)
+                .executionMode(template.template().getExecutionMode())
+                .executionPlan(template.plan().bind(subRequests))
+                .build();
+    }
+
+    private Map<String, CompiledTemplate> current() {
+        Map<String, CompiledTemplate> current = templates;
+        if (current == null) {
+            compile();
+            current = templates;
+        }
+        return current;
+    }
+
+    private CompiledTemplate compile(CompositeTemplate template) {
+        List<String> errors = new ArrayList<>();
+        for (SubRequestDto subRequest : template.getSubRequests()) {
+            for (String parameter : parametersOf(subRequest)) {
+                if (!template.getParameters().contains(parameter)) {
+                    errors.add("[" + subRequest.getReferenceId() + "] Undeclared template parameter: " + parameter);
+                }
+            }
+        }
+
+        // Validate a copy whose URL parameters are sample segments, so that the URLs parse
+        // and match like the bound ones will; endpoint matches are copied back
+        List<SubRequestDto> samples = template.getSubRequests().stream()
+                .map(subRequest -> SubRequestDto.builder()
+                        .referenceId(subRequest.getReferenceId())
+                        .method(subRequest.getMethod())
+                        .url(substitute(subRequest.getUrl(), parameter -> SAMPLE_SEGMENT))
+                        .headers(subRequest.getHeaders())
+                        .body(subRequest.getBody())
+                        .build())
+                .toList();
+        CompositeRequest sample = CompositeRequest.builder()
+                .subRequests(samples)
+                .executionMode(template.getExecutionMode())
+                .build();
+        errors.addAll(validator.validateRequest(sample));
+
+        if (!errors.isEmpty()) {
+            throw new IllegalStateException("Invalid composite template '" + template.getName() + "': " + errors);
+        }
+
+        List<SubRequestDto> subRequests = new ArrayList<>(samples.size());
+        for (int i = 0; i < samples.size(); i++) {
+            SubRequestDto subRequest = template.getSubRequests().get(i);
+            SubRequestDto compiled = SubRequestDto.builder()
+                    .referenceId(subRequest.getReferenceId())
+                    .method(subRequest.getMethod())
+                    .url(subRequest.getUrl())
+                    .headers(Map.copyOf(subRequest.getHeaders()))
+                    .body(subRequest.getBody())
+                    .build();
+            compiled.setEndpointInfo(samples.get(i).getEndpointInfo());
+            subRequests.add(compiled);
+        }
+        Set<String> urlParameters = new HashSet<>();
+        subRequests.forEach(subRequest -> collectParameters(subRequest.getUrl(), urlParameters));
+        return new CompiledTemplate(template, List.copyOf(subRequests), Set.copyOf(urlParameters),
+                sample.resolveExecutionPlan());
+    }
+
+    private CompositeTemplate fromProperties(String name, CompositeProperties.Template template) {
+        CompositeTemplate.CompositeTemplateBuilder builder = CompositeTemplate.builder()
+                .name(name)
+                .parameters(template.getParameters())
+                .executionMode(template.getExecutionMode());
+        for (CompositeProperties.TemplateSubRequest subRequest : template.getSubRequests()) {
+            JsonNode body;
+            try {
+                body = subRequest.getBody() != null ? objectMapper.readTree(subRequest.getBody()) : null;
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Invalid body of sub-request '" + subRequest.getReferenceId() +
+                        "' in composite template '" + name + "'", e);
+            }
+            builder.subRequest(SubRequestDto.builder()
+                    .referenceId(subRequest.getReferenceId())
+                    .method(subRequest.getMethod())
+                    .url(subRequest.getUrl())
+                    .headers(subRequest.getHeaders() != null ? subRequest.getHeaders() : new HashMap<>())
+                    .body(body)
+                    .build());
+        }
+        return builder.build();
+    }
+
+    private static Set<String> parametersOf(SubRequestDto subRequest) {
+        Set<String> parameters = new HashSet<>();
+        collectParameters(subRequest.getUrl(), parameters);
+        subRequest.getHeaders().values().forEach(value -> collectParameters(value, parameters));
+        Deque<JsonNode> nodes = new ArrayDeque<>();
+        if (subRequest.getBody() != null) {
+            nodes.push(subRequest.getBody());
+        }
+        while (!nodes.isEmpty()) {
+            JsonNode node = nodes.pop();
+            if (node.isTextual()) {
+                collectParameters(node.asText(), parameters);
+            } else {
+                node.elements().forEachRemaining(nodes::push);
+            }
+        }
+        return parameters;
+    }
+
+    private static void collectParameters(@Nullable String text, Set<String> parameters) {
+        if (text == null) {
+            return;
+        }
+        Matcher matcher = TEMPLATE_PARAMETER_PATTERN.matcher(text);
+        while (matcher.find()) {
+            parameters.add(matcher.group(1));
+        }
+    }
+
+    private static boolean containsUrlDelimiter(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (URL_DELIMITERS.indexOf(value.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String substitute(String text, Function<String, String> values) {
+        if (text.indexOf("{{") < 0) {
+            return text;
+        }
+        Matcher matcher = TEMPLATE_PARAMETER_PATTERN.matcher(text);
+        StringBuilder result = new StringBuilder(text.length() + 16);
+        while (matcher.find()) {
+            matcher.appendReplacement(result, Matcher.quoteReplacement(values.apply(matcher.group(1))));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+
+    private static String text(@Nullable JsonNode parameters, String parameter) {
+        JsonNode value = parameters != null ? parameters.get(parameter) : null;
+        if (value == null) {
+            return "";
+        }
+        return value.isValueNode() ? value.asText() : value.toString();
+    }
+
+    private static Map<String, String> bindHeaders(Map<String, String> headers, @Nullable JsonNode parameters) {
+        Map<String, String> bound = new HashMap<>(headers.size() * 2);
+        headers.forEach((header, value) -> bound.put(header, substitute(value, parameter -> text(parameters, parameter))));
+        return bound;
+    }
+
+    /**
+     * Substitutes parameters in the string values of a copied body; a string consisting of a
+     * single placeholder is replaced by the parameter's JSON value.
+     */
+    private static JsonNode bindBody(JsonNode body, @Nullable JsonNode parameters) {
+        if (body.isTextual()) {
+            return bindValue(body, parameters);
+        }
+        Deque<JsonNode> containers = new ArrayDeque<>();
+        containers.push(body);
+        while (!containers.isEmpty()) {
+            JsonNode container = containers.pop();
+            if (container instanceof ObjectNode object) {
+                Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    if (field.getValue().isTextual()) {
+                        field.setValue(bindValue(field.getValue(), parameters));
+                    } else if (field.getValue().isContainerNode()) {
+                        containers.push(field.getValue());
+                    }
+                }
+            } else if (container instanceof ArrayNode array) {
+                for (int i = 0; i < array.size(); i++) {
+                    if (array.get(i).isTextual()) {
+                        array.set(i, bindValue(array.get(i), parameters));
+                    } else if (array.get(i).isContainerNode()) {
+                        containers.push(array.get(i));
+                    }
+                }
+            }
+        }
+        return body;
+    }
+
+    private static JsonNode bindValue(JsonNode value, @Nullable JsonNode parameters) {
+        String text = value.asText();
+        if (text.indexOf("{{") < 0) {
+            return value;
+        }
+        Matcher matcher = TEMPLATE_PARAMETER_PATTERN.matcher(text);
+        if (matcher.matches() && parameters != null && parameters.get(matcher.group(1)) != null) {
+            return parameters.get(matcher.group(1)).deepCopy();
+        }
+        return parameters != null
+                ? TextNode.valueOf(substitute(text, parameter -> text(parameters, parameter)))
+                : value;
+    }
+
+    /**
+     * A validated template: its sub-requests carry their endpoint matches, and its plan is
+     * bound to the sub-requests of every execution. {@code urlParameters} are the parameters
+     * used in URLs.
+     */
+    private record CompiledTemplate(CompositeTemplate template, List<SubRequestDto> subRequests,
+                                    Set<String> urlParameters, ExecutionPlan plan) {
+    }
+}
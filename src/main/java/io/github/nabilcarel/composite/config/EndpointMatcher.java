@@ -0,0 +1,367 @@
+package io.github.nabilcarel.composite.config;
+
+import io.github.nabilcarel.composite.config.EndpointRegistry.EndpointInfo;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.Nullable;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * Precompiled matcher that maps a request path to the {@link EndpointInfo} of the registered
+ * endpoint it targets.
+ *
+ * <p>Patterns are compiled, per HTTP method, into a trie of path segments. A literal segment
+ * becomes a child found by binary search over the sorted literals of its parent, and a
+ * {@code {variable}} segment becomes the single wildcard child of its parent. Matching
+ * walks the path in place, one segment at a time, trying the literal child before the
+ * wildcard child so that {@code /users/me} takes precedence over {@code /users/{id}}. A
+ * lookup is O(segments × log(siblings)) and allocates nothing.
+ *
+ * <p>Patterns with segments the trie cannot represent, such as regular-expression variables
+ * ({@code {id:\d+}}), partial-segment variables ({@code file-{name}.txt}) or wildcards
+ * ({@code *}, {@code **}, {@code {*path}}), are matched with {@link PathPattern#matches}
+ * when the trie finds no match.
+ *
+ * <p>The query string and fragment are ignored, as are empty segments. Only paths match:
+ * an absolute or protocol-relative URL never does, and neither does a path containing a
+ * {@code .} or {@code ..} segment, plain or percent-encoded, so a path cannot traverse out
+ * of a registered pattern.
+ *
+ * <p>Instances are built single-threaded during endpoint discovery and are safe for
+ * concurrent lookups once published.
+ *
+ * @see EndpointRegistry
+ * @since 0.0.1
+ */
+public class EndpointMatcher {
+
+    private final Map<String, Node> roots = new HashMap<>();
+    private final Map<String, List<Fallback>> fallbacks = new HashMap<>();
+
+    /**
+     * Adds a registered endpoint.
+     *
+     * @param method  the HTTP method of the endpoint
+     * @param pattern the parsed path pattern of the endpoint
+     * @param info    the endpoint metadata returned on a match
+     */
+    public void add(String method, PathPattern pattern, EndpointInfo info) {
+        String key = method.toUpperCase();
+        String[] segments = splitPattern(pattern.getPatternString());
+        if (segments == null) {
+            fallbacks.computeIfAbsent(key, k -> new ArrayList<>()).add(new Fallback(pattern, info));
+            return;
+        }
+        Node node = roots.computeIfAbsent(key, k -> new Node());
+        for (String segment : segments) {
+            node = isVariable(segment) ? node.variableChild() : node.literalChild(segment);
+        }
+        if (node.endpoint == null) {
+            node.endpoint = info;
+        }
+    }
+
+    /**
+     * Finds the endpoint targeted by a request.
+     *
+     * @param method the HTTP method of the request, in any case
+     * @param url    the request path, optionally followed by a query string
+     * @return the matching endpoint, or {@code null} if there is none
+     */
+    @Nullable
+    public EndpointInfo match(String method, String url) {
+        if (!isPath(url)) {
+            return null;
+        }
+        String key = method.toUpperCase();
+        int end = pathEnd(url);
+        Node root = roots.get(key);
+        if (root != null) {
+            EndpointInfo info = match(root, url, 0, end);
+            if (info != null) {
+                return info;
+            }
+        }
+        List<Fallback> candidates = fallbacks.get(key);
+        if (candidates == null || hasDotSegment(url, end)) {
+            return null;
+        }
+        PathContainer path = PathContainer.parsePath(url.substring(0, end));
+        for (Fallback candidate : candidates) {
+            if (candidate.pattern.matches(path)) {
+                return candidate.info;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks a URL against a single registered endpoint, without consulting the other
+     * registered endpoints.
+     *
+     * <p>Used once a sub-request's URL template has been matched to {@code endpoint}, to
+     * check the URL obtained by substituting its placeholders: every literal segment must be
+     * unchanged and every {@code {variable}} segment must hold exactly one segment that is
+     * neither {@code .} nor {@code ..}. Substituted values therefore cannot add segments,
+     * traverse to another path, or turn the URL into an absolute or protocol-relative one.
+     * For simple patterns the check walks both strings in place and allocates nothing.
+     *
+     * @param endpoint the endpoint the URL template matched
+     * @param url      the resolved URL, optionally followed by a query string
+     * @return {@code true} if {@code url} targets {@code endpoint}
+     */
+    public static boolean matches(EndpointInfo endpoint, String url) {
+        if (!isPath(url)) {
+            return false;
+        }
+        String pattern = endpoint.getPattern();
+        int end = pathEnd(url);
+        int patternStart = 0;
+        int urlStart = 0;
+        while (true) {
+            patternStart = skipSlashes(pattern, patternStart, pattern.length());
+            urlStart = skipSlashes(url, urlStart, end);
+            if (patternStart >= pattern.length() || urlStart >= end) {
+                return patternStart >= pattern.length() && urlStart >= end;
+            }
+            int patternEnd = segmentEnd(pattern, patternStart, pattern.length());
+            int urlEnd = segmentEnd(url, urlStart, end);
+            if (isVariable(pattern, patternStart, patternEnd)) {
+                if (isDotSegment(url, urlStart, urlEnd)) {
+                    return false;
+                }
+            } else if (isLiteral(pattern, patternStart, patternEnd)) {
+                if (urlEnd - urlStart != patternEnd - patternStart
+                        || !url.regionMatches(urlStart, pattern, patternStart, patternEnd - patternStart)) {
+                    return false;
+                }
+            } else {
+                return matchesPathPattern(endpoint, url, end);
+            }
+            patternStart = patternEnd;
+            urlStart = urlEnd;
+        }
+    }
+
+    private static boolean matchesPathPattern(EndpointInfo endpoint, String url, int end) {
+        if (hasDotSegment(url, end)) {
+            return false;
+        }
+        PathPattern pattern = endpoint.getPathPattern() != null
+                ? endpoint.getPathPattern()
+                : PathPatternParser.defaultInstance.parse(endpoint.getPattern());
+        return pattern.matches(PathContainer.parsePath(url.substring(0, end)));
+    }
+
+    @Nullable
+    private static EndpointInfo match(Node node, String url, int from, int end) {
+        int start = from;
+        while (start < end && url.charAt(start) == '/') {
+            start++;
+        }
+        if (start >= end) {
+            return node.endpoint;
+        }
+        int segmentEnd = url.indexOf('/', start);
+        if (segmentEnd < 0 || segmentEnd > end) {
+            segmentEnd = end;
+        }
+        if (isDotSegment(url, start, segmentEnd)) {
+            return null;
+        }
+        Node literal = node.findLiteral(url, start, segmentEnd);
+        if (literal != null) {
+            EndpointInfo info = match(literal, url, segmentEnd, end);
+            if (info != null) {
+                return info;
+            }
+        }
+        return node.variable != null ? match(node.variable, url, segmentEnd, end) : null;
+    }
+
+    /** Returns whether the URL is a path: a single leading {@code /}, no scheme or authority. */
+    private static boolean isPath(String url) {
+        return !url.isEmpty() && url.charAt(0) == '/' && (url.length() == 1 || url.charAt(1) != '/');
+    }
+
+    private static int skipSlashes(String s, int from, int end) {
+        int i = from;
+        while (i < end && s.charAt(i) == '/') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int segmentEnd(String s, int start, int end) {
+        int slash = s.indexOf('/', start);
+        return slash < 0 || slash > end ? end : slash;
+    }
+
+    private static int pathEnd(String url) {
+        for (int i = 0; i < url.length(); i++) {
+            char c = url.charAt(i);
+            if (c == '?' || c == '#') {
+                return i;
+            }
+        }
+        return url.length();
+    }
+
+    private static boolean hasDotSegment(String url, int end) {
+        int start = 0;
+        while (start < end) {
+            int segmentEnd = url.indexOf('/', start);
+            if (segmentEnd < 0 || segmentEnd > end) {
+                segmentEnd = end;
+            }
+            if (segmentEnd > start && isDotSegment(url, start, segmentEnd)) {
+                return true;
+            }
+            start = segmentEnd + 1;
+        }
+        return false;
+    }
+
+    /** Returns whether the segment consists of one or two dots, plain or as {@code %2e}. */
+    private static boolean isDotSegment(String url, int start, int end) {
+        int dots = 0;
+        int i = start;
+        while (i < end) {
+            if (url.charAt(i) == '.') {
+                i++;
+            } else if (i + 2 < end && url.charAt(i) == '%' && url.charAt(i + 1) == '2'
+                    && (url.charAt(i + 2) == 'e' || url.charAt(i + 2) == 'E')) {
+                i += 3;
+            } else {
+                return false;
+            }
+            dots++;
+        }
+        return dots == 1 || dots == 2;
+    }
+
+    /** Splits a pattern into trie segments, or returns {@code null} if it needs a fallback. */
+    @Nullable
+    private static String[] splitPattern(String pattern) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : pattern.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (!isVariable(segment) && !isLiteral(segment)) {
+                return null;
+            }
+            segments.add(segment);
+        }
+        return segments.toArray(new String[0]);
+    }
+
+    private static boolean isVariable(String segment) {
+        return isVariable(segment, 0, segment.length());
+    }
+
+    private static boolean isVariable(String s, int start, int end) {
+        if (end - start <= 2 || s.charAt(start) != '{' || s.charAt(end - 1) != '}' || s.charAt(start + 1) == '*') {
+            return false;
+        }
+        for (int i = start + 1; i < end - 1; i++) {
+            char c = s.charAt(i);
+            if (c == '{' || c == '}' || c == ':') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isLiteral(String segment) {
+        return isLiteral(segment, 0, segment.length());
+    }
+
+    private static boolean isLiteral(String s, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c == '{' || c == '*' || c == '?') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Node {
+
+        private static final String[] NO_KEYS = new String[0];
+        private static final Node[] NO_NODES = new Node[0];
+
+        private String[] literalKeys = NO_KEYS;
+        private Node[] literalNodes = NO_NODES;
+        @Nullable
+        private Node variable;
+        @Nullable
+        private EndpointInfo endpoint;
+
+        Node variableChild() {
+            if (variable == null) {
+                variable = new Node();
+            }
+            return variable;
+        }
+
+        Node literalChild(String segment) {
+            int index = Arrays.binarySearch(literalKeys, segment);
+            if (index >= 0) {
+                return literalNodes[index];
+            }
+            int insertion = -index - 1;
+            Node child = new Node();
+            literalKeys = insert(literalKeys, insertion, segment, new String[literalKeys.length + 1]);
+            literalNodes = insert(literalNodes, insertion, child, new Node[literalNodes.length + 1]);
+            return child;
+        }
+
+        @Nullable
+        Node findLiteral(String url, int start, int end) {
+            int low = 0;
+            int high = literalKeys.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = compare(literalKeys[mid], url, start, end);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return literalNodes[mid];
+                }
+            }
+            return null;
+        }
+
+        /** Compares {@code key} with {@code url[start, end)} in {@link String#compareTo} order. */
+        private static int compare(String key, String url, int start, int end) {
+            int length = end - start;
+            int common = Math.min(key.length(), length);
+            for (int i = 0; i < common; i++) {
+                int diff = key.charAt(i) - url.charAt(start + i);
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            return key.length() - length;
+        }
+
+        private static <T> T[] insert(T[] array, int index, T value, T[] target) {
+            System.arraycopy(array, 0, target, 0, index);
+            target[index] = value;
+            System.arraycopy(array, index, target, index + 1, array.length - index);
+            return target;
+        }
+    }
+
+    private record Fallback(PathPattern pattern, EndpointInfo info) {
+    }
+}
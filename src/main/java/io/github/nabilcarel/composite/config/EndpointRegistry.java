@@ -1,8 +1,10 @@
 package io.github.nabilcarel.composite.config;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.github.nabilcarel.composite.annotation.CompositeEndpoint;
-import java.net.URI;
-import java.net.URISyntaxException;
+import io.github.nabilcarel.composite.metrics.CompositeMetrics;
+import io.github.nabilcarel.composite.util.StripedLruCache;
+import java.time.Instant;
 import java.util.*;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
@@ -11,31 +13,45 @@ import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationListener;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
-import org.springframework.util.AntPathMatcher;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.pattern.PathPattern;
 
 /**
  * Discovers and maintains an allowlist of Spring MVC endpoints that are eligible for
  * composite execution.
  *
- * <p>At application startup (on {@link org.springframework.boot.context.event.ApplicationReadyEvent
- * ApplicationReadyEvent}), the registry scans all handler methods registered in the
+ * <p>The registry scans all handler methods registered in the
  * {@link RequestMappingHandlerMapping} and retains only those annotated with
  * {@link io.github.nabilcarel.composite.annotation.CompositeEndpoint &#64;CompositeEndpoint}.
+ * In a reactive application, where no Spring MVC handler mapping exists, the WebFlux
+ * {@link org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping
+ * RequestMappingHandlerMapping} is scanned instead. The scan runs on
+ * {@link org.springframework.boot.context.event.ApplicationReadyEvent ApplicationReadyEvent},
+ * on the first lookup if a composite arrives before that event, and on every
+ * {@link #refresh()}.
  *
  * <p>During request validation and execution, every sub-request URL is matched against the
- * registered patterns using Spring's {@link AntPathMatcher}. A sub-request that targets an
- * unregistered URL is rejected immediately, preventing Server-Side Request Forgery (SSRF)
- * attacks. The {@link EndpointInfo} stored for each registered endpoint carries the
+ * registered patterns. A sub-request that targets an unregistered URL is rejected
+ * immediately, preventing Server-Side Request Forgery (SSRF) attacks. The
+ * {@link EndpointInfo} stored for each registered endpoint carries the
  * {@link io.github.nabilcarel.composite.annotation.CompositeEndpoint#value() response class}
  * needed to deserialize the loopback response.
  *
- * <p>For efficiency, patterns are indexed by their first path segment so that the matching
- * loop only compares candidates with a matching prefix.
+ * <p>For efficiency, patterns are compiled at discovery into an {@link EndpointMatcher}, a
+ * segment trie per HTTP method, so that a lookup costs roughly one step per path segment
+ * however many endpoints are registered. Match results are also kept in a bounded LRU
+ * cache (see {@link CompositeProperties.EndpointCache}), since composites tend to target
+ * the same URLs repeatedly.
+ *
+ * <p>Each scan builds an immutable snapshot of the endpoints, their matcher and an empty
+ * match cache, and publishes it with a single volatile write. Lookups read the current
+ * snapshot without locking, so they never wait for a scan and never see a partially built
+ * one.
  *
  * @see io.github.nabilcarel.composite.annotation.CompositeEndpoint
  * @see io.github.nabilcarel.composite.service.CompositeRequestValidator
@@ -43,103 +59,205 @@ import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandl
  */
 @Component
 @Slf4j
-@RequiredArgsConstructor
 public class EndpointRegistry implements ApplicationListener<ApplicationReadyEvent> {
     private final ApplicationContext applicationContext;
-    @Qualifier("requestMappingHandlerMapping")
+    @Nullable
     private final RequestMappingHandlerMapping handlerMapping;
+    private final CompositeProperties.EndpointCache cacheProperties;
+    private final CompositeMetrics metrics;
 
-    private final AntPathMatcher pathMatcher = new AntPathMatcher();
-    private final Map<EndpointPattern, EndpointInfo> availableEndpoints = new HashMap<>();
-    private final Map<String, Set<EndpointPattern>> patternsByFirstSegment = new HashMap<>();
+    /** The endpoints found by the latest scan; {@code null} until the first scan. */
+    @Nullable
+    private volatile Snapshot snapshot;
+
+    /**
+     * Creates a registry backed by the given Spring MVC handler mapping.
+     *
+     * @param applicationContext the application context, used to look up the WebFlux
+     *                           handler mapping when no Spring MVC mapping is available
+     * @param handlerMapping     the Spring MVC handler mapping, or {@code null} in a reactive
+     *                           application
+     * @param properties         the composite configuration, for the match cache settings
+     * @param metrics            receives match cache hits and misses
+     */
+    public EndpointRegistry(ApplicationContext applicationContext,
+                            @Nullable @Qualifier("requestMappingHandlerMapping")
+                            RequestMappingHandlerMapping handlerMapping,
+                            CompositeProperties properties,
+                            CompositeMetrics metrics) {
+        this.applicationContext = applicationContext;
+        this.handlerMapping = handlerMapping;
+        this.cacheProperties = properties.getEndpointCache();
+        this.metrics = metrics;
+    }
 
     @Override
     public void onApplicationEvent(@NonNull ApplicationReadyEvent event) {
-        discoverEndpoints();
+        refresh();
+    }
+
+    /**
+     * Rescans the handler mappings and atomically replaces the registered endpoints.
+     *
+     * <p>Spring publishes no event when a handler method is registered programmatically, for
+     * example with {@link RequestMappingHandlerMapping#registerMapping}; call this method
+     * afterwards to make it available to composites. It is also exposed as the write
+     * operation of the {@code composite} actuator endpoint. Concurrent lookups keep using
+     * the previous endpoints until the new ones are published.
+     *
+     * @return the number of endpoints registered after the refresh
+     */
+    public synchronized int refresh() {
+        Map<EndpointPattern, EndpointInfo> endpoints = new LinkedHashMap<>();
+        EndpointMatcher matcher = new EndpointMatcher();
+
+        if (handlerMapping != null) {
+            discoverServletEndpoints(handlerMapping, endpoints, matcher);
+        } else {
+            applicationContext
+                    .getBeanProvider(org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping.class)
+                    .orderedStream()
+                    .forEach(mapping -> discoverReactiveEndpoints(mapping, endpoints, matcher));
+        }
+
+        StripedLruCache<String, Optional<EndpointInfo>> matchCache = cacheProperties.isEnabled()
+                ? new StripedLruCache<>(cacheProperties.getMaximumSize())
+                : null;
+        snapshot = new Snapshot(Collections.unmodifiableMap(endpoints), matcher, matchCache, Instant.now());
+        return endpoints.size();
+    }
+
+    /**
+     * Returns when the registered endpoints were last scanned.
+     *
+     * @return the time of the latest scan, or {@code null} if none has run yet
+     */
+    @Nullable
+    public Instant getLastRefresh() {
+        Snapshot current = snapshot;
+        return current != null ? current.refreshedAt() : null;
     }
 
-    private void discoverEndpoints() {
-        Map<RequestMappingInfo, HandlerMethod> handlerMethods = handlerMapping.getHandlerMethods();
-
-        for (Map.Entry<RequestMappingInfo, HandlerMethod> entry : handlerMethods.entrySet()) {
-            HandlerMethod handlerMethod = entry.getValue();
-            CompositeEndpoint annotation = handlerMethod.getMethodAnnotation(CompositeEndpoint.class);
-
-            if (annotation != null) {
-                RequestMappingInfo mapping = entry.getKey();
-                if (mapping.getPathPatternsCondition() != null) {
-                    String pattern = mapping.getPathPatternsCondition().getPatterns().iterator().next()
-                            .getPatternString();
-                    Set<RequestMethod> methods = mapping.getMethodsCondition().getMethods();
-
-                    for (RequestMethod method : methods) {
-                        EndpointPattern endpointPattern = new EndpointPattern(method.name(), pattern);
-                        EndpointInfo info = EndpointInfo.builder()
-                                .pattern(pattern)
-                                .method(method.name())
-                                .returnClass(annotation.value())
-                                .build();
-
-                        availableEndpoints.put(endpointPattern, info);
-                        String firstSegment = getFirstSegment(pattern);
-                        patternsByFirstSegment.computeIfAbsent(firstSegment, k -> new HashSet<>())
-                                .add(endpointPattern);
-
-                        log.info("Registered composite endpoint: {}", endpointPattern);
-                    }
-                }
+    private void discoverServletEndpoints(RequestMappingHandlerMapping mapping,
+                                          Map<EndpointPattern, EndpointInfo> endpoints, EndpointMatcher matcher) {
+        for (Map.Entry<RequestMappingInfo, HandlerMethod> entry : mapping.getHandlerMethods().entrySet()) {
+            RequestMappingInfo info = entry.getKey();
+            if (info.getPathPatternsCondition() != null) {
+                registerHandlerMethod(info.getPathPatternsCondition().getPatterns(),
+                        info.getMethodsCondition().getMethods(), entry.getValue(), endpoints, matcher);
             }
         }
     }
 
-    public Optional<EndpointInfo> getEndpointInformations(String method, String url) {
-        String normalizedUrl = normalizePath(url);
-        String firstSegment = getFirstSegment(normalizedUrl);
-        if (!patternsByFirstSegment.containsKey(firstSegment)) {
-            return Optional.empty();
+    private void discoverReactiveEndpoints(
+            org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping mapping,
+            Map<EndpointPattern, EndpointInfo> endpoints, EndpointMatcher matcher) {
+        for (Map.Entry<org.springframework.web.reactive.result.method.RequestMappingInfo, HandlerMethod> entry
+                : mapping.getHandlerMethods().entrySet()) {
+            org.springframework.web.reactive.result.method.RequestMappingInfo info = entry.getKey();
+            registerHandlerMethod(info.getPatternsCondition().getPatterns(),
+                    info.getMethodsCondition().getMethods(), entry.getValue(), endpoints, matcher);
+        }
+    }
+
+    private void registerHandlerMethod(Set<PathPattern> patterns, Set<RequestMethod> methods,
+                                       HandlerMethod handlerMethod,
+                                       Map<EndpointPattern, EndpointInfo> endpoints, EndpointMatcher matcher) {
+        CompositeEndpoint annotation = handlerMethod.getMethodAnnotation(CompositeEndpoint.class);
+
+        if (annotation == null || patterns.isEmpty()) {
+            return;
         }
 
-        return findMatchingEndpoint(method, normalizedUrl);
+        PathPattern pathPattern = patterns.iterator().next();
+        String pattern = pathPattern.getPatternString();
+
+        for (RequestMethod method : methods) {
+            EndpointPattern endpointPattern = new EndpointPattern(method.name(), pattern);
+            EndpointInfo info = EndpointInfo.builder()
+                    .pattern(pattern)
+                    .method(method.name())
+                    .returnClass(annotation.value())
+                    .idempotent(annotation.idempotent())
+                    .pathPattern(pathPattern)
+                    .build();
+
+            endpoints.put(endpointPattern, info);
+            matcher.add(method.name(), pathPattern, info);
+
+            log.info("Registered composite endpoint: {}", endpointPattern);
+        }
     }
 
-    private String normalizePath(String url) {
-        try {
-            URI uri = new URI(url).normalize();
-            String path = uri.getPath();
-            String query = uri.getRawQuery();
-            return query != null ? path + "?" + query : path;
-        } catch (URISyntaxException e) {
-            return url;
+    /**
+     * Finds the registered endpoint targeted by a request.
+     *
+     * <p>Results, including the absence of a match, are cached per method and path (the URL
+     * without its query string or fragment) unless
+     * {@link CompositeProperties.EndpointCache#isEnabled() disabled}.
+     *
+     * @param method the HTTP method, in any case
+     * @param url    the request path, optionally followed by a query string
+     * @return the matching endpoint, or empty if the request targets no registered endpoint
+     */
+    public Optional<EndpointInfo> getEndpointInformations(String method, String url) {
+        Snapshot current = current();
+        StripedLruCache<String, Optional<EndpointInfo>> matchCache = current.matchCache();
+        if (matchCache == null) {
+            return Optional.ofNullable(current.matcher().match(method, url));
+        }
+        String key = cacheKey(method, url);
+        Optional<EndpointInfo> cached = matchCache.get(key);
+        metrics.recordEndpointCache(cached != null);
+        if (cached != null) {
+            return cached;
         }
+        Optional<EndpointInfo> result = Optional.ofNullable(current.matcher().match(method, url));
+        matchCache.put(key, result);
+        return result;
     }
 
-    private Optional<EndpointInfo> findMatchingEndpoint(String method, String path) {
-        String firstSegment = getFirstSegment(path);
-        Set<EndpointPattern> potentialPatterns =
-                patternsByFirstSegment.getOrDefault(firstSegment, Set.of());
+    /** Keys a lookup by upper-cased method and path, since the query never affects a match. */
+    private static String cacheKey(String method, String url) {
+        int end = url.length();
+        for (int i = 0; i < url.length(); i++) {
+            char c = url.charAt(i);
+            if (c == '?' || c == '#') {
+                end = i;
+                break;
+            }
+        }
+        return method.toUpperCase() + ' ' + url.substring(0, end);
+    }
 
-        return potentialPatterns.stream()
-                .filter(p -> p.getMethod().equalsIgnoreCase(method))
-                .filter(p -> pathMatcher.match(p.getPattern(), path))
-                .map(availableEndpoints::get)
-                .findFirst();
+    public Set<EndpointInfo> getAvailableEndpoints() {
+        return new HashSet<>(current().endpoints().values());
     }
 
-    private String getFirstSegment(String path) {
-        String normalizedPath = path.startsWith("/") ? path.substring(1) : path;
-        int nextSlash = normalizedPath.indexOf('/');
-        return nextSlash > 0 ?
-                normalizedPath.substring(0, nextSlash) :
-                normalizedPath;
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        return current != null ? current : initialize();
     }
 
-    public Set<EndpointInfo> getAvailableEndpoints() {
-        return new HashSet<>(availableEndpoints.values());
+    /** Scans on first use when a composite arrives before {@code ApplicationReadyEvent}. */
+    private synchronized Snapshot initialize() {
+        if (snapshot == null) {
+            refresh();
+        }
+        return snapshot;
+    }
+
+    /**
+     * The endpoints found by one scan, with the matcher compiled from them and the cache of
+     * its match results. Never modified once published.
+     */
+    private record Snapshot(Map<EndpointPattern, EndpointInfo> endpoints, EndpointMatcher matcher,
+                            @Nullable StripedLruCache<String, Optional<EndpointInfo>> matchCache,
+                            Instant refreshedAt) {
     }
 
     /**
-     * Composite key used to index registered endpoints by HTTP method and Ant-style URL
-     * pattern.
+     * Composite key used to index registered endpoints by HTTP method and URL pattern.
      *
      * @since 0.0.1
      */
@@ -151,7 +269,7 @@ public class EndpointRegistry implements ApplicationListener<ApplicationReadyEve
         /** The HTTP method (e.g. {@code GET}, {@code POST}). */
         private String method;
 
-        /** The Ant-style URL pattern (e.g. {@code /api/users/{id}}). */
+        /** The URL pattern (e.g. {@code /api/users/{id}}). */
         private String pattern;
 
         @Override
@@ -170,7 +288,7 @@ public class EndpointRegistry implements ApplicationListener<ApplicationReadyEve
     @Builder
     public static class EndpointInfo {
 
-        /** The Ant-style URL pattern registered for this endpoint. */
+        /** The URL pattern registered for this endpoint. */
         private String pattern;
 
         /** The HTTP method of this endpoint (e.g. {@code GET}). */
@@ -184,5 +302,20 @@ public class EndpointRegistry implements ApplicationListener<ApplicationReadyEve
          * as declared by {@link io.github.nabilcarel.composite.annotation.CompositeEndpoint#value()}.
          */
         private Class<?> returnClass;
+
+        /**
+         * Whether the endpoint was declared
+         * {@link io.github.nabilcarel.composite.annotation.CompositeEndpoint#idempotent()
+         * idempotent}, making sub-requests to it eligible for retries.
+         */
+        private boolean idempotent;
+
+        /**
+         * The parsed pattern, used to check URLs against patterns the
+         * {@link EndpointMatcher} trie cannot represent; parsed from {@link #pattern} when
+         * {@code null}. Not exposed by the endpoint listing.
+         */
+        @JsonIgnore
+        private PathPattern pathPattern;
     }
 }
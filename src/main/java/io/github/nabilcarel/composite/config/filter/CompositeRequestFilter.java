@@ -1,33 +1,30 @@
 package io.github.nabilcarel.composite.config.filter;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.nabilcarel.composite.config.CompositeProperties;
+import io.github.nabilcarel.composite.config.CompositeTemplateRegistry;
+import io.github.nabilcarel.composite.metrics.CompositeMetrics;
+import io.github.nabilcarel.composite.metrics.CompositeObservations;
 import io.github.nabilcarel.composite.model.ResponseTracker;
-import io.github.nabilcarel.composite.model.ResponseTrackerImpl;
-import io.github.nabilcarel.composite.model.SubRequestCoordinator;
-import io.github.nabilcarel.composite.model.SubRequestCoordinatorImpl;
+import io.github.nabilcarel.composite.model.request.CompositeRequest;
 import io.github.nabilcarel.composite.model.request.CompositeRequestWrapper;
-import io.github.nabilcarel.composite.model.request.SubRequest;
-import io.github.nabilcarel.composite.model.request.SubRequestDto;
 import io.github.nabilcarel.composite.model.response.CompositeDebugInfo;
-import io.github.nabilcarel.composite.service.CompositeBatchContext;
-import io.github.nabilcarel.composite.service.CompositeBatchContextImpl;
+import io.github.nabilcarel.composite.service.CompositeBatchLauncher;
 import io.github.nabilcarel.composite.service.CompositeRequestService;
 import io.github.nabilcarel.composite.service.CompositeRequestValidator;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import java.io.IOException;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
 
@@ -51,7 +48,10 @@ import org.springframework.stereotype.Component;
  *   <li>Validates the deserialized {@link io.github.nabilcarel.composite.model.request.CompositeRequest
  *       CompositeRequest} via the
  *       {@link io.github.nabilcarel.composite.service.CompositeRequestValidator validator};
- *       sets the {@code hasErrors} and {@code errors} request attributes accordingly.</li>
+ *       sets the {@code hasErrors} and {@code errors} request attributes accordingly.
+ *       For a template execution under {@code {basePath}/templates/} the body holds the
+ *       parameter values instead, which are checked and bound to the
+ *       {@link CompositeTemplateRegistry pre-validated template}.</li>
  *   <li>If validation passes:
  *     <ul>
  *       <li>Assigns a UUID {@code requestId} and registers a
@@ -69,10 +69,13 @@ import org.springframework.stereotype.Component;
  *     </ul>
  *   </li>
  *   <li>Passes the wrapped request down the filter chain to the controller.</li>
+ *   <li>Once the controller has started async processing, registers an
+ *       {@link jakarta.servlet.AsyncListener AsyncListener} that cancels the batch if the
+ *       client disconnects before the composite completes.</li>
  * </ol>
  *
  * <p>The {@link io.github.nabilcarel.composite.service.CompositeRequestService
- * CompositeRequestService} is resolved lazily from the
+ * CompositeRequestService} and the {@link CompositeTemplateRegistry} are resolved lazily from the
  * {@link org.springframework.context.ApplicationContext ApplicationContext} on first use to
  * avoid circular dependency issues during application startup.
  *
@@ -82,6 +85,7 @@ import org.springframework.stereotype.Component;
  */
 @RequiredArgsConstructor
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Slf4j
 public class CompositeRequestFilter implements Filter {
     private final ApplicationContext context;
@@ -90,6 +94,8 @@ public class CompositeRequestFilter implements Filter {
     private final ObjectMapper objectMapper;
     private final ConcurrentMap<String, ResponseTracker> responseStore;
     private final CompositeProperties properties;
+    private final CompositeMetrics metrics;
+    private final CompositeObservations observations;
     private final AtomicReference<CompositeRequestService> serviceRef = new AtomicReference<>();
 
     private CompositeRequestService compositeRequestService;
@@ -109,38 +115,32 @@ public class CompositeRequestFilter implements Filter {
 
         CompositeRequestWrapper request = new CompositeRequestWrapper((HttpServletRequest) servletRequest, objectMapper);
 
-        // Validate the request
-        List<String> errors = compositeRequestValidator.validateRequest(request.getBody());
+        // Validate the request, or bind the parameters of a template execution
+        long validationStart = System.nanoTime();
+        String templateName = templateName(request);
+        CompositeRequest body;
+        List<String> errors;
+        if (templateName != null) {
+            CompositeTemplateRegistry templateRegistry = context.getBean(CompositeTemplateRegistry.class);
+            JsonNode parameters = request.getBodyTree();
+            errors = templateRegistry.validateParameters(templateName, parameters);
+            body = errors.isEmpty() ? templateRegistry.bind(templateName, parameters) : null;
+        } else {
+            body = request.getBody();
+            errors = compositeRequestValidator.validateRequest(body);
+        }
+        metrics.recordValidation(errors.isEmpty(), System.nanoTime() - validationStart);
         servletRequest.setAttribute("hasErrors", !errors.isEmpty());
         String requestId = UUID.randomUUID().toString();
         servletRequest.setAttribute("requestId", requestId);
         servletRequest.setAttribute("composite", true);
 
+        ResponseTracker tracker = null;
         if (errors.isEmpty()) {
-            ResponseTracker tracker = new ResponseTrackerImpl(request.getBody().getSubRequests().size());
-            responseStore.put(requestId, tracker);
-            Map<String, SubRequest> requestMap = getRequestMap(request.getBody().getSubRequests());
-            Map<String, Set<String>> dependencyMap = getDependencyMap(requestMap);
-
-            if (properties.isDebugEnabled()) {
-                CompositeDebugInfo debugInfo = CompositeDebugInfo.builder()
-                        .dependencyGraph(dependencyMap)
-                        .resolvedRequests(new ConcurrentHashMap<>())
-                        .build();
-                servletRequest.setAttribute("compositeDebug", debugInfo);
-            }
-
-            SubRequestCoordinator requestCoordinator = new SubRequestCoordinatorImpl(dependencyMap);
-            CompositeBatchContext batchContext = new CompositeBatchContextImpl(
-                tracker,
-                requestCoordinator,
-                requestMap,
-                compositeRequestService,
-                requestId,
-                request
-            );
-
-            batchContext.startInitialRequests();
+            // Launched from the validated instance, which carries its plan; getBody() parses a fresh copy
+            tracker = new CompositeBatchLauncher(responseStore, properties, metrics, observations)
+                    .launch(requestId, body, request, compositeRequestService, observations.currentObservation())
+                    .tracker();
         }
         else {
             servletRequest.setAttribute("errors", errors);
@@ -148,21 +148,54 @@ public class CompositeRequestFilter implements Filter {
 
         // Continue the filter chain to the controller
         filterChain.doFilter(request, servletResponse);
+
+        // The controller has started async processing; abandon the batch if the client goes away
+        if (tracker != null && servletRequest.isAsyncStarted()) {
+            servletRequest.getAsyncContext().addListener(new CancellingAsyncListener(tracker));
+        }
     }
 
-    private Map<String, SubRequest> getRequestMap(List<SubRequestDto> requests) {
-        return requests.stream()
-                .collect(Collectors.toMap(
-                        SubRequestDto::getReferenceId,
-                        SubRequest::new
-                ));
+    /**
+     * Returns the name of the template executed by the request, or {@code null} if it is
+     * not a template execution.
+     */
+    private String templateName(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (path == null) {
+            return null;
+        }
+        String contextPath = request.getContextPath();
+        if (contextPath != null && path.startsWith(contextPath)) {
+            path = path.substring(contextPath.length());
+        }
+        String prefix = properties.getBasePath() + "/templates/";
+        return path.startsWith(prefix) && path.length() > prefix.length() ? path.substring(prefix.length()) : null;
     }
 
-    private Map<String, Set<String>> getDependencyMap(Map<String, SubRequest> requests) {
-        return requests.values().stream()
-                .collect(Collectors.toMap(
-                        SubRequest::getReferenceId,
-                        SubRequest::getDependencies
-                ));
+    /**
+     * Cancels the batch when the async request errors out (typically a client disconnect) or
+     * times out in the container before the composite completes.
+     */
+    @RequiredArgsConstructor
+    static class CancellingAsyncListener implements AsyncListener {
+        private final ResponseTracker tracker;
+
+        @Override
+        public void onError(AsyncEvent event) {
+            tracker.cancel(new CancellationException("Client disconnected"));
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            tracker.cancel(new CancellationException("Async request timed out"));
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
     }
 }
\ No newline at end of file
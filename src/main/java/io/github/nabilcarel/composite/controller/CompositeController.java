@@ -1,5 +1,6 @@
 package io.github.nabilcarel.composite.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import io.github.nabilcarel.composite.config.EndpointRegistry;
 import io.github.nabilcarel.composite.model.request.CompositeRequest;
 import io.github.nabilcarel.composite.model.response.CompositeResponse;
@@ -11,6 +12,7 @@ import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -37,6 +39,13 @@ import org.springframework.web.bind.annotation.*;
  *         CompositeResponse}.</td>
  *   </tr>
  *   <tr>
+ *     <td>{@code POST}</td>
+ *     <td>{@code {basePath}/templates/{name}}</td>
+ *     <td>Executes the registered
+ *         {@link io.github.nabilcarel.composite.model.request.CompositeTemplate
+ *         CompositeTemplate} {@code name} with the parameter values in the body.</td>
+ *   </tr>
+ *   <tr>
  *     <td>{@code GET}</td>
  *     <td>{@code {basePath}/endpoints}</td>
  *     <td>Returns the set of endpoints currently registered for composite execution.</td>
@@ -52,6 +61,7 @@ import org.springframework.web.bind.annotation.*;
  */
 @RestController
 @Lazy
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("${composite.base-path:/api/composite}")
 @ConditionalOnProperty(name = "composite.controller.enabled", havingValue = "true", matchIfMissing = true)
 @RequiredArgsConstructor
@@ -88,6 +98,29 @@ public class CompositeController {
        return requestService.execute(request, response);
     }
 
+    /**
+     * Executes a registered composite template.
+     *
+     * <p>As with {@link #execute}, the
+     * {@link io.github.nabilcarel.composite.config.filter.CompositeRequestFilter filter} has
+     * already bound the parameters and dispatched the sub-requests; the parameters are
+     * declared for API documentation only.
+     *
+     * @param request    the current servlet request carrying composite metadata as
+     *                   attributes set by the filter
+     * @param response   the current servlet response
+     * @param name       the template name
+     * @param parameters the template parameter values (used for API documentation only)
+     * @return a {@link CompletableFuture} resolving to the composite response
+     */
+    @PostMapping("/templates/{name}")
+    public CompletableFuture<ResponseEntity<CompositeResponse>> executeTemplate(HttpServletRequest request,
+                                                                                HttpServletResponse response,
+                                                                                @PathVariable("name") String name,
+                                                                                @RequestBody(required = false) JsonNode parameters /*for swagger*/) {
+        return requestService.execute(request, response);
+    }
+
     /**
      * Returns the set of endpoints currently registered for composite execution.
      *
@@ -0,0 +1,221 @@
+package io.github.nabilcarel.composite.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.nabilcarel.composite.config.CompositeProperties;
+import io.github.nabilcarel.composite.config.CompositeTemplateRegistry;
+import io.github.nabilcarel.composite.config.EndpointRegistry;
+import io.github.nabilcarel.composite.metrics.CompositeMetrics;
+import io.github.nabilcarel.composite.metrics.CompositeObservations;
+import io.github.nabilcarel.composite.metrics.CompositeTimings;
+import io.github.nabilcarel.composite.model.ResponseTracker;
+import io.github.nabilcarel.composite.model.request.CompositeRequest;
+import io.github.nabilcarel.composite.model.response.CompositeDebugInfo;
+import io.github.nabilcarel.composite.model.response.CompositeResponse;
+import io.github.nabilcarel.composite.model.response.CompositeTimingInfo;
+import io.github.nabilcarel.composite.service.CompositeBatchLauncher;
+import io.github.nabilcarel.composite.service.CompositeRequestService;
+import io.github.nabilcarel.composite.service.CompositeRequestValidator;
+import io.micrometer.observation.Observation;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeoutException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * WebFlux functional handler that exposes the composite execution and endpoint discovery
+ * endpoints in reactive applications.
+ *
+ * <p>In a servlet application the work is split between the
+ * {@link io.github.nabilcarel.composite.config.filter.CompositeRequestFilter filter}, which
+ * validates the request and dispatches the first wave of sub-requests, and the
+ * {@link CompositeController controller}, which waits for the aggregated result. Reactive
+ * applications have no servlet filter chain, so this handler performs both steps on the
+ * event loop without blocking:
+ * <ol>
+ *   <li>Decodes and validates the
+ *       {@link io.github.nabilcarel.composite.model.request.CompositeRequest
+ *       CompositeRequest}; validation errors are returned as {@code 400 Bad Request}.</li>
+ *   <li>Registers a {@link ResponseTracker} in the shared response store and creates a
+ *       {@link CompositeBatchContext} bound to the current {@link ServerWebExchange}.</li>
+ *   <li>Fires the initial wave of sub-requests and completes the response when the
+ *       tracker's future completes or its {@code composite.request-timeout} deadline
+ *       passes.</li>
+ * </ol>
+ *
+ * <p>{@link #executeTemplate Template executions} skip the first step: the parameter
+ * values are checked and bound to the
+ * {@link CompositeTemplateRegistry pre-validated template} instead.
+ *
+ * <p>A timeout or client disconnect cancels the subscription to the tracker's future,
+ * which cancels the future itself and with it every sub-request still pending or in
+ * flight.
+ *
+ * <p>The handler is routed by
+ * {@link io.github.nabilcarel.composite.autoconfigure.CompositeAutoConfiguration} under
+ * {@code composite.base-path} and is only registered when
+ * {@code composite.controller.enabled} is {@code true} (the default).
+ *
+ * @see CompositeController
+ * @see io.github.nabilcarel.composite.service.CompositeRequestService
+ * @since 0.0.1
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class CompositeReactiveHandler {
+    private final ObjectProvider<CompositeRequestService> requestService;
+    private final CompositeRequestValidator compositeRequestValidator;
+    @Qualifier("compositeObjectMapper")
+    private final ObjectMapper objectMapper;
+    private final ConcurrentMap<String, ResponseTracker> responseStore;
+    private final CompositeProperties properties;
+    private final CompositeMetrics metrics;
+    private final CompositeObservations observations;
+    private final CompositeTemplateRegistry templateRegistry;
+
+    /**
+     * Executes a composite request.
+     *
+     * @param request the incoming server request carrying a composite request body
+     * @return the aggregated {@link CompositeResponse}, or a {@code 400} response carrying
+     *         the validation errors
+     */
+    public Mono<ServerResponse> execute(ServerRequest request) {
+        return request.bodyToMono(byte[].class)
+                .map(bytes -> {
+                    try {
+                        return objectMapper.readValue(bytes, CompositeRequest.class);
+                    } catch (Exception e) {
+                        throw new IllegalArgumentException("Invalid composite request body: " + e.getMessage(), e);
+                    }
+                })
+                .flatMap(compositeRequest -> {
+                    long validationStart = System.nanoTime();
+                    List<String> errors = compositeRequestValidator.validateRequest(compositeRequest);
+                    metrics.recordValidation(errors.isEmpty(), System.nanoTime() - validationStart);
+                    if (!errors.isEmpty()) {
+                        return badRequest(errors);
+                    }
+                    return Mono.deferContextual(context -> execute(compositeRequest, request.exchange(),
+                            context.getOrDefault(CompositeObservations.OBSERVATION_CONTEXT_KEY, null)));
+                })
+                .onErrorResume(IllegalArgumentException.class, e -> badRequest(List.of(e.getMessage())));
+    }
+
+    /**
+     * Executes a registered composite template.
+     *
+     * @param request the incoming server request carrying the template parameters as a JSON
+     *                object, routed with a {@code name} path variable
+     * @return the aggregated {@link CompositeResponse}, or a {@code 400} response carrying
+     *         the parameter errors
+     */
+    public Mono<ServerResponse> executeTemplate(ServerRequest request) {
+        String name = request.pathVariable("name");
+        return request.bodyToMono(byte[].class)
+                .map(bytes -> {
+                    try {
+                        return objectMapper.readTree(bytes);
+                    } catch (Exception e) {
+                        throw new IllegalArgumentException("Invalid template parameters: " + e.getMessage(), e);
+                    }
+                })
+                .defaultIfEmpty(objectMapper.nullNode())
+                .flatMap(parameters -> {
+                    long validationStart = System.nanoTime();
+                    List<String> errors = templateRegistry.validateParameters(name, parameters);
+                    metrics.recordValidation(errors.isEmpty(), System.nanoTime() - validationStart);
+                    if (!errors.isEmpty()) {
+                        return badRequest(errors);
+                    }
+                    CompositeRequest compositeRequest = templateRegistry.bind(name, parameters);
+                    return Mono.deferContextual(context -> execute(compositeRequest, request.exchange(),
+                            context.getOrDefault(CompositeObservations.OBSERVATION_CONTEXT_KEY, null)));
+                })
+                .onErrorResume(IllegalArgumentException.class, e -> badRequest(List.of(e.getMessage())));
+    }
+
+    /**
+     * Returns the set of endpoints currently registered for composite execution.
+     *
+     * @param request the incoming server request
+     * @return a set of {@link EndpointRegistry.EndpointInfo} descriptors
+     */
+    public Mono<ServerResponse> getAvailableEndpoints(ServerRequest request) {
+        Set<EndpointRegistry.EndpointInfo> endpoints = requestService.getObject().getAvailableEndpoints();
+        return ServerResponse.ok().bodyValue(endpoints);
+    }
+
+    private Mono<ServerResponse> execute(CompositeRequest compositeRequest, ServerWebExchange exchange,
+                                         @Nullable Observation parentObservation) {
+        String requestId = UUID.randomUUID().toString();
+        exchange.getAttributes().put("requestId", requestId);
+        exchange.getAttributes().put("composite", true);
+
+        CompositeBatchLauncher.Batch batch = new CompositeBatchLauncher(responseStore, properties, metrics, observations)
+                .launch(requestId, compositeRequest, exchange, requestService.getObject(), parentObservation);
+        ResponseTracker tracker = batch.tracker();
+        CompositeTimings timings = batch.timings();
+        CompositeDebugInfo debug = batch.debugInfo();
+
+        return Mono.fromFuture(tracker.getFuture())
+                .timeout(tracker.getDeadline().remaining())
+                .flatMap(compositeResponse -> {
+                    metrics.recordFailedDependencies(CompositeMetrics.countFailedDependencies(compositeResponse));
+                    metrics.recordComposite("success", System.nanoTime() - tracker.getStartNanos());
+                    if (debug != null) {
+                        compositeResponse.setDebug(debug);
+                    }
+                    if (properties.getTiming().isEnabled()) {
+                        CompositeTimingInfo timingInfo = timings.summarize();
+                        if (properties.getTiming().isIncludeInBody()) {
+                            compositeResponse.setTimings(timingInfo);
+                        }
+                        return ServerResponse.ok()
+                                .header(CompositeTimings.SERVER_TIMING_HEADER, CompositeTimings.toServerTiming(timingInfo))
+                                .bodyValue(compositeResponse);
+                    }
+                    return ServerResponse.ok().bodyValue(compositeResponse);
+                })
+                .onErrorResume(ex -> {
+                    log.error("Execution failed: {}", ex.getMessage(), ex);
+                    if (ex instanceof TimeoutException) {
+                        metrics.recordTimeout("composite");
+                        metrics.recordComposite("timeout", System.nanoTime() - tracker.getStartNanos());
+                    } else {
+                        metrics.recordComposite("error", System.nanoTime() - tracker.getStartNanos());
+                    }
+                    CompositeResponse errorResponse = CompositeResponse.builder()
+                            .hasErrors(true)
+                            .errors(List.of("Execution failed: " + ex.getMessage()))
+                            .build();
+                    return ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR).bodyValue(errorResponse);
+                })
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL) {
+                        // Client went away; cancelling the future stops the batch
+                        metrics.recordComposite("cancelled", System.nanoTime() - tracker.getStartNanos());
+                    }
+                    responseStore.remove(requestId);
+                });
+    }
+
+    private Mono<ServerResponse> badRequest(List<String> errors) {
+        CompositeResponse compositeResponse = CompositeResponse.builder()
+                .hasErrors(true)
+                .errors(errors)
+                .build();
+        return ServerResponse.badRequest().bodyValue(compositeResponse);
+    }
+}
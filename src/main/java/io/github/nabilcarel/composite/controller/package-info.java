@@ -9,6 +9,10 @@
  *   <li>{@code GET /endpoints} — lists the registered composite-eligible endpoints.</li>
  * </ul>
  *
+ * <p>In reactive applications the same endpoints are served by the
+ * {@link io.github.nabilcarel.composite.controller.CompositeReactiveHandler} through a
+ * functional router.
+ *
  * <p>Disable the built-in controller by setting
  * {@code composite.controller-enabled=false} and provide your own.
  *
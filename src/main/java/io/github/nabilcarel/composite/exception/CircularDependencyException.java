@@ -3,8 +3,8 @@ package io.github.nabilcarel.composite.exception;
 /**
  * Thrown when a circular dependency is detected in the sub-request dependency graph.
  *
- * <p>The composite request validator performs a depth-first-search cycle check on the
- * dependency graph before any sub-requests are dispatched. If a cycle is found, this
+ * <p>The composite request validator topologically sorts the dependency graph before any
+ * sub-requests are dispatched. If a cycle is found, this
  * exception (or a validation error derived from it) is raised and the entire composite
  * request is rejected with a {@code 400 Bad Request} response.
  *
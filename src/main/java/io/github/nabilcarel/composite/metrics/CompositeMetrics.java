@@ -0,0 +1,162 @@
+package io.github.nabilcarel.composite.metrics;
+
+import io.github.nabilcarel.composite.model.response.CompositeResponse;
+import java.util.List;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Instrumentation hooks invoked by the composite execution pipeline.
+ *
+ * <p>Every method has an empty default implementation, so the pipeline can always call
+ * into a {@code CompositeMetrics} instance without null checks. {@link #NOOP} is used
+ * when Micrometer is not on the classpath; otherwise
+ * {@link MicrometerCompositeMetrics} is registered by
+ * {@link io.github.nabilcarel.composite.autoconfigure.CompositeAutoConfiguration}.
+ * Declare your own {@code CompositeMetrics} bean to replace it.
+ *
+ * <p>Implementations must keep tag cardinality bounded: sub-requests are identified by
+ * the registered endpoint <em>pattern</em>, never by their resolved URL.
+ *
+ * @see MicrometerCompositeMetrics
+ * @since 0.0.1
+ */
+public interface CompositeMetrics {
+
+    /** An implementation that records nothing. */
+    CompositeMetrics NOOP = new CompositeMetrics() {
+    };
+
+    /**
+     * Records the execution of a single sub-request.
+     *
+     * @param pattern       the endpoint pattern the sub-request matched
+     * @param method        the HTTP method
+     * @param status        the HTTP status recorded for the sub-request
+     * @param durationNanos time from dispatch to response
+     */
+    default void recordSubRequest(String pattern, String method, int status, long durationNanos) {
+    }
+
+    /**
+     * Records the end-to-end latency of a composite request.
+     *
+     * @param outcome       {@code success}, {@code error}, {@code timeout} or {@code cancelled}
+     * @param durationNanos time from receipt to completion
+     */
+    default void recordComposite(String outcome, long durationNanos) {
+    }
+
+    /**
+     * Records the shape of an accepted composite request.
+     *
+     * @param size  number of sub-requests in the batch
+     * @param depth length of the longest dependency chain ({@code 0} for a flat batch)
+     */
+    default void recordBatch(int size, int depth) {
+    }
+
+    /**
+     * Records the time spent validating a composite request.
+     *
+     * @param valid         whether the request passed validation
+     * @param durationNanos validation time
+     */
+    default void recordValidation(boolean valid, long durationNanos) {
+    }
+
+    /**
+     * Records the time spent resolving references of a single sub-request.
+     *
+     * @param durationNanos resolution time
+     */
+    default void recordResolution(long durationNanos) {
+    }
+
+    /**
+     * Records sub-requests that were skipped with {@code 424 Failed Dependency}.
+     *
+     * @param count number of skipped sub-requests
+     */
+    default void recordFailedDependencies(int count) {
+    }
+
+    /**
+     * Counts the sub-requests of a completed composite that were skipped with
+     * {@code 424 Failed Dependency}, for {@link #recordFailedDependencies(int)}.
+     *
+     * @param compositeResponse the completed composite
+     * @return the number of skipped sub-requests
+     */
+    static int countFailedDependencies(CompositeResponse compositeResponse) {
+        return (int) compositeResponse.getResponses().values().stream()
+                .filter(subResponse -> subResponse.getHttpStatus() == HttpStatus.FAILED_DEPENDENCY.value())
+                .count();
+    }
+
+    /**
+     * Records a timeout.
+     *
+     * @param scope {@code subrequest}, {@code deadline} (a sub-request not dispatched
+     *              because the composite deadline had passed) or {@code composite}
+     */
+    default void recordTimeout(String scope) {
+    }
+
+    /**
+     * Records the critical path of a completed composite request.
+     *
+     * @param durationNanos summed execution time of the sub-requests on the critical path
+     * @param patterns      the endpoint patterns of the sub-requests on the critical path,
+     *                      in execution order
+     */
+    default void recordCriticalPath(long durationNanos, List<String> patterns) {
+    }
+
+    /**
+     * Records a retry decision for a failed sub-request.
+     *
+     * @param pattern the endpoint pattern the sub-request matched
+     * @param outcome {@code retried}, or {@code budget_exhausted} if the retry budget
+     *                denied the retry
+     */
+    default void recordRetry(String pattern, String outcome) {
+    }
+
+    /**
+     * Records a hedging decision for a slow sub-request.
+     *
+     * @param pattern the endpoint pattern the sub-request matched
+     * @param outcome {@code sent}, {@code won} if the hedge responded before the original
+     *                attempt, or {@code budget_exhausted} if the hedge budget denied it
+     */
+    default void recordHedge(String pattern, String outcome) {
+    }
+
+    /**
+     * Records a circuit breaker event.
+     *
+     * @param method  the HTTP method of the guarded endpoint
+     * @param pattern the pattern of the guarded endpoint
+     * @param event   a state transition ({@code opened}, {@code half_opened} or
+     *                {@code closed}), or {@code rejected} for a sub-request failed fast
+     *                by an open breaker
+     */
+    default void recordCircuitBreaker(String method, String pattern, String event) {
+    }
+
+    /**
+     * Records a lookup in the endpoint match cache.
+     *
+     * @param hit whether the match result was cached
+     */
+    default void recordEndpointCache(boolean hit) {
+    }
+
+    /**
+     * Records a lookup in the execution plan cache.
+     *
+     * @param hit whether the request's shape had been validated before
+     */
+    default void recordPlanCache(boolean hit) {
+    }
+}
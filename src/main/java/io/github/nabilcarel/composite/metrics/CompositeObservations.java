@@ -0,0 +1,156 @@
+package io.github.nabilcarel.composite.metrics;
+
+import io.github.nabilcarel.composite.model.request.SubRequest;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+/**
+ * Creates the Micrometer {@link Observation}s that describe the execution of a composite
+ * request, so that tracing backends show where its time went.
+ *
+ * <p>Each composite request produces the following observation tree:
+ * <pre class="code">
+ * http.server.requests                 (POST /api/composite/execute)
+ * └── composite.batch
+ *     ├── composite.batch.wait         (one per sub-request with dependencies)
+ *     └── composite.batch.subrequest   (one per dispatched sub-request)
+ *         └── http.client.requests     (loopback call; trace context propagated)
+ * </pre>
+ *
+ * <p>A {@code composite.batch.wait} observation runs from the start of the batch until
+ * the sub-request is dispatched, separating scheduling delay caused by upstream
+ * dependencies from execution time. Sub-request observations carry the endpoint
+ * {@code pattern} and {@code method} as low-cardinality values and the
+ * {@code referenceId} and dependency edges as high-cardinality values.
+ *
+ * <p>With {@link ObservationRegistry#NOOP} (the default without Micrometer configuration)
+ * every method is a cheap no-op.
+ *
+ * @see CompositeMetrics
+ * @since 0.0.1
+ */
+@RequiredArgsConstructor
+public class CompositeObservations {
+
+    /** An instance backed by {@link ObservationRegistry#NOOP}. */
+    public static final CompositeObservations NOOP = new CompositeObservations(ObservationRegistry.NOOP);
+
+    /**
+     * Reactor context key under which the current observation is stored, as defined by
+     * {@code io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor#KEY}.
+     * WebClient reads it to parent its {@code http.client.requests} observation.
+     */
+    public static final String OBSERVATION_CONTEXT_KEY = "micrometer.observation";
+
+    @Getter
+    private final ObservationRegistry registry;
+
+    /**
+     * Returns the observation currently in scope on the calling thread, typically the
+     * {@code http.server.requests} observation of the incoming composite request.
+     *
+     * @return the current observation, or {@code null} if there is none
+     */
+    @Nullable
+    public Observation currentObservation() {
+        return registry.getCurrentObservation();
+    }
+
+    /**
+     * Starts the {@code composite.batch} observation and a {@code composite.batch.wait}
+     * observation for every sub-request that has dependencies. The batch observation is
+     * stopped — with the error, if any — when {@code completion} completes.
+     *
+     * @param requestId   the composite request ID
+     * @param subRequests all sub-requests of the batch
+     * @param parent      the parent observation, or {@code null}
+     * @param completion  future completed when the batch finishes or fails
+     */
+    public void startBatch(String requestId, Collection<SubRequest> subRequests,
+                           @Nullable Observation parent, CompletableFuture<?> completion) {
+        if (registry.isNoop()) {
+            return;
+        }
+
+        Observation batch = Observation.createNotStarted("composite.batch", registry)
+                .contextualName("composite batch")
+                .parentObservation(parent)
+                .highCardinalityKeyValue("composite.request.id", requestId)
+                .highCardinalityKeyValue("composite.batch.size", String.valueOf(subRequests.size()))
+                .start();
+
+        for (SubRequest subRequest : subRequests) {
+            subRequest.setParentObservation(batch);
+            if (!subRequest.getDependencies().isEmpty()) {
+                subRequest.setWaitObservation(Observation.createNotStarted("composite.batch.wait", registry)
+                        .contextualName("wait " + subRequest.getReferenceId())
+                        .parentObservation(batch)
+                        .highCardinalityKeyValue("composite.reference.id", subRequest.getReferenceId())
+                        .highCardinalityKeyValue("composite.dependencies", String.join(",", subRequest.getDependencies()))
+                        .start());
+            }
+        }
+
+        completion.whenComplete((result, error) -> {
+            // Sub-requests skipped with 424 are never dispatched
+            subRequests.forEach(this::endWait);
+            if (error != null) {
+                batch.error(error);
+            }
+            batch.stop();
+        });
+    }
+
+    /**
+     * Stops the {@code composite.batch.wait} observation of a sub-request, if one is open.
+     * Called when the sub-request is dispatched.
+     *
+     * @param subRequest the sub-request being dispatched
+     */
+    public void endWait(SubRequest subRequest) {
+        Observation wait;
+        synchronized (subRequest) {
+            wait = subRequest.getWaitObservation();
+            subRequest.setWaitObservation(null);
+        }
+        if (wait != null) {
+            wait.stop();
+        }
+    }
+
+    /**
+     * Wraps the execution of a sub-request in a {@code composite.batch.subrequest}
+     * observation and makes it the parent of the loopback client observation.
+     *
+     * @param subRequest the sub-request being executed
+     * @param pattern    the endpoint pattern the sub-request matched
+     * @param execution  the execution to observe
+     * @param <T>        the result type
+     * @return the observed execution
+     */
+    public <T> Mono<T> observeSubRequest(SubRequest subRequest, String pattern, Mono<T> execution) {
+        if (registry.isNoop()) {
+            return execution;
+        }
+
+        Observation observation = Observation.createNotStarted("composite.batch.subrequest", registry)
+                .contextualName(subRequest.getMethod().toUpperCase() + " " + pattern)
+                .parentObservation(subRequest.getParentObservation())
+                .lowCardinalityKeyValue("method", subRequest.getMethod().toUpperCase())
+                .lowCardinalityKeyValue("pattern", pattern)
+                .highCardinalityKeyValue("composite.reference.id", subRequest.getReferenceId())
+                .highCardinalityKeyValue("composite.dependencies", String.join(",", subRequest.getDependencies()))
+                .start();
+
+        return execution
+                .doOnError(observation::error)
+                .doFinally(signal -> observation.stop())
+                .contextWrite(context -> context.put(OBSERVATION_CONTEXT_KEY, observation));
+    }
+}
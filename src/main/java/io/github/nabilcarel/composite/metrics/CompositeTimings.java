@@ -0,0 +1,260 @@
+package io.github.nabilcarel.composite.metrics;
+
+import io.github.nabilcarel.composite.model.ExecutionPlan;
+import io.github.nabilcarel.composite.model.SubRequestTiming;
+import io.github.nabilcarel.composite.model.request.SubRequest;
+import io.github.nabilcarel.composite.model.response.CompositeDebugInfo;
+import io.github.nabilcarel.composite.model.response.CompositeTimingInfo;
+import io.github.nabilcarel.composite.model.response.CompositeTimingInfo.SubRequestTimingInfo;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import org.springframework.lang.Nullable;
+
+/**
+ * Summarises the {@link SubRequestTiming}s recorded during a composite execution into a
+ * {@link CompositeTimingInfo} and a {@code Server-Timing} header.
+ *
+ * <p>The critical path is reconstructed from the recorded times: starting at the
+ * sub-request that finished last, it repeatedly steps to the dependency that finished
+ * last, since that is the one the sub-request was actually waiting for.
+ * {@link #analyze()} additionally computes the slack of every other sub-request.
+ *
+ * @see io.github.nabilcarel.composite.config.CompositeProperties.Timing
+ * @since 0.0.1
+ */
+public class CompositeTimings {
+
+    /** Name of the response header carrying the timing breakdown. */
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private static final Pattern NON_TOKEN = Pattern.compile("[^A-Za-z0-9!#$%&'*+.^_`|~-]");
+
+    private final long startNanos;
+    private final Map<String, SubRequest> subRequests;
+    private final List<String> topologicalOrder;
+
+    /**
+     * @param startNanos {@link System#nanoTime()} at which execution started
+     * @param plan       the execution plan of the batch, whose sub-requests are timed
+     */
+    public CompositeTimings(long startNanos, ExecutionPlan plan) {
+        this.startNanos = startNanos;
+        this.subRequests = plan.getRequests();
+        this.topologicalOrder = plan.getTopologicalOrder();
+    }
+
+    /**
+     * Builds the timing breakdown. Must be called after the batch has completed.
+     *
+     * @return the timing breakdown; never {@code null}
+     */
+    public CompositeTimingInfo summarize() {
+        Map<String, SubRequestTimingInfo> breakdown = new LinkedHashMap<>();
+        long endNanos = startNanos;
+
+        for (SubRequest subRequest : subRequests.values()) {
+            SubRequestTiming timing = subRequest.getTiming();
+            if (!timing.isDispatched()) {
+                continue;
+            }
+            long end = timing.getEndNanos();
+            endNanos = Math.max(endNanos, end);
+            breakdown.put(subRequest.getReferenceId(), SubRequestTimingInfo.builder()
+                    .queuedMs(millis(timing.getDispatchedNanos() - startNanos))
+                    .resolveMs(phase(timing.getDispatchedNanos(), timing.getResolvedNanos()))
+                    .networkMs(phase(timing.getSentNanos(), timing.getRespondedNanos()))
+                    .parseMs(phase(timing.getRespondedNanos(), timing.getCompletedNanos()))
+                    .totalMs(millis(end - startNanos))
+                    .build());
+        }
+
+        List<String> criticalPath = criticalPath();
+
+        return CompositeTimingInfo.builder()
+                .totalMs(millis(endNanos - startNanos))
+                .criticalPathMs(millis(duration(criticalPath)))
+                .criticalPath(criticalPath)
+                .subRequests(breakdown)
+                .build();
+    }
+
+    /**
+     * Computes the critical path and the slack of every dispatched sub-request. Must be
+     * called after the batch has completed.
+     *
+     * <p>Slack is derived backwards from the end of the batch: a sub-request must finish
+     * before the latest start of each of its dependents, where the latest start of a
+     * dependent is its own latest finish minus its measured execution time, counted from
+     * the moment its last dependency finished. Sub-requests without dependents must finish
+     * before the batch does. Latest finishes are computed in a single pass over the plan's
+     * topological order, in reverse, so every dependent is done before its dependencies.
+     *
+     * @return the critical path and slack; never {@code null}
+     */
+    public CriticalPath analyze() {
+        Map<String, List<SubRequest>> dependents = new HashMap<>();
+        long batchEnd = startNanos;
+        for (SubRequest subRequest : subRequests.values()) {
+            if (!subRequest.getTiming().isDispatched()) {
+                continue;
+            }
+            batchEnd = Math.max(batchEnd, end(subRequest));
+            for (String dependency : subRequest.getDependencies()) {
+                dependents.computeIfAbsent(dependency, k -> new ArrayList<>()).add(subRequest);
+            }
+        }
+
+        Map<String, Long> latestFinish = new HashMap<>();
+        for (int i = topologicalOrder.size() - 1; i >= 0; i--) {
+            SubRequest subRequest = subRequests.get(topologicalOrder.get(i));
+            if (!subRequest.getTiming().isDispatched()) {
+                continue;
+            }
+            long latest = batchEnd;
+            for (SubRequest dependent : dependents.getOrDefault(subRequest.getReferenceId(), List.of())) {
+                long latestStart = latestFinish.get(dependent.getReferenceId())
+                        - (end(dependent) - readyNanos(dependent));
+                latest = Math.min(latest, latestStart);
+            }
+            latestFinish.put(subRequest.getReferenceId(), latest);
+        }
+
+        Map<String, Long> slack = new LinkedHashMap<>();
+        for (SubRequest subRequest : subRequests.values()) {
+            Long latest = latestFinish.get(subRequest.getReferenceId());
+            if (latest != null) {
+                slack.put(subRequest.getReferenceId(), Math.max(0, latest - end(subRequest)));
+            }
+        }
+
+        List<String> criticalPath = criticalPath();
+        return new CriticalPath(criticalPath, duration(criticalPath), slack);
+    }
+
+    /**
+     * Analyses the completed batch and publishes the critical path to {@code metrics} and,
+     * when debug mode is on, to {@code debugInfo}.
+     *
+     * @param metrics   the metrics to record the critical path to
+     * @param debugInfo the debug info of the batch; {@code null} when debug mode is off
+     * @return the analysis; never {@code null}
+     */
+    public CriticalPath publish(CompositeMetrics metrics, @Nullable CompositeDebugInfo debugInfo) {
+        CriticalPath criticalPath = analyze();
+
+        List<String> patterns = new ArrayList<>(criticalPath.getReferenceIds().size());
+        for (String referenceId : criticalPath.getReferenceIds()) {
+            String pattern = subRequests.get(referenceId).getEndpointPattern();
+            if (pattern != null) {
+                patterns.add(pattern);
+            }
+        }
+        metrics.recordCriticalPath(criticalPath.getDurationNanos(), patterns);
+
+        if (debugInfo != null) {
+            Map<String, Double> slackMs = new LinkedHashMap<>();
+            criticalPath.getSlackNanos().forEach((referenceId, nanos) -> slackMs.put(referenceId, millis(nanos)));
+            debugInfo.setCriticalPath(criticalPath.getReferenceIds());
+            debugInfo.setSlackMs(slackMs);
+        }
+        return criticalPath;
+    }
+
+    /**
+     * Returns the {@code referenceId}s on the critical path, in execution order.
+     *
+     * @return the critical path; empty if nothing was dispatched
+     */
+    public List<String> criticalPath() {
+        SubRequest current = null;
+        for (SubRequest subRequest : subRequests.values()) {
+            if (subRequest.getTiming().isDispatched()
+                    && (current == null || end(subRequest) > end(current))) {
+                current = subRequest;
+            }
+        }
+
+        List<String> path = new ArrayList<>();
+        while (current != null) {
+            path.add(current.getReferenceId());
+            SubRequest binding = null;
+            for (String dependency : current.getDependencies()) {
+                SubRequest candidate = subRequests.get(dependency);
+                if (candidate != null && candidate.getTiming().isDispatched()
+                        && (binding == null || end(candidate) > end(binding))) {
+                    binding = candidate;
+                }
+            }
+            current = binding;
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Formats a timing breakdown as a {@code Server-Timing} header value: one {@code total}
+     * and one {@code critical-path} metric, plus one metric per sub-request whose
+     * description lists its phase durations.
+     *
+     * @param info the timing breakdown
+     * @return the header value
+     */
+    public static String toServerTiming(CompositeTimingInfo info) {
+        StringBuilder header = new StringBuilder()
+                .append("total;dur=").append(info.getTotalMs())
+                .append(", critical-path;dur=").append(info.getCriticalPathMs());
+
+        info.getSubRequests().forEach((referenceId, timing) -> header
+                .append(", ").append(NON_TOKEN.matcher(referenceId).replaceAll("_"))
+                .append(";dur=").append(timing.getTotalMs())
+                .append(";desc=\"queued=").append(timing.getQueuedMs())
+                .append(" resolve=").append(timing.getResolveMs())
+                .append(" network=").append(timing.getNetworkMs())
+                .append(" parse=").append(timing.getParseMs())
+                .append('"'));
+
+        return header.toString();
+    }
+
+    /**
+     * Returns when the last dependency of a sub-request finished, i.e. when it could have
+     * been dispatched at the earliest. Scheduling overhead between that point and the
+     * actual dispatch is charged to the sub-request itself.
+     */
+    private long readyNanos(SubRequest subRequest) {
+        long ready = 0;
+        for (String dependency : subRequest.getDependencies()) {
+            SubRequest candidate = subRequests.get(dependency);
+            if (candidate != null && candidate.getTiming().isDispatched()) {
+                ready = Math.max(ready, end(candidate));
+            }
+        }
+        return ready == 0 ? subRequest.getTiming().getDispatchedNanos() : ready;
+    }
+
+    private long duration(List<String> path) {
+        long nanos = 0;
+        for (String referenceId : path) {
+            SubRequestTiming timing = subRequests.get(referenceId).getTiming();
+            nanos += timing.getEndNanos() - timing.getDispatchedNanos();
+        }
+        return nanos;
+    }
+
+    private static long end(SubRequest subRequest) {
+        return subRequest.getTiming().getEndNanos();
+    }
+
+    private static double phase(long fromNanos, long toNanos) {
+        return fromNanos == 0 || toNanos == 0 ? 0 : millis(toNanos - fromNanos);
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
@@ -0,0 +1,31 @@
+package io.github.nabilcarel.composite.metrics;
+
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The critical path of an executed composite request and the slack of every dispatched
+ * sub-request, as computed by {@link CompositeTimings#analyze()}.
+ *
+ * <p>The <em>slack</em> of a sub-request is how much later it could have finished without
+ * delaying the composite response. Sub-requests on the critical path have no slack; a large
+ * slack means the sub-request is not worth optimising for this composite shape.
+ *
+ * @see CompositeTimings
+ * @since 0.0.1
+ */
+@Getter
+@RequiredArgsConstructor
+public class CriticalPath {
+
+    /** The {@code referenceId}s on the critical path, in execution order. */
+    private final List<String> referenceIds;
+
+    /** The summed execution time of the sub-requests on the critical path. */
+    private final long durationNanos;
+
+    /** The slack of each dispatched sub-request, keyed by {@code referenceId}. */
+    private final Map<String, Long> slackNanos;
+}
@@ -0,0 +1,101 @@
+package io.github.nabilcarel.composite.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with logarithmic buckets, used to estimate percentiles of an
+ * endpoint's recent latency in-process.
+ *
+ * <p>Buckets grow by 20% from 50µs, so a percentile is accurate to within 20% up to about
+ * two minutes. Recording is a pair of atomic increments. Once {@code 2 × window} samples
+ * have been recorded every bucket is halved, so the histogram follows changes in latency
+ * while always reflecting roughly the last {@code window} to {@code 2 × window} samples.
+ *
+ * @since 0.0.1
+ */
+public class LatencyHistogram {
+
+    private static final long MIN_NANOS = 50_000;
+    private static final double GROWTH = 1.2;
+    private static final double LOG_GROWTH = Math.log(GROWTH);
+    private static final int BUCKETS = 80;
+
+    private final int window;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+
+    /**
+     * @param window the number of samples the histogram should roughly retain
+     */
+    public LatencyHistogram(int window) {
+        this.window = Math.max(1, window);
+    }
+
+    /**
+     * Records one sample.
+     *
+     * @param nanos the observed latency
+     */
+    public void record(long nanos) {
+        counts.incrementAndGet(bucketFor(nanos));
+        if (total.incrementAndGet() >= 2L * window) {
+            decay();
+        }
+    }
+
+    /**
+     * Returns the number of samples currently reflected by the histogram.
+     *
+     * @return the sample count
+     */
+    public long count() {
+        return total.get();
+    }
+
+    /**
+     * Returns an upper bound of the {@code quantile}-th latency.
+     *
+     * @param quantile the quantile, between {@code 0} and {@code 1}
+     * @return the upper bound of the bucket holding the quantile, in nanoseconds, or
+     *         {@code -1} if no sample has been recorded
+     */
+    public long percentile(double quantile) {
+        long samples = total.get();
+        if (samples <= 0) {
+            return -1;
+        }
+        long target = Math.max(1, (long) Math.ceil(quantile * samples));
+        long cumulative = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            cumulative += counts.get(i);
+            if (cumulative >= target) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    private synchronized void decay() {
+        if (total.get() < 2L * window) {
+            return;
+        }
+        long remaining = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            remaining += counts.updateAndGet(i, c -> c / 2);
+        }
+        total.set(remaining);
+    }
+
+    private static int bucketFor(long nanos) {
+        if (nanos <= MIN_NANOS) {
+            return 0;
+        }
+        int index = (int) Math.ceil(Math.log((double) nanos / MIN_NANOS) / LOG_GROWTH);
+        return Math.min(index, BUCKETS - 1);
+    }
+
+    private static long upperBound(int index) {
+        return (long) (MIN_NANOS * Math.pow(GROWTH, index));
+    }
+}
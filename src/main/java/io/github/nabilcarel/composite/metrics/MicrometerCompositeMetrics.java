@@ -0,0 +1,238 @@
+package io.github.nabilcarel.composite.metrics;
+
+import io.github.nabilcarel.composite.model.ResponseTracker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link CompositeMetrics} implementation backed by a Micrometer {@link MeterRegistry}.
+ *
+ * <h2>Meters</h2>
+ * <table border="1">
+ *   <caption>Composite meters</caption>
+ *   <tr><th>Name</th><th>Type</th><th>Tags</th></tr>
+ *   <tr><td>{@code composite.subrequest}</td><td>timer</td>
+ *       <td>{@code pattern}, {@code method}, {@code status} (e.g. {@code 2xx})</td></tr>
+ *   <tr><td>{@code composite.request}</td><td>timer</td><td>{@code outcome}</td></tr>
+ *   <tr><td>{@code composite.validation}</td><td>timer</td><td>{@code valid}</td></tr>
+ *   <tr><td>{@code composite.resolution}</td><td>timer</td><td>—</td></tr>
+ *   <tr><td>{@code composite.batch.size}</td><td>distribution summary</td><td>—</td></tr>
+ *   <tr><td>{@code composite.batch.depth}</td><td>distribution summary</td><td>—</td></tr>
+ *   <tr><td>{@code composite.subrequest.failed.dependency}</td><td>counter</td><td>—</td></tr>
+ *   <tr><td>{@code composite.timeouts}</td><td>counter</td><td>{@code scope}</td></tr>
+ *   <tr><td>{@code composite.requests.active}</td><td>gauge</td><td>—</td></tr>
+ *   <tr><td>{@code composite.critical.path}</td><td>timer (histogram)</td><td>—</td></tr>
+ *   <tr><td>{@code composite.critical.path.subrequests}</td><td>counter</td>
+ *       <td>{@code pattern}</td></tr>
+ *   <tr><td>{@code composite.subrequest.retries}</td><td>counter</td>
+ *       <td>{@code pattern}, {@code outcome}</td></tr>
+ *   <tr><td>{@code composite.subrequest.hedges}</td><td>counter</td>
+ *       <td>{@code pattern}, {@code outcome}</td></tr>
+ *   <tr><td>{@code composite.circuitbreaker.events}</td><td>counter</td>
+ *       <td>{@code method}, {@code pattern}, {@code event}</td></tr>
+ *   <tr><td>{@code composite.circuitbreaker.state}</td><td>gauge ({@code 0} closed,
+ *       {@code 1} open, {@code 2} half-open)</td><td>{@code method}, {@code pattern}</td></tr>
+ *   <tr><td>{@code composite.endpoint.cache}</td><td>counter</td>
+ *       <td>{@code result} ({@code hit} or {@code miss})</td></tr>
+ *   <tr><td>{@code composite.plan.cache}</td><td>counter</td>
+ *       <td>{@code result} ({@code hit} or {@code miss})</td></tr>
+ * </table>
+ *
+ * @see CompositeMetrics
+ * @since 0.0.1
+ */
+public class MicrometerCompositeMetrics implements CompositeMetrics {
+
+    private final MeterRegistry registry;
+    private final Timer resolutionTimer;
+    private final DistributionSummary batchSize;
+    private final DistributionSummary batchDepth;
+    private final Counter failedDependencies;
+    private final Timer criticalPath;
+    private final Counter endpointCacheHits;
+    private final Counter endpointCacheMisses;
+    private final Counter planCacheHits;
+    private final Counter planCacheMisses;
+    private final ConcurrentMap<String, AtomicInteger> circuitBreakerStates = new ConcurrentHashMap<>();
+
+    public MicrometerCompositeMetrics(MeterRegistry registry, ConcurrentMap<String, ResponseTracker> responseStore) {
+        this.registry = registry;
+        this.resolutionTimer = Timer.builder("composite.resolution")
+                .description("Reference resolution time per sub-request")
+                .register(registry);
+        this.batchSize = DistributionSummary.builder("composite.batch.size")
+                .description("Number of sub-requests per composite request")
+                .baseUnit("subrequests")
+                .register(registry);
+        this.batchDepth = DistributionSummary.builder("composite.batch.depth")
+                .description("Longest dependency chain per composite request")
+                .register(registry);
+        this.failedDependencies = Counter.builder("composite.subrequest.failed.dependency")
+                .description("Sub-requests skipped because a dependency failed")
+                .register(registry);
+        this.criticalPath = Timer.builder("composite.critical.path")
+                .description("Execution time of the critical path per composite request")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.endpointCacheHits = endpointCacheCounter("hit");
+        this.endpointCacheMisses = endpointCacheCounter("miss");
+        this.planCacheHits = planCacheCounter("hit");
+        this.planCacheMisses = planCacheCounter("miss");
+        Gauge.builder("composite.requests.active", responseStore, Map::size)
+                .description("Composite requests currently in flight")
+                .register(registry);
+    }
+
+    @Override
+    public void recordSubRequest(String pattern, String method, int status, long durationNanos) {
+        Timer.builder("composite.subrequest")
+                .description("Sub-request execution time")
+                .tag("pattern", pattern)
+                .tag("method", method)
+                .tag("status", statusClass(status))
+                .register(registry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordComposite(String outcome, long durationNanos) {
+        Timer.builder("composite.request")
+                .description("End-to-end composite request time")
+                .tag("outcome", outcome)
+                .register(registry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordBatch(int size, int depth) {
+        batchSize.record(size);
+        batchDepth.record(depth);
+    }
+
+    @Override
+    public void recordValidation(boolean valid, long durationNanos) {
+        Timer.builder("composite.validation")
+                .description("Composite request validation time")
+                .tag("valid", String.valueOf(valid))
+                .register(registry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordResolution(long durationNanos) {
+        resolutionTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordFailedDependencies(int count) {
+        if (count > 0) {
+            failedDependencies.increment(count);
+        }
+    }
+
+    @Override
+    public void recordTimeout(String scope) {
+        Counter.builder("composite.timeouts")
+                .description("Composite and sub-request timeouts")
+                .tag("scope", scope)
+                .register(registry)
+                .increment();
+    }
+
+    @Override
+    public void recordCriticalPath(long durationNanos, List<String> patterns) {
+        criticalPath.record(durationNanos, TimeUnit.NANOSECONDS);
+        for (String pattern : patterns) {
+            Counter.builder("composite.critical.path.subrequests")
+                    .description("Sub-requests that were on the critical path of their composite request")
+                    .tag("pattern", pattern)
+                    .register(registry)
+                    .increment();
+        }
+    }
+
+    @Override
+    public void recordRetry(String pattern, String outcome) {
+        Counter.builder("composite.subrequest.retries")
+                .description("Sub-request retries and retries denied by the retry budget")
+                .tag("pattern", pattern)
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    @Override
+    public void recordHedge(String pattern, String outcome) {
+        Counter.builder("composite.subrequest.hedges")
+                .description("Hedged sub-requests sent, won, or denied by the hedge budget")
+                .tag("pattern", pattern)
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    @Override
+    public void recordCircuitBreaker(String method, String pattern, String event) {
+        Counter.builder("composite.circuitbreaker.events")
+                .description("Circuit breaker state transitions and rejected sub-requests")
+                .tag("method", method)
+                .tag("pattern", pattern)
+                .tag("event", event)
+                .register(registry)
+                .increment();
+        int state = switch (event) {
+            case "closed" -> 0;
+            case "opened" -> 1;
+            case "half_opened" -> 2;
+            default -> -1;
+        };
+        if (state >= 0) {
+            circuitBreakerStates.computeIfAbsent(method + " " + pattern, key -> {
+                AtomicInteger value = new AtomicInteger();
+                Gauge.builder("composite.circuitbreaker.state", value, AtomicInteger::get)
+                        .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+                        .tag("method", method)
+                        .tag("pattern", pattern)
+                        .register(registry);
+                return value;
+            }).set(state);
+        }
+    }
+
+    @Override
+    public void recordEndpointCache(boolean hit) {
+        (hit ? endpointCacheHits : endpointCacheMisses).increment();
+    }
+
+    @Override
+    public void recordPlanCache(boolean hit) {
+        (hit ? planCacheHits : planCacheMisses).increment();
+    }
+
+    private Counter endpointCacheCounter(String result) {
+        return Counter.builder("composite.endpoint.cache")
+                .description("Endpoint match cache lookups")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private Counter planCacheCounter(String result) {
+        return Counter.builder("composite.plan.cache")
+                .description("Execution plan cache lookups")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static String statusClass(int status) {
+        return (status / 100) + "xx";
+    }
+}
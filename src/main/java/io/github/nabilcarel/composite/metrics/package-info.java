@@ -0,0 +1,10 @@
+/**
+ * Runtime instrumentation for the Composite library.
+ *
+ * <p>{@link io.github.nabilcarel.composite.metrics.CompositeMetrics} defines the hooks
+ * called by the execution pipeline; {@link io.github.nabilcarel.composite.metrics.MicrometerCompositeMetrics}
+ * publishes them to Micrometer when it is on the classpath.
+ * {@link io.github.nabilcarel.composite.metrics.CompositeObservations} creates the
+ * Micrometer Observations (tracing spans) for batches, dependency waits and sub-requests.
+ */
+package io.github.nabilcarel.composite.metrics;
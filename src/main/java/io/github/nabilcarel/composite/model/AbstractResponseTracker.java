@@ -0,0 +1,145 @@
+package io.github.nabilcarel.composite.model;
+
+import io.github.nabilcarel.composite.model.response.CompositeResponse;
+import io.github.nabilcarel.composite.model.response.SubResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+
+/**
+ * Base class of the {@link ResponseTracker} implementations: counts down the outstanding
+ * responses, invokes the registered callbacks and completes the future, leaving how
+ * sub-responses are stored to subclasses.
+ *
+ * <p>A response counts toward completion when the subclass reports it as stored. The
+ * aggregated {@link CompositeResponse} is built from {@link #getSubResponseMap()} and
+ * {@link #hasErrors()} once no response is outstanding, and the completion callback runs
+ * before the future is completed.
+ *
+ * @see ResponseTrackerImpl
+ * @see IndexedResponseTracker
+ * @since 0.0.1
+ */
+@Slf4j
+public abstract class AbstractResponseTracker implements ResponseTracker {
+
+  @Getter
+  private final CompletableFuture<CompositeResponse> future = new CompletableFuture<>();
+  private final AtomicInteger remainingResponses;
+  private final AtomicReference<Consumer<String>> onSubRequestResolved = new AtomicReference<>();
+  private final AtomicReference<Consumer<CompositeResponse>> onCompleted = new AtomicReference<>();
+  @Getter
+  private final long startNanos = System.nanoTime();
+
+  @Getter
+  private final Deadline deadline;
+
+  /**
+   * @param expectedResponses the number of expected sub-responses
+   * @param timeout           the composite request timeout, or {@code null} for a tracker
+   *                          without a {@link #getDeadline() deadline}
+   */
+  protected AbstractResponseTracker(int expectedResponses, @Nullable Duration timeout) {
+    this.remainingResponses = new AtomicInteger(expectedResponses);
+    this.deadline = timeout != null ? Deadline.of(startNanos, timeout) : null;
+  }
+
+  /**
+   * Stores a response passed to {@link #addResponse}.
+   *
+   * @return whether the response counts toward completion
+   */
+  protected abstract boolean store(String subRequestId, SubResponse subResponse);
+
+  /**
+   * Stores a response passed to {@link #addResponses}, unless one is already stored for the
+   * sub-request.
+   *
+   * @return whether the response was stored
+   */
+  protected abstract boolean storeIfAbsent(String subRequestId, SubResponse subResponse);
+
+  /** Returns whether any stored response has a non-2xx status. */
+  protected abstract boolean hasErrors();
+
+  public void addResponse(String subRequestId, SubResponse subResponse) {
+    if (!store(subRequestId, subResponse)) {
+      log.debug("Ignoring response for {}: unknown or already recorded", subRequestId);
+      return;
+    }
+    int remaining = remainingResponses.decrementAndGet();
+
+    // Notify callback (capture reference to avoid race)
+    Consumer<String> callback = onSubRequestResolved.get();
+    if (callback != null) {
+      try {
+        callback.accept(subRequestId);
+      } catch (Exception e) {
+        log.error("Callback failed for subRequestId {}: {}", subRequestId, e.getMessage(), e);
+      }
+    }
+
+    if (remaining == 0) {
+      completeResponse();
+    }
+  }
+
+  public void addResponses(Map<String, SubResponse> subResponses) {
+    int added = 0;
+    for (Map.Entry<String, SubResponse> entry : subResponses.entrySet()) {
+      if (storeIfAbsent(entry.getKey(), entry.getValue())) {
+        added++;
+      }
+    }
+    if (added > 0 && remainingResponses.addAndGet(-added) == 0) {
+      completeResponse();
+    }
+  }
+
+  private void completeResponse() {
+    CompositeResponse response = CompositeResponse.builder()
+        .responses(getSubResponseMap())
+        .hasErrors(hasErrors())
+        .build();
+
+    Consumer<CompositeResponse> callback = onCompleted.get();
+    if (callback != null) {
+      try {
+        callback.accept(response);
+      } catch (Exception e) {
+        log.error("Completion callback failed: {}", e.getMessage(), e);
+      }
+    }
+    future.complete(response);
+  }
+
+  public void setOnSubRequestResolved(Consumer<String> callback) {
+    this.onSubRequestResolved.set(callback);
+  }
+
+  public void setOnCompleted(Consumer<CompositeResponse> callback) {
+    this.onCompleted.set(callback);
+  }
+
+  public void setOnCancelled(Consumer<Throwable> callback) {
+    future.whenComplete((response, error) -> {
+      if (error != null) {
+        try {
+          callback.accept(error);
+        } catch (Exception e) {
+          log.error("Cancellation callback failed: {}", e.getMessage(), e);
+        }
+      }
+    });
+  }
+
+  public void cancel(Throwable t) {
+    future.completeExceptionally(t);
+  }
+}
@@ -0,0 +1,63 @@
+package io.github.nabilcarel.composite.model;
+
+import java.time.Duration;
+
+/**
+ * An absolute point in time, measured on the {@link System#nanoTime()} clock, by which a
+ * composite request must complete.
+ *
+ * <p>Each sub-request is given the lesser of its configured timeout and the
+ * {@link #remaining() remaining} budget, so a sub-request dispatched late in the batch
+ * cannot outlive the composite request it belongs to.
+ *
+ * @see ResponseTracker#getDeadline()
+ * @since 0.0.1
+ */
+public final class Deadline {
+
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Creates a deadline {@code timeout} after {@code startNanos}.
+     *
+     * @param startNanos {@link System#nanoTime()} at which the budget starts
+     * @param timeout    the total budget
+     * @return the deadline
+     */
+    public static Deadline of(long startNanos, Duration timeout) {
+        return new Deadline(startNanos + timeout.toNanos());
+    }
+
+    /**
+     * Returns the time left until the deadline.
+     *
+     * @return the remaining budget; zero or negative once the deadline has passed
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(deadlineNanos - System.nanoTime());
+    }
+
+    /**
+     * Returns whether the deadline has passed.
+     *
+     * @return {@code true} if no budget is left
+     */
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Caps {@code timeout} to the remaining budget.
+     *
+     * @param timeout the configured timeout
+     * @return the lesser of {@code timeout} and {@link #remaining()}
+     */
+    public Duration cap(Duration timeout) {
+        Duration remaining = remaining();
+        return remaining.compareTo(timeout) < 0 ? remaining : timeout;
+    }
+}
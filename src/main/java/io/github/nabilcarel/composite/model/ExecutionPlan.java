@@ -0,0 +1,342 @@
+package io.github.nabilcarel.composite.model;
+
+import io.github.nabilcarel.composite.model.request.SubRequest;
+import io.github.nabilcarel.composite.model.request.SubRequestDto;
+import java.util.*;
+
+/**
+ * The dependency analysis of a composite request, computed in a single topological pass.
+ *
+ * <p>Built by {@link #of(List)} with Kahn's algorithm over a compressed adjacency layout:
+ * every sub-request is assigned a dense index in declaration order, its dependencies and
+ * dependents are stored as contiguous {@code int} ranges, and nodes are released level by
+ * level as their remaining in-degree drops to zero. The pass is linear in the number of
+ * sub-requests and placeholder references and uses no recursion, so arbitrarily deep
+ * chains cannot overflow the stack. It reports:
+ * <ul>
+ *   <li>duplicate {@code referenceId}s — only the first declaration is kept in the graph;</li>
+ *   <li>placeholders referring to an undeclared {@code referenceId};</li>
+ *   <li>cycles — any node never released by the topological sort;</li>
+ *   <li>the depth of every node and the number of nodes on each level.</li>
+ * </ul>
+ *
+ * <p>The plan also holds the {@link SubRequest} built for each declaration, so the
+ * validator, the filter and the {@link SubRequestCoordinator coordinator} share a single
+ * scan of the placeholders. A plan belongs to one composite request; its structure can be
+ * {@link #bind(List) bound} to the sub-requests of another.
+ *
+ * @see io.github.nabilcarel.composite.service.CompositeRequestValidator
+ * @since 0.0.1
+ */
+public final class ExecutionPlan {
+
+    private final Map<String, SubRequest> requests;
+    private final Map<String, Set<String>> dependencies;
+    private final List<String> topologicalOrder;
+    private final List<Integer> levelWidths;
+    private final List<String> errors;
+    private final int maxDepth;
+    private final boolean cyclic;
+    private final Graph graph;
+
+    private ExecutionPlan(Map<String, SubRequest> requests, Map<String, Set<String>> dependencies,
+                          List<String> topologicalOrder, List<Integer> levelWidths, List<String> errors,
+                          int maxDepth, boolean cyclic, Graph graph) {
+        this.requests = requests;
+        this.dependencies = dependencies;
+        this.topologicalOrder = topologicalOrder;
+        this.levelWidths = levelWidths;
+        this.errors = errors;
+        this.maxDepth = maxDepth;
+        this.cyclic = cyclic;
+        this.graph = graph;
+    }
+
+    /**
+     * Analyses the given sub-requests.
+     *
+     * @param subRequests the sub-requests in declaration order; must not be {@code null}
+     * @return the plan; check {@link #getErrors()} before executing it
+     */
+    public static ExecutionPlan of(List<SubRequestDto> subRequests) {
+        List<String> errors = new ArrayList<>();
+        Map<String, Integer> index = new HashMap<>(subRequests.size() * 2);
+        List<SubRequest> nodes = new ArrayList<>(subRequests.size());
+
+        for (SubRequestDto dto : subRequests) {
+            if (index.putIfAbsent(dto.getReferenceId(), nodes.size()) != null) {
+                errors.add("Duplicate reference ID found: " + dto.getReferenceId());
+                continue;
+            }
+            nodes.add(new SubRequest(dto));
+        }
+
+        int n = nodes.size();
+
+        // Dependencies of node i are dependencyIndices[dependencyOffsets[i] .. dependencyOffsets[i + 1])
+        int[] dependencyOffsets = new int[n + 1];
+        int[] dependencyIndices = new int[Math.max(n, 4)];
+        int[] dependentCounts = new int[n];
+        int edges = 0;
+        Map<String, SubRequest> requests = new LinkedHashMap<>(n * 2);
+        Map<String, Set<String>> dependencyMap = new LinkedHashMap<>(n * 2);
+
+        for (int i = 0; i < n; i++) {
+            SubRequest node = nodes.get(i);
+            Set<String> nodeDependencies = Collections.unmodifiableSet(node.getDependencies());
+            requests.put(node.getReferenceId(), node);
+            dependencyMap.put(node.getReferenceId(), nodeDependencies);
+            for (String dependency : nodeDependencies) {
+                Integer target = index.get(dependency);
+                if (target == null) {
+                    errors.add("Missing dependency reference: '" + dependency +
+                            "' for request: " + node.getReferenceId());
+                    continue;
+                }
+                if (edges == dependencyIndices.length) {
+                    dependencyIndices = Arrays.copyOf(dependencyIndices, edges * 2);
+                }
+                dependencyIndices[edges++] = target;
+                dependentCounts[target]++;
+            }
+            dependencyOffsets[i + 1] = edges;
+        }
+
+        // Dependents of node j are dependentIndices[dependentOffsets[j] .. dependentOffsets[j + 1])
+        int[] dependentOffsets = new int[n + 1];
+        for (int j = 0; j < n; j++) {
+            dependentOffsets[j + 1] = dependentOffsets[j] + dependentCounts[j];
+        }
+        int[] dependentIndices = new int[edges];
+        int[] fill = Arrays.copyOf(dependentOffsets, n);
+        for (int i = 0; i < n; i++) {
+            for (int e = dependencyOffsets[i]; e < dependencyOffsets[i + 1]; e++) {
+                dependentIndices[fill[dependencyIndices[e]]++] = i;
+            }
+        }
+
+        // Kahn's algorithm; the queue array doubles as the topological order
+        int[] remaining = new int[n];
+        int[] depth = new int[n];
+        int[] order = new int[n];
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < n; i++) {
+            remaining[i] = dependencyOffsets[i + 1] - dependencyOffsets[i];
+            if (remaining[i] == 0) {
+                order[tail++] = i;
+            }
+        }
+        int maxDepth = 0;
+        while (head < tail) {
+            int current = order[head++];
+            maxDepth = Math.max(maxDepth, depth[current]);
+            for (int e = dependentOffsets[current]; e < dependentOffsets[current + 1]; e++) {
+                int dependent = dependentIndices[e];
+                depth[dependent] = Math.max(depth[dependent], depth[current] + 1);
+                if (--remaining[dependent] == 0) {
+                    order[tail++] = dependent;
+                }
+            }
+        }
+
+        boolean cyclic = tail < n;
+        if (cyclic) {
+            errors.add("Circular dependency detected in path: " +
+                    cycleMembers(nodes, remaining, dependencyOffsets, dependencyIndices,
+                            dependentOffsets, dependentIndices));
+        }
+
+        int[] widths = new int[maxDepth + 1];
+        List<String> topologicalOrder = new ArrayList<>(tail);
+        for (int k = 0; k < tail; k++) {
+            topologicalOrder.add(nodes.get(order[k]).getReferenceId());
+            widths[depth[order[k]]]++;
+        }
+        List<Integer> levelWidths = new ArrayList<>(widths.length);
+        if (tail > 0) {
+            for (int width : widths) {
+                levelWidths.add(width);
+            }
+        }
+
+        String[] ids = new String[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = nodes.get(i).getReferenceId();
+        }
+        Graph graph = new Graph(ids, Collections.unmodifiableMap(index), dependencyOffsets,
+                dependentOffsets, dependentIndices);
+
+        return new ExecutionPlan(Collections.unmodifiableMap(requests), Collections.unmodifiableMap(dependencyMap),
+                Collections.unmodifiableList(topologicalOrder), Collections.unmodifiableList(levelWidths),
+                Collections.unmodifiableList(errors), cyclic ? 0 : maxDepth, cyclic, graph);
+    }
+
+    /**
+     * Returns a plan with the same structure for a new set of sub-requests.
+     *
+     * <p>Used to execute a validated
+     * {@link io.github.nabilcarel.composite.model.request.CompositeTemplate template} again
+     * without scanning its placeholders: the sub-requests must be declared in the same order,
+     * with the same reference IDs and the same {@code ${...}} placeholders, as the ones this
+     * plan was built from. Only values free of placeholders may differ.
+     *
+     * @param subRequests the sub-requests to execute
+     * @return a plan sharing this plan's dependency analysis
+     * @throws IllegalArgumentException if the reference IDs differ from this plan's
+     */
+    public ExecutionPlan bind(List<SubRequestDto> subRequests) {
+        if (subRequests.size() != requests.size()) {
+            throw new IllegalArgumentException("Expected " + requests.size() + " sub-requests, got " + subRequests.size());
+        }
+        Map<String, SubRequest> bound = new LinkedHashMap<>(requests.size() * 2);
+        for (SubRequestDto dto : subRequests) {
+            Set<String> nodeDependencies = dependencies.get(dto.getReferenceId());
+            if (nodeDependencies == null || bound.containsKey(dto.getReferenceId())) {
+                throw new IllegalArgumentException("Unexpected sub-request: " + dto.getReferenceId());
+            }
+            SubRequest node = new SubRequest(dto);
+            node.setDependencies(nodeDependencies);
+            bound.put(dto.getReferenceId(), node);
+        }
+        return new ExecutionPlan(Collections.unmodifiableMap(bound), dependencies, topologicalOrder, levelWidths,
+                errors, maxDepth, cyclic, graph);
+    }
+
+    /**
+     * Returns the dense-index adjacency built by the topological pass, shared by every plan
+     * {@link #bind bound} from this one.
+     */
+    Graph graph() {
+        return graph;
+    }
+
+    /**
+     * Narrows the nodes left over by the topological sort to those on a cycle, by peeling
+     * off nodes that only sit downstream of one.
+     */
+    private static List<String> cycleMembers(List<SubRequest> nodes, int[] remaining,
+                                             int[] dependencyOffsets, int[] dependencyIndices,
+                                             int[] dependentOffsets, int[] dependentIndices) {
+        int n = nodes.size();
+        int[] unreleasedDependents = new int[n];
+        int[] queue = new int[n];
+        int tail = 0;
+        for (int i = 0; i < n; i++) {
+            if (remaining[i] == 0) {
+                continue;
+            }
+            for (int e = dependentOffsets[i]; e < dependentOffsets[i + 1]; e++) {
+                if (remaining[dependentIndices[e]] > 0) {
+                    unreleasedDependents[i]++;
+                }
+            }
+            if (unreleasedDependents[i] == 0) {
+                queue[tail++] = i;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int current = queue[head];
+            remaining[current] = 0;
+            for (int e = dependencyOffsets[current]; e < dependencyOffsets[current + 1]; e++) {
+                int dependency = dependencyIndices[e];
+                if (remaining[dependency] > 0 && --unreleasedDependents[dependency] == 0) {
+                    queue[tail++] = dependency;
+                }
+            }
+        }
+
+        List<String> members = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (remaining[i] > 0) {
+                members.add(nodes.get(i).getReferenceId());
+            }
+        }
+        return members;
+    }
+
+    /**
+     * Returns the sub-request built for each unique {@code referenceId}, in declaration
+     * order.
+     *
+     * @return an unmodifiable map from reference ID to sub-request
+     */
+    public Map<String, SubRequest> getRequests() {
+        return requests;
+    }
+
+    /**
+     * Returns the dependency map consumed by the {@link SubRequestCoordinator}, i.e. the
+     * {@code referenceId}s each sub-request's placeholders refer to.
+     *
+     * @return an unmodifiable map from reference ID to its dependencies
+     */
+    public Map<String, Set<String>> getDependencies() {
+        return dependencies;
+    }
+
+    /**
+     * Returns the reference IDs in an order in which every sub-request comes after all of
+     * its dependencies. Nodes on or behind a cycle are omitted.
+     *
+     * @return an unmodifiable list of reference IDs
+     */
+    public List<String> getTopologicalOrder() {
+        return topologicalOrder;
+    }
+
+    /**
+     * Returns the number of sub-requests on each dependency level; entry {@code d} counts
+     * the sub-requests of depth {@code d}.
+     *
+     * @return an unmodifiable list with {@link #getMaxDepth()} {@code + 1} entries, or an
+     *         empty list when no sub-request could be ordered
+     */
+    public List<Integer> getLevelWidths() {
+        return levelWidths;
+    }
+
+    /**
+     * Returns the length of the longest dependency chain. A sub-request with no
+     * dependencies has depth {@code 0}; a sub-request depending on it has depth {@code 1},
+     * and so on.
+     *
+     * @return the maximum depth, or {@code 0} if the graph is cyclic
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Returns whether the dependency graph contains a cycle.
+     *
+     * @return {@code true} if at least one sub-request can never become ready
+     */
+    public boolean isCyclic() {
+        return cyclic;
+    }
+
+    /**
+     * Returns the structural errors found while building the plan: duplicate reference
+     * IDs, missing dependencies and cycles.
+     *
+     * @return an unmodifiable list of error messages; empty if the graph is executable
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    /**
+     * The dependency graph over dense indices: node {@code i} is {@code ids[i]} and depends on
+     * {@code dependencyOffsets[i + 1] - dependencyOffsets[i]} declared sub-requests, and its
+     * dependents are {@code dependentIndices[dependentOffsets[i] .. dependentOffsets[i + 1])}.
+     * The arrays are shared and must not be modified.
+     */
+    record Graph(String[] ids, Map<String, Integer> index, int[] dependencyOffsets,
+                 int[] dependentOffsets, int[] dependentIndices) {
+
+        int size() {
+            return ids.length;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package io.github.nabilcarel.composite.model;
+
+import io.github.nabilcarel.composite.model.response.CompositeResponse;
+import io.github.nabilcarel.composite.model.response.SubResponse;
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * {@link ResponseTracker} over the dense node indices of an {@link ExecutionPlan}.
+ *
+ * <p>Each sub-response is stored in an {@link AtomicReferenceArray} slot at the index the
+ * plan gave its sub-request, with a compare-and-set from {@code null}: the first response
+ * recorded for a sub-request wins and any later one is ignored, so a duplicate can neither
+ * overwrite a response nor count down twice and complete the batch early. Whether any
+ * response is an error is tracked as responses arrive, so completion does not scan them.
+ *
+ * <p>{@link #getSubResponseMap()} is a read-only view of the array that iterates in the
+ * declaration order of the sub-requests. Once every slot is filled the view no longer
+ * changes, and the aggregated {@link CompositeResponse} uses it directly, so its
+ * {@code responses} are in the client's request order without copying.
+ *
+ * @see ResponseTrackerImpl
+ * @see IndexedSubRequestCoordinator
+ * @since 0.0.1
+ */
+public class IndexedResponseTracker extends AbstractResponseTracker {
+
+    private final ExecutionPlan.Graph graph;
+    private final AtomicReferenceArray<SubResponse> responses;
+    private final AtomicBoolean hasErrors = new AtomicBoolean();
+    @Getter
+    private final Map<String, SubResponse> subResponseMap = new ResponseView();
+
+    /**
+     * Creates a tracker for one execution of the given plan, whose
+     * {@link #getDeadline() deadline} is {@code timeout} from now.
+     *
+     * @param plan    a plan without {@link ExecutionPlan#getErrors() errors}
+     * @param timeout the composite request timeout
+     * @throws IllegalArgumentException if the plan has errors
+     */
+    public IndexedResponseTracker(ExecutionPlan plan, Duration timeout) {
+        super(requireValid(plan).graph().size(), timeout);
+        this.graph = plan.graph();
+        this.responses = new AtomicReferenceArray<>(graph.size());
+    }
+
+    private static ExecutionPlan requireValid(ExecutionPlan plan) {
+        if (!plan.getErrors().isEmpty()) {
+            throw new IllegalArgumentException("Cannot track an invalid plan: " + plan.getErrors());
+        }
+        return plan;
+    }
+
+    /** Ignores unknown sub-requests and all but the first response of each. */
+    @Override
+    protected boolean store(String subRequestId, SubResponse subResponse) {
+        int node = indexOf(subRequestId);
+        if (node < 0 || !responses.compareAndSet(node, null, subResponse)) {
+            return false;
+        }
+        if (subResponse.getHttpStatus() < HttpStatus.OK.value()
+                || subResponse.getHttpStatus() >= HttpStatus.MULTIPLE_CHOICES.value()) {
+            hasErrors.set(true);
+        }
+        return true;
+    }
+
+    @Override
+    protected boolean storeIfAbsent(String subRequestId, SubResponse subResponse) {
+        return store(subRequestId, subResponse);
+    }
+
+    @Override
+    protected boolean hasErrors() {
+        return hasErrors.get();
+    }
+
+    private int indexOf(Object id) {
+        Integer node = graph.index().get(id);
+        return node != null ? node : -1;
+    }
+
+    /**
+     * Read-only view of the recorded responses, in declaration order. Its size and its
+     * iteration both read the slots of the array, so they agree except for responses
+     * recorded concurrently, which only ever add entries.
+     */
+    private final class ResponseView extends AbstractMap<String, SubResponse> {
+
+        private final Set<Map.Entry<String, SubResponse>> entries = new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<String, SubResponse>> iterator() {
+                return new Iterator<>() {
+                    private int next = advance(0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < graph.size();
+                    }
+
+                    @Override
+                    public Map.Entry<String, SubResponse> next() {
+                        if (next >= graph.size()) {
+                            throw new NoSuchElementException();
+                        }
+                        Map.Entry<String, SubResponse> entry = Map.entry(graph.ids()[next], responses.get(next));
+                        next = advance(next + 1);
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return ResponseView.this.size();
+            }
+        };
+
+        /** Returns the first index from {@code from} on that has a response. */
+        private int advance(int from) {
+            int i = from;
+            while (i < graph.size() && responses.get(i) == null) {
+                i++;
+            }
+            return i;
+        }
+
+        @Override
+        public SubResponse get(Object key) {
+            int node = indexOf(key);
+            return node >= 0 ? responses.get(node) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (int i = 0; i < graph.size(); i++) {
+                if (responses.get(i) != null) {
+                    size++;
+                }
+            }
+            return size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return advance(0) == graph.size();
+        }
+
+        @Override
+        public Set<Map.Entry<String, SubResponse>> entrySet() {
+            return entries;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package io.github.nabilcarel.composite.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * {@link SubRequestCoordinator} over the dense node indices of an {@link ExecutionPlan}.
+ *
+ * <p>The plan has already numbered the sub-requests and laid out their dependents as
+ * contiguous {@code int} ranges, so this coordinator only allocates two
+ * {@link AtomicIntegerArray}s per batch: the remaining dependency count of every node and
+ * its state. Reference IDs are translated to indices once per call, state transitions are
+ * compare-and-set operations on the state array, and no call builds a stream; calls that
+ * release nothing return an empty immutable list.
+ *
+ * <p>Plans {@link ExecutionPlan#bind bound} from a cached plan share its adjacency, so a
+ * batch of a known shape does not rebuild the graph either.
+ *
+ * @see SubRequestCoordinatorImpl
+ * @since 0.0.1
+ */
+public class IndexedSubRequestCoordinator implements SubRequestCoordinator {
+
+    private static final int PENDING = 0;
+    private static final int IN_PROGRESS = 1;
+    private static final int RESOLVED = 2;
+    private static final int FAILED = 3;
+    private static final int CANCELLED = 4;
+
+    private final ExecutionPlan.Graph graph;
+    private final AtomicIntegerArray remaining;
+    private final AtomicIntegerArray states;
+
+    /**
+     * Creates a coordinator for one execution of the given plan.
+     *
+     * @param plan a plan without {@link ExecutionPlan#getErrors() errors}
+     * @throws IllegalArgumentException if the plan has errors
+     */
+    public IndexedSubRequestCoordinator(ExecutionPlan plan) {
+        if (!plan.getErrors().isEmpty()) {
+            throw new IllegalArgumentException("Cannot coordinate an invalid plan: " + plan.getErrors());
+        }
+        this.graph = plan.graph();
+        int n = graph.size();
+        int[] dependencyOffsets = graph.dependencyOffsets();
+        int[] dependencyCounts = new int[n];
+        for (int i = 0; i < n; i++) {
+            dependencyCounts[i] = dependencyOffsets[i + 1] - dependencyOffsets[i];
+        }
+        this.remaining = new AtomicIntegerArray(dependencyCounts);
+        this.states = new AtomicIntegerArray(n);
+    }
+
+    @Override
+    public List<String> getInitialReadySubRequests() {
+        List<String> ready = new ArrayList<>();
+        for (int i = 0; i < graph.size(); i++) {
+            if (remaining.get(i) == 0 && states.get(i) == PENDING) {
+                ready.add(graph.ids()[i]);
+            }
+        }
+        return ready;
+    }
+
+    @Override
+    public List<String> markResolved(String id) {
+        int node = indexOf(id);
+        if (node < 0 || !states.compareAndSet(node, IN_PROGRESS, RESOLVED)) {
+            return List.of();
+        }
+
+        int[] dependentOffsets = graph.dependentOffsets();
+        int[] dependentIndices = graph.dependentIndices();
+        List<String> ready = null;
+        for (int e = dependentOffsets[node]; e < dependentOffsets[node + 1]; e++) {
+            int dependent = dependentIndices[e];
+            if (remaining.decrementAndGet(dependent) == 0 && states.get(dependent) == PENDING) {
+                if (ready == null) {
+                    ready = new ArrayList<>(dependentOffsets[node + 1] - e);
+                }
+                ready.add(graph.ids()[dependent]);
+            }
+        }
+        return ready != null ? ready : List.of();
+    }
+
+    @Override
+    public boolean markInProgress(String id) {
+        int node = indexOf(id);
+        return node >= 0 && states.compareAndSet(node, PENDING, IN_PROGRESS);
+    }
+
+    @Override
+    public List<String> failSubtree(String id) {
+        int node = indexOf(id);
+        if (node < 0 || !states.compareAndSet(node, IN_PROGRESS, RESOLVED)) {
+            return List.of();
+        }
+
+        int[] dependentOffsets = graph.dependentOffsets();
+        int[] dependentIndices = graph.dependentIndices();
+        if (dependentOffsets[node] == dependentOffsets[node + 1]) {
+            return List.of();
+        }
+
+        // Every node enters the queue once at most: only after winning its PENDING -> FAILED
+        // transition. The queue starts at the direct dependents and grows with the subtree
+        int[] queue = new int[dependentOffsets[node + 1] - dependentOffsets[node] + 1];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = node;
+        List<String> failed = new ArrayList<>(queue.length);
+        while (head < tail) {
+            int current = queue[head++];
+            for (int e = dependentOffsets[current]; e < dependentOffsets[current + 1]; e++) {
+                int dependent = dependentIndices[e];
+                if (states.compareAndSet(dependent, PENDING, FAILED)) {
+                    failed.add(graph.ids()[dependent]);
+                    if (tail == queue.length) {
+                        queue = Arrays.copyOf(queue, Math.min(graph.size(), queue.length * 2));
+                    }
+                    queue[tail++] = dependent;
+                }
+            }
+        }
+        return failed;
+    }
+
+    @Override
+    public List<String> cancelPending() {
+        List<String> cancelled = new ArrayList<>();
+        for (int i = 0; i < graph.size(); i++) {
+            if (states.compareAndSet(i, PENDING, CANCELLED)) {
+                cancelled.add(graph.ids()[i]);
+            }
+        }
+        return cancelled;
+    }
+
+    @Override
+    public boolean isResolved(String id) {
+        int node = indexOf(id);
+        return node >= 0 && states.get(node) == RESOLVED;
+    }
+
+    @Override
+    public boolean isBatchResolved() {
+        for (int i = 0; i < graph.size(); i++) {
+            int state = states.get(i);
+            if (state != RESOLVED && state != FAILED) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int indexOf(String id) {
+        Integer node = graph.index().get(id);
+        return node != null ? node : -1;
+    }
+}
@@ -0,0 +1,121 @@
+package io.github.nabilcarel.composite.model;
+
+import static io.github.nabilcarel.composite.util.Patterns.PLACEHOLDER_PATTERN;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.github.nabilcarel.composite.model.request.SubRequestDto;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+
+/**
+ * Computes the structural fingerprint of a composite request: everything its validation and
+ * {@link ExecutionPlan execution plan} depend on, with the literal values left out.
+ *
+ * <p>For every sub-request, in declaration order, the fingerprint records the
+ * {@code referenceId}, the method, the pattern of the endpoint its URL matched, whether a
+ * body is present, and the {@code ${...}} placeholders of the URL, the header values and the
+ * body strings, those of the body together with their positions. Two requests with the same
+ * fingerprint therefore have the same dependency graph and target the same endpoints, and
+ * differ only in literal values: {@code /api/users/1} and {@code /api/users/2} share a shape
+ * when both match {@code /api/users/{id}}.
+ *
+ * <p>The fingerprint is a string rather than a hash, and names and patterns in it are
+ * length-prefixed, so that two shapes can never be mistaken for each other.
+ *
+ * @see io.github.nabilcarel.composite.service.CompositeRequestValidator
+ * @since 0.0.1
+ */
+public final class RequestShape {
+
+    private RequestShape() {
+    }
+
+    /**
+     * Returns the fingerprint of the given sub-requests.
+     *
+     * @param subRequests the sub-requests in declaration order; each must have a
+     *                    {@code referenceId}, a method, a URL and its matched
+     *                    {@link SubRequestDto#getEndpointInfo() endpoint}
+     * @return the structural fingerprint
+     */
+    public static String of(List<SubRequestDto> subRequests) {
+        StringBuilder shape = new StringBuilder(subRequests.size() * 48);
+        for (SubRequestDto subRequest : subRequests) {
+            shape.append(subRequest.getReferenceId()).append(' ')
+                    .append(subRequest.getMethod()).append(' ');
+            appendText(shape, subRequest.getEndpointInfo().getPattern());
+            appendPlaceholders(shape, subRequest.getUrl());
+
+            for (Map.Entry<String, String> header : subRequest.getHeaders().entrySet()) {
+                if (header.getValue() != null && header.getValue().contains("${")) {
+                    shape.append(" h:");
+                    appendText(shape, header.getKey());
+                    appendPlaceholders(shape, header.getValue());
+                }
+            }
+
+            JsonNode body = subRequest.getBody();
+            if (body == null || body.isNull() || body.isMissingNode()) {
+                shape.append(" -");
+            } else {
+                shape.append(" b:");
+                appendBody(shape, body);
+            }
+            shape.append('\n');
+        }
+        return shape.toString();
+    }
+
+    private static void appendBody(StringBuilder shape, JsonNode node) {
+        if (node.isTextual()) {
+            String text = node.asText();
+            if (text.contains("${")) {
+                appendPlaceholders(shape, text);
+            } else {
+                shape.append('_');
+            }
+        } else if (node.isObject()) {
+            shape.append('{');
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (field.getValue().isContainerNode() || field.getValue().asText().contains("${")) {
+                    appendText(shape, field.getKey());
+                    appendBody(shape, field.getValue());
+                    shape.append(',');
+                }
+            }
+            shape.append('}');
+        } else if (node.isArray()) {
+            shape.append('[');
+            for (int i = 0; i < node.size(); i++) {
+                JsonNode element = node.get(i);
+                if (element.isContainerNode() || element.asText().contains("${")) {
+                    shape.append(i).append(':');
+                    appendBody(shape, element);
+                    shape.append(',');
+                }
+            }
+            shape.append(']');
+        } else {
+            shape.append('_');
+        }
+    }
+
+    /** Appends client-supplied text length-prefixed, so that no text can pass for structure. */
+    private static void appendText(StringBuilder shape, String text) {
+        shape.append(text.length()).append('\'').append(text);
+    }
+
+    private static void appendPlaceholders(StringBuilder shape, String value) {
+        if (!value.contains("${")) {
+            return;
+        }
+        Matcher matcher = PLACEHOLDER_PATTERN.matcher(value);
+        while (matcher.find()) {
+            appendText(shape, matcher.group());
+        }
+    }
+}
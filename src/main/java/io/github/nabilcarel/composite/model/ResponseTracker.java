@@ -68,6 +68,22 @@ public interface ResponseTracker {
      */
     void addResponse(String subRequestId, SubResponse subResponse);
 
+    /**
+     * Records several sub-request outcomes at once, skipping any {@code referenceId} that
+     * already has a response, and decrements the pending-response counter by the number
+     * of responses actually recorded.
+     *
+     * <p>Unlike {@link #addResponse}, this does not invoke the
+     * {@link #setOnSubRequestResolved(Consumer) per-sub-request callback}: it is used when
+     * the caller has already settled the affected part of the dependency graph, e.g. when a
+     * batch is aborted. Completes {@link #getFuture()} if no response is outstanding
+     * afterwards.
+     *
+     * @param subResponses the sub-responses to record, keyed by {@code referenceId}; must not
+     *                     be {@code null}
+     */
+    void addResponses(Map<String, SubResponse> subResponses);
+
     /**
      * Registers a callback to be invoked each time a sub-request completes.
      *
@@ -81,6 +97,44 @@ public interface ResponseTracker {
      */
     void setOnSubRequestResolved(Consumer<String> callback);
 
+    /**
+     * Registers a callback to be invoked with the aggregated response once every
+     * sub-request has completed.
+     *
+     * <p>The callback runs before {@link #getFuture()} is completed, so anything it
+     * records is visible to the code waiting on the future.
+     *
+     * @param callback the consumer to invoke on completion; must not be {@code null}
+     */
+    void setOnCompleted(Consumer<CompositeResponse> callback);
+
+    /**
+     * Registers a callback to be invoked when {@link #getFuture()} completes exceptionally:
+     * through {@link #cancel(Throwable)}, a timeout applied to the future, or cancellation
+     * of the future by whoever is waiting on it.
+     *
+     * <p>Used to stop the work still running on behalf of an abandoned composite request.
+     *
+     * @param callback the consumer to invoke with the cause; must not be {@code null}
+     */
+    void setOnCancelled(Consumer<Throwable> callback);
+
+    /**
+     * Returns the {@link System#nanoTime()} at which this tracker was created, i.e. when
+     * execution of the composite request started. Used to measure end-to-end latency.
+     *
+     * @return the creation timestamp in nanoseconds
+     */
+    long getStartNanos();
+
+    /**
+     * Returns the absolute deadline of the composite request, against which sub-request
+     * timeouts are capped.
+     *
+     * @return the deadline, or {@code null} if the tracker was created without one
+     */
+    Deadline getDeadline();
+
     /**
      * Cancels this tracker by completing {@link #getFuture()} exceptionally with the
      * given cause.
@@ -21,6 +21,9 @@ import java.util.List;
  *   <li>Dispatch the newly-ready nodes (again guarded by {@link #markInProgress}).</li>
  * </ol>
  *
+ * <p>A failed sub-request is settled with {@link #failSubtree(String)} instead of
+ * {@link #markResolved(String)}, which fails all of its transitive dependents at once.
+ *
  * <p>All methods must be thread-safe.
  *
  * @see SubRequestCoordinatorImpl
@@ -68,6 +71,32 @@ public interface SubRequestCoordinator {
      */
     boolean markInProgress(String id);
 
+    /**
+     * Marks the given sub-request as resolved with a failure and fails every transitive
+     * dependent in a single pass.
+     *
+     * <p>Each dependent still {@code PENDING} transitions to {@code FAILED} and is never
+     * dispatched; the walk visits each node at most once. The caller records one
+     * {@code 424 Failed Dependency} response per returned node, without going through the
+     * per-sub-request completion callback for each of them.
+     *
+     * @param id the {@code referenceId} of the failed sub-request; must not be {@code null}
+     * @return the {@code referenceId}s of the failed dependents, in breadth-first order;
+     *         never {@code null}, but may be empty
+     */
+    List<String> failSubtree(String id);
+
+    /**
+     * Cancels every sub-request that has not been dispatched yet.
+     *
+     * <p>Each {@code PENDING} node transitions to {@code CANCELLED}, after which
+     * {@link #markInProgress(String)} refuses it, so it is never dispatched. Called when the
+     * composite request times out or its client goes away.
+     *
+     * @return the {@code referenceId}s that were cancelled; never {@code null}
+     */
+    List<String> cancelPending();
+
     /**
      * Returns whether the sub-request identified by {@code id} has been resolved.
      *
@@ -79,7 +108,7 @@ public interface SubRequestCoordinator {
     /**
      * Returns whether every sub-request in the batch has been resolved.
      *
-     * @return {@code true} if all nodes are in the {@code RESOLVED} state
+     * @return {@code true} if all nodes are in the {@code RESOLVED} or {@code FAILED} state
      */
     boolean isBatchResolved();
 }
@@ -20,7 +20,10 @@ import lombok.Getter;
  *       complete.</li>
  *   <li>An {@link java.util.concurrent.atomic.AtomicReference AtomicReference}
  *       {@code state} that transitions {@code PENDING → IN_PROGRESS → RESOLVED} using
- *       compare-and-set operations to prevent double-dispatch in concurrent scenarios.</li>
+ *       compare-and-set operations to prevent double-dispatch in concurrent scenarios.
+ *       A node that is still {@code PENDING} when one of its transitive dependencies fails
+ *       moves to {@code FAILED}, and to {@code CANCELLED} when the batch is
+ *       abandoned.</li>
  * </ul>
  *
  * <p>Construction validates that all declared dependencies refer to known sub-request IDs;
@@ -91,19 +94,48 @@ public class SubRequestCoordinatorImpl implements SubRequestCoordinator {
         return node != null && node.markInProgress();
     }
 
+    public List<String> failSubtree(String id) {
+        SubRequestNode node = nodes.get(id);
+        if (node == null || !node.markResolved()) return List.of();
+
+        List<String> failed = new ArrayList<>();
+        Deque<String> queue = new ArrayDeque<>(node.getDependents());
+        while (!queue.isEmpty()) {
+            SubRequestNode dependent = nodes.get(queue.poll());
+            if (dependent != null && dependent.markFailed()) {
+                failed.add(dependent.id);
+                queue.addAll(dependent.getDependents());
+            }
+        }
+        return failed;
+    }
+
+    public List<String> cancelPending() {
+        List<String> cancelled = new ArrayList<>();
+        for (SubRequestNode node : nodes.values()) {
+            if (node.markCancelled()) {
+                cancelled.add(node.id);
+            }
+        }
+        return cancelled;
+    }
+
     public boolean isResolved(String id) {
         SubRequestNode node = nodes.get(id);
         return node != null && node.getState() == State.RESOLVED;
     }
 
     public boolean isBatchResolved() {
-        return nodes.values().stream().allMatch(n -> n.getState() == State.RESOLVED);
+        return nodes.values().stream()
+                .allMatch(n -> n.getState() == State.RESOLVED || n.getState() == State.FAILED);
     }
 
     public enum State {
         PENDING,
         IN_PROGRESS,
-        RESOLVED
+        RESOLVED,
+        FAILED,
+        CANCELLED
     }
 
     public static class SubRequestNode {
@@ -143,5 +175,13 @@ public class SubRequestCoordinatorImpl implements SubRequestCoordinator {
         public boolean markResolved() {
             return state.compareAndSet(State.IN_PROGRESS, State.RESOLVED);
         }
+
+        public boolean markFailed() {
+            return state.compareAndSet(State.PENDING, State.FAILED);
+        }
+
+        public boolean markCancelled() {
+            return state.compareAndSet(State.PENDING, State.CANCELLED);
+        }
     }
 }
@@ -0,0 +1,76 @@
+package io.github.nabilcarel.composite.model;
+
+import lombok.Getter;
+
+/**
+ * Records the {@link System#nanoTime()} at which a sub-request passed each phase of its
+ * execution.
+ *
+ * <p>One instance is attached to each
+ * {@link io.github.nabilcarel.composite.model.request.SubRequest SubRequest} and filled in
+ * by a single thread as the sub-request is dispatched. A mark that was never reached —
+ * for example because reference resolution failed — stays {@code 0}. The values are read
+ * only after the composite request has completed, which happens-after every mark.
+ *
+ * @see io.github.nabilcarel.composite.metrics.CompositeTimings
+ * @since 0.0.1
+ */
+@Getter
+public class SubRequestTiming {
+
+    /** When the sub-request was handed to the request service. */
+    private long dispatchedNanos;
+
+    /** When reference resolution finished. */
+    private long resolvedNanos;
+
+    /** When the loopback call was started. */
+    private long sentNanos;
+
+    /** When the loopback response status and headers arrived. */
+    private long respondedNanos;
+
+    /** When the response body was read and the sub-response recorded. */
+    private long completedNanos;
+
+    public void markDispatched() {
+        dispatchedNanos = System.nanoTime();
+    }
+
+    public void markResolved() {
+        resolvedNanos = System.nanoTime();
+    }
+
+    public void markSent() {
+        sentNanos = System.nanoTime();
+    }
+
+    public void markResponded() {
+        respondedNanos = System.nanoTime();
+    }
+
+    public void markCompleted() {
+        completedNanos = System.nanoTime();
+    }
+
+    /**
+     * Returns whether the sub-request was dispatched at all. Sub-requests skipped with
+     * {@code 424 Failed Dependency} never are.
+     *
+     * @return {@code true} if {@link #markDispatched()} was called
+     */
+    public boolean isDispatched() {
+        return dispatchedNanos != 0;
+    }
+
+    /**
+     * Returns the last mark reached, used as the end of execution when the sub-request
+     * failed before its response was recorded.
+     *
+     * @return the latest non-zero mark, or {@code 0} if the sub-request was never dispatched
+     */
+    public long getEndNanos() {
+        return Math.max(Math.max(dispatchedNanos, resolvedNanos),
+                Math.max(Math.max(sentNanos, respondedNanos), completedNanos));
+    }
+}
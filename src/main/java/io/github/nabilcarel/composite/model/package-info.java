@@ -5,10 +5,17 @@
  * <ul>
  *   <li>{@link io.github.nabilcarel.composite.model.ResponseTracker} /
  *       {@link io.github.nabilcarel.composite.model.ResponseTrackerImpl} — accumulates
- *       sub-responses and signals overall completion.</li>
+ *       sub-responses and signals overall completion, on top of
+ *       {@link io.github.nabilcarel.composite.model.AbstractResponseTracker};
+ *       {@link io.github.nabilcarel.composite.model.IndexedResponseTracker} does the same
+ *       over the dense node indices of an {@code ExecutionPlan}.</li>
+ *   <li>{@link io.github.nabilcarel.composite.model.ExecutionPlan} — the validated
+ *       dependency graph, topological order and level widths of a request.</li>
  *   <li>{@link io.github.nabilcarel.composite.model.SubRequestCoordinator} /
  *       {@link io.github.nabilcarel.composite.model.SubRequestCoordinatorImpl} — manages
- *       the dependency DAG and determines execution order.</li>
+ *       the dependency DAG and determines execution order;
+ *       {@link io.github.nabilcarel.composite.model.IndexedSubRequestCoordinator} does the
+ *       same over the dense node indices of an {@code ExecutionPlan}.</li>
  *   <li>{@link io.github.nabilcarel.composite.model.NodeReference},
  *       {@link io.github.nabilcarel.composite.model.ObjectFieldReference},
  *       {@link io.github.nabilcarel.composite.model.ArrayElementReference} — structural
@@ -1,5 +1,7 @@
 package io.github.nabilcarel.composite.model.request;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.github.nabilcarel.composite.model.ExecutionPlan;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import java.util.List;
@@ -54,13 +56,59 @@ public class CompositeRequest {
     @NotEmpty(message = "At least one sub-request is required")
     private List<@Valid SubRequestDto> subRequests;
 
+    /**
+     * How the batch reacts to a failed sub-request.
+     *
+     * <p>Defaults to {@link ExecutionMode#PARTIAL}, meaning partial success is allowed:
+     * completed sub-requests are still returned alongside error entries for failed ones.
+     * {@link ExecutionMode#ALL_OR_NONE} stops dispatching after the first failure.
+     */
+    @Builder.Default
+    private ExecutionMode executionMode = ExecutionMode.PARTIAL;
+
     /**
      * When {@code true}, any sub-request failure causes the entire composite request to be
      * treated as failed.
      *
-     * <p>Defaults to {@code false}, meaning partial success is allowed: completed
-     * sub-requests are still returned alongside error entries for failed ones.
+     * <p>Alias for {@code executionMode: allOrNone}, kept for compatibility.
      */
     @Builder.Default
     private boolean allOrNone = false;
+
+    /**
+     * The dependency analysis computed by
+     * {@link io.github.nabilcarel.composite.service.CompositeRequestValidator#validateRequest
+     * validation}, reused at execution so the sub-requests are only scanned once.
+     *
+     * <p>Never bound from or written to JSON; {@code null} until the request has been
+     * validated.
+     */
+    @JsonIgnore
+    private transient ExecutionPlan executionPlan;
+
+    /**
+     * Returns the execution mode to apply, taking the {@link #isAllOrNone() allOrNone}
+     * alias into account.
+     *
+     * @return the effective execution mode; never {@code null}
+     */
+    public ExecutionMode resolveExecutionMode() {
+        if (allOrNone) {
+            return ExecutionMode.ALL_OR_NONE;
+        }
+        return executionMode != null ? executionMode : ExecutionMode.PARTIAL;
+    }
+
+    /**
+     * Returns the execution plan recorded by validation, building it if the request has not
+     * been validated.
+     *
+     * @return the execution plan for {@link #getSubRequests() subRequests}; never {@code null}
+     */
+    public ExecutionPlan resolveExecutionPlan() {
+        if (executionPlan == null) {
+            executionPlan = ExecutionPlan.of(subRequests);
+        }
+        return executionPlan;
+    }
 }
@@ -1,5 +1,6 @@
 package io.github.nabilcarel.composite.model.request;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.ReadListener;
 import jakarta.servlet.ServletInputStream;
@@ -71,4 +72,8 @@ public class CompositeRequestWrapper extends HttpServletRequestWrapper {
   public CompositeRequest getBody() throws IOException {
     return objectMapper.readValue(bodyBytes, CompositeRequest.class);
   }
+
+  public JsonNode getBodyTree() throws IOException {
+    return objectMapper.readTree(bodyBytes);
+  }
 }
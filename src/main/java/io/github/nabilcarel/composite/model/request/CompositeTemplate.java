@@ -0,0 +1,61 @@
+package io.github.nabilcarel.composite.model.request;
+
+import java.util.List;
+import java.util.Set;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+
+/**
+ * A composite request registered on the server under a name, executed by clients with
+ * {@code POST {basePath}/templates/{name}} and a JSON object of parameter values.
+ *
+ * <p>Templates are declared as beans or under {@code composite.templates} and are validated
+ * once, at startup, by the
+ * {@link io.github.nabilcarel.composite.config.CompositeTemplateRegistry
+ * CompositeTemplateRegistry}. Each execution then only binds the parameter values and
+ * dispatches the sub-requests, skipping parsing, validation, endpoint matching and
+ * dependency analysis.
+ *
+ * <p>Sub-requests reference parameters as {@code {{name}}} in their URL, header values and
+ * body strings, and each other with the usual {@code ${referenceId.property}}
+ * placeholders. In a URL the value is percent-encoded; a body string consisting of a single
+ * {@code {{name}}} is replaced by the JSON value itself, keeping its type.
+ *
+ * <h2>Example</h2>
+ * <pre class="code">
+ * &#64;Bean
+ * CompositeTemplate dashboard() {
+ *     return CompositeTemplate.builder()
+ *             .name("dashboard")
+ *             .parameter("userId")
+ *             .subRequest(SubRequestDto.builder()
+ *                     .referenceId("user").method("GET").url("/api/users/{{userId}}").build())
+ *             .subRequest(SubRequestDto.builder()
+ *                     .referenceId("orders").method("GET").url("/api/orders?userId=${user.id}").build())
+ *             .build();
+ * }
+ * </pre>
+ *
+ * @see io.github.nabilcarel.composite.config.CompositeTemplateRegistry
+ * @since 0.0.1
+ */
+@Getter
+@Builder
+public class CompositeTemplate {
+
+    /** The name the template is executed by; unique among registered templates. */
+    private final String name;
+
+    /** The names of the parameters a client must supply. */
+    @Singular
+    private final Set<String> parameters;
+
+    /** The sub-requests, with {@code {{name}}} parameter placeholders. */
+    @Singular
+    private final List<SubRequestDto> subRequests;
+
+    /** How the batch reacts to a failed sub-request. Defaults to {@link ExecutionMode#PARTIAL}. */
+    @Builder.Default
+    private final ExecutionMode executionMode = ExecutionMode.PARTIAL;
+}
@@ -0,0 +1,47 @@
+package io.github.nabilcarel.composite.model.request;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Controls how a composite request reacts to a failed sub-request.
+ *
+ * <p>Serialized as {@code "partial"} or {@code "allOrNone"}; deserialization also accepts
+ * the constant names, case-insensitively.
+ *
+ * @see CompositeRequest#getExecutionMode()
+ * @since 0.0.1
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ExecutionMode {
+
+    /**
+     * Every sub-request whose dependencies succeeded is executed; only the dependents of a
+     * failed sub-request are skipped with {@code 424 Failed Dependency}. This is the
+     * default.
+     */
+    PARTIAL("partial"),
+
+    /**
+     * The first non-2xx sub-response aborts the batch: in-flight sub-requests are
+     * cancelled and every sub-request without a response is recorded as skipped with
+     * {@code 424 Failed Dependency}, so the composite response is returned immediately.
+     */
+    ALL_OR_NONE("allOrNone");
+
+    @JsonValue
+    private final String value;
+
+    @JsonCreator
+    public static ExecutionMode fromValue(String value) {
+        for (ExecutionMode mode : values()) {
+            if (mode.value.equalsIgnoreCase(value) || mode.name().equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown execution mode: " + value);
+    }
+}
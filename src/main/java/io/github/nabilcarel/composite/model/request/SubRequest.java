@@ -9,6 +9,8 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.github.nabilcarel.composite.model.ArrayElementReference;
 import io.github.nabilcarel.composite.model.NodeReference;
 import io.github.nabilcarel.composite.model.ObjectFieldReference;
+import io.github.nabilcarel.composite.model.SubRequestTiming;
+import io.micrometer.observation.Observation;
 import java.util.*;
 import java.util.regex.Matcher;
 import lombok.*;
@@ -74,6 +76,27 @@ public class SubRequest {
      */
     private List<NodeReference> nodeReferences = new ArrayList<>();
 
+    /**
+     * Observation of the enclosing composite batch, used as the parent of this
+     * sub-request's observations; {@code null} when observation is disabled.
+     */
+    private volatile Observation parentObservation;
+
+    /**
+     * The open "waiting for dependencies" observation, stopped when the sub-request is
+     * dispatched; {@code null} when there is none.
+     */
+    private volatile Observation waitObservation;
+
+    /**
+     * The registered endpoint pattern the resolved URL matched; {@code null} until the
+     * sub-request has been validated for dispatch.
+     */
+    private volatile String endpointPattern;
+
+    /** Phase timestamps recorded while this sub-request executes. */
+    private final SubRequestTiming timing = new SubRequestTiming();
+
     /**
      * Returns the set of {@code referenceId}s that this sub-request depends on.
      *
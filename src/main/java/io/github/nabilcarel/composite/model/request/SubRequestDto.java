@@ -1,9 +1,11 @@
 package io.github.nabilcarel.composite.model.request;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonSetter;
 import com.fasterxml.jackson.annotation.Nulls;
 import com.fasterxml.jackson.databind.JsonNode;
+import io.github.nabilcarel.composite.config.EndpointRegistry.EndpointInfo;
 import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
@@ -111,6 +113,17 @@ public class SubRequestDto {
     @JsonSetter(nulls = Nulls.AS_EMPTY)
     private Map<String, String> headers = new HashMap<>();
 
+    /**
+     * The registered endpoint the {@link #url} template matched, recorded by
+     * {@link io.github.nabilcarel.composite.service.CompositeRequestValidator#validateEndpointAccess
+     * validation} so that execution does not match it again.
+     *
+     * <p>Never bound from or written to JSON; {@code null} until the sub-request has been
+     * validated.
+     */
+    @JsonIgnore
+    private transient EndpointInfo endpointInfo;
+
     /**
      * Bean Validation constraint that ensures a request body is present for methods that
      * require one ({@code POST}, {@code PUT}, {@code PATCH}).
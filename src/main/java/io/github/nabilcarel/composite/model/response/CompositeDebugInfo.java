@@ -1,5 +1,6 @@
 package io.github.nabilcarel.composite.model.response;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import lombok.*;
@@ -40,6 +41,19 @@ public class CompositeDebugInfo {
      */
     private Map<String, SubRequestDebugInfo> resolvedRequests;
 
+    /**
+     * The {@code referenceId}s on the critical path of the execution, in execution order:
+     * the chain of sub-requests that determined the total latency.
+     */
+    private List<String> criticalPath;
+
+    /**
+     * How many milliseconds each dispatched sub-request could have been delayed without
+     * delaying the composite response, keyed by {@code referenceId}. Sub-requests on the
+     * critical path have zero slack.
+     */
+    private Map<String, Double> slackMs;
+
     /**
      * Captures the before-and-after state of a single sub-request's URL and body after
      * placeholder resolution.
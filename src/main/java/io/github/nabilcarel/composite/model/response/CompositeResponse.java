@@ -28,6 +28,7 @@ import lombok.*;
  *
  * @see SubResponse
  * @see CompositeDebugInfo
+ * @see CompositeTimingInfo
  * @see io.github.nabilcarel.composite.model.request.CompositeRequest
  * @since 0.0.1
  */
@@ -72,4 +73,12 @@ public class CompositeResponse {
      */
     @JsonInclude(JsonInclude.Include.NON_NULL)
     private CompositeDebugInfo debug;
+
+    /**
+     * Optional timing breakdown included when both
+     * {@code composite.timing.enabled} and {@code composite.timing.include-in-body} are
+     * {@code true}. Contains durations only.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private CompositeTimingInfo timings;
 }
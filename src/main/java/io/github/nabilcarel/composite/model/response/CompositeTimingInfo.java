@@ -0,0 +1,69 @@
+package io.github.nabilcarel.composite.model.response;
+
+import java.util.List;
+import java.util.Map;
+import lombok.*;
+
+/**
+ * Timing breakdown appended to a {@link CompositeResponse} when
+ * {@code composite.timing.include-in-body} is {@code true}.
+ *
+ * <p>Unlike {@link CompositeDebugInfo}, the timing block contains durations only — no
+ * URLs, headers or bodies — and is safe to enable in production. All durations are in
+ * milliseconds.
+ *
+ * @see CompositeResponse
+ * @see io.github.nabilcarel.composite.metrics.CompositeTimings
+ * @since 0.0.1
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompositeTimingInfo {
+
+    /** Time from the start of execution until the last sub-request completed. */
+    private double totalMs;
+
+    /**
+     * Sum of the execution times of the sub-requests on the critical path — the chain of
+     * dependencies that determined when the batch finished. The difference to
+     * {@link #totalMs} is scheduling overhead.
+     */
+    private double criticalPathMs;
+
+    /** {@code referenceId}s on the critical path, in execution order. */
+    private List<String> criticalPath;
+
+    /** Per-sub-request breakdown, keyed by {@code referenceId}; dispatched sub-requests only. */
+    private Map<String, SubRequestTimingInfo> subRequests;
+
+    /**
+     * Phase durations of a single sub-request.
+     *
+     * @since 0.0.1
+     */
+    @Getter
+    @Setter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SubRequestTimingInfo {
+
+        /** Time from the start of execution until dispatch, including waiting for dependencies. */
+        private double queuedMs;
+
+        /** Time spent resolving {@code ${...}} references. */
+        private double resolveMs;
+
+        /** Time from sending the loopback call until its response headers arrived. */
+        private double networkMs;
+
+        /** Time spent reading and deserialising the response body. */
+        private double parseMs;
+
+        /** Time from the start of execution until the sub-request completed. */
+        private double totalMs;
+    }
+}
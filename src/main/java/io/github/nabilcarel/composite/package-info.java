@@ -54,6 +54,7 @@
  *   <tr><td>{@code config.filter}</td><td>Servlet filter that drives the execution pipeline</td></tr>
  *   <tr><td>{@code controller}</td><td>Built-in composite REST controller</td></tr>
  *   <tr><td>{@code exception}</td><td>Library-specific exception hierarchy</td></tr>
+ *   <tr><td>{@code metrics}</td><td>Micrometer instrumentation hooks</td></tr>
  *   <tr><td>{@code model}</td><td>Runtime coordination types (tracker, coordinator)</td></tr>
  *   <tr><td>{@code model.request}</td><td>Request DTOs and servlet request wrapper</td></tr>
  *   <tr><td>{@code model.response}</td><td>Response DTOs and servlet response wrapper</td></tr>
@@ -33,4 +33,18 @@ public interface AuthenticationForwardingService {
      *                        populate; must not be {@code null}
      */
     void forwardAuthentication(HttpServletRequest originalRequest, HttpHeaders targetHeaders);
+
+    /**
+     * Copies the configured forwarded headers from {@code originalHeaders} into
+     * {@code targetHeaders}.
+     *
+     * <p>Reactive counterpart of {@link #forwardAuthentication(HttpServletRequest, HttpHeaders)},
+     * used when the composite request was received by the WebFlux front end.
+     *
+     * @param originalHeaders the headers of the incoming composite request; must not be
+     *                        {@code null}
+     * @param targetHeaders   the mutable {@link HttpHeaders} of the outbound sub-request to
+     *                        populate; must not be {@code null}
+     */
+    void forwardAuthentication(HttpHeaders originalHeaders, HttpHeaders targetHeaders);
 }
@@ -19,4 +19,13 @@ public class AuthenticationForwardingServiceImpl implements AuthenticationForwar
             }
         }
     }
+
+    public void forwardAuthentication(HttpHeaders originalHeaders, HttpHeaders targetHeaders) {
+        for (String headerName : properties.getSecurity().getForwardedHeaders()) {
+            String value = originalHeaders.getFirst(headerName);
+            if (value != null) {
+                targetHeaders.add(headerName, value);
+            }
+        }
+    }
 }
@@ -0,0 +1,166 @@
+package io.github.nabilcarel.composite.service;
+
+import io.github.nabilcarel.composite.config.CompositeProperties;
+import io.github.nabilcarel.composite.metrics.CompositeMetrics;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Circuit breaker guarding a single registered endpoint, identified by its HTTP method and
+ * pattern.
+ *
+ * <p>While {@link State#CLOSED CLOSED}, the outcome of every sub-request is recorded in a
+ * count-based sliding window of {@code sliding-window-size} calls. Once the window holds at
+ * least {@code minimum-calls} calls and either the failure rate or the slow-call rate
+ * reaches its threshold, the breaker {@link State#OPEN opens} and rejects every call for
+ * {@code wait-duration-in-open-state}. It then lets at most
+ * {@code permitted-calls-in-half-open-state} probes through ({@link State#HALF_OPEN
+ * HALF_OPEN}): if they all succeed the breaker closes, and the first failing probe opens
+ * it again.
+ *
+ * <p>A call fails if it ends with an error or a {@code 5xx} status. All methods are
+ * {@code synchronized}; each sub-request takes the lock twice.
+ *
+ * @see CircuitBreakerRegistry
+ * @since 0.0.1
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    /** The state of a {@link CircuitBreaker}. */
+    public enum State {
+        /** Calls are permitted and their outcome is recorded. */
+        CLOSED,
+        /** Calls are rejected until the wait duration elapses. */
+        OPEN,
+        /** A limited number of probe calls are permitted to test the endpoint. */
+        HALF_OPEN
+    }
+
+    private final String method;
+    private final String pattern;
+    private final CompositeProperties.CircuitBreaker config;
+    private final CompositeMetrics metrics;
+
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int next;
+    private int calls;
+    private int failures;
+    private int slowCalls;
+
+    @Getter
+    private volatile State state = State.CLOSED;
+    private long openedAtNanos;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    public CircuitBreaker(String method, String pattern, CompositeProperties.CircuitBreaker config,
+                          CompositeMetrics metrics) {
+        this.method = method;
+        this.pattern = pattern;
+        this.config = config;
+        this.metrics = metrics;
+        int windowSize = Math.max(1, config.getSlidingWindowSize());
+        this.failed = new boolean[windowSize];
+        this.slow = new boolean[windowSize];
+    }
+
+    /**
+     * Asks permission to send a call.
+     *
+     * @return {@code true} if the call may proceed; its outcome must then be reported with
+     *         {@link #onResult} or {@link #release}
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAtNanos < config.getWaitDurationInOpenState().toNanos()) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesStarted >= config.getPermittedCallsInHalfOpenState()) {
+                return false;
+            }
+            probesStarted++;
+        }
+        return true;
+    }
+
+    /**
+     * Records the outcome of a permitted call.
+     *
+     * @param failure       whether the call failed
+     * @param durationNanos how long the call took
+     */
+    public synchronized void onResult(boolean failure, long durationNanos) {
+        boolean slowCall = durationNanos >= config.getSlowCallDuration().toNanos();
+        switch (state) {
+            case CLOSED -> {
+                record(failure, slowCall);
+                if (calls >= config.getMinimumCalls()
+                        && (failures >= config.getFailureRateThreshold() * calls
+                            || slowCalls >= config.getSlowCallRateThreshold() * calls)) {
+                    log.warn("Opening circuit breaker for {} {}: {}/{} failed, {}/{} slow",
+                            method, pattern, failures, calls, slowCalls, calls);
+                    transitionTo(State.OPEN);
+                }
+            }
+            case HALF_OPEN -> {
+                if (failure || slowCall) {
+                    transitionTo(State.OPEN);
+                } else if (++probesSucceeded >= config.getPermittedCallsInHalfOpenState()) {
+                    transitionTo(State.CLOSED);
+                }
+            }
+            case OPEN -> {
+                // Call permitted before the breaker opened; its outcome no longer matters
+            }
+        }
+    }
+
+    /**
+     * Releases the permission of a call that was cancelled before it completed, so that a
+     * cancelled probe does not keep the breaker half-open.
+     */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN && probesStarted > probesSucceeded) {
+            probesStarted--;
+        }
+    }
+
+    private void record(boolean failure, boolean slowCall) {
+        if (calls == failed.length) {
+            failures -= failed[next] ? 1 : 0;
+            slowCalls -= slow[next] ? 1 : 0;
+        } else {
+            calls++;
+        }
+        failed[next] = failure;
+        slow[next] = slowCall;
+        failures += failure ? 1 : 0;
+        slowCalls += slowCall ? 1 : 0;
+        next = (next + 1) % failed.length;
+    }
+
+    private void transitionTo(State target) {
+        state = target;
+        probesStarted = 0;
+        probesSucceeded = 0;
+        switch (target) {
+            case OPEN -> {
+                openedAtNanos = System.nanoTime();
+                metrics.recordCircuitBreaker(method, pattern, "opened");
+            }
+            case HALF_OPEN -> metrics.recordCircuitBreaker(method, pattern, "half_opened");
+            case CLOSED -> {
+                next = 0;
+                calls = 0;
+                failures = 0;
+                slowCalls = 0;
+                metrics.recordCircuitBreaker(method, pattern, "closed");
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.nabilcarel.composite.service;
+
+import io.github.nabilcarel.composite.config.CompositeProperties;
+import io.github.nabilcarel.composite.metrics.CompositeMetrics;
+import io.github.nabilcarel.composite.model.response.SubResponse;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Holds one {@link CircuitBreaker} per registered endpoint and applies it to sub-requests,
+ * as configured by {@link CompositeProperties.CircuitBreaker}.
+ *
+ * <p>Breakers are keyed by HTTP method and endpoint pattern, and created on first use. When
+ * a breaker rejects a sub-request, it completes immediately with a
+ * {@code 503 Service Unavailable} sub-response instead of waiting for the sub-request
+ * timeout.
+ *
+ * @see io.github.nabilcarel.composite.autoconfigure.CompositeHealthIndicator
+ * @since 0.0.1
+ */
+@Service
+public class CircuitBreakerRegistry {
+
+    private final CompositeProperties.CircuitBreaker config;
+    private final CompositeMetrics metrics;
+    private final ConcurrentMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public CircuitBreakerRegistry(CompositeProperties properties, CompositeMetrics metrics) {
+        this.config = properties.getCircuitBreaker();
+        this.metrics = metrics;
+    }
+
+    /**
+     * Guards a sub-request with the circuit breaker of its endpoint.
+     *
+     * @param method      the HTTP method of the sub-request
+     * @param pattern     the endpoint pattern the sub-request matched
+     * @param referenceId the {@code referenceId} of the sub-request
+     * @param execution   the sub-request execution, including any retries
+     * @return {@code execution} whose outcome is recorded, or a {@code 503} sub-response if
+     *         the breaker is open; {@code execution} itself if breakers are disabled
+     */
+    public Mono<SubResponse> protect(String method, String pattern, String referenceId,
+                                     Mono<SubResponse> execution) {
+        if (!config.isEnabled()) {
+            return execution;
+        }
+        String upperMethod = method.toUpperCase();
+        CircuitBreaker breaker = breakers.computeIfAbsent(upperMethod + " " + pattern,
+                key -> new CircuitBreaker(upperMethod, pattern, config, metrics));
+
+        return Mono.defer(() -> {
+            if (!breaker.tryAcquire()) {
+                metrics.recordCircuitBreaker(upperMethod, pattern, "rejected");
+                return Mono.just(SubResponse.builder()
+                        .referenceId(referenceId)
+                        .httpStatus(HttpStatus.SERVICE_UNAVAILABLE.value())
+                        .body("Circuit breaker open for " + upperMethod + " " + pattern)
+                        .build());
+            }
+            long start = System.nanoTime();
+            return execution
+                    .doOnSuccess(response -> breaker.onResult(
+                            response == null || response.getHttpStatus() >= 500, System.nanoTime() - start))
+                    .doOnError(error -> breaker.onResult(true, System.nanoTime() - start))
+                    .doOnCancel(breaker::release);
+        });
+    }
+
+    /**
+     * Returns the state of every breaker created so far.
+     *
+     * @return breaker states keyed by {@code "METHOD pattern"}, sorted by key
+     */
+    public Map<String, CircuitBreaker.State> getStates() {
+        Map<String, CircuitBreaker.State> states = new TreeMap<>();
+        breakers.forEach((key, breaker) -> states.put(key, breaker.getState()));
+        return states;
+    }
+}
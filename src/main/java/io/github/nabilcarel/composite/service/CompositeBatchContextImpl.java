@@ -2,14 +2,26 @@ package io.github.nabilcarel.composite.service;
 
 import io.github.nabilcarel.composite.model.ResponseTracker;
 import io.github.nabilcarel.composite.model.SubRequestCoordinator;
+import io.github.nabilcarel.composite.model.request.ExecutionMode;
 import io.github.nabilcarel.composite.model.request.SubRequest;
 import io.github.nabilcarel.composite.model.response.SubResponse;
 import jakarta.servlet.http.HttpServletRequest;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
 import reactor.core.publisher.Mono;
 
 /**
@@ -20,104 +32,284 @@ import reactor.core.publisher.Mono;
  * <p>On construction, registers {@link #handleSubRequestResolved(String)} as the callback
  * on the {@link ResponseTracker}. Each time a sub-request completes, the callback:
  * <ol>
- *   <li>Asks the {@link SubRequestCoordinator} which sub-requests are now ready
+ *   <li>If the sub-request failed ({@code 4xx}/{@code 5xx}), fails its whole subtree via
+ *       {@link SubRequestCoordinator#failSubtree(String)} and records a synthetic
+ *       {@code 424 Failed Dependency} response for every transitive dependent in a single
+ *       {@link ResponseTracker#addResponses(Map) tracker update}.</li>
+ *   <li>Otherwise asks the {@link SubRequestCoordinator} which sub-requests are now ready
  *       ({@link SubRequestCoordinator#markResolved(String)}).</li>
  *   <li>Atomically marks each ready sub-request as {@code IN_PROGRESS}
  *       ({@link SubRequestCoordinator#markInProgress(String)}) to prevent concurrent
  *       double-dispatch.</li>
- *   <li>Checks whether any of the newly-ready sub-requests have failed dependencies; if so,
- *       a synthetic {@code 424 Failed Dependency} response is recorded immediately.</li>
- *   <li>Dispatches the remaining ready sub-requests via
+ *   <li>Dispatches the ready sub-requests via
  *       {@link CompositeRequestService#forwardSubrequest}.</li>
  * </ol>
  *
+ * <p>Ready sub-requests are queued and dispatched as long as fewer than
+ * {@code maxConcurrency} are in flight; every completion frees a slot and drains the queue
+ * again. A cap of {@code 0} dispatches everything at once. Large composites are given a cap
+ * through {@link io.github.nabilcarel.composite.config.CompositeProperties.LargeBatch
+ * composite.large-batch}, so a wide wave of thousands of independent sub-requests cannot
+ * exhaust loopback connections.
+ *
+ * <p>Every dispatch subscription is tracked until it terminates, so the bookkeeping grows
+ * with the number of sub-requests in flight rather than the size of the batch. When the
+ * tracker's future completes
+ * exceptionally — composite timeout or client disconnect — the context cancels the
+ * sub-requests that are still pending and disposes the in-flight ones, so an abandoned
+ * composite stops consuming loopback connections.
+ *
+ * <p>In {@link ExecutionMode#ALL_OR_NONE} mode the first non-2xx sub-response aborts the
+ * batch the same way, and every sub-request still without a response is recorded as
+ * skipped so the tracker completes at once.
+ *
  * @see CompositeBatchContext
  * @since 0.0.1
  */
+@Slf4j
 public class CompositeBatchContextImpl implements CompositeBatchContext {
     @Getter
     private final ResponseTracker tracker;
     private final SubRequestCoordinator coordinator;
     private final Map<String, SubRequest> requestMap;
-    private final CompositeRequestService requestService;
     private final String batchId;
-    private final HttpServletRequest servletRequest;
+    private final ExecutionMode executionMode;
+    private final Function<SubRequest, Mono<Void>> dispatcher;
+    private final int maxConcurrency;
+    private final AtomicBoolean aborted = new AtomicBoolean();
+    private final Disposable.Composite subscriptions = Disposables.composite();
+    private final Queue<String> readyQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger drainRequests = new AtomicInteger();
+
+    public CompositeBatchContextImpl(
+            ResponseTracker tracker,
+            SubRequestCoordinator coordinator,
+            Map<String, SubRequest> requestMap,
+            CompositeRequestService requestService,
+            String batchId,
+            HttpServletRequest servletRequest,
+            ExecutionMode executionMode
+    ) {
+        this(tracker, coordinator, requestMap, requestService, batchId, servletRequest, executionMode, 0);
+    }
+
+    /**
+     * Creates a context for a composite request received by the servlet
+     * {@link io.github.nabilcarel.composite.config.filter.CompositeRequestFilter filter} that
+     * keeps at most {@code maxConcurrency} sub-requests in flight, or any number if
+     * {@code 0}.
+     */
+    public CompositeBatchContextImpl(
+            ResponseTracker tracker,
+            SubRequestCoordinator coordinator,
+            Map<String, SubRequest> requestMap,
+            CompositeRequestService requestService,
+            String batchId,
+            HttpServletRequest servletRequest,
+            ExecutionMode executionMode,
+            int maxConcurrency
+    ) {
+        this(tracker, coordinator, requestMap, batchId, executionMode, maxConcurrency,
+                subRequest -> requestService.forwardSubrequest(subRequest, batchId, servletRequest));
+    }
+
+    /**
+     * Creates a context for a composite request received by the reactive
+     * {@link io.github.nabilcarel.composite.controller.CompositeReactiveHandler handler}.
+     */
+    public CompositeBatchContextImpl(
+            ResponseTracker tracker,
+            SubRequestCoordinator coordinator,
+            Map<String, SubRequest> requestMap,
+            CompositeRequestService requestService,
+            String batchId,
+            ServerWebExchange exchange,
+            ExecutionMode executionMode
+    ) {
+        this(tracker, coordinator, requestMap, requestService, batchId, exchange, executionMode, 0);
+    }
 
+    /**
+     * Creates a context for a composite request received by the reactive
+     * {@link io.github.nabilcarel.composite.controller.CompositeReactiveHandler handler} that
+     * keeps at most {@code maxConcurrency} sub-requests in flight, or any number if
+     * {@code 0}.
+     */
     public CompositeBatchContextImpl(
             ResponseTracker tracker,
             SubRequestCoordinator coordinator,
             Map<String, SubRequest> requestMap,
             CompositeRequestService requestService,
             String batchId,
-            HttpServletRequest servletRequest
+            ServerWebExchange exchange,
+            ExecutionMode executionMode,
+            int maxConcurrency
+    ) {
+        this(tracker, coordinator, requestMap, batchId, executionMode, maxConcurrency,
+                subRequest -> requestService.forwardSubrequest(subRequest, batchId, exchange));
+    }
+
+    private CompositeBatchContextImpl(
+            ResponseTracker tracker,
+            SubRequestCoordinator coordinator,
+            Map<String, SubRequest> requestMap,
+            String batchId,
+            ExecutionMode executionMode,
+            int maxConcurrency,
+            Function<SubRequest, Mono<Void>> dispatcher
     ) {
         this.tracker = tracker;
         this.coordinator = coordinator;
         this.requestMap = requestMap;
-        this.requestService = requestService;
         this.batchId = batchId;
-        this.servletRequest = servletRequest;
+        this.executionMode = executionMode;
+        this.maxConcurrency = maxConcurrency;
+        this.dispatcher = dispatcher;
 
         tracker.setOnSubRequestResolved(this::handleSubRequestResolved);
+        tracker.setOnCancelled(this::cancel);
+    }
+
+    /**
+     * Stops all work for an abandoned batch: pending sub-requests are cancelled so they are
+     * never dispatched, and in-flight loopback calls are disposed.
+     */
+    private void cancel(Throwable cause) {
+        List<String> cancelled = coordinator.cancelPending();
+        log.debug("Cancelling batch {} ({}): {} pending sub-requests dropped",
+                batchId, cause.getClass().getSimpleName(), cancelled.size() + readyQueue.size());
+        readyQueue.clear();
+        subscriptions.dispose();
     }
 
     private void handleSubRequestResolved(String resolvedId) {
-        List<String> nowReady = coordinator.markResolved(resolvedId);
-        List<Mono<Void>> monos = nowReady.stream()
-                .filter(coordinator::markInProgress)
-                .map(id -> {
-                    SubRequest subRequest = requestMap.get(id);
-                    // Check if any dependency failed
-                    if (hasFailedDependency(subRequest)) {
-                        return createFailedDependencyResponse(id, subRequest);
-                    }
-                    return requestService.forwardSubrequest(subRequest, batchId, servletRequest);
-                })
-                .toList();
-        Mono.when(monos).subscribe();
+        if (aborted.get()) {
+            return;
+        }
+        SubResponse resolved = tracker.getSubResponseMap().get(resolvedId);
+        if (executionMode == ExecutionMode.ALL_OR_NONE && isFailure(resolved)) {
+            abort(resolvedId);
+            return;
+        }
+        if (resolved != null && resolved.getHttpStatus() >= 400) {
+            failSubtree(resolvedId);
+            return;
+        }
+        dispatch(coordinator.markResolved(resolvedId));
     }
 
-    private boolean hasFailedDependency(SubRequest subRequest) {
-        Set<String> dependencies = subRequest.getDependencies();
-        Map<String, SubResponse> responses = tracker.getSubResponseMap();
-        
-        for (String depId : dependencies) {
-            SubResponse depResponse = responses.get(depId);
-            if (depResponse == null) {
-                // Dependency not yet resolved - wait
-                return false;
+    /**
+     * Records {@code 424 Failed Dependency} for every transitive dependent of a failed
+     * sub-request in one tracker update, instead of letting each 424 trigger the callback
+     * for the next level of the graph.
+     */
+    private void failSubtree(String failedId) {
+        List<String> failed = coordinator.failSubtree(failedId);
+        if (failed.isEmpty()) {
+            return;
+        }
+        Set<String> failedIds = new HashSet<>(failed);
+        failedIds.add(failedId);
+
+        Map<String, SubResponse> responses = new LinkedHashMap<>();
+        for (String id : failed) {
+            List<String> failedDeps = requestMap.get(id).getDependencies().stream()
+                    .filter(failedIds::contains)
+                    .sorted()
+                    .toList();
+            responses.put(id, SubResponse.builder()
+                    .httpStatus(HttpStatus.FAILED_DEPENDENCY.value())
+                    .referenceId(id)
+                    .body("Failed Dependency: One or more dependencies failed: " + String.join(", ", failedDeps))
+                    .build());
+        }
+        tracker.addResponses(responses);
+    }
+
+    /**
+     * Aborts an all-or-none batch after its first failure: stops all outstanding work and
+     * records every sub-request that has no response yet as skipped, in a single tracker
+     * update.
+     */
+    private void abort(String failedId) {
+        if (!aborted.compareAndSet(false, true)) {
+            return;
+        }
+        coordinator.cancelPending();
+        readyQueue.clear();
+        subscriptions.dispose();
+
+        Map<String, SubResponse> recorded = tracker.getSubResponseMap();
+        Map<String, SubResponse> skipped = new LinkedHashMap<>();
+        for (String id : requestMap.keySet()) {
+            if (!recorded.containsKey(id)) {
+                skipped.put(id, SubResponse.builder()
+                        .httpStatus(HttpStatus.FAILED_DEPENDENCY.value())
+                        .referenceId(id)
+                        .body("Skipped: all-or-none execution aborted after " + failedId + " failed")
+                        .build());
             }
-            // Check if dependency failed (4xx or 5xx status)
-            if (depResponse.getHttpStatus() >= 400) {
-                return true;
+        }
+        log.debug("Aborting batch {} after {} failed: {} sub-requests skipped", batchId, failedId, skipped.size());
+        tracker.addResponses(skipped);
+    }
+
+    private boolean isFailure(SubResponse subResponse) {
+        return subResponse != null
+                && (subResponse.getHttpStatus() < HttpStatus.OK.value()
+                || subResponse.getHttpStatus() >= HttpStatus.MULTIPLE_CHOICES.value());
+    }
+
+    /**
+     * Claims the given ready sub-requests and queues them for dispatch.
+     */
+    private void dispatch(List<String> ready) {
+        for (String id : ready) {
+            if (coordinator.markInProgress(id)) {
+                readyQueue.add(id);
             }
         }
-        return false;
+        drain();
+    }
+
+    /**
+     * Dispatches queued sub-requests while a concurrency slot is free.
+     *
+     * <p>Only one thread drains at a time; a call made while another drain is running, such
+     * as from a sub-request completing synchronously during dispatch, only asks that drain
+     * to loop again. This keeps the stack flat however long the dependency chain is.
+     */
+    private void drain() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            String id;
+            while ((maxConcurrency <= 0 || inFlight.get() < maxConcurrency) && (id = readyQueue.poll()) != null) {
+                inFlight.incrementAndGet();
+                subscribe(dispatcher.apply(requestMap.get(id)));
+            }
+            missed = drainRequests.addAndGet(-missed);
+        } while (missed != 0);
     }
 
-    private Mono<Void> createFailedDependencyResponse(String subRequestId, SubRequest subRequest) {
-        Set<String> failedDeps = subRequest.getDependencies().stream()
-                .filter(depId -> {
-                    SubResponse depResponse = tracker.getSubResponseMap().get(depId);
-                    return depResponse != null && depResponse.getHttpStatus() >= 400;
+    private void subscribe(Mono<Void> mono) {
+        // Registered before subscribing so a synchronous completion can deregister it;
+        // adding to an already disposed composite disposes the new subscription
+        Disposable.Swap subscription = Disposables.swap();
+        subscriptions.add(subscription);
+        subscription.update(mono
+                .doFinally(signal -> {
+                    subscriptions.remove(subscription);
+                    inFlight.decrementAndGet();
+                    drain();
                 })
-                .collect(java.util.stream.Collectors.toSet());
-        
-        SubResponse failedDependencyResponse = SubResponse.builder()
-                .httpStatus(HttpStatus.FAILED_DEPENDENCY.value()) // Failed Dependency
-                .referenceId(subRequestId)
-                .body("Failed Dependency: One or more dependencies failed: " + String.join(", ", failedDeps))
-                .build();
-        
-        tracker.addResponse(subRequestId, failedDependencyResponse);
-        return Mono.empty();
+                .subscribe());
     }
 
     public void startInitialRequests()  {
-        List<Mono<Void>> monos = coordinator.getInitialReadySubRequests().stream()
-                .filter(coordinator::markInProgress)
-                .map(id -> requestService.forwardSubrequest(requestMap.get(id), batchId, servletRequest))
-                .toList();
-        Mono.when(monos).subscribe();
+        dispatch(coordinator.getInitialReadySubRequests());
     }
 }
@@ -0,0 +1,138 @@
+package io.github.nabilcarel.composite.service;
+
+import io.github.nabilcarel.composite.config.CompositeProperties;
+import io.github.nabilcarel.composite.metrics.CompositeMetrics;
+import io.github.nabilcarel.composite.metrics.CompositeObservations;
+import io.github.nabilcarel.composite.metrics.CompositeTimings;
+import io.github.nabilcarel.composite.model.ExecutionPlan;
+import io.github.nabilcarel.composite.model.IndexedResponseTracker;
+import io.github.nabilcarel.composite.model.IndexedSubRequestCoordinator;
+import io.github.nabilcarel.composite.model.ResponseTracker;
+import io.github.nabilcarel.composite.model.SubRequestCoordinator;
+import io.github.nabilcarel.composite.model.request.CompositeRequest;
+import io.github.nabilcarel.composite.model.request.ExecutionMode;
+import io.github.nabilcarel.composite.model.request.SubRequest;
+import io.github.nabilcarel.composite.model.response.CompositeDebugInfo;
+import io.micrometer.observation.Observation;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.Nullable;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Sets up and starts the batch of a validated composite request, for both the servlet
+ * {@link io.github.nabilcarel.composite.config.filter.CompositeRequestFilter filter} and the
+ * reactive {@link io.github.nabilcarel.composite.controller.CompositeReactiveHandler
+ * handler}.
+ *
+ * <p>Launching a batch registers an {@link IndexedResponseTracker} in the shared response
+ * store, records the batch metrics, prepares the debug info and timings the response is
+ * decorated with, starts the batch observation and fires the first wave of sub-requests
+ * through a {@link CompositeBatchContextImpl}. The debug info and, when timing is enabled,
+ * the timings are also stored as the {@code compositeDebug} and {@code compositeTimings}
+ * request attributes.
+ *
+ * @see CompositeBatchContext
+ * @since 0.0.1
+ */
+@RequiredArgsConstructor
+public class CompositeBatchLauncher {
+    private final ConcurrentMap<String, ResponseTracker> responseStore;
+    private final CompositeProperties properties;
+    private final CompositeMetrics metrics;
+    private final CompositeObservations observations;
+
+    /**
+     * Launches the batch of a composite request received by the servlet filter.
+     *
+     * @param requestId         the ID of the composite request
+     * @param compositeRequest  the validated composite request
+     * @param servletRequest    the current servlet request
+     * @param requestService    dispatches the sub-requests
+     * @param parentObservation the observation of the composite request, if any
+     * @return the launched batch
+     */
+    public Batch launch(String requestId, CompositeRequest compositeRequest, HttpServletRequest servletRequest,
+                        CompositeRequestService requestService, @Nullable Observation parentObservation) {
+        return launch(requestId, compositeRequest, servletRequest::setAttribute, parentObservation,
+                (tracker, coordinator, requestMap, executionMode, maxConcurrency) -> new CompositeBatchContextImpl(
+                        tracker, coordinator, requestMap, requestService, requestId, servletRequest,
+                        executionMode, maxConcurrency));
+    }
+
+    /**
+     * Launches the batch of a composite request received by the reactive handler.
+     *
+     * @param requestId         the ID of the composite request
+     * @param compositeRequest  the validated composite request
+     * @param exchange          the current exchange
+     * @param requestService    dispatches the sub-requests
+     * @param parentObservation the observation of the composite request, if any
+     * @return the launched batch
+     */
+    public Batch launch(String requestId, CompositeRequest compositeRequest, ServerWebExchange exchange,
+                        CompositeRequestService requestService, @Nullable Observation parentObservation) {
+        return launch(requestId, compositeRequest, exchange.getAttributes()::put, parentObservation,
+                (tracker, coordinator, requestMap, executionMode, maxConcurrency) -> new CompositeBatchContextImpl(
+                        tracker, coordinator, requestMap, requestService, requestId, exchange,
+                        executionMode, maxConcurrency));
+    }
+
+    private Batch launch(String requestId, CompositeRequest compositeRequest,
+                         BiConsumer<String, Object> attributes, @Nullable Observation parentObservation,
+                         ContextFactory contextFactory) {
+        // The plan recorded on this instance by validation or template binding
+        ExecutionPlan plan = compositeRequest.resolveExecutionPlan();
+        ResponseTracker tracker = new IndexedResponseTracker(plan, properties.getRequestTimeout());
+        responseStore.put(requestId, tracker);
+        Map<String, SubRequest> requestMap = plan.getRequests();
+        metrics.recordBatch(requestMap.size(), plan.getMaxDepth());
+
+        CompositeDebugInfo debugInfo = null;
+        if (properties.isDebugEnabled()) {
+            debugInfo = CompositeDebugInfo.builder()
+                    .dependencyGraph(plan.getDependencies())
+                    .resolvedRequests(new ConcurrentHashMap<>())
+                    .build();
+            attributes.accept("compositeDebug", debugInfo);
+        }
+
+        CompositeTimings timings = new CompositeTimings(tracker.getStartNanos(), plan);
+        if (properties.getTiming().isEnabled()) {
+            attributes.accept("compositeTimings", timings);
+        }
+        CompositeDebugInfo debug = debugInfo;
+        tracker.setOnCompleted(compositeResponse -> timings.publish(metrics, debug));
+
+        observations.startBatch(requestId, requestMap.values(), parentObservation, tracker.getFuture());
+
+        SubRequestCoordinator coordinator = new IndexedSubRequestCoordinator(plan);
+        CompositeBatchContext batchContext = contextFactory.create(tracker, coordinator, requestMap,
+                compositeRequest.resolveExecutionMode(),
+                properties.getLargeBatch().concurrencyFor(requestMap.size()));
+        batchContext.startInitialRequests();
+
+        return new Batch(tracker, timings, debugInfo);
+    }
+
+    /**
+     * A launched batch.
+     *
+     * @param tracker   collects the sub-responses and completes the composite
+     * @param timings   the per-sub-request timings of the batch
+     * @param debugInfo the debug info, or {@code null} unless debug mode is enabled
+     */
+    public record Batch(ResponseTracker tracker, CompositeTimings timings, @Nullable CompositeDebugInfo debugInfo) {
+    }
+
+    @FunctionalInterface
+    private interface ContextFactory {
+        CompositeBatchContext create(ResponseTracker tracker, SubRequestCoordinator coordinator,
+                                     Map<String, SubRequest> requestMap, ExecutionMode executionMode,
+                                     int maxConcurrency);
+    }
+}
@@ -8,6 +8,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 /**
@@ -24,6 +25,11 @@ import reactor.core.publisher.Mono;
  *       started and return the aggregated result.</li>
  * </ul>
  *
+ * <p>In a reactive application both roles are played by the
+ * {@link io.github.nabilcarel.composite.controller.CompositeReactiveHandler
+ * CompositeReactiveHandler}, which dispatches sub-requests through
+ * {@link #forwardSubrequest(SubRequest, String, ServerWebExchange)}.
+ *
  * @see CompositeRequestServiceImpl
  * @see io.github.nabilcarel.composite.config.filter.CompositeRequestFilter
  * @see io.github.nabilcarel.composite.controller.CompositeController
@@ -32,8 +38,9 @@ import reactor.core.publisher.Mono;
 public interface CompositeRequestService {
 
     /**
-     * Resolves placeholders in the sub-request, validates the resolved URL against the
-     * endpoint registry, and dispatches the HTTP call via the loopback WebClient.
+     * Resolves placeholders in the sub-request, checks the resolved URL against the endpoint
+     * its template matched during validation, and dispatches the HTTP call via the loopback
+     * WebClient.
      *
      * <p>On completion (success or error) the result is deposited into the
      * {@link io.github.nabilcarel.composite.model.ResponseTracker ResponseTracker}
@@ -53,6 +60,24 @@ public interface CompositeRequestService {
             HttpServletRequest servletRequest
     );
 
+    /**
+     * Reactive counterpart of {@link #forwardSubrequest(SubRequest, String, HttpServletRequest)},
+     * used when the composite request was received by the WebFlux front end.
+     *
+     * @param subRequest the enriched sub-request to dispatch; must not be {@code null}
+     * @param requestId  the UUID identifying the parent composite request; must not be
+     *                   {@code null}
+     * @param exchange   the exchange of the incoming composite request, used to forward
+     *                   authentication headers and to read debug attributes
+     * @return a {@link Mono}&lt;{@link Void}&gt; that completes when the sub-request has
+     *         been processed (regardless of success or failure)
+     */
+    Mono<Void> forwardSubrequest(
+            SubRequest subRequest,
+            String requestId,
+            ServerWebExchange exchange
+    );
+
     /**
      * Awaits the completion of the composite request identified by the {@code requestId}
      * attribute set on {@code request}, then assembles and returns the
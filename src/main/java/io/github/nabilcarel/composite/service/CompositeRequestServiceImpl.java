@@ -2,27 +2,38 @@ package io.github.nabilcarel.composite.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.nabilcarel.composite.config.CompositeProperties;
+import io.github.nabilcarel.composite.config.EndpointMatcher;
 import io.github.nabilcarel.composite.config.EndpointRegistry;
 import io.github.nabilcarel.composite.config.EndpointRegistry.EndpointInfo;
+import io.github.nabilcarel.composite.metrics.CompositeMetrics;
+import io.github.nabilcarel.composite.metrics.CompositeObservations;
+import io.github.nabilcarel.composite.metrics.CompositeTimings;
+import io.github.nabilcarel.composite.model.Deadline;
 import io.github.nabilcarel.composite.model.ResponseTracker;
+import io.github.nabilcarel.composite.model.SubRequestTiming;
 import io.github.nabilcarel.composite.model.request.SubRequest;
 import io.github.nabilcarel.composite.model.response.CompositeDebugInfo;
 import io.github.nabilcarel.composite.model.response.CompositeResponse;
+import io.github.nabilcarel.composite.model.response.CompositeTimingInfo;
 import io.github.nabilcarel.composite.model.response.SubResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.time.Duration;
 import java.util.List;
-import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -30,6 +41,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 @Service
@@ -42,24 +54,60 @@ public class CompositeRequestServiceImpl implements CompositeRequestService{
     @Qualifier("compositeObjectMapper")
     private final ObjectMapper objectMapper;
     private final ConcurrentMap<String, ResponseTracker> responseStore;
-    private final CompositeRequestValidator compositeRequestValidator;
     private final ReferenceResolverService referenceResolver;
     private final CompositeProperties properties;
     private final AuthenticationForwardingService authForwardingService;
     @Qualifier("compositeWebClient")
     private final WebClient webClient;
+    private final CompositeMetrics metrics;
+    private final CompositeObservations observations;
+    private final SubRequestRetrier retrier;
+    private final SubRequestHedger hedger;
+    private final CircuitBreakerRegistry circuitBreakers;
 
     public Mono<Void> forwardSubrequest(
             SubRequest subRequest,
             String requestId,
             HttpServletRequest servletRequest
     ) {
+        return forward(subRequest, requestId,
+                headers -> authForwardingService.forwardAuthentication(servletRequest, headers),
+                servletRequest::getAttribute);
+    }
+
+    public Mono<Void> forwardSubrequest(
+            SubRequest subRequest,
+            String requestId,
+            ServerWebExchange exchange
+    ) {
+        return forward(subRequest, requestId,
+                headers -> authForwardingService.forwardAuthentication(
+                        exchange.getRequest().getHeaders(), headers),
+                exchange.getAttributes()::get);
+    }
+
+    /**
+     * Transport-independent dispatch of a single sub-request. The servlet and reactive
+     * front ends differ only in where authentication headers and request attributes
+     * come from, so both are passed in as functions.
+     */
+    private Mono<Void> forward(
+            SubRequest subRequest,
+            String requestId,
+            Consumer<HttpHeaders> authForwarder,
+            Function<String, Object> attributes
+    ) {
+        SubRequestTiming timing = subRequest.getTiming();
+        timing.markDispatched();
+        observations.endWait(subRequest);
 
-        Optional<EndpointInfo> endpointInfo = endpointRegistry.getEndpointInformations(
-                subRequest.getMethod().toUpperCase(), subRequest.getUrl()
-        );
+        // Matched once, during validation; only sub-requests that bypassed it are matched here
+        EndpointInfo endpoint = subRequest.getEndpointInfo() != null
+                ? subRequest.getEndpointInfo()
+                : endpointRegistry.getEndpointInformations(subRequest.getMethod().toUpperCase(), subRequest.getUrl())
+                        .orElse(null);
 
-        if (endpointInfo.isEmpty()) {
+        if (endpoint == null) {
             log.error("Invalid endpoint received: {}", subRequest.getUrl());
             addErrorToTracker(requestId, subRequest.getReferenceId(),
                     HttpStatus.BAD_REQUEST.value(),
@@ -75,10 +123,13 @@ public class CompositeRequestServiceImpl implements CompositeRequestService{
         }
 
         String resolvedUrl;
+        long resolutionStart = System.nanoTime();
         try {
             resolvedUrl = referenceResolver.resolveUrl(subRequest, requestId);
             referenceResolver.resolveHeaders(subRequest, requestId);
             referenceResolver.resolveBody(subRequest, requestId);
+            timing.markResolved();
+            metrics.recordResolution(timing.getResolvedNanos() - resolutionStart);
         } catch (Exception e) {
             log.error("Reference resolution failed for {}: {}", subRequest.getReferenceId(), e.getMessage(), e);
             addErrorToTracker(requestId, subRequest.getReferenceId(),
@@ -88,7 +139,7 @@ public class CompositeRequestServiceImpl implements CompositeRequestService{
         }
 
         if (properties.isDebugEnabled()) {
-            CompositeDebugInfo debugInfo = (CompositeDebugInfo) servletRequest.getAttribute("compositeDebug");
+            CompositeDebugInfo debugInfo = (CompositeDebugInfo) attributes.apply("compositeDebug");
             if (debugInfo != null) {
                 CompositeDebugInfo.SubRequestDebugInfo subDebug = CompositeDebugInfo.SubRequestDebugInfo.builder()
                         .originalUrl(originalUrl)
@@ -100,33 +151,41 @@ public class CompositeRequestServiceImpl implements CompositeRequestService{
             }
         }
 
-        // Re-validate resolved URL against registered endpoints to prevent path traversal/SSRF
-        Optional<EndpointInfo> resolvedEndpointInfo = endpointRegistry.getEndpointInformations(
-                subRequest.getMethod().toUpperCase(), resolvedUrl
-        );
-
-        if (resolvedEndpointInfo.isEmpty()) {
+        // Check the substituted values still fit the matched pattern to prevent path traversal/SSRF
+        if (!EndpointMatcher.matches(endpoint, resolvedUrl)) {
             log.error("Resolved URL does not match registered endpoint: {} (original: {})",
-                    resolvedUrl, subRequest.getUrl());
+                    resolvedUrl, originalUrl);
             addErrorToTracker(requestId, subRequest.getReferenceId(),
                     HttpStatus.BAD_REQUEST.value(),
                     "Resolved URL does not match a registered endpoint: " + resolvedUrl);
             return Mono.empty();
         }
 
-        String error = compositeRequestValidator.validateResolvedUrlFormat(resolvedUrl);
+        // Apply per-subrequest timeout if configured, otherwise use default, capped to what
+        // is left of the composite deadline
+        Duration timeout = properties.getSubRequestTimeout() != null
+            ? properties.getSubRequestTimeout()
+            : properties.getRequestTimeout();
 
-        if (error != null) {
-            log.error("Invalid URL format: {}", error);
-            addErrorToTracker(requestId, subRequest.getReferenceId(),
-                    HttpStatus.BAD_REQUEST.value(), error);
-            return Mono.empty();
+        ResponseTracker batchTracker = responseStore.get(requestId);
+        Deadline deadline = batchTracker != null ? batchTracker.getDeadline() : null;
+        if (deadline != null) {
+            if (deadline.isExpired()) {
+                log.warn("Composite deadline exceeded before dispatching {}", subRequest.getReferenceId());
+                metrics.recordTimeout("deadline");
+                addErrorToTracker(requestId, subRequest.getReferenceId(),
+                        HttpStatus.GATEWAY_TIMEOUT.value(),
+                        "Composite deadline exceeded before dispatch");
+                return Mono.empty();
+            }
+            timeout = deadline.cap(timeout);
         }
+        Duration budget = timeout;
 
         WebClient.RequestBodySpec requestBodySpec = webClient.method(HttpMethod.valueOf(subRequest.getMethod()))
                 .uri(resolvedUrl)
                 .headers(httpHeaders -> {
-                    authForwardingService.forwardAuthentication(servletRequest, httpHeaders);
+                    authForwarder.accept(httpHeaders);
                     subRequest.getHeaders().forEach(httpHeaders::add);
 
                     if(properties.getHeaderInjection().isEnabled()){
@@ -142,14 +201,25 @@ public class CompositeRequestServiceImpl implements CompositeRequestService{
             requestSpec = requestBodySpec.bodyValue(subRequest.getBody());
         }
 
-        // Apply per-subrequest timeout if configured, otherwise use default
-        Duration timeout = properties.getSubRequestTimeout() != null
-            ? properties.getSubRequestTimeout()
-            : properties.getRequestTimeout();
+        if (deadline != null && properties.getDeadline().isPropagate()) {
+            // Applied as each attempt is sent, so retries and hedges carry what is left of
+            // the budget rather than the budget at dispatch
+            String deadlineHeader = properties.getDeadline().getHeaderName();
+            requestSpec = requestSpec.httpRequest(httpRequest -> httpRequest.getHeaders().set(deadlineHeader,
+                    String.valueOf(Math.max(0, deadline.cap(budget).toMillis()))));
+        }
 
-        return requestSpec
-                .exchangeToMono(response ->
-                        toBody(response, resolvedEndpointInfo.get().getReturnClass())
+        String pattern = endpoint.getPattern();
+        subRequest.setEndpointPattern(pattern);
+        timing.markSent();
+
+        // Each attempt gets what is left of the composite deadline, so a retry never
+        // outlives the composite request
+        WebClient.RequestHeadersSpec<?> attemptSpec = requestSpec;
+        Mono<SubResponse> attempt = Mono.defer(() -> attemptSpec
+                .exchangeToMono(response -> {
+                    timing.markResponded();
+                    return toBody(response, endpoint.getReturnClass())
                             .map(body -> {
                                 SubResponse.SubResponseBuilder subResponseBuilder = SubResponse.builder()
                                         .referenceId(subRequest.getReferenceId())
@@ -158,10 +228,24 @@ public class CompositeRequestServiceImpl implements CompositeRequestService{
                                     subResponseBuilder.body(body);
                                 }
                                 return subResponseBuilder.build();
-                            })
-                )
-                .timeout(timeout)
+                            });
+                })
+                .timeout(deadline != null ? deadline.cap(budget) : budget));
+
+        if (hedger.isEligible(subRequest.getMethod(), endpoint)) {
+            attempt = hedger.withHedge(attempt, subRequest.getMethod(), pattern, deadline);
+        }
+
+        Mono<SubResponse> execution = retrier.isEligible(subRequest.getMethod(), endpoint)
+                ? retrier.withRetry(attempt, pattern, deadline)
+                : attempt;
+        execution = circuitBreakers.protect(subRequest.getMethod(), pattern, subRequest.getReferenceId(), execution);
+
+        return observations.observeSubRequest(subRequest, pattern, execution)
                 .doOnSuccess(subResponse -> {
+                    timing.markCompleted();
+                    metrics.recordSubRequest(pattern, subRequest.getMethod(), subResponse.getHttpStatus(),
+                            timing.getCompletedNanos() - timing.getSentNanos());
                     ResponseTracker tracker = responseStore.get(requestId);
                     if (tracker != null) {
                         tracker.addResponse(subRequest.getReferenceId(), subResponse);
@@ -172,6 +256,12 @@ public class CompositeRequestServiceImpl implements CompositeRequestService{
                 })
                 .onErrorResume(throwable -> {
                     log.error("Error forwarding subrequest {}: {}", subRequest.getReferenceId(), throwable.getMessage(), throwable);
+                    timing.markCompleted();
+                    metrics.recordSubRequest(pattern, subRequest.getMethod(), HttpStatus.SERVICE_UNAVAILABLE.value(),
+                            timing.getCompletedNanos() - timing.getSentNanos());
+                    if (throwable instanceof TimeoutException) {
+                        metrics.recordTimeout("subrequest");
+                    }
                     addErrorToTracker(requestId, subRequest.getReferenceId(),
                             HttpStatus.SERVICE_UNAVAILABLE.value(),
                             "Error executing subrequest: " + throwable.getMessage());
@@ -264,14 +354,33 @@ public class CompositeRequestServiceImpl implements CompositeRequestService{
                 );
             }
 
+            // Wait out what is left of the batch deadline, to the nanosecond, so the composite
+            // does not give up before the budgets its sub-requests were sent with
+            Deadline deadline = responseTracker.getDeadline();
+            Duration wait = deadline != null ? deadline.remaining() : properties.getRequestTimeout();
             return responseTracker.getFuture()
-                    .orTimeout(properties.getRequestTimeout().getSeconds(), TimeUnit.SECONDS)
+                    .orTimeout(Math.max(0, wait.toNanos()), TimeUnit.NANOSECONDS)
                     .thenApply(compositeResponse -> {
+                        metrics.recordFailedDependencies(CompositeMetrics.countFailedDependencies(compositeResponse));
+                        metrics.recordComposite("success", System.nanoTime() - responseTracker.getStartNanos());
                         try {
                             if (properties.isDebugEnabled()) {
                                 CompositeDebugInfo debugInfo = (CompositeDebugInfo) request.getAttribute("compositeDebug");
                                 compositeResponse.setDebug(debugInfo);
                             }
+                            if (properties.getTiming().isEnabled()) {
+                                CompositeTimings timings = (CompositeTimings) request.getAttribute("compositeTimings");
+                                if (timings != null) {
+                                    CompositeTimingInfo timingInfo = timings.summarize();
+                                    if (properties.getTiming().isIncludeInBody()) {
+                                        compositeResponse.setTimings(timingInfo);
+                                    }
+                                    return ResponseEntity.ok()
+                                            .header(CompositeTimings.SERVER_TIMING_HEADER,
+                                                    CompositeTimings.toServerTiming(timingInfo))
+                                            .body(compositeResponse);
+                                }
+                            }
                             return ResponseEntity.ok(compositeResponse);
                         } finally {
                             cleanup(requestId, request, response);
@@ -279,6 +388,14 @@ public class CompositeRequestServiceImpl implements CompositeRequestService{
                     })
                     .exceptionally(ex -> {
                         log.error("Execution failed: {}", ex.getMessage(), ex);
+                        if (ex instanceof TimeoutException || ex.getCause() instanceof TimeoutException) {
+                            metrics.recordTimeout("composite");
+                            metrics.recordComposite("timeout", System.nanoTime() - responseTracker.getStartNanos());
+                        } else if (ex instanceof CancellationException || ex.getCause() instanceof CancellationException) {
+                            metrics.recordComposite("cancelled", System.nanoTime() - responseTracker.getStartNanos());
+                        } else {
+                            metrics.recordComposite("error", System.nanoTime() - responseTracker.getStartNanos());
+                        }
                         try {
                             CompositeResponse errorResponse = CompositeResponse.builder()
                                     .hasErrors(true)
@@ -23,8 +23,10 @@ import java.util.Set;
  *   <li>Uniqueness of {@code referenceId} values within the request.</li>
  *   <li>Dependency integrity — all {@code ${referenceId...}} placeholders must reference
  *       a {@code referenceId} that is declared elsewhere in the same request.</li>
- *   <li>Circular dependency detection (DFS cycle check).</li>
- *   <li>Maximum dependency depth enforcement.</li>
+ *   <li>Circular dependency detection and maximum dependency depth enforcement, done in
+ *       the same topological pass that builds the
+ *       {@link io.github.nabilcarel.composite.model.ExecutionPlan ExecutionPlan} later used
+ *       for execution.</li>
  *   <li>Endpoint allowlist check — each target URL must match a
  *       {@link io.github.nabilcarel.composite.annotation.CompositeEndpoint
  *       &#64;CompositeEndpoint}-annotated method in the
@@ -32,6 +34,11 @@ import java.util.Set;
  *   <li>URL format correctness for statically-known URLs.</li>
  * </ul>
  *
+ * <p>The dependency checks only depend on the structure of a request, so their outcome for a
+ * valid request is cached by its {@link io.github.nabilcarel.composite.model.RequestShape
+ * shape}, keyed on the endpoints its sub-requests matched, unless
+ * {@code composite.plan-cache.enabled} is {@code false}.
+ *
  * @see CompositeRequestValidatorImpl
  * @since 0.0.1
  */
@@ -40,6 +47,9 @@ public interface CompositeRequestValidator {
     /**
      * Performs full validation of the composite request.
      *
+     * <p>Records the request's {@link CompositeRequest#getExecutionPlan() execution plan}
+     * as a side effect.
+     *
      * @param request the composite request to validate; must not be {@code null}
      * @return a list of human-readable error messages; empty if the request is valid
      */
@@ -1,31 +1,53 @@
 package io.github.nabilcarel.composite.service;
 
+import static io.github.nabilcarel.composite.util.Patterns.PLACEHOLDER_PATTERN;
+
 import io.github.nabilcarel.composite.config.CompositeProperties;
 import io.github.nabilcarel.composite.config.EndpointRegistry;
 import io.github.nabilcarel.composite.config.EndpointRegistry.EndpointInfo;
+import io.github.nabilcarel.composite.metrics.CompositeMetrics;
+import io.github.nabilcarel.composite.model.ExecutionPlan;
+import io.github.nabilcarel.composite.model.RequestShape;
 import io.github.nabilcarel.composite.model.request.CompositeRequest;
 import io.github.nabilcarel.composite.model.request.SubRequest;
 import io.github.nabilcarel.composite.model.request.SubRequestDto;
+import io.github.nabilcarel.composite.util.StripedLruCache;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Instant;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.stereotype.Service;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class CompositeRequestValidatorImpl implements CompositeRequestValidator {
+    private static final Pattern REFERENCE_FORMAT = Pattern.compile("[a-zA-Z0-9]+(?>\\.(?>[a-zA-Z0-9]+))*");
+
     private final Validator validator;
     private final EndpointRegistry endpointRegistry;
     private final CompositeProperties properties;
+    private final CompositeMetrics metrics;
+
+    /** Validated plans by request shape; {@code null} when the cache is disabled. */
+    private final StripedLruCache<String, CachedPlan> planCache;
+
+    public CompositeRequestValidatorImpl(Validator validator, EndpointRegistry endpointRegistry,
+                                         CompositeProperties properties, CompositeMetrics metrics) {
+        this.validator = validator;
+        this.endpointRegistry = endpointRegistry;
+        this.properties = properties;
+        this.metrics = metrics;
+        this.planCache = properties.getPlanCache().isEnabled()
+                ? new StripedLruCache<>(properties.getPlanCache().getMaximumSize())
+                : null;
+    }
 
     public List<String> validateRequest(CompositeRequest request) {
         List<String> errors = new ArrayList<>();
@@ -37,15 +59,6 @@ public class CompositeRequestValidatorImpl implements CompositeRequestValidator
             return errors;
         }
 
-        Set<String> references = new HashSet<>();
-
-        for (int i = 0; i < request.getSubRequests().size(); i++) {
-            if(!references.add(request.getSubRequests().get(i).getReferenceId())){
-                errors.add("Duplicate reference ID found: " + request.getSubRequests().get(i).getReferenceId());
-                log.error(errors.get(errors.size() - 1));
-            }
-        }
-
         // Basic validation using javax validation
         Set<ConstraintViolation<CompositeRequest>> violations = validator.validate(request);
 
@@ -57,46 +70,79 @@ public class CompositeRequestValidatorImpl implements CompositeRequestValidator
             log.error("Invalid request {}", errors);
         }
 
-        // Validate unique reference IDs
-        Set<String> referenceIds = new HashSet<>();
+        // Each sub-request is matched once; a shape is keyed on the matched endpoints
+        List<SubRequestDto> subRequests = request.getSubRequests();
+        List<Optional<EndpointInfo>> matches = new ArrayList<>(subRequests.size());
+        boolean allMatched = true;
+        for (SubRequestDto subRequest : subRequests) {
+            Optional<EndpointInfo> match = endpointRegistry.getEndpointInformations(subRequest.getMethod(),
+                    subRequest.getUrl());
+            match.ifPresent(subRequest::setEndpointInfo);
+            allMatched &= match.isPresent();
+            matches.add(match);
+        }
 
-        for (SubRequestDto subRequest : request.getSubRequests()) {
-            if (!referenceIds.add(subRequest.getReferenceId())) {
-                errors.add("Duplicate reference ID found: " + subRequest.getReferenceId());
-                log.error(errors.get(errors.size() - 1));
+        // A shape validated before only needs its literal values checked
+        String shape = planCache != null && violations.isEmpty() && allMatched ? RequestShape.of(subRequests) : null;
+        if (shape != null) {
+            CachedPlan cached = planCache.get(shape);
+            boolean hit = cached != null && cached.isCurrent(endpointRegistry.getLastRefresh());
+            metrics.recordPlanCache(hit);
+            if (hit) {
+                return validateCachedShape(request, cached);
             }
         }
 
-        // Validate dependencies
-        errors.addAll(validateDependencies(request.getSubRequests()));
+        // Validate unique reference IDs and dependencies in a single topological pass
+        errors.addAll(validateDependencies(request));
 
         // Validate request URLs and access
-        for (SubRequestDto subRequest : request.getSubRequests()) {
-            errors.addAll(validateEndpointAccess(subRequest));
+        for (int i = 0; i < subRequests.size(); i++) {
+            errors.addAll(validateEndpointAccess(subRequests.get(i), matches.get(i)));
+        }
+
+        if (shape != null && errors.isEmpty()) {
+            planCache.put(shape, new CachedPlan(request.getExecutionPlan(), endpointRegistry.getLastRefresh()));
         }
 
         return errors;
     }
 
+    /**
+     * Completes the validation of a request whose shape is cached: binds the cached plan and
+     * checks the URLs, whose literal values the shape leaves out.
+     */
+    private List<String> validateCachedShape(CompositeRequest request, CachedPlan cached) {
+        List<String> errors = new ArrayList<>();
+        request.setExecutionPlan(cached.plan().bind(request.getSubRequests()));
+        for (SubRequestDto subRequest : request.getSubRequests()) {
+            String urlError = validateResolvedUrlFormat(subRequest.getUrl());
+            if (urlError != null) {
+                errors.add("[" + subRequest.getReferenceId() + "] " + urlError);
+            }
+        }
+        return errors;
+    }
+
     public List<String> validateReferences(SubRequest request, Set<String> availableRefs) {
         return new ArrayList<>(validateExpression(request.getUrl(), availableRefs));
     }
 
     private List<String> validateExpression(String expression, Set<String> availableRefs) {
         List<String> errors = new ArrayList<>();
-        Matcher matcher = Pattern.compile("\\$\\{([^}]+)}")
-                .matcher(expression);
+        Matcher matcher = PLACEHOLDER_PATTERN.matcher(expression);
 
         while (matcher.find()) {
             String reference = matcher.group(1);
 
             // Validate reference format - must be dot-separated identifiers
-            if (!reference.matches("[a-zA-Z0-9]+(?>\\.(?>[a-zA-Z0-9]+))*")) {
+            if (!REFERENCE_FORMAT.matcher(reference).matches()) {
                 errors.add("Invalid reference format: " + reference);
                 log.error("Invalid reference format: {}", reference);
             }
 
-            String refId = reference.split("\\.")[0];
+            int dot = reference.indexOf('.');
+            String refId = dot < 0 ? reference : reference.substring(0, dot);
 
             if (!availableRefs.contains(refId)) {
                 errors.add("Invalid reference: " + reference +
@@ -108,141 +154,27 @@ public class CompositeRequestValidatorImpl implements CompositeRequestValidator
         return errors;
     }
 
-    private List<String> validateDependencies(List<SubRequestDto> requests) {
-        // Build dependency graph
-        Map<String, Set<String>> dependencyGraph = new HashMap<>();
-        List<String> errors = new ArrayList<>();
+    private List<String> validateDependencies(CompositeRequest request) {
+        ExecutionPlan plan = ExecutionPlan.of(request.getSubRequests());
+        request.setExecutionPlan(plan);
+        List<String> errors = new ArrayList<>(plan.getErrors());
+        errors.forEach(log::error);
 
-        for (SubRequestDto request : requests) {
-            SubRequest subRequest = new SubRequest(request);
-            // Dependencies are extracted from URL, headers, and body
-            dependencyGraph.put(request.getReferenceId(), subRequest.getDependencies());
-        }
-
-        // Check for missing dependencies
-        for (SubRequestDto request : requests) {
-            for (String dependency : new SubRequest(request).getDependencies()) {
-                if (!dependencyGraph.containsKey(dependency)) {
-                    errors.add("Missing dependency reference: '" + dependency +
-                                    "' for request: " + request.getReferenceId());
-                    log.error(errors.get(errors.size() - 1));
-                }
-            }
-        }
-
-        // Check for circular dependencies
-        Set<String> visited = new HashSet<>();
-        Set<String> currentPath = new HashSet<>();
-        boolean hasCircular = false;
-
-        for (String referenceId : dependencyGraph.keySet()) {
-            if (!visited.contains(referenceId) &&
-                hasCircularDependency(referenceId, dependencyGraph, visited, currentPath)) {
-                    errors.add("Circular dependency detected in path: " + currentPath);
-                    log.error(errors.get(errors.size() - 1));
-                    hasCircular = true;
-            }
-        }
-
-        // Validate dependency depth (skip if circular - would cause infinite recursion)
-        if (!hasCircular) {
-            int currentDepth = calculateMaxDependencyDepth(dependencyGraph);
-
-            if (currentDepth > properties.getMaxDepth()) {
-                errors.add("Maximum dependency depth exceeded: current=" + currentDepth + " maxDepth=" + properties.getMaxDepth());
-                log.error(errors.get(errors.size() - 1));
-            }
+        // Depth is only meaningful once every sub-request could be ordered
+        if (!plan.isCyclic() && plan.getMaxDepth() > properties.getMaxDepth()) {
+            errors.add("Maximum dependency depth exceeded: current=" + plan.getMaxDepth() + " maxDepth=" + properties.getMaxDepth());
+            log.error(errors.get(errors.size() - 1));
         }
 
         return errors;
     }
 
-    private boolean hasCircularDependency(
-            String current,
-            Map<String, Set<String>> dependencyGraph,
-            Set<String> visited,
-            Set<String> currentPath) {
-
-        if (currentPath.contains(current)) {
-            return true;
-        }
-
-        if (visited.contains(current)) {
-            return false;
-        }
-
-        visited.add(current);
-        currentPath.add(current);
-
-        Set<String> dependencies = dependencyGraph.get(current);
-        if (dependencies == null) {
-            return false; // Dependency doesn't exist in graph (caught by missing dependency check)
-        }
-
-        for (String dependency : dependencies) {
-            if (!dependencyGraph.containsKey(dependency)) {
-                continue; // Skip missing dependencies (already reported as error)
-            }
-            if (hasCircularDependency(dependency, dependencyGraph, visited, currentPath)) {
-                return true;
-            }
-        }
-
-        currentPath.remove(current);
-        return false;
-    }
-
-    private int calculateMaxDependencyDepth(Map<String, Set<String>> dependencyGraph) {
-        Map<String, Integer> depth = new HashMap<>();
-        Set<String> processing = new HashSet<>();
-
-        for (String referenceId : dependencyGraph.keySet()) {
-            calculateDepth(referenceId, dependencyGraph, depth, processing);
-        }
-
-        return depth.values().stream()
-                .mapToInt(Integer::intValue)
-                .max()
-                .orElse(0);
-    }
-
-    private int calculateDepth(
-            String current,
-            Map<String, Set<String>> dependencyGraph,
-            Map<String, Integer> depth,
-            Set<String> processing) {
-
-        if (depth.containsKey(current)) {
-            return depth.get(current);
-        }
-
-        if (processing.contains(current)) {
-            // Cycle detected - shouldn't happen if hasCircular check worked, but safety net
-            return 0;
-        }
-
-        Set<String> dependencies = dependencyGraph.get(current);
-        if (dependencies == null || dependencies.isEmpty()) {
-            depth.put(current, 0);
-            return 0;
-        }
-
-        processing.add(current);
-
-        int maxChildDepth = dependencies.stream()
-                .filter(dependencyGraph::containsKey)
-                .mapToInt(dep -> calculateDepth(dep, dependencyGraph, depth, processing))
-                .max()
-                .orElse(-1);
-
-        processing.remove(current);
-
-        int currentDepth = maxChildDepth + 1;
-        depth.put(current, currentDepth);
-        return currentDepth;
+    public List<String> validateEndpointAccess(SubRequestDto request) {
+        return validateEndpointAccess(request,
+                endpointRegistry.getEndpointInformations(request.getMethod(), request.getUrl()));
     }
 
-    public List<String> validateEndpointAccess(SubRequestDto request) {
+    private List<String> validateEndpointAccess(SubRequestDto request, Optional<EndpointInfo> endpointInfo) {
         List<String> errors = new ArrayList<>();
         String refId = request.getReferenceId();
 
@@ -253,13 +185,13 @@ public class CompositeRequestValidatorImpl implements CompositeRequestValidator
         }
 
         // Validate endpoint availability
-        Optional<EndpointInfo> endpointInfo = endpointRegistry.getEndpointInformations(request.getMethod(),
-                request.getUrl());
-
         if (endpointInfo.isEmpty()) {
             String error = "[" + refId + "] Endpoint not available for composite execution: " + request.getMethod() + " " + request.getUrl();
             errors.add(error);
             log.error(error);
+        } else {
+            // Carried to execution, which only checks the resolved URL against this endpoint
+            request.setEndpointInfo(endpointInfo.get());
         }
 
         // Validate request body against method
@@ -343,4 +275,15 @@ public class CompositeRequestValidatorImpl implements CompositeRequestValidator
                   .replace("[", "%5B")
                   .replace("]", "%5D");
     }
-}
\ No newline at end of file
+
+    /**
+     * The plan of a valid request shape, valid for as long as the endpoints it was matched
+     * against are registered.
+     */
+    private record CachedPlan(ExecutionPlan plan, Instant endpointsRefreshedAt) {
+
+        boolean isCurrent(Instant lastRefresh) {
+            return Objects.equals(endpointsRefreshedAt, lastRefresh);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.nabilcarel.composite.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket that caps retry traffic at a fraction of regular traffic. It is also used to
+ * cap hedged requests.
+ *
+ * <p>Every retry-eligible sub-request {@link #deposit() deposits} {@code ratio} tokens, up to
+ * {@code maxTokens}; every retry must {@link #tryWithdraw() withdraw} a whole token. With a
+ * ratio of {@code 0.1}, retries can add at most 10% to the loopback traffic plus a burst of
+ * {@code maxTokens}, however many sub-requests fail during an incident.
+ *
+ * <p>Tokens are kept in thousandths so the bucket can be updated with a single
+ * {@link AtomicLong}.
+ *
+ * @see SubRequestRetrier
+ * @see SubRequestHedger
+ * @since 0.0.1
+ */
+public class RetryBudget {
+
+    private static final long SCALE = 1_000;
+
+    private final long depositPerRequest;
+    private final long capacity;
+    private final AtomicLong balance;
+
+    /**
+     * @param ratio     tokens deposited per request, i.e. the allowed retries per request
+     * @param maxTokens the bucket capacity, which is also its initial balance
+     */
+    public RetryBudget(double ratio, int maxTokens) {
+        this.depositPerRequest = Math.round(ratio * SCALE);
+        this.capacity = maxTokens * SCALE;
+        this.balance = new AtomicLong(capacity);
+    }
+
+    /** Credits the budget for one regular request. */
+    public void deposit() {
+        balance.accumulateAndGet(depositPerRequest, (current, delta) -> Math.min(capacity, current + delta));
+    }
+
+    /**
+     * Withdraws one token for a retry, if available.
+     *
+     * @return {@code true} if the retry may proceed
+     */
+    public boolean tryWithdraw() {
+        while (true) {
+            long current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+}
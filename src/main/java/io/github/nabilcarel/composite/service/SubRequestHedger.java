@@ -0,0 +1,116 @@
+package io.github.nabilcarel.composite.service;
+
+import io.github.nabilcarel.composite.config.CompositeProperties;
+import io.github.nabilcarel.composite.config.EndpointRegistry.EndpointInfo;
+import io.github.nabilcarel.composite.metrics.CompositeMetrics;
+import io.github.nabilcarel.composite.metrics.LatencyHistogram;
+import io.github.nabilcarel.composite.model.Deadline;
+import io.github.nabilcarel.composite.model.response.SubResponse;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Sends a second, identical sub-request when the first one is slower than usual, as
+ * configured by {@link CompositeProperties.Hedging}.
+ *
+ * <p>The latency of every sub-request attempt that completes with a {@code 2xx} response
+ * is recorded in a per-endpoint {@link LatencyHistogram}; failed attempts, and attempts
+ * cancelled because the other one won, are left out so they do not drag the threshold
+ * around. Once an endpoint has {@code min-samples} samples, an attempt still running after
+ * the endpoint's {@code percentile} latency is <em>hedged</em>: a second attempt is sent
+ * and whichever signals first wins, the other one being cancelled. Hedges draw from a
+ * {@link RetryBudget}, so they never exceed {@code budget-ratio} of the eligible traffic,
+ * and are not sent if the composite deadline would pass first.
+ *
+ * @see CompositeRequestServiceImpl
+ * @since 0.0.1
+ */
+@Slf4j
+@Service
+public class SubRequestHedger {
+
+    private final CompositeProperties.Hedging config;
+    private final CompositeMetrics metrics;
+    private final RetryBudget budget;
+    private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    public SubRequestHedger(CompositeProperties properties, CompositeMetrics metrics) {
+        this.config = properties.getHedging();
+        this.metrics = metrics;
+        this.budget = new RetryBudget(config.getBudgetRatio(), config.getBudgetMaxTokens());
+    }
+
+    /**
+     * Returns whether a sub-request may be hedged.
+     *
+     * @param method       the HTTP method of the sub-request
+     * @param endpointInfo the endpoint the sub-request resolved to
+     * @return {@code true} if hedging is enabled and the request is idempotent
+     */
+    public boolean isEligible(String method, EndpointInfo endpointInfo) {
+        if (!config.isEnabled()) {
+            return false;
+        }
+        return "GET".equalsIgnoreCase(method)
+                || "HEAD".equalsIgnoreCase(method)
+                || endpointInfo.isIdempotent();
+    }
+
+    /**
+     * Records the latency of successful attempts and hedges slow ones.
+     *
+     * @param attempt  a {@link Mono} performing one attempt; it is subscribed again for the hedge
+     * @param method   the HTTP method, used with {@code pattern} to key the latency histogram
+     * @param pattern  the endpoint pattern
+     * @param deadline the composite deadline, or {@code null} if there is none
+     * @return the response of whichever attempt signals first
+     */
+    public Mono<SubResponse> withHedge(Mono<SubResponse> attempt, String method, String pattern,
+                                       @Nullable Deadline deadline) {
+        LatencyHistogram histogram = histograms.computeIfAbsent(method.toUpperCase() + " " + pattern,
+                key -> new LatencyHistogram(config.getWindow()));
+        budget.deposit();
+
+        Mono<SubResponse> timed = Mono.defer(() -> {
+            long start = System.nanoTime();
+            return attempt.doOnSuccess(response -> {
+                if (isSuccess(response)) {
+                    histogram.record(System.nanoTime() - start);
+                }
+            });
+        });
+
+        if (histogram.count() < config.getMinSamples()) {
+            return timed;
+        }
+        Duration threshold = Duration.ofNanos(histogram.percentile(config.getPercentile()));
+        if (deadline != null && deadline.remaining().compareTo(threshold) <= 0) {
+            return timed;
+        }
+
+        Mono<SubResponse> hedge = Mono.delay(threshold)
+                .then(Mono.defer(() -> {
+                    if (!budget.tryWithdraw()) {
+                        metrics.recordHedge(pattern, "budget_exhausted");
+                        return Mono.<SubResponse>never();
+                    }
+                    log.debug("Hedging {} after {}ms", pattern, threshold.toMillis());
+                    metrics.recordHedge(pattern, "sent");
+                    return timed.doOnSuccess(response -> metrics.recordHedge(pattern, "won"));
+                }));
+
+        return Mono.firstWithSignal(timed, hedge);
+    }
+
+    private static boolean isSuccess(@Nullable SubResponse response) {
+        return response != null
+                && response.getHttpStatus() >= HttpStatus.OK.value()
+                && response.getHttpStatus() < HttpStatus.MULTIPLE_CHOICES.value();
+    }
+}
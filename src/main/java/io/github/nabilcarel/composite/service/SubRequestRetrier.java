@@ -0,0 +1,136 @@
+package io.github.nabilcarel.composite.service;
+
+import io.github.nabilcarel.composite.config.CompositeProperties;
+import io.github.nabilcarel.composite.config.EndpointRegistry.EndpointInfo;
+import io.github.nabilcarel.composite.metrics.CompositeMetrics;
+import io.github.nabilcarel.composite.model.Deadline;
+import io.github.nabilcarel.composite.model.response.SubResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Retries idempotent sub-requests that failed transiently, as configured by
+ * {@link CompositeProperties.Retry}.
+ *
+ * <p>A sub-request is retried when the loopback connection fails or its response status is
+ * one of {@code composite.retry.retry-on-status}. Timeouts are not retried: the sub-request
+ * has already consumed its share of the composite deadline. Each retry waits for an
+ * exponentially growing, jittered backoff and is skipped when:
+ * <ul>
+ *   <li>{@code max-attempts} has been reached,</li>
+ *   <li>the composite {@link Deadline} would pass before the backoff elapses, or</li>
+ *   <li>the global {@link RetryBudget} is exhausted.</li>
+ * </ul>
+ * When retries stop, the last response, or the last error, is returned as if no retry had
+ * been attempted.
+ *
+ * @see CompositeRequestServiceImpl
+ * @since 0.0.1
+ */
+@Slf4j
+@Service
+public class SubRequestRetrier {
+
+    private final CompositeProperties.Retry config;
+    private final CompositeMetrics metrics;
+    private final RetryBudget budget;
+
+    public SubRequestRetrier(CompositeProperties properties, CompositeMetrics metrics) {
+        this.config = properties.getRetry();
+        this.metrics = metrics;
+        this.budget = new RetryBudget(config.getBudgetRatio(), config.getBudgetMaxTokens());
+    }
+
+    /**
+     * Returns whether a sub-request may be retried.
+     *
+     * @param method       the HTTP method of the sub-request
+     * @param endpointInfo the endpoint the sub-request resolved to
+     * @return {@code true} if retries are enabled and the request is idempotent
+     */
+    public boolean isEligible(String method, EndpointInfo endpointInfo) {
+        if (!config.isEnabled() || config.getMaxAttempts() <= 1) {
+            return false;
+        }
+        return "GET".equalsIgnoreCase(method)
+                || "HEAD".equalsIgnoreCase(method)
+                || endpointInfo.isIdempotent();
+    }
+
+    /**
+     * Applies the retry policy to a sub-request.
+     *
+     * @param attempt  a {@link Mono} performing one attempt; it is re-subscribed for each retry
+     * @param pattern  the endpoint pattern, used to tag retry metrics
+     * @param deadline the composite deadline, or {@code null} if there is none
+     * @return the response of the last attempt
+     */
+    public Mono<SubResponse> withRetry(Mono<SubResponse> attempt, String pattern, @Nullable Deadline deadline) {
+        budget.deposit();
+        return attempt
+                .flatMap(response -> config.getRetryOnStatus().contains(response.getHttpStatus())
+                        ? Mono.<SubResponse>error(new RetryableStatusException(response))
+                        : Mono.just(response))
+                .retryWhen(Retry.from(signals -> signals.concatMap(signal -> {
+                    Throwable failure = signal.failure();
+                    long retries = signal.totalRetries();
+                    if (!isRetryable(failure) || retries + 1 >= config.getMaxAttempts()) {
+                        return Mono.error(failure);
+                    }
+                    Duration backoff = backoff(retries);
+                    if (deadline != null && deadline.remaining().compareTo(backoff) <= 0) {
+                        return Mono.error(failure);
+                    }
+                    if (!budget.tryWithdraw()) {
+                        log.debug("Retry budget exhausted, not retrying {}", pattern);
+                        metrics.recordRetry(pattern, "budget_exhausted");
+                        return Mono.error(failure);
+                    }
+                    log.debug("Retrying {} in {}ms after: {}", pattern, backoff.toMillis(), failure.getMessage());
+                    metrics.recordRetry(pattern, "retried");
+                    return Mono.delay(backoff);
+                })))
+                .onErrorResume(RetryableStatusException.class, e -> Mono.just(e.getResponse()));
+    }
+
+    private Duration backoff(long retries) {
+        long initial = config.getInitialBackoff().toNanos();
+        long max = config.getMaxBackoff().toNanos();
+        long shifted = initial << Math.min(retries, 30);
+        long exponential = shifted < 0 || shifted > max ? max : shifted;
+        double jitter = config.getJitter() * (ThreadLocalRandom.current().nextDouble() * 2 - 1);
+        return Duration.ofNanos(Math.max(0, (long) (exponential * (1 + jitter))));
+    }
+
+    private static boolean isRetryable(Throwable failure) {
+        if (failure instanceof RetryableStatusException || failure instanceof WebClientRequestException) {
+            return true;
+        }
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Carries a sub-response with a retryable status through the retry operator. */
+    @Getter
+    private static final class RetryableStatusException extends RuntimeException {
+
+        private final transient SubResponse response;
+
+        RetryableStatusException(SubResponse response) {
+            super("Retryable status " + response.getHttpStatus(), null, false, false);
+            this.response = response;
+        }
+    }
+}
@@ -17,6 +17,17 @@
  *       completion callbacks to the
  *       {@link io.github.nabilcarel.composite.model.SubRequestCoordinator SubRequestCoordinator}
  *       execution pipeline.</li>
+ *   <li>{@link io.github.nabilcarel.composite.service.CompositeBatchLauncher} — sets up and
+ *       starts the batch of a validated composite request, for both the servlet filter and
+ *       the reactive handler.</li>
+ *   <li>{@link io.github.nabilcarel.composite.service.SubRequestRetrier} — retries
+ *       idempotent sub-requests with backoff, within a global
+ *       {@link io.github.nabilcarel.composite.service.RetryBudget RetryBudget}.</li>
+ *   <li>{@link io.github.nabilcarel.composite.service.SubRequestHedger} — sends a second
+ *       attempt for idempotent sub-requests slower than their endpoint's usual latency.</li>
+ *   <li>{@link io.github.nabilcarel.composite.service.CircuitBreakerRegistry} — fails
+ *       sub-requests fast while their endpoint's
+ *       {@link io.github.nabilcarel.composite.service.CircuitBreaker CircuitBreaker} is open.</li>
  * </ul>
  */
 package io.github.nabilcarel.composite.service;
@@ -51,4 +51,12 @@ public class Patterns {
      * {@code address.city}.
      */
     public static final Pattern DEPENDENCY_SPLIT_PATTERN = Pattern.compile("[.\\[]");
+
+    /**
+     * Matches a {@code {{name}}} parameter placeholder of a
+     * {@link io.github.nabilcarel.composite.model.request.CompositeTemplate composite template}.
+     *
+     * <p>Capture group 1 contains the parameter name.
+     */
+    public static final Pattern TEMPLATE_PARAMETER_PATTERN = Pattern.compile("\\{\\{([a-zA-Z0-9_-]+)}}");
 }
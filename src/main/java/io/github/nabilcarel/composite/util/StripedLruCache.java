@@ -0,0 +1,120 @@
+package io.github.nabilcarel.composite.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.lang.Nullable;
+
+/**
+ * Bounded, thread-safe cache that evicts its least recently used entries.
+ *
+ * <p>Entries are spread by key hash over up to 16 stripes, each an access-ordered
+ * {@link LinkedHashMap} guarded by its own lock, so lookups of different keys rarely
+ * contend. Recency is tracked per stripe: a full stripe evicts its own least recently used
+ * entry, which approximates global LRU order.
+ *
+ * <p>{@code null} values are not supported; {@link #get} returns {@code null} for a missing
+ * key.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ * @since 0.0.1
+ */
+public class StripedLruCache<K, V> {
+
+    private static final int MAX_STRIPES = 16;
+
+    private final List<Stripe<K, V>> stripes;
+    private final int mask;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param maximumSize the maximum number of entries; must be positive
+     * @throws IllegalArgumentException if {@code maximumSize} is not positive
+     */
+    public StripedLruCache(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+        }
+        int stripeCount = Math.min(MAX_STRIPES, Integer.highestOneBit(maximumSize));
+        List<Stripe<K, V>> stripes = new ArrayList<>(stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            stripes.add(new Stripe<>(maximumSize / stripeCount));
+        }
+        this.stripes = List.copyOf(stripes);
+        this.mask = stripeCount - 1;
+    }
+
+    /**
+     * Returns the value cached for a key and marks it as most recently used.
+     *
+     * @param key the key
+     * @return the cached value, or {@code null} if there is none
+     */
+    @Nullable
+    public V get(K key) {
+        Stripe<K, V> stripe = stripeFor(key);
+        synchronized (stripe) {
+            return stripe.get(key);
+        }
+    }
+
+    /**
+     * Caches a value, evicting the least recently used entry of its stripe if it is full.
+     *
+     * @param key   the key
+     * @param value the value; must not be {@code null}
+     */
+    public void put(K key, V value) {
+        Stripe<K, V> stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.put(key, value);
+        }
+    }
+
+    /** Removes every entry. */
+    public void clear() {
+        for (Stripe<K, V> stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of cached entries.
+     *
+     * @return the entry count, never more than the maximum size
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe<K, V> stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private Stripe<K, V> stripeFor(K key) {
+        int hash = key.hashCode();
+        return stripes.get((hash ^ (hash >>> 16)) & mask);
+    }
+
+    private static final class Stripe<K, V> extends LinkedHashMap<K, V> {
+
+        private final int capacity;
+
+        Stripe(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > capacity;
+        }
+    }
+}
@@ -3,6 +3,7 @@
  *
  * <p>Currently contains {@link io.github.nabilcarel.composite.util.Patterns}, a utility
  * class that provides compiled {@link java.util.regex.Pattern} constants used throughout
- * the library for placeholder detection, index extraction, and dependency parsing.
+ * the library for placeholder detection, index extraction, and dependency parsing; and
+ * {@link io.github.nabilcarel.composite.util.StripedLruCache}, a bounded LRU cache.
  */
 package io.github.nabilcarel.composite.util;
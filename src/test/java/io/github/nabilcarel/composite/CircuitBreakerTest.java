@@ -0,0 +1,206 @@
+package io.github.nabilcarel.composite;
+
+import io.github.nabilcarel.composite.config.CompositeProperties;
+import io.github.nabilcarel.composite.metrics.CompositeMetrics;
+import io.github.nabilcarel.composite.model.response.SubResponse;
+import io.github.nabilcarel.composite.service.CircuitBreaker;
+import io.github.nabilcarel.composite.service.CircuitBreakerRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private static final String PATTERN = "/api/users/{id}";
+
+    private CompositeProperties properties;
+    private List<String> events;
+    private CompositeMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CompositeProperties();
+        properties.getCircuitBreaker().setEnabled(true);
+        properties.getCircuitBreaker().setSlidingWindowSize(4);
+        properties.getCircuitBreaker().setMinimumCalls(4);
+        properties.getCircuitBreaker().setWaitDurationInOpenState(Duration.ofMillis(20));
+        properties.getCircuitBreaker().setPermittedCallsInHalfOpenState(2);
+        events = new ArrayList<>();
+        metrics = new CompositeMetrics() {
+            @Override
+            public void recordCircuitBreaker(String method, String pattern, String event) {
+                events.add(event);
+            }
+        };
+    }
+
+    // ========== State Transition Tests ==========
+
+    @Test
+    void onResult_belowMinimumCalls_staysClosed() {
+        CircuitBreaker breaker = createBreaker();
+
+        breaker.onResult(true, 0);
+        breaker.onResult(true, 0);
+        breaker.onResult(true, 0);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void onResult_whenFailureRateReached_opensAndRejects() {
+        CircuitBreaker breaker = createBreaker();
+
+        breaker.onResult(false, 0);
+        breaker.onResult(false, 0);
+        breaker.onResult(true, 0);
+        breaker.onResult(true, 0);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(events).containsExactly("opened");
+    }
+
+    @Test
+    void onResult_whenSlowCallRateReached_opens() {
+        properties.getCircuitBreaker().setSlowCallDuration(Duration.ofMillis(100));
+        CircuitBreaker breaker = createBreaker();
+        long slow = Duration.ofMillis(150).toNanos();
+
+        breaker.onResult(false, slow);
+        breaker.onResult(false, slow);
+        breaker.onResult(false, slow);
+        breaker.onResult(false, slow);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void onResult_slidingWindowForgetsOldFailures() {
+        CircuitBreaker breaker = createBreaker();
+
+        breaker.onResult(true, 0);
+        breaker.onResult(false, 0);
+        breaker.onResult(false, 0);
+        breaker.onResult(false, 0);
+        breaker.onResult(false, 0);
+        breaker.onResult(true, 0);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void tryAcquire_afterWaitDuration_permitsLimitedProbesThenCloses() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker();
+        Thread.sleep(30);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.onResult(false, 0);
+        breaker.onResult(false, 0);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(events).containsExactly("opened", "half_opened", "closed");
+    }
+
+    @Test
+    void onResult_whenProbeFails_reopens() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker();
+        Thread.sleep(30);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onResult(true, 0);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void release_freesPermitOfCancelledProbe() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker();
+        Thread.sleep(30);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.release();
+
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    // ========== Registry Tests ==========
+
+    @Test
+    void protect_whenOpen_failsFastWithServiceUnavailable() {
+        CircuitBreakerRegistry registry = new CircuitBreakerRegistry(properties, metrics);
+        AtomicInteger calls = new AtomicInteger();
+        Mono<SubResponse> execution = Mono.fromSupplier(() -> {
+            calls.incrementAndGet();
+            return response(503);
+        });
+
+        for (int i = 0; i < 4; i++) {
+            registry.protect("get", PATTERN, "user", execution).block();
+        }
+        SubResponse rejected = registry.protect("GET", PATTERN, "user", execution).block();
+
+        assertThat(calls).hasValue(4);
+        assertThat(rejected.getHttpStatus()).isEqualTo(503);
+        assertThat(rejected.getReferenceId()).isEqualTo("user");
+        assertThat(rejected.getBody().toString()).contains("Circuit breaker open for GET " + PATTERN);
+        assertThat(registry.getStates()).containsEntry("GET " + PATTERN, CircuitBreaker.State.OPEN);
+        assertThat(events).containsExactly("opened", "rejected");
+    }
+
+    @Test
+    void protect_whenDisabled_returnsExecutionUnchanged() {
+        properties.getCircuitBreaker().setEnabled(false);
+        CircuitBreakerRegistry registry = new CircuitBreakerRegistry(properties, metrics);
+        Mono<SubResponse> execution = Mono.just(response(500));
+
+        assertThat(registry.protect("GET", PATTERN, "user", execution)).isSameAs(execution);
+        assertThat(registry.getStates()).isEmpty();
+    }
+
+    @Test
+    void protect_clientErrorsDoNotCountAsFailures() {
+        CircuitBreakerRegistry registry = new CircuitBreakerRegistry(properties, metrics);
+
+        for (int i = 0; i < 4; i++) {
+            registry.protect("GET", PATTERN, "user", Mono.just(response(404))).block();
+        }
+
+        assertThat(registry.getStates()).containsEntry("GET " + PATTERN, CircuitBreaker.State.CLOSED);
+    }
+
+    // ========== Helper Methods ==========
+
+    private CircuitBreaker createBreaker() {
+        return new CircuitBreaker("GET", PATTERN, properties.getCircuitBreaker(), metrics);
+    }
+
+    private CircuitBreaker openBreaker() {
+        CircuitBreaker breaker = createBreaker();
+        for (int i = 0; i < 4; i++) {
+            breaker.onResult(true, 0);
+        }
+        return breaker;
+    }
+
+    private SubResponse response(int status) {
+        return SubResponse.builder()
+                .referenceId("user")
+                .httpStatus(status)
+                .build();
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.nabilcarel.composite;
+
+import io.github.nabilcarel.composite.autoconfigure.CompositeActuatorEndpoint;
+import io.github.nabilcarel.composite.config.EndpointRegistry;
+import io.github.nabilcarel.composite.config.EndpointRegistry.EndpointInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CompositeActuatorEndpointTest {
+
+    @Mock
+    private EndpointRegistry endpointRegistry;
+
+    private CompositeActuatorEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        endpoint = new CompositeActuatorEndpoint(endpointRegistry);
+    }
+
+    @Test
+    void registry_reportsEndpointCountAndLastRefresh() {
+        Instant lastRefresh = Instant.parse("2026-01-01T00:00:00Z");
+        when(endpointRegistry.getAvailableEndpoints()).thenReturn(Set.of(createEndpointInfo()));
+        when(endpointRegistry.getLastRefresh()).thenReturn(lastRefresh);
+
+        Map<String, Object> registry = endpoint.registry();
+
+        assertThat(registry)
+                .containsEntry("availableEndpoints", 1)
+                .containsEntry("lastRefresh", lastRefresh);
+    }
+
+    @Test
+    void refresh_rescansRegistry() {
+        when(endpointRegistry.getAvailableEndpoints()).thenReturn(Set.of());
+
+        endpoint.refresh();
+
+        verify(endpointRegistry).refresh();
+    }
+
+    // ========== Helper Methods ==========
+
+    private EndpointInfo createEndpointInfo() {
+        return EndpointInfo.builder()
+                .pattern("/api/users/{id}")
+                .method("GET")
+                .returnClass(String.class)
+                .build();
+    }
+}
@@ -4,6 +4,7 @@ import io.github.nabilcarel.composite.autoconfigure.CompositeAutoConfiguration;
 import io.github.nabilcarel.composite.config.CompositeLoopbackProperties;
 import io.github.nabilcarel.composite.config.CompositeProperties;
 import io.github.nabilcarel.composite.config.filter.CompositeRequestFilter;
+import io.github.nabilcarel.composite.metrics.CompositeObservations;
 import io.github.nabilcarel.composite.model.ResponseTracker;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,6 +16,8 @@ import org.springframework.boot.web.servlet.context.ServletWebServerInitializedE
 import org.springframework.boot.web.server.WebServer;
 import org.springframework.core.Ordered;
 import org.springframework.core.env.Environment;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
 
 import java.util.concurrent.ConcurrentMap;
 
@@ -102,7 +105,9 @@ class CompositeAutoConfigurationTest {
         loopbackProperties.setProtocol("http");
 
         org.springframework.web.reactive.function.client.WebClient webClient =
-                autoConfiguration.loopbackWebClient(loopbackProperties);
+                autoConfiguration.loopbackWebClient(loopbackProperties,
+                        autoConfiguration.loopbackConnectionProvider(loopbackProperties), null,
+                        CompositeObservations.NOOP);
 
         assertThat(webClient).isNotNull();
     }
@@ -122,7 +127,9 @@ class CompositeAutoConfigurationTest {
         loopbackProperties.setTrustSelfSignedCertificates(true);
 
         org.springframework.web.reactive.function.client.WebClient webClient =
-                autoConfiguration.loopbackWebClient(loopbackProperties);
+                autoConfiguration.loopbackWebClient(loopbackProperties,
+                        autoConfiguration.loopbackConnectionProvider(loopbackProperties), null,
+                        CompositeObservations.NOOP);
 
         assertThat(webClient).isNotNull();
     }
@@ -142,7 +149,9 @@ class CompositeAutoConfigurationTest {
         loopbackProperties.setTrustSelfSignedCertificates(false);
 
         org.springframework.web.reactive.function.client.WebClient webClient =
-                autoConfiguration.loopbackWebClient(loopbackProperties);
+                autoConfiguration.loopbackWebClient(loopbackProperties,
+                        autoConfiguration.loopbackConnectionProvider(loopbackProperties), null,
+                        CompositeObservations.NOOP);
 
         assertThat(webClient).isNotNull();
     }
@@ -162,8 +171,95 @@ class CompositeAutoConfigurationTest {
         loopbackProperties.setTrustSelfSignedCertificates(false);
 
         org.springframework.web.reactive.function.client.WebClient webClient =
-                autoConfiguration.loopbackWebClient(loopbackProperties);
+                autoConfiguration.loopbackWebClient(loopbackProperties,
+                        autoConfiguration.loopbackConnectionProvider(loopbackProperties), null,
+                        CompositeObservations.NOOP);
 
         assertThat(webClient).isNotNull();
     }
+
+    @Test
+    void loopbackWebClient_withH2c_createsWebClient() {
+        ServletWebServerInitializedEvent event = mock(ServletWebServerInitializedEvent.class);
+        WebServer webServer = mock(WebServer.class);
+        when(event.getWebServer()).thenReturn(webServer);
+        when(webServer.getPort()).thenReturn(8080);
+        autoConfiguration.onApplicationEvent(event);
+
+        when(environment.getProperty("server.http2.enabled", Boolean.class, false)).thenReturn(true);
+
+        CompositeLoopbackProperties loopbackProperties = new CompositeLoopbackProperties();
+        loopbackProperties.setProtocol("h2c");
+
+        org.springframework.web.reactive.function.client.WebClient webClient =
+                autoConfiguration.loopbackWebClient(loopbackProperties,
+                        autoConfiguration.loopbackConnectionProvider(loopbackProperties), null,
+                        CompositeObservations.NOOP);
+
+        assertThat(webClient).isNotNull();
+    }
+
+    @Test
+    void loopbackWebClient_withH2cButHttp2NotEnabled_stillCreatesWebClient() {
+        when(environment.getProperty("server.http2.enabled", Boolean.class, false)).thenReturn(false);
+
+        CompositeLoopbackProperties loopbackProperties = new CompositeLoopbackProperties();
+        loopbackProperties.setProtocol("h2c");
+
+        org.springframework.web.reactive.function.client.WebClient webClient =
+                autoConfiguration.loopbackWebClient(loopbackProperties,
+                        autoConfiguration.loopbackConnectionProvider(loopbackProperties), null,
+                        CompositeObservations.NOOP);
+
+        assertThat(webClient).isNotNull();
+    }
+
+    @Test
+    void loopbackWebClient_withDomainSocket_createsWebClient() {
+        CompositeLoopbackProperties loopbackProperties = new CompositeLoopbackProperties();
+        loopbackProperties.getDomainSocket().setEnabled(true);
+        loopbackProperties.getDomainSocket().setEventLoopThreads(1);
+
+        LoopResources loopResources = autoConfiguration.loopbackLoopResources(loopbackProperties);
+        try {
+            org.springframework.web.reactive.function.client.WebClient webClient =
+                    autoConfiguration.loopbackWebClient(loopbackProperties,
+                            autoConfiguration.loopbackConnectionProvider(loopbackProperties), loopResources,
+                            CompositeObservations.NOOP);
+
+            assertThat(webClient).isNotNull();
+        } finally {
+            loopResources.dispose();
+        }
+    }
+
+    @Test
+    void loopbackConnectionProvider_appliesPoolSettings() {
+        CompositeLoopbackProperties loopbackProperties = new CompositeLoopbackProperties();
+        loopbackProperties.getPool().setMaxConnections(42);
+        loopbackProperties.getPool().setPendingAcquireMaxCount(7);
+        loopbackProperties.getPool().setMaxIdleTime(java.time.Duration.ofSeconds(30));
+        loopbackProperties.getPool().setLeasingStrategy(CompositeLoopbackProperties.LeasingStrategy.LIFO);
+
+        ConnectionProvider provider = autoConfiguration.loopbackConnectionProvider(loopbackProperties);
+        try {
+            assertThat(provider.name()).isEqualTo("composite-loopback");
+            assertThat(provider.maxConnections()).isEqualTo(42);
+        } finally {
+            provider.dispose();
+        }
+    }
+
+    @Test
+    void loopbackConnectionProvider_withMetricsEnabled_createsProvider() {
+        CompositeLoopbackProperties loopbackProperties = new CompositeLoopbackProperties();
+        loopbackProperties.getPool().setMetricsEnabled(true);
+
+        ConnectionProvider provider = autoConfiguration.loopbackConnectionProvider(loopbackProperties);
+        try {
+            assertThat(provider).isNotNull();
+        } finally {
+            provider.dispose();
+        }
+    }
 }
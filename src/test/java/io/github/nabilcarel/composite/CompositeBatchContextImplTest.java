@@ -2,6 +2,7 @@ package io.github.nabilcarel.composite;
 
 import io.github.nabilcarel.composite.model.ResponseTracker;
 import io.github.nabilcarel.composite.model.SubRequestCoordinator;
+import io.github.nabilcarel.composite.model.request.ExecutionMode;
 import io.github.nabilcarel.composite.model.request.SubRequest;
 import io.github.nabilcarel.composite.model.request.SubRequestDto;
 import io.github.nabilcarel.composite.model.response.SubResponse;
@@ -15,8 +16,12 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -45,7 +50,7 @@ class CompositeBatchContextImplTest {
 
     @Test
     void constructor_setsOnSubRequestResolvedCallback() {
-        new CompositeBatchContextImpl(tracker, coordinator, requestMap, requestService, BATCH_ID, servletRequest);
+        new CompositeBatchContextImpl(tracker, coordinator, requestMap, requestService, BATCH_ID, servletRequest, ExecutionMode.PARTIAL);
 
         verify(tracker).setOnSubRequestResolved(any());
     }
@@ -61,7 +66,7 @@ class CompositeBatchContextImplTest {
                 .thenReturn(Mono.empty());
 
         CompositeBatchContextImpl batchContext = new CompositeBatchContextImpl(
-                tracker, coordinator, requestMap, requestService, BATCH_ID, servletRequest);
+                tracker, coordinator, requestMap, requestService, BATCH_ID, servletRequest, ExecutionMode.PARTIAL);
 
         batchContext.startInitialRequests();
 
@@ -77,11 +82,11 @@ class CompositeBatchContextImplTest {
         when(coordinator.markInProgress("a")).thenReturn(false);
 
         CompositeBatchContextImpl batchContext = new CompositeBatchContextImpl(
-                tracker, coordinator, requestMap, requestService, BATCH_ID, servletRequest);
+                tracker, coordinator, requestMap, requestService, BATCH_ID, servletRequest, ExecutionMode.PARTIAL);
 
         batchContext.startInitialRequests();
 
-        verify(requestService, never()).forwardSubrequest(any(), any(), any());
+        verify(requestService, never()).forwardSubrequest(any(), any(), any(HttpServletRequest.class));
     }
 
     @Test
@@ -97,7 +102,7 @@ class CompositeBatchContextImplTest {
                 .thenReturn(Mono.empty());
 
         CompositeBatchContextImpl batchContext = new CompositeBatchContextImpl(
-                tracker, coordinator, requestMap, requestService, BATCH_ID, servletRequest);
+                tracker, coordinator, requestMap, requestService, BATCH_ID, servletRequest, ExecutionMode.PARTIAL);
 
         batchContext.startInitialRequests();
 
@@ -105,6 +110,61 @@ class CompositeBatchContextImplTest {
         verify(requestService).forwardSubrequest(reqB, BATCH_ID, servletRequest);
     }
 
+    @Test
+    void startInitialRequests_withConcurrencyCap_dispatchesAsSlotsFree() {
+        SubRequest reqA = createSubRequest("a", "/api/a", "GET");
+        SubRequest reqB = createSubRequest("b", "/api/b", "GET");
+        SubRequest reqC = createSubRequest("c", "/api/c", "GET");
+        requestMap.put("a", reqA);
+        requestMap.put("b", reqB);
+        requestMap.put("c", reqC);
+        Sinks.Empty<Void> first = Sinks.empty();
+        Sinks.Empty<Void> second = Sinks.empty();
+
+        when(coordinator.getInitialReadySubRequests()).thenReturn(List.of("a", "b", "c"));
+        when(coordinator.markInProgress(anyString())).thenReturn(true);
+        when(requestService.forwardSubrequest(reqA, BATCH_ID, servletRequest)).thenReturn(first.asMono());
+        when(requestService.forwardSubrequest(reqB, BATCH_ID, servletRequest)).thenReturn(second.asMono());
+        when(requestService.forwardSubrequest(reqC, BATCH_ID, servletRequest)).thenReturn(Mono.empty());
+
+        CompositeBatchContextImpl batchContext = new CompositeBatchContextImpl(
+                tracker, coordinator, requestMap, requestService, BATCH_ID, servletRequest, ExecutionMode.PARTIAL, 2);
+        batchContext.startInitialRequests();
+
+        verify(requestService).forwardSubrequest(reqA, BATCH_ID, servletRequest);
+        verify(requestService).forwardSubrequest(reqB, BATCH_ID, servletRequest);
+        verify(requestService, never()).forwardSubrequest(reqC, BATCH_ID, servletRequest);
+
+        first.tryEmitEmpty();
+
+        verify(requestService).forwardSubrequest(reqC, BATCH_ID, servletRequest);
+    }
+
+    @Test
+    void onCancelled_dropsSubRequestsWaitingForAConcurrencySlot() {
+        SubRequest reqA = createSubRequest("a", "/api/a", "GET");
+        SubRequest reqB = createSubRequest("b", "/api/b", "GET");
+        requestMap.put("a", reqA);
+        requestMap.put("b", reqB);
+        Sinks.Empty<Void> first = Sinks.empty();
+
+        when(coordinator.getInitialReadySubRequests()).thenReturn(List.of("a", "b"));
+        when(coordinator.markInProgress(anyString())).thenReturn(true);
+        when(coordinator.cancelPending()).thenReturn(List.of());
+        when(requestService.forwardSubrequest(reqA, BATCH_ID, servletRequest)).thenReturn(first.asMono());
+
+        CompositeBatchContextImpl batchContext = new CompositeBatchContextImpl(
+                tracker, coordinator, requestMap, requestService, BATCH_ID, servletRequest, ExecutionMode.PARTIAL, 1);
+        batchContext.startInitialRequests();
+
+        ArgumentCaptor<Consumer<Throwable>> cancelCaptor = ArgumentCaptor.forClass(Consumer.class);
+        verify(tracker).setOnCancelled(cancelCaptor.capture());
+        cancelCaptor.getValue().accept(new TimeoutException());
+
+        assertThat(first.currentSubscriberCount()).isZero();
+        verify(requestService, never()).forwardSubrequest(reqB, BATCH_ID, servletRequest);
+    }
+
     @Test
     void handleSubRequestResolved_forwardsNewlyReadyRequests() {
         SubRequest reqB = createSubRequest("b", "/api/b", "GET");
@@ -118,7 +178,7 @@ class CompositeBatchContextImplTest {
         when(requestService.forwardSubrequest(eq(reqB), eq(BATCH_ID), eq(servletRequest)))
                 .thenReturn(Mono.empty());
 
-        new CompositeBatchContextImpl(tracker, coordinator, requestMap, requestService, BATCH_ID, servletRequest);
+        new CompositeBatchContextImpl(tracker, coordinator, requestMap, requestService, BATCH_ID, servletRequest, ExecutionMode.PARTIAL);
 
         verify(tracker).setOnSubRequestResolved(callbackCaptor.capture());
         callbackCaptor.getValue().accept("a");
@@ -136,22 +196,47 @@ class CompositeBatchContextImplTest {
 
         ArgumentCaptor<Consumer<String>> callbackCaptor = ArgumentCaptor.forClass(Consumer.class);
 
-        when(coordinator.markResolved("a")).thenReturn(List.of("b"));
-        when(coordinator.markInProgress("b")).thenReturn(true);
+        when(coordinator.failSubtree("a")).thenReturn(List.of("b"));
         when(tracker.getSubResponseMap()).thenReturn(Map.of("a", failedResponse));
 
-        new CompositeBatchContextImpl(tracker, coordinator, requestMap, requestService, BATCH_ID, servletRequest);
+        new CompositeBatchContextImpl(tracker, coordinator, requestMap, requestService, BATCH_ID, servletRequest, ExecutionMode.PARTIAL);
 
         verify(tracker).setOnSubRequestResolved(callbackCaptor.capture());
         callbackCaptor.getValue().accept("a");
 
-        ArgumentCaptor<SubResponse> responseCaptor = ArgumentCaptor.forClass(SubResponse.class);
-        verify(tracker).addResponse(eq("b"), responseCaptor.capture());
+        ArgumentCaptor<Map<String, SubResponse>> responseCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(tracker).addResponses(responseCaptor.capture());
 
-        SubResponse response = responseCaptor.getValue();
+        SubResponse response = responseCaptor.getValue().get("b");
         assertThat(response.getHttpStatus()).isEqualTo(424); // Failed Dependency
         assertThat(response.getBody().toString()).contains("Failed Dependency");
-        verify(requestService, never()).forwardSubrequest(eq(reqB), any(), any());
+        verify(tracker, never()).addResponse(any(), any());
+        verify(coordinator, never()).markResolved(any());
+        verify(requestService, never()).forwardSubrequest(eq(reqB), any(), any(HttpServletRequest.class));
+    }
+
+    @Test
+    void handleSubRequestResolved_withFailedDependency_failsTransitiveDependentsInOneUpdate() {
+        requestMap.put("b", createSubRequestWithDependencies("b", "/api/b/${a.id}", "GET", Set.of("a")));
+        requestMap.put("c", createSubRequestWithDependencies("c", "/api/c/${b.id}", "GET", Set.of("b")));
+
+        SubResponse failedResponse = SubResponse.builder()
+                .referenceId("a").httpStatus(404).body("Not Found").build();
+
+        ArgumentCaptor<Consumer<String>> callbackCaptor = ArgumentCaptor.forClass(Consumer.class);
+
+        when(coordinator.failSubtree("a")).thenReturn(List.of("b", "c"));
+        when(tracker.getSubResponseMap()).thenReturn(Map.of("a", failedResponse));
+
+        new CompositeBatchContextImpl(tracker, coordinator, requestMap, requestService, BATCH_ID, servletRequest, ExecutionMode.PARTIAL);
+
+        verify(tracker).setOnSubRequestResolved(callbackCaptor.capture());
+        callbackCaptor.getValue().accept("a");
+
+        ArgumentCaptor<Map<String, SubResponse>> responseCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(tracker, times(1)).addResponses(responseCaptor.capture());
+        assertThat(responseCaptor.getValue()).containsOnlyKeys("b", "c");
+        assertThat(responseCaptor.getValue().get("c").getBody().toString()).endsWith("b");
     }
 
     @Test
@@ -160,18 +245,108 @@ class CompositeBatchContextImplTest {
 
         when(coordinator.markResolved("a")).thenReturn(List.of());
 
-        new CompositeBatchContextImpl(tracker, coordinator, requestMap, requestService, BATCH_ID, servletRequest);
+        new CompositeBatchContextImpl(tracker, coordinator, requestMap, requestService, BATCH_ID, servletRequest, ExecutionMode.PARTIAL);
+
+        verify(tracker).setOnSubRequestResolved(callbackCaptor.capture());
+        callbackCaptor.getValue().accept("a");
+
+        verify(requestService, never()).forwardSubrequest(any(), any(), any(HttpServletRequest.class));
+    }
+
+    @Test
+    void onCancelled_cancelsPendingAndDisposesInFlightSubRequests() {
+        SubRequest subRequest = createSubRequest("a", "/api/a", "GET");
+        requestMap.put("a", subRequest);
+        AtomicBoolean disposed = new AtomicBoolean();
+
+        when(coordinator.getInitialReadySubRequests()).thenReturn(List.of("a"));
+        when(coordinator.markInProgress("a")).thenReturn(true);
+        when(coordinator.cancelPending()).thenReturn(List.of("b"));
+        when(requestService.forwardSubrequest(eq(subRequest), eq(BATCH_ID), eq(servletRequest)))
+                .thenReturn(Mono.<Void>never().doOnCancel(() -> disposed.set(true)));
+
+        CompositeBatchContextImpl batchContext = new CompositeBatchContextImpl(
+                tracker, coordinator, requestMap, requestService, BATCH_ID, servletRequest, ExecutionMode.PARTIAL);
+        batchContext.startInitialRequests();
+
+        ArgumentCaptor<Consumer<Throwable>> cancelCaptor = ArgumentCaptor.forClass(Consumer.class);
+        verify(tracker).setOnCancelled(cancelCaptor.capture());
+        cancelCaptor.getValue().accept(new TimeoutException());
+
+        verify(coordinator).cancelPending();
+        assertThat(disposed).isTrue();
+    }
+
+    @Test
+    void onCancelled_disposesSubRequestsDispatchedAfterCancellation() {
+        SubRequest reqB = createSubRequest("b", "/api/b", "GET");
+        requestMap.put("b", reqB);
+        AtomicBoolean disposed = new AtomicBoolean();
+
+        when(coordinator.markResolved("a")).thenReturn(List.of("b"));
+        when(coordinator.markInProgress("b")).thenReturn(true);
+        when(tracker.getSubResponseMap()).thenReturn(Map.of());
+        when(requestService.forwardSubrequest(eq(reqB), eq(BATCH_ID), eq(servletRequest)))
+                .thenReturn(Mono.<Void>never().doOnCancel(() -> disposed.set(true)));
+
+        new CompositeBatchContextImpl(tracker, coordinator, requestMap, requestService, BATCH_ID, servletRequest, ExecutionMode.PARTIAL);
+
+        ArgumentCaptor<Consumer<Throwable>> cancelCaptor = ArgumentCaptor.forClass(Consumer.class);
+        ArgumentCaptor<Consumer<String>> callbackCaptor = ArgumentCaptor.forClass(Consumer.class);
+        verify(tracker).setOnCancelled(cancelCaptor.capture());
+        verify(tracker).setOnSubRequestResolved(callbackCaptor.capture());
+
+        cancelCaptor.getValue().accept(new CancellationException());
+        callbackCaptor.getValue().accept("a");
+
+        assertThat(disposed).isTrue();
+    }
+
+    @Test
+    void allOrNone_firstFailureSkipsEveryOutstandingSubRequest() {
+        requestMap.put("a", createSubRequest("a", "/api/a", "GET"));
+        requestMap.put("b", createSubRequest("b", "/api/b", "GET"));
+        requestMap.put("c", createSubRequestWithDependencies("c", "/api/c/${b.id}", "GET", Set.of("b")));
+
+        SubResponse failedResponse = SubResponse.builder()
+                .referenceId("a").httpStatus(500).body("Server Error").build();
+        when(tracker.getSubResponseMap()).thenReturn(Map.of("a", failedResponse));
+
+        new CompositeBatchContextImpl(tracker, coordinator, requestMap, requestService, BATCH_ID, servletRequest,
+                ExecutionMode.ALL_OR_NONE);
+
+        ArgumentCaptor<Consumer<String>> callbackCaptor = ArgumentCaptor.forClass(Consumer.class);
+        verify(tracker).setOnSubRequestResolved(callbackCaptor.capture());
+        callbackCaptor.getValue().accept("a");
+
+        ArgumentCaptor<Map<String, SubResponse>> skippedCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(coordinator).cancelPending();
+        verify(tracker).addResponses(skippedCaptor.capture());
+        assertThat(skippedCaptor.getValue()).containsOnlyKeys("b", "c");
+        assertThat(skippedCaptor.getValue().values())
+                .allSatisfy(response -> assertThat(response.getHttpStatus()).isEqualTo(424));
+        verify(coordinator, never()).markResolved(any());
+    }
+
+    @Test
+    void partial_failureOnlyAffectsDependents() {
+        when(coordinator.markResolved("a")).thenReturn(List.of());
+
+        new CompositeBatchContextImpl(tracker, coordinator, requestMap, requestService, BATCH_ID, servletRequest,
+                ExecutionMode.PARTIAL);
 
+        ArgumentCaptor<Consumer<String>> callbackCaptor = ArgumentCaptor.forClass(Consumer.class);
         verify(tracker).setOnSubRequestResolved(callbackCaptor.capture());
         callbackCaptor.getValue().accept("a");
 
-        verify(requestService, never()).forwardSubrequest(any(), any(), any());
+        verify(coordinator, never()).cancelPending();
+        verify(tracker, never()).addResponses(any());
     }
 
     @Test
     void getTracker_returnsTrackerInstance() {
         CompositeBatchContextImpl batchContext = new CompositeBatchContextImpl(
-                tracker, coordinator, requestMap, requestService, BATCH_ID, servletRequest);
+                tracker, coordinator, requestMap, requestService, BATCH_ID, servletRequest, ExecutionMode.PARTIAL);
 
         assertThat(batchContext.getTracker()).isSameAs(tracker);
     }
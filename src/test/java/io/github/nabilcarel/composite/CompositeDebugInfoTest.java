@@ -6,6 +6,8 @@ import io.github.nabilcarel.composite.config.CompositeProperties;
 import io.github.nabilcarel.composite.config.EndpointRegistry;
 import io.github.nabilcarel.composite.config.EndpointRegistry.EndpointInfo;
 import io.github.nabilcarel.composite.config.filter.CompositeRequestFilter;
+import io.github.nabilcarel.composite.metrics.CompositeMetrics;
+import io.github.nabilcarel.composite.metrics.CompositeObservations;
 import io.github.nabilcarel.composite.model.ResponseTracker;
 import io.github.nabilcarel.composite.model.response.CompositeDebugInfo;
 import io.github.nabilcarel.composite.model.response.CompositeResponse;
@@ -90,11 +92,15 @@ class CompositeDebugInfoTest {
             endpointRegistry,
             objectMapper,
             responseStore,
-            compositeRequestValidator,
             referenceResolver,
             properties,
             authForwardingService,
-            webClient
+            webClient,
+            CompositeMetrics.NOOP,
+            CompositeObservations.NOOP,
+            new SubRequestRetrier(properties, CompositeMetrics.NOOP),
+            new SubRequestHedger(properties, CompositeMetrics.NOOP),
+            new CircuitBreakerRegistry(properties, CompositeMetrics.NOOP)
         );
     }
 
@@ -117,8 +123,6 @@ class CompositeDebugInfoTest {
             .thenReturn(Optional.of(endpointInfo));
         when(referenceResolver.resolveUrl(any(), anyString()))
             .thenReturn("/api/users/42");
-        when(compositeRequestValidator.validateResolvedUrlFormat(anyString()))
-            .thenReturn(null);
 
         service.forwardSubrequest(subRequest, REQUEST_ID, servletRequest).block();
 
@@ -159,8 +163,6 @@ class CompositeDebugInfoTest {
             .thenReturn(Optional.of(endpointInfo));
         when(referenceResolver.resolveUrl(any(), anyString()))
             .thenReturn("/api/orders");
-        when(compositeRequestValidator.validateResolvedUrlFormat(anyString()))
-            .thenReturn(null);
         when(requestBodySpec.bodyValue(any())).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.exchangeToMono(any())).thenAnswer(invocation -> {
             java.util.function.Function<ClientResponse, Mono<?>> handler = invocation.getArgument(0);
@@ -195,8 +197,6 @@ class CompositeDebugInfoTest {
             .thenReturn(Optional.of(endpointInfo));
         when(referenceResolver.resolveUrl(any(), anyString()))
             .thenReturn("/api/users/123");
-        when(compositeRequestValidator.validateResolvedUrlFormat(anyString()))
-            .thenReturn(null);
 
         service.forwardSubrequest(subRequest, REQUEST_ID, servletRequest).block();
 
@@ -219,8 +219,6 @@ class CompositeDebugInfoTest {
             .thenReturn(Optional.of(endpointInfo));
         when(referenceResolver.resolveUrl(any(), anyString()))
             .thenReturn("/api/users/123");
-        when(compositeRequestValidator.validateResolvedUrlFormat(anyString()))
-            .thenReturn(null);
 
         service.forwardSubrequest(subRequest, REQUEST_ID, servletRequest).block();
 
@@ -285,7 +283,7 @@ class CompositeDebugInfoTest {
         ApplicationContext context = mock(ApplicationContext.class);
         CompositeRequestService compositeRequestService = mock(CompositeRequestService.class);
         when(context.getBean(CompositeRequestService.class)).thenReturn(compositeRequestService);
-        when(compositeRequestService.forwardSubrequest(any(), any(), any())).thenReturn(Mono.empty());
+        when(compositeRequestService.forwardSubrequest(any(), any(), any(HttpServletRequest.class))).thenReturn(Mono.empty());
 
         ConcurrentMap<String, ResponseTracker> store = new ConcurrentHashMap<>();
         CompositeRequestFilter filter = new CompositeRequestFilter(
@@ -293,7 +291,9 @@ class CompositeDebugInfoTest {
             compositeRequestValidator,
             objectMapper,
             store,
-            filterProperties
+            filterProperties,
+            CompositeMetrics.NOOP,
+            CompositeObservations.NOOP
         );
 
         String body = "{\"subRequests\":[{\"referenceId\":\"a\",\"method\":\"GET\",\"url\":\"/api/test\"}]}";
@@ -321,7 +321,7 @@ class CompositeDebugInfoTest {
         ApplicationContext context = mock(ApplicationContext.class);
         CompositeRequestService compositeRequestService = mock(CompositeRequestService.class);
         when(context.getBean(CompositeRequestService.class)).thenReturn(compositeRequestService);
-        when(compositeRequestService.forwardSubrequest(any(), any(), any())).thenReturn(Mono.empty());
+        when(compositeRequestService.forwardSubrequest(any(), any(), any(HttpServletRequest.class))).thenReturn(Mono.empty());
 
         ConcurrentMap<String, ResponseTracker> store = new ConcurrentHashMap<>();
         CompositeRequestFilter filter = new CompositeRequestFilter(
@@ -329,7 +329,9 @@ class CompositeDebugInfoTest {
             compositeRequestValidator,
             objectMapper,
             store,
-            filterProperties
+            filterProperties,
+            CompositeMetrics.NOOP,
+            CompositeObservations.NOOP
         );
 
         String body = "{\"subRequests\":[{\"referenceId\":\"a\",\"method\":\"GET\",\"url\":\"/api/test\"}]}";
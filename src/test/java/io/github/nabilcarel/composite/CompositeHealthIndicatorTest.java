@@ -1,8 +1,13 @@
 package io.github.nabilcarel.composite;
 
 import io.github.nabilcarel.composite.autoconfigure.CompositeHealthIndicator;
+import io.github.nabilcarel.composite.config.CompositeProperties;
 import io.github.nabilcarel.composite.config.EndpointRegistry;
+import io.github.nabilcarel.composite.metrics.CompositeMetrics;
 import io.github.nabilcarel.composite.model.ResponseTracker;
+import io.github.nabilcarel.composite.model.response.SubResponse;
+import io.github.nabilcarel.composite.service.CircuitBreaker;
+import io.github.nabilcarel.composite.service.CircuitBreakerRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,7 +15,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.Status;
+import reactor.core.publisher.Mono;
 
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -26,12 +33,16 @@ class CompositeHealthIndicatorTest {
     private EndpointRegistry endpointRegistry;
 
     private ConcurrentMap<String, ResponseTracker> responseStore;
+    private CompositeProperties properties;
+    private CircuitBreakerRegistry circuitBreakers;
     private CompositeHealthIndicator healthIndicator;
 
     @BeforeEach
     void setUp() {
         responseStore = new ConcurrentHashMap<>();
-        healthIndicator = new CompositeHealthIndicator(responseStore, endpointRegistry);
+        properties = new CompositeProperties();
+        circuitBreakers = new CircuitBreakerRegistry(properties, CompositeMetrics.NOOP);
+        healthIndicator = new CompositeHealthIndicator(responseStore, endpointRegistry, circuitBreakers);
     }
 
     @Test
@@ -76,4 +87,28 @@ class CompositeHealthIndicatorTest {
         assertThat(health.getDetails().get("activeCompositeRequests")).isEqualTo(0);
         assertThat(health.getDetails().get("availableEndpoints")).isEqualTo(0);
     }
+
+    @Test
+    void health_withNoCircuitBreakers_omitsCircuitBreakerDetail() {
+        when(endpointRegistry.getAvailableEndpoints()).thenReturn(Set.of());
+
+        Health health = healthIndicator.health();
+
+        assertThat(health.getDetails()).doesNotContainKey("circuitBreakers");
+    }
+
+    @Test
+    void health_reportsOpenCircuitBreakerWhileStayingUp() {
+        properties.getCircuitBreaker().setEnabled(true);
+        properties.getCircuitBreaker().setMinimumCalls(1);
+        circuitBreakers.protect("GET", "/api/users/{id}", "user",
+                Mono.just(SubResponse.builder().referenceId("user").httpStatus(500).build())).block();
+        when(endpointRegistry.getAvailableEndpoints()).thenReturn(Set.of());
+
+        Health health = healthIndicator.health();
+
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getDetails().get("circuitBreakers"))
+                .isEqualTo(Map.of("GET /api/users/{id}", CircuitBreaker.State.OPEN));
+    }
 }
@@ -0,0 +1,126 @@
+package io.github.nabilcarel.composite;
+
+import io.github.nabilcarel.composite.metrics.CompositeObservations;
+import io.github.nabilcarel.composite.model.request.SubRequest;
+import io.github.nabilcarel.composite.model.request.SubRequestDto;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompositeObservationsTest {
+
+    private RecordingHandler handler;
+    private CompositeObservations observations;
+
+    @BeforeEach
+    void setUp() {
+        handler = new RecordingHandler();
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(handler);
+        observations = new CompositeObservations(registry);
+    }
+
+    @Test
+    void startBatch_opensWaitObservationOnlyForDependentSubRequests() {
+        SubRequest root = subRequest("user", "/api/users/1");
+        SubRequest dependent = subRequest("orders", "/api/users/${user.id}/orders");
+
+        observations.startBatch("req-1", List.of(root, dependent), null, new CompletableFuture<>());
+
+        assertThat(root.getParentObservation()).isNotNull();
+        assertThat(root.getWaitObservation()).isNull();
+        assertThat(dependent.getWaitObservation()).isNotNull();
+        assertThat(handler.started).containsExactly("composite.batch", "composite.batch.wait");
+    }
+
+    @Test
+    void endWait_stopsWaitObservationOnce() {
+        SubRequest dependent = subRequest("orders", "/api/users/${user.id}/orders");
+        observations.startBatch("req-1", List.of(dependent), null, new CompletableFuture<>());
+
+        observations.endWait(dependent);
+        observations.endWait(dependent);
+
+        assertThat(dependent.getWaitObservation()).isNull();
+        assertThat(handler.stopped).containsExactly("composite.batch.wait");
+    }
+
+    @Test
+    void startBatch_stopsBatchAndOpenWaitsOnCompletion() {
+        SubRequest dependent = subRequest("orders", "/api/users/${user.id}/orders");
+        CompletableFuture<Object> completion = new CompletableFuture<>();
+        observations.startBatch("req-1", List.of(dependent), null, completion);
+
+        completion.complete(new Object());
+
+        assertThat(handler.stopped).containsExactly("composite.batch.wait", "composite.batch");
+    }
+
+    @Test
+    void observeSubRequest_isChildOfBatchAndTaggedWithPattern() {
+        SubRequest root = subRequest("user", "/api/users/1");
+        observations.startBatch("req-1", List.of(root), null, new CompletableFuture<>());
+
+        String result = observations.observeSubRequest(root, "/api/users/{id}", Mono.just("ok")).block();
+
+        assertThat(result).isEqualTo("ok");
+
+        Observation.Context context = handler.contexts.get(handler.contexts.size() - 1);
+        assertThat(context.getName()).isEqualTo("composite.batch.subrequest");
+        assertThat(context.getParentObservation()).isSameAs(root.getParentObservation());
+        assertThat(context.getLowCardinalityKeyValue("pattern").getValue()).isEqualTo("/api/users/{id}");
+        assertThat(context.getHighCardinalityKeyValue("composite.reference.id").getValue()).isEqualTo("user");
+        assertThat(handler.stopped).contains("composite.batch.subrequest");
+    }
+
+    @Test
+    void noopRegistry_leavesSubRequestsUntouched() {
+        SubRequest dependent = subRequest("orders", "/api/users/${user.id}/orders");
+
+        CompositeObservations.NOOP.startBatch("req-1", List.of(dependent), null, new CompletableFuture<>());
+
+        assertThat(dependent.getParentObservation()).isNull();
+        assertThat(dependent.getWaitObservation()).isNull();
+    }
+
+    // ========== Helper Methods ==========
+
+    private SubRequest subRequest(String referenceId, String url) {
+        return new SubRequest(SubRequestDto.builder()
+                .referenceId(referenceId)
+                .method("GET")
+                .url(url)
+                .build());
+    }
+
+    private static class RecordingHandler implements ObservationHandler<Observation.Context> {
+        private final List<Observation.Context> contexts = new CopyOnWriteArrayList<>();
+        private final List<String> started = new CopyOnWriteArrayList<>();
+        private final List<String> stopped = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onStart(Observation.Context context) {
+            contexts.add(context);
+            started.add(context.getName());
+        }
+
+        @Override
+        public void onStop(Observation.Context context) {
+            stopped.add(context.getName());
+        }
+
+        @Override
+        public boolean supportsContext(Observation.Context context) {
+            return true;
+        }
+    }
+}
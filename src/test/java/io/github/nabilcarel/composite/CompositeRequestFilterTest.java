@@ -3,6 +3,8 @@ package io.github.nabilcarel.composite;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.nabilcarel.composite.config.CompositeProperties;
 import io.github.nabilcarel.composite.config.filter.CompositeRequestFilter;
+import io.github.nabilcarel.composite.metrics.CompositeMetrics;
+import io.github.nabilcarel.composite.metrics.CompositeObservations;
 import io.github.nabilcarel.composite.model.ResponseTracker;
 import io.github.nabilcarel.composite.service.CompositeRequestService;
 import io.github.nabilcarel.composite.service.CompositeRequestValidator;
@@ -60,7 +62,8 @@ class CompositeRequestFilterTest {
         objectMapper = new ObjectMapper();
         properties = new CompositeProperties();
         responseStore = new ConcurrentHashMap<>();
-        filter = new CompositeRequestFilter(context, compositeRequestValidator, objectMapper, responseStore, properties);
+        filter = new CompositeRequestFilter(context, compositeRequestValidator, objectMapper, responseStore, properties,
+                CompositeMetrics.NOOP, CompositeObservations.NOOP);
         when(context.getBean(CompositeRequestService.class)).thenReturn(compositeRequestService);
     }
 
@@ -81,7 +84,7 @@ class CompositeRequestFilterTest {
         setupServletRequest(VALID_REQUEST_BODY);
         when(compositeRequestValidator.validateRequest(any())).thenReturn(List.of());
         // Needed to prevent NPE from batchContext.startInitialRequests() running inline
-        when(compositeRequestService.forwardSubrequest(any(), any(), any())).thenReturn(Mono.empty());
+        when(compositeRequestService.forwardSubrequest(any(), any(), any(HttpServletRequest.class))).thenReturn(Mono.empty());
 
         filter.doFilter(servletRequest, servletResponse, filterChain);
 
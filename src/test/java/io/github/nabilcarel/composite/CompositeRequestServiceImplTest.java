@@ -5,9 +5,13 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.nabilcarel.composite.config.CompositeProperties;
 import io.github.nabilcarel.composite.config.EndpointRegistry;
 import io.github.nabilcarel.composite.config.EndpointRegistry.EndpointInfo;
+import io.github.nabilcarel.composite.metrics.CompositeMetrics;
+import io.github.nabilcarel.composite.metrics.CompositeObservations;
+import io.github.nabilcarel.composite.model.Deadline;
 import io.github.nabilcarel.composite.model.ResponseTracker;
 import io.github.nabilcarel.composite.model.request.SubRequest;
 import io.github.nabilcarel.composite.model.request.SubRequestDto;
+import io.github.nabilcarel.composite.model.response.CompositeResponse;
 import io.github.nabilcarel.composite.model.response.SubResponse;
 import io.github.nabilcarel.composite.service.*;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,6 +23,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.mock.http.client.reactive.MockClientHttpRequest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
@@ -27,8 +36,10 @@ import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -40,8 +51,6 @@ class CompositeRequestServiceImplTest {
     @Mock
     private EndpointRegistry endpointRegistry;
     @Mock
-    private CompositeRequestValidator compositeRequestValidator;
-    @Mock
     private ReferenceResolverService referenceResolver;
     @Mock
     private AuthenticationForwardingService authForwardingService;
@@ -80,11 +89,15 @@ class CompositeRequestServiceImplTest {
             endpointRegistry,
             objectMapper,
             responseStore,
-            compositeRequestValidator,
             referenceResolver,
             properties,
             authForwardingService,
-            webClient
+            webClient,
+            CompositeMetrics.NOOP,
+            CompositeObservations.NOOP,
+            new SubRequestRetrier(properties, CompositeMetrics.NOOP),
+            new SubRequestHedger(properties, CompositeMetrics.NOOP),
+            new CircuitBreakerRegistry(properties, CompositeMetrics.NOOP)
         );
     }
 
@@ -116,8 +129,6 @@ class CompositeRequestServiceImplTest {
             .thenReturn(Optional.of(endpointInfo));
         when(referenceResolver.resolveUrl(any(), anyString()))
             .thenReturn("/api/malicious/path");
-        when(endpointRegistry.getEndpointInformations("GET", "/api/malicious/path"))
-            .thenReturn(Optional.empty());
 
         service.forwardSubrequest(subRequest, REQUEST_ID, servletRequest).block();
 
@@ -129,6 +140,81 @@ class CompositeRequestServiceImplTest {
         assertThat(response.getBody().toString()).contains("does not match a registered endpoint");
     }
 
+    // ========== Deadline Tests ==========
+
+    @Test
+    void forwardSubrequest_whenCompositeDeadlineExpired_returnsGatewayTimeoutWithoutCalling() {
+        SubRequest subRequest = createSubRequest("/api/users/123", "GET");
+        EndpointInfo endpointInfo = createEndpointInfo("/api/users/{id}", String.class);
+
+        when(endpointRegistry.getEndpointInformations(anyString(), anyString()))
+            .thenReturn(Optional.of(endpointInfo));
+        when(referenceResolver.resolveUrl(any(), anyString()))
+            .thenReturn("/api/users/123");
+        when(responseTracker.getDeadline())
+            .thenReturn(Deadline.of(System.nanoTime(), Duration.ofSeconds(-1)));
+
+        service.forwardSubrequest(subRequest, REQUEST_ID, servletRequest).block();
+
+        ArgumentCaptor<SubResponse> responseCaptor = ArgumentCaptor.forClass(SubResponse.class);
+        verify(responseTracker).addResponse(eq(REFERENCE_ID), responseCaptor.capture());
+        verifyNoInteractions(webClient);
+
+        SubResponse response = responseCaptor.getValue();
+        assertThat(response.getHttpStatus()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT.value());
+        assertThat(response.getBody().toString()).contains("deadline exceeded");
+    }
+
+    @Test
+    void forwardSubrequest_sendsRemainingDeadlineWithEachAttempt() throws InterruptedException {
+        SubRequest subRequest = createSubRequest("/api/users/123", "GET");
+        EndpointInfo endpointInfo = createEndpointInfo("/api/users/{id}", String.class);
+
+        when(endpointRegistry.getEndpointInformations(anyString(), anyString()))
+            .thenReturn(Optional.of(endpointInfo));
+        when(referenceResolver.resolveUrl(any(), anyString()))
+            .thenReturn("/api/users/123");
+        when(responseTracker.getDeadline())
+            .thenReturn(Deadline.of(System.nanoTime(), Duration.ofSeconds(5)));
+        setupSuccessfulWebClientMock("ok", String.class);
+        ArgumentCaptor<Consumer<ClientHttpRequest>> httpRequestCaptor = ArgumentCaptor.captor();
+        when(requestBodySpec.httpRequest(httpRequestCaptor.capture())).thenReturn(requestBodySpec);
+
+        service.forwardSubrequest(subRequest, REQUEST_ID, servletRequest).block();
+
+        // The header is computed when an attempt is sent, not when the request is built
+        MockClientHttpRequest first = new MockClientHttpRequest(HttpMethod.GET, "/api/users/123");
+        httpRequestCaptor.getValue().accept(first);
+        Thread.sleep(50);
+        MockClientHttpRequest second = new MockClientHttpRequest(HttpMethod.GET, "/api/users/123");
+        httpRequestCaptor.getValue().accept(second);
+
+        long firstBudget = Long.parseLong(first.getHeaders().getFirst("X-Composite-Deadline"));
+        long secondBudget = Long.parseLong(second.getHeaders().getFirst("X-Composite-Deadline"));
+        assertThat(firstBudget).isBetween(1L, 5_000L);
+        assertThat(secondBudget).isLessThan(firstBudget);
+    }
+
+    @Test
+    void execute_waitsOutTheSubSecondRemainderOfTheDeadline() {
+        properties.setRequestTimeout(Duration.ofMillis(300));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute("requestId", REQUEST_ID);
+        request.setAttribute("hasErrors", false);
+        CompletableFuture<CompositeResponse> pending = new CompletableFuture<>();
+        when(responseTracker.getFuture()).thenReturn(pending);
+        when(responseTracker.getDeadline())
+            .thenReturn(Deadline.of(System.nanoTime(), Duration.ofMillis(300)));
+
+        long start = System.nanoTime();
+        ResponseEntity<CompositeResponse> response =
+            service.execute(request, new MockHttpServletResponse()).join();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(250));
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(response.getBody().getErrors().get(0)).contains("Timeout");
+    }
+
     // ========== Reference Resolution Tests ==========
 
     @Test
@@ -151,29 +237,66 @@ class CompositeRequestServiceImplTest {
         assertThat(response.getBody().toString()).contains("Reference resolution failed");
     }
 
-    // ========== URL Format Validation Tests ==========
+    // ========== Resolved URL Validation Tests ==========
 
     @Test
-    void forwardSubrequest_whenUrlFormatInvalid_returnsErrorResponse() {
+    void forwardSubrequest_whenResolvedValueTraversesPath_returnsErrorResponse() {
+        SubRequest subRequest = createSubRequest("/api/users/${user.id}", "GET");
+        EndpointInfo endpointInfo = createEndpointInfo("/api/users/{id}", String.class);
+
+        when(endpointRegistry.getEndpointInformations(anyString(), anyString()))
+            .thenReturn(Optional.of(endpointInfo));
+        when(referenceResolver.resolveUrl(any(), anyString()))
+            .thenReturn("/api/users/..");
+
+        service.forwardSubrequest(subRequest, REQUEST_ID, servletRequest).block();
+
+        ArgumentCaptor<SubResponse> responseCaptor = ArgumentCaptor.forClass(SubResponse.class);
+        verify(responseTracker).addResponse(eq(REFERENCE_ID), responseCaptor.capture());
+        verifyNoInteractions(webClient);
+
+        SubResponse response = responseCaptor.getValue();
+        assertThat(response.getHttpStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(response.getBody().toString()).contains("does not match a registered endpoint");
+    }
+
+    @Test
+    void forwardSubrequest_whenResolvedUrlIsProtocolRelative_returnsErrorResponse() {
         SubRequest subRequest = createSubRequest("/api/users/123", "GET");
         EndpointInfo endpointInfo = createEndpointInfo("/api/users/{id}", String.class);
 
         when(endpointRegistry.getEndpointInformations(anyString(), anyString()))
             .thenReturn(Optional.of(endpointInfo));
         when(referenceResolver.resolveUrl(any(), anyString()))
-            .thenReturn("/api/users/123");
-        when(compositeRequestValidator.validateResolvedUrlFormat(anyString()))
-            .thenReturn("Invalid URL format");
+            .thenReturn("//evil.example/api/users/123");
 
         service.forwardSubrequest(subRequest, REQUEST_ID, servletRequest).block();
 
         ArgumentCaptor<SubResponse> responseCaptor = ArgumentCaptor.forClass(SubResponse.class);
         verify(responseTracker).addResponse(eq(REFERENCE_ID), responseCaptor.capture());
+        verifyNoInteractions(webClient);
 
         SubResponse response = responseCaptor.getValue();
         assertThat(response.getHttpStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
     }
 
+    @Test
+    void forwardSubrequest_withEndpointMatchedDuringValidation_doesNotMatchAgain() {
+        SubRequest subRequest = createSubRequest("/api/users/${user.id}", "GET");
+        EndpointInfo endpointInfo = createEndpointInfo("/api/users/{id}", Map.class);
+        subRequest.setEndpointInfo(endpointInfo);
+
+        setupSuccessfulWebClientMock(Map.of("id", "123"), Map.class);
+        when(referenceResolver.resolveUrl(any(), anyString()))
+            .thenReturn("/api/users/123");
+
+        service.forwardSubrequest(subRequest, REQUEST_ID, servletRequest).block();
+
+        verifyNoInteractions(endpointRegistry);
+        verify(responseTracker).addResponse(eq(REFERENCE_ID), any(SubResponse.class));
+        assertThat(subRequest.getEndpointPattern()).isEqualTo("/api/users/{id}");
+    }
+
     // ========== Successful Request Tests ==========
 
     @Test
@@ -187,8 +310,6 @@ class CompositeRequestServiceImplTest {
             .thenReturn(Optional.of(endpointInfo));
         when(referenceResolver.resolveUrl(any(), anyString()))
             .thenReturn("/api/users/123");
-        when(compositeRequestValidator.validateResolvedUrlFormat(anyString()))
-            .thenReturn(null);
 
         service.forwardSubrequest(subRequest, REQUEST_ID, servletRequest).block();
 
@@ -210,8 +331,6 @@ class CompositeRequestServiceImplTest {
             .thenReturn(Optional.of(endpointInfo));
         when(referenceResolver.resolveUrl(any(), anyString()))
             .thenReturn("/api/orders/123");
-        when(compositeRequestValidator.validateResolvedUrlFormat(anyString()))
-            .thenReturn(null);
 
         service.forwardSubrequest(subRequest, REQUEST_ID, servletRequest).block();
 
@@ -235,8 +354,6 @@ class CompositeRequestServiceImplTest {
             .thenReturn(Optional.of(endpointInfo));
         when(referenceResolver.resolveUrl(any(), anyString()))
             .thenReturn("/api/users/notfound");
-        when(compositeRequestValidator.validateResolvedUrlFormat(anyString()))
-            .thenReturn(null);
 
         service.forwardSubrequest(subRequest, REQUEST_ID, servletRequest).block();
 
@@ -257,8 +374,6 @@ class CompositeRequestServiceImplTest {
             .thenReturn(Optional.of(endpointInfo));
         when(referenceResolver.resolveUrl(any(), anyString()))
             .thenReturn("/api/users/123");
-        when(compositeRequestValidator.validateResolvedUrlFormat(anyString()))
-            .thenReturn(null);
 
         service.forwardSubrequest(subRequest, REQUEST_ID, servletRequest).block();
 
@@ -279,8 +394,6 @@ class CompositeRequestServiceImplTest {
             .thenReturn(Optional.of(endpointInfo));
         when(referenceResolver.resolveUrl(any(), anyString()))
             .thenReturn("/api/users/notfound");
-        when(compositeRequestValidator.validateResolvedUrlFormat(anyString()))
-            .thenReturn(null);
 
         service.forwardSubrequest(subRequest, REQUEST_ID, servletRequest).block();
 
@@ -304,8 +417,6 @@ class CompositeRequestServiceImplTest {
             .thenReturn(Optional.of(endpointInfo));
         when(referenceResolver.resolveUrl(any(), anyString()))
             .thenReturn("/api/users/123");
-        when(compositeRequestValidator.validateResolvedUrlFormat(anyString()))
-            .thenReturn(null);
 
         service.forwardSubrequest(subRequest, REQUEST_ID, servletRequest).block();
 
@@ -317,6 +428,58 @@ class CompositeRequestServiceImplTest {
         assertThat(response.getBody().toString()).contains("Error executing subrequest");
     }
 
+    // ========== Retry Tests ==========
+
+    @Test
+    void forwardSubrequest_whenRetryEnabledAndGetUnavailable_retriesUntilSuccess() {
+        properties.getRetry().setEnabled(true);
+        properties.getRetry().setInitialBackoff(Duration.ofMillis(1));
+        SubRequest subRequest = createSubRequest("/api/users/123", "GET");
+        EndpointInfo endpointInfo = createEndpointInfo("/api/users/{id}", Map.class);
+        Map<String, String> responseBody = Map.of("id", "123");
+
+        ClientResponse unavailable = mock(ClientResponse.class);
+        when(unavailable.statusCode()).thenReturn(HttpStatus.SERVICE_UNAVAILABLE);
+        when(unavailable.bodyToMono(eq(String.class))).thenReturn(Mono.just("Service Unavailable"));
+        when(clientResponse.statusCode()).thenReturn(HttpStatus.OK);
+        when(clientResponse.bodyToMono(eq(Map.class))).thenReturn(Mono.just(responseBody));
+        setupSequencedWebClientMock(unavailable, clientResponse);
+        when(endpointRegistry.getEndpointInformations(anyString(), anyString()))
+            .thenReturn(Optional.of(endpointInfo));
+        when(referenceResolver.resolveUrl(any(), anyString()))
+            .thenReturn("/api/users/123");
+
+        service.forwardSubrequest(subRequest, REQUEST_ID, servletRequest).block();
+
+        ArgumentCaptor<SubResponse> responseCaptor = ArgumentCaptor.forClass(SubResponse.class);
+        verify(responseTracker).addResponse(eq(REFERENCE_ID), responseCaptor.capture());
+        verify(requestBodySpec, times(2)).exchangeToMono(any());
+
+        assertThat(responseCaptor.getValue().getHttpStatus()).isEqualTo(200);
+        assertThat(responseCaptor.getValue().getBody()).isEqualTo(responseBody);
+    }
+
+    @Test
+    void forwardSubrequest_whenRetryEnabledAndPostNotIdempotent_doesNotRetry() {
+        properties.getRetry().setEnabled(true);
+        SubRequest subRequest = createSubRequest("/api/users", "POST");
+        EndpointInfo endpointInfo = createEndpointInfo("/api/users", Map.class);
+
+        setupErrorWebClientMock(503, "Service Unavailable");
+        when(endpointRegistry.getEndpointInformations(anyString(), anyString()))
+            .thenReturn(Optional.of(endpointInfo));
+        when(referenceResolver.resolveUrl(any(), anyString()))
+            .thenReturn("/api/users");
+
+        service.forwardSubrequest(subRequest, REQUEST_ID, servletRequest).block();
+
+        ArgumentCaptor<SubResponse> responseCaptor = ArgumentCaptor.forClass(SubResponse.class);
+        verify(responseTracker).addResponse(eq(REFERENCE_ID), responseCaptor.capture());
+        verify(requestBodySpec, times(1)).exchangeToMono(any());
+
+        assertThat(responseCaptor.getValue().getHttpStatus()).isEqualTo(503);
+    }
+
     // ========== Header Injection Tests ==========
 
     @Test
@@ -334,8 +497,6 @@ class CompositeRequestServiceImplTest {
             .thenReturn(Optional.of(endpointInfo));
         when(referenceResolver.resolveUrl(any(), anyString()))
             .thenReturn("/api/users/123");
-        when(compositeRequestValidator.validateResolvedUrlFormat(anyString()))
-            .thenReturn(null);
 
         service.forwardSubrequest(subRequest, REQUEST_ID, servletRequest).block();
 
@@ -360,8 +521,6 @@ class CompositeRequestServiceImplTest {
             .thenReturn(Optional.of(endpointInfo));
         when(referenceResolver.resolveUrl(any(), anyString()))
             .thenReturn("/api/users");
-        when(compositeRequestValidator.validateResolvedUrlFormat(anyString()))
-            .thenReturn(null);
         when(requestBodySpec.bodyValue(any())).thenReturn(requestHeadersSpec);
         // When there's a body, exchangeToMono is called on requestHeadersSpec, not requestBodySpec
         when(requestHeadersSpec.exchangeToMono(any())).thenAnswer(invocation -> {
@@ -463,6 +622,18 @@ class CompositeRequestServiceImplTest {
         });
     }
 
+    private void setupSequencedWebClientMock(ClientResponse... responses) {
+        when(webClient.method(any(HttpMethod.class))).thenReturn(requestBodyUriSpec);
+        when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
+        when(requestBodySpec.headers(any())).thenReturn(requestBodySpec);
+
+        java.util.concurrent.atomic.AtomicInteger calls = new java.util.concurrent.atomic.AtomicInteger();
+        when(requestBodySpec.exchangeToMono(any())).thenAnswer(invocation -> {
+            java.util.function.Function<ClientResponse, Mono<?>> handler = invocation.getArgument(0);
+            return handler.apply(responses[Math.min(calls.getAndIncrement(), responses.length - 1)]);
+        });
+    }
+
     private void setupWebClientExceptionMock(Exception exception) {
         when(webClient.method(any(HttpMethod.class))).thenReturn(requestBodyUriSpec);
         when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
@@ -3,6 +3,7 @@ package io.github.nabilcarel.composite;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.nabilcarel.composite.config.CompositeProperties;
 import io.github.nabilcarel.composite.config.EndpointRegistry;
+import io.github.nabilcarel.composite.metrics.CompositeMetrics;
 import io.github.nabilcarel.composite.model.request.CompositeRequest;
 import io.github.nabilcarel.composite.model.request.SubRequestDto;
 import io.github.nabilcarel.composite.service.CompositeRequestValidatorImpl;
@@ -15,6 +16,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -30,8 +32,9 @@ class CompositeRequestValidatorImplTest {
     private Validator validator;
     @Mock
     private EndpointRegistry endpointRegistry;
-    @Mock
-    private EndpointRegistry.EndpointInfo endpointInfo;
+
+    private final EndpointRegistry.EndpointInfo endpointInfo = endpoint("/api/**");
+    private final List<Boolean> planCacheResults = new ArrayList<>();
 
     private CompositeRequestValidatorImpl validatorService;
     private final ObjectMapper mapper = new ObjectMapper();
@@ -41,7 +44,7 @@ class CompositeRequestValidatorImplTest {
     void setUp(TestInfo testInfo) {
         properties.setMaxDepth(2);
         properties.setMaxSubRequestsPerComposite(25);
-        validatorService = new CompositeRequestValidatorImpl(validator, endpointRegistry, properties);
+        validatorService = new CompositeRequestValidatorImpl(validator, endpointRegistry, properties, recordingMetrics());
 
         if(testInfo.getTags().contains("skipEndpointMocks")) {
             return;
@@ -292,6 +295,7 @@ class CompositeRequestValidatorImplTest {
         
         assertThat(errors).isNotEmpty()
             .anySatisfy(e -> assertThat(e).contains("Endpoint not available"));
+        assertThat(request.getEndpointInfo()).isNull();
     }
 
     @Test
@@ -328,6 +332,20 @@ class CompositeRequestValidatorImplTest {
             .anySatisfy(e -> assertThat(e).contains("Request body is required"));
     }
 
+    @Test
+    void testValidateEndpointAccess_withRegisteredEndpoint_storesMatchOnRequest() {
+        SubRequestDto request = SubRequestDto.builder()
+            .referenceId("test")
+            .method("GET")
+            .url("/api/test/${other.id}")
+            .build();
+
+        List<String> errors = validatorService.validateEndpointAccess(request);
+
+        assertThat(errors).isEmpty();
+        assertThat(request.getEndpointInfo()).isSameAs(endpointInfo);
+    }
+
     @Test
     @Tag("skipEndpointMocks")
     void testValidateResolvedUrlFormat_withInvalidUrl() {
@@ -452,4 +470,136 @@ class CompositeRequestValidatorImplTest {
         assertThat(errors).noneMatch(e -> e.contains("Circular dependency"))
             .noneMatch(e -> e.contains("Missing dependency"));
     }
+
+    @Test
+    void testValidateRequest_recordsExecutionPlan() {
+        CompositeRequest request = new CompositeRequest();
+        request.setSubRequests(java.util.Arrays.asList(
+            SubRequestDto.builder()
+                .referenceId("a")
+                .method("GET")
+                .url("/api/a")
+                .build(),
+            SubRequestDto.builder()
+                .referenceId("b")
+                .method("GET")
+                .url("/api/b/${a.id}")
+                .build()
+        ));
+
+        when(validator.validate(any())).thenReturn(java.util.Set.of());
+
+        List<String> errors = validatorService.validateRequest(request);
+
+        assertThat(errors).isEmpty();
+        assertThat(request.getExecutionPlan()).isNotNull();
+        assertThat(request.getExecutionPlan().getTopologicalOrder()).containsExactly("a", "b");
+        assertThat(request.resolveExecutionPlan()).isSameAs(request.getExecutionPlan());
+    }
+
+    @Test
+    void testValidateRequest_withKnownShape_reusesPlanAndEndpointMatches() {
+        when(validator.validate(any())).thenReturn(java.util.Set.of());
+
+        List<String> first = validatorService.validateRequest(shapedRequest("/api/users?active=true", "Ada"));
+        CompositeRequest second = shapedRequest("/api/users?active=false", "Grace");
+        List<String> errors = validatorService.validateRequest(second);
+
+        assertThat(first).isEmpty();
+        assertThat(errors).isEmpty();
+        assertThat(second.getExecutionPlan().getDependencies().get("order")).containsExactly("user");
+        assertThat(second.getExecutionPlan().getRequests().get("order").getBody().get("note").asText())
+            .isEqualTo("Grace");
+        assertThat(second.getSubRequests()).allSatisfy(s -> assertThat(s.getEndpointInfo()).isSameAs(endpointInfo));
+        assertThat(planCacheResults).containsExactly(false, true);
+        // Each sub-request is matched once per request, whether the shape is known or not
+        verify(endpointRegistry, times(4)).getEndpointInformations(anyString(), anyString());
+    }
+
+    @Test
+    void testValidateRequest_withDifferentLiteralPathToSameEndpoint_isACacheHit() {
+        when(validator.validate(any())).thenReturn(java.util.Set.of());
+
+        validatorService.validateRequest(shapedRequest("/api/users/1", "Ada"));
+        CompositeRequest second = shapedRequest("/api/users/2", "Ada");
+        List<String> errors = validatorService.validateRequest(second);
+
+        assertThat(errors).isEmpty();
+        assertThat(planCacheResults).containsExactly(false, true);
+        assertThat(second.getExecutionPlan().getRequests().get("user").getUrl()).isEqualTo("/api/users/2");
+    }
+
+    @Test
+    void testValidateRequest_withDifferentEndpoint_isNotACacheHit() {
+        when(validator.validate(any())).thenReturn(java.util.Set.of());
+        when(endpointRegistry.getEndpointInformations("GET", "/api/admins"))
+            .thenReturn(java.util.Optional.of(endpoint("/api/admins")));
+
+        validatorService.validateRequest(shapedRequest("/api/users", "Ada"));
+        validatorService.validateRequest(shapedRequest("/api/admins", "Ada"));
+
+        assertThat(planCacheResults).containsExactly(false, false);
+    }
+
+    @Test
+    void testValidateRequest_afterEndpointRefresh_validatesAgain() {
+        when(validator.validate(any())).thenReturn(java.util.Set.of());
+        when(endpointRegistry.getLastRefresh())
+            .thenReturn(java.time.Instant.EPOCH, java.time.Instant.EPOCH.plusSeconds(1));
+
+        validatorService.validateRequest(shapedRequest("/api/users", "Ada"));
+        validatorService.validateRequest(shapedRequest("/api/users", "Ada"));
+
+        assertThat(planCacheResults).containsExactly(false, false);
+    }
+
+    @Test
+    void testValidateRequest_withPlanCacheDisabled_validatesEveryRequest() {
+        properties.getPlanCache().setEnabled(false);
+        validatorService = new CompositeRequestValidatorImpl(validator, endpointRegistry, properties, recordingMetrics());
+        when(validator.validate(any())).thenReturn(java.util.Set.of());
+
+        validatorService.validateRequest(shapedRequest("/api/users", "Ada"));
+        validatorService.validateRequest(shapedRequest("/api/users", "Ada"));
+
+        assertThat(planCacheResults).isEmpty();
+        verify(endpointRegistry, times(4)).getEndpointInformations(anyString(), anyString());
+    }
+
+    // ========== Helper Methods ==========
+
+    private CompositeMetrics recordingMetrics() {
+        return new CompositeMetrics() {
+            @Override
+            public void recordPlanCache(boolean hit) {
+                planCacheResults.add(hit);
+            }
+        };
+    }
+
+    private static EndpointRegistry.EndpointInfo endpoint(String pattern) {
+        return EndpointRegistry.EndpointInfo.builder()
+            .pattern(pattern)
+            .method("GET")
+            .returnClass(Object.class)
+            .build();
+    }
+
+    private CompositeRequest shapedRequest(String usersUrl, String note) {
+        CompositeRequest request = new CompositeRequest();
+        request.setSubRequests(java.util.Arrays.asList(
+            SubRequestDto.builder()
+                .referenceId("user")
+                .method("GET")
+                .url(usersUrl)
+                .build(),
+            SubRequestDto.builder()
+                .referenceId("order")
+                .method("POST")
+                .url("/api/orders")
+                .body(mapper.createObjectNode().put("userId", "${user.id}").put("note", note))
+                .build()
+        ));
+        return request;
+    }
 }
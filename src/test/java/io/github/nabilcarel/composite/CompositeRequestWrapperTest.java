@@ -3,6 +3,7 @@ package io.github.nabilcarel.composite;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.nabilcarel.composite.model.request.CompositeRequest;
 import io.github.nabilcarel.composite.model.request.CompositeRequestWrapper;
+import io.github.nabilcarel.composite.model.request.ExecutionMode;
 import jakarta.servlet.ServletInputStream;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
@@ -47,6 +48,28 @@ class CompositeRequestWrapperTest {
         assertThat(body.getSubRequests().get(0).getUrl()).isEqualTo("/api/test");
     }
 
+    @Test
+    void getBody_deserializesExecutionMode() throws IOException {
+        String json = "{\"executionMode\":\"allOrNone\",\"subRequests\":[{\"referenceId\":\"a\",\"method\":\"GET\",\"url\":\"/api/test\"}]}";
+        setupRequest(json);
+
+        CompositeRequest body = new CompositeRequestWrapper(servletRequest, objectMapper).getBody();
+
+        assertThat(body.getExecutionMode()).isEqualTo(ExecutionMode.ALL_OR_NONE);
+        assertThat(body.resolveExecutionMode()).isEqualTo(ExecutionMode.ALL_OR_NONE);
+    }
+
+    @Test
+    void getBody_allOrNoneFlagIsAliasForExecutionMode() throws IOException {
+        String json = "{\"allOrNone\":true,\"subRequests\":[{\"referenceId\":\"a\",\"method\":\"GET\",\"url\":\"/api/test\"}]}";
+        setupRequest(json);
+
+        CompositeRequest body = new CompositeRequestWrapper(servletRequest, objectMapper).getBody();
+
+        assertThat(body.getExecutionMode()).isEqualTo(ExecutionMode.PARTIAL);
+        assertThat(body.resolveExecutionMode()).isEqualTo(ExecutionMode.ALL_OR_NONE);
+    }
+
     @Test
     void getInputStream_returnsRereadableStream() throws IOException {
         String json = "{\"subRequests\":[{\"referenceId\":\"a\",\"method\":\"GET\",\"url\":\"/api/test\"}]}";
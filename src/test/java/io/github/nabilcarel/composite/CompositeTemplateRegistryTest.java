@@ -0,0 +1,254 @@
+package io.github.nabilcarel.composite;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.nabilcarel.composite.config.CompositeProperties;
+import io.github.nabilcarel.composite.config.CompositeTemplateRegistry;
+import io.github.nabilcarel.composite.config.EndpointRegistry;
+import io.github.nabilcarel.composite.model.request.CompositeRequest;
+import io.github.nabilcarel.composite.model.request.CompositeTemplate;
+import io.github.nabilcarel.composite.model.request.ExecutionMode;
+import io.github.nabilcarel.composite.model.request.SubRequestDto;
+import io.github.nabilcarel.composite.service.CompositeRequestValidator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CompositeTemplateRegistryTest {
+
+    @Mock
+    private ObjectProvider<CompositeTemplate> templateBeans;
+    @Mock
+    private CompositeRequestValidator validator;
+    @Mock
+    private EndpointRegistry.EndpointInfo endpointInfo;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final CompositeProperties properties = new CompositeProperties();
+
+    @Test
+    void compile_validatesTemplatesWithSampleUrlSegments() {
+        when(templateBeans.orderedStream()).thenReturn(Stream.of(dashboardTemplate()));
+        stubValidValidation();
+
+        CompositeTemplateRegistry registry = registry();
+
+        assertThat(registry.compile()).isEqualTo(1);
+        assertThat(registry.getTemplateNames()).containsExactly("dashboard");
+        verify(validator).validateRequest(argThat(request ->
+                request.getSubRequests().get(0).getUrl().equals("/api/users/0")));
+    }
+
+    @Test
+    void compile_withUndeclaredParameter_failsStartup() {
+        when(templateBeans.orderedStream()).thenReturn(Stream.of(CompositeTemplate.builder()
+                .name("broken")
+                .subRequest(subRequest("user", "/api/users/{{userId}}"))
+                .build()));
+        when(validator.validateRequest(any(CompositeRequest.class))).thenReturn(List.of());
+
+        assertThatThrownBy(registry()::compile)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Invalid composite template 'broken'")
+                .hasMessageContaining("Undeclared template parameter: userId");
+    }
+
+    @Test
+    void compile_withInvalidSubRequests_failsStartup() {
+        when(templateBeans.orderedStream()).thenReturn(Stream.of(dashboardTemplate()));
+        when(validator.validateRequest(any(CompositeRequest.class)))
+                .thenReturn(List.of("Endpoint not available for composite execution: GET /api/users/0"));
+
+        assertThatThrownBy(registry()::compile)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Endpoint not available");
+    }
+
+    @Test
+    void compile_readsTemplatesFromProperties() {
+        when(templateBeans.orderedStream()).thenReturn(Stream.empty());
+        stubValidValidation();
+        CompositeProperties.TemplateSubRequest create = new CompositeProperties.TemplateSubRequest();
+        create.setReferenceId("order");
+        create.setMethod("POST");
+        create.setUrl("/api/orders");
+        create.setBody("{\"quantity\": \"{{quantity}}\"}");
+        CompositeProperties.Template template = new CompositeProperties.Template();
+        template.setParameters(List.of("quantity"));
+        template.setSubRequests(List.of(create));
+        properties.getTemplates().put("order", template);
+
+        CompositeTemplateRegistry registry = registry();
+        CompositeRequest request = registry.bind("order", json("{\"quantity\": 3}"));
+
+        assertThat(request.getSubRequests().get(0).getBody().get("quantity").isInt()).isTrue();
+        assertThat(request.getSubRequests().get(0).getBody().get("quantity").asInt()).isEqualTo(3);
+    }
+
+    @Test
+    void validateParameters_reportsUnknownMissingAndPlaceholderValues() {
+        when(templateBeans.orderedStream()).thenReturn(Stream.of(dashboardTemplate()));
+        stubValidValidation();
+        CompositeTemplateRegistry registry = registry();
+
+        assertThat(registry.validateParameters("nope", json("{}")))
+                .containsExactly("Unknown composite template: nope");
+        assertThat(registry.validateParameters("dashboard", null))
+                .containsExactly("Missing template parameter: userId");
+        assertThat(registry.validateParameters("dashboard", json("{\"userId\": \"${orders.id}\", \"extra\": 1}")))
+                .containsExactlyInAnyOrder("Template parameter must not contain a placeholder: userId",
+                        "Unknown template parameter: extra");
+        assertThat(registry.validateParameters("dashboard", json("[1]")))
+                .containsExactly("Template parameters must be a JSON object");
+        assertThat(registry.validateParameters("dashboard", json("{\"userId\": 42}"))).isEmpty();
+        assertThat(registry.validateParameters("dashboard", json("{\"userId\": \"a b\"}"))).isEmpty();
+    }
+
+    @Test
+    void validateParameters_rejectsUrlDelimitersOnlyInUrlParameters() {
+        when(templateBeans.orderedStream()).thenReturn(Stream.of(CompositeTemplate.builder()
+                .name("search")
+                .parameter("userId")
+                .parameter("note")
+                .subRequest(SubRequestDto.builder()
+                        .referenceId("user")
+                        .method("GET")
+                        .url("/api/users/{{userId}}")
+                        .headers(Map.of("X-Note", "{{note}}"))
+                        .build())
+                .build()));
+        stubValidValidation();
+        CompositeTemplateRegistry registry = registry();
+
+        for (String value : List.of("a/b", "a?b", "a#b", "a&b")) {
+            assertThat(registry.validateParameters("search", json("{\"userId\": \"" + value + "\", \"note\": \"x\"}")))
+                    .containsExactly("Template parameter used in a URL must not contain any of /?#&: userId");
+        }
+        assertThat(registry.validateParameters("search", json("{\"userId\": \"a%20{b}\", \"note\": \"a/b?c\"}")))
+                .isEmpty();
+    }
+
+    @Test
+    void bind_substitutesParametersAndReusesTheCompiledPlan() {
+        when(templateBeans.orderedStream()).thenReturn(Stream.of(dashboardTemplate()));
+        stubValidValidation();
+        CompositeTemplateRegistry registry = registry();
+
+        CompositeRequest first = registry.bind("dashboard", json("{\"userId\": \"a b\"}"));
+        CompositeRequest second = registry.bind("dashboard", json("{\"userId\": 7}"));
+
+        SubRequestDto user = first.getSubRequests().get(0);
+        // Substituted as is: the URL is encoded once, when it is resolved
+        assertThat(user.getUrl()).isEqualTo("/api/users/a b");
+        assertThat(user.getHeaders()).containsEntry("X-User", "a b");
+        assertThat(user.getEndpointInfo()).isSameAs(endpointInfo);
+        assertThat(second.getSubRequests().get(0).getUrl()).isEqualTo("/api/users/7");
+
+        assertThat(first.getExecutionMode()).isEqualTo(ExecutionMode.ALL_OR_NONE);
+        assertThat(first.getExecutionPlan()).isNotNull();
+        assertThat(first.getExecutionPlan().getRequests().get("orders").getUrl())
+                .isEqualTo("/api/orders?userId=${user.id}");
+        assertThat(first.getExecutionPlan().getDependencies())
+                .isSameAs(second.getExecutionPlan().getDependencies());
+        assertThat(first.getExecutionPlan().getDependencies().get("orders")).containsExactly("user");
+
+        // Compiled once, at the first lookup; binding never validates again
+        verify(validator, times(1)).validateRequest(any(CompositeRequest.class));
+    }
+
+    @Test
+    void bind_doesNotShareBodiesBetweenExecutions() {
+        when(templateBeans.orderedStream()).thenReturn(Stream.of(CompositeTemplate.builder()
+                .name("rename")
+                .parameter("name")
+                .subRequest(SubRequestDto.builder()
+                        .referenceId("update")
+                        .method("PUT")
+                        .url("/api/users/1")
+                        .body(json("{\"profile\": {\"name\": \"{{name}}\", \"note\": \"Hi {{name}}\"}}"))
+                        .build())
+                .build()));
+        stubValidValidation();
+        CompositeTemplateRegistry registry = registry();
+
+        CompositeRequest first = registry.bind("rename", json("{\"name\": \"Ada\"}"));
+        CompositeRequest second = registry.bind("rename", json("{\"name\": \"Grace\"}"));
+
+        assertThat(first.getSubRequests().get(0).getBody().toString())
+                .isEqualTo("{\"profile\":{\"name\":\"Ada\",\"note\":\"Hi Ada\"}}");
+        assertThat(second.getSubRequests().get(0).getBody().toString())
+                .isEqualTo("{\"profile\":{\"name\":\"Grace\",\"note\":\"Hi Grace\"}}");
+    }
+
+    @Test
+    void validateParameters_withoutTemplates_doesNotValidate() {
+        when(templateBeans.orderedStream()).thenReturn(Stream.empty());
+
+        assertThat(registry().validateParameters("dashboard", json("{}")))
+                .containsExactly("Unknown composite template: dashboard");
+        verify(validator, never()).validateRequest(any(CompositeRequest.class));
+    }
+
+    // ========== Helper Methods ==========
+
+    private CompositeTemplateRegistry registry() {
+        return new CompositeTemplateRegistry(templateBeans, properties, validator, mapper);
+    }
+
+    /** Mimics a successful validation: records the plan and the matched endpoints. */
+    private void stubValidValidation() {
+        when(validator.validateRequest(any(CompositeRequest.class))).thenAnswer(invocation -> {
+            CompositeRequest request = invocation.getArgument(0);
+            request.resolveExecutionPlan();
+            request.getSubRequests().forEach(subRequest -> subRequest.setEndpointInfo(endpointInfo));
+            return List.of();
+        });
+    }
+
+    private CompositeTemplate dashboardTemplate() {
+        return CompositeTemplate.builder()
+                .name("dashboard")
+                .parameter("userId")
+                .executionMode(ExecutionMode.ALL_OR_NONE)
+                .subRequest(SubRequestDto.builder()
+                        .referenceId("user")
+                        .method("GET")
+                        .url("/api/users/{{userId}}")
+                        .headers(Map.of("X-User", "{{userId}}"))
+                        .build())
+                .subRequest(subRequest("orders", "/api/orders?userId=${user.id}"))
+                .build();
+    }
+
+    private SubRequestDto subRequest(String referenceId, String url) {
+        return SubRequestDto.builder()
+                .referenceId(referenceId)
+                .method("GET")
+                .url(url)
+                .build();
+    }
+
+    private JsonNode json(String content) {
+        try {
+            return mapper.readTree(content);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
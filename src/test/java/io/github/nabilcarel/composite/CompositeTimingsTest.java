@@ -0,0 +1,173 @@
+package io.github.nabilcarel.composite;
+
+import io.github.nabilcarel.composite.metrics.CompositeMetrics;
+import io.github.nabilcarel.composite.metrics.CompositeTimings;
+import io.github.nabilcarel.composite.metrics.CriticalPath;
+import io.github.nabilcarel.composite.model.ExecutionPlan;
+import io.github.nabilcarel.composite.model.SubRequestTiming;
+import io.github.nabilcarel.composite.model.request.SubRequestDto;
+import io.github.nabilcarel.composite.model.response.CompositeDebugInfo;
+import io.github.nabilcarel.composite.model.response.CompositeTimingInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompositeTimingsTest {
+
+    private long startNanos;
+    private ExecutionPlan plan;
+
+    @BeforeEach
+    void setUp() {
+        startNanos = System.nanoTime();
+    }
+
+    @Test
+    void criticalPath_followsLastFinishingDependency() throws Exception {
+        plan(request("user", "/api/users/1"),
+                request("fast", "/api/products/1"),
+                request("orders", "/api/users/${user.id}/orders"));
+
+        execute("fast");
+        execute("user");
+        execute("orders");
+
+        assertThat(new CompositeTimings(startNanos, plan).criticalPath())
+                .containsExactly("user", "orders");
+    }
+
+    @Test
+    void summarize_skipsSubRequestsThatWereNeverDispatched() throws Exception {
+        plan(request("user", "/api/users/1"), request("orders", "/api/users/${user.id}/orders"));
+
+        execute("user");
+
+        CompositeTimingInfo info = new CompositeTimings(startNanos, plan).summarize();
+
+        assertThat(info.getSubRequests()).containsOnlyKeys("user");
+        assertThat(info.getCriticalPath()).containsExactly("user");
+        assertThat(info.getTotalMs()).isGreaterThan(0);
+        assertThat(info.getCriticalPathMs()).isLessThanOrEqualTo(info.getTotalMs());
+    }
+
+    @Test
+    void summarize_reportsPhaseDurations() throws Exception {
+        plan(request("user", "/api/users/1"));
+        execute("user");
+
+        CompositeTimingInfo.SubRequestTimingInfo timing =
+                new CompositeTimings(startNanos, plan).summarize().getSubRequests().get("user");
+
+        assertThat(timing.getNetworkMs()).isGreaterThan(0);
+        assertThat(timing.getParseMs()).isGreaterThan(0);
+        assertThat(timing.getTotalMs()).isGreaterThanOrEqualTo(timing.getNetworkMs() + timing.getParseMs());
+    }
+
+    @Test
+    void toServerTiming_formatsTotalsAndSanitizesReferenceIds() throws Exception {
+        plan(request("user 1", "/api/users/1"));
+        execute("user 1");
+
+        String header = CompositeTimings.toServerTiming(new CompositeTimings(startNanos, plan).summarize());
+
+        assertThat(header).startsWith("total;dur=");
+        assertThat(header).contains(", critical-path;dur=");
+        assertThat(header).contains(", user_1;dur=");
+        assertThat(header).contains("desc=\"queued=");
+    }
+
+    @Test
+    void analyze_givesSlackOnlyToSubRequestsOffTheCriticalPath() throws Exception {
+        plan(request("user", "/api/users/1"),
+                request("fast", "/api/products/1"),
+                request("orders", "/api/users/${user.id}/orders"));
+
+        execute("fast");
+        execute("user");
+        execute("orders");
+
+        CriticalPath criticalPath = new CompositeTimings(startNanos, plan).analyze();
+
+        assertThat(criticalPath.getReferenceIds()).containsExactly("user", "orders");
+        assertThat(criticalPath.getSlackNanos()).containsOnlyKeys("user", "fast", "orders");
+        assertThat(criticalPath.getSlackNanos().get("user")).isZero();
+        assertThat(criticalPath.getSlackNanos().get("orders")).isZero();
+        assertThat(criticalPath.getSlackNanos().get("fast")).isPositive();
+        assertThat(criticalPath.getDurationNanos()).isPositive();
+    }
+
+    @Test
+    void publish_recordsPatternsOnCriticalPathAndFillsDebugInfo() throws Exception {
+        plan(request("user", "/api/users/1"), request("orders", "/api/users/${user.id}/orders"));
+        plan.getRequests().get("user").setEndpointPattern("/api/users/{id}");
+        plan.getRequests().get("orders").setEndpointPattern("/api/users/{id}/orders");
+        execute("user");
+        execute("orders");
+
+        List<String> recordedPatterns = new ArrayList<>();
+        CompositeMetrics metrics = new CompositeMetrics() {
+            @Override
+            public void recordCriticalPath(long durationNanos, List<String> patterns) {
+                recordedPatterns.addAll(patterns);
+            }
+        };
+        CompositeDebugInfo debugInfo = new CompositeDebugInfo();
+
+        new CompositeTimings(startNanos, plan).publish(metrics, debugInfo);
+
+        assertThat(recordedPatterns).containsExactly("/api/users/{id}", "/api/users/{id}/orders");
+        assertThat(debugInfo.getCriticalPath()).containsExactly("user", "orders");
+        assertThat(debugInfo.getSlackMs()).containsOnlyKeys("user", "orders");
+    }
+
+    @Test
+    void analyze_handlesLongDependencyChainsWithoutRecursion() {
+        int length = 20_000;
+        List<SubRequestDto> chain = new ArrayList<>(length);
+        chain.add(request("n0", "/api/nodes/0"));
+        for (int i = 1; i < length; i++) {
+            chain.add(request("n" + i, "/api/nodes/${n" + (i - 1) + ".id}"));
+        }
+        plan = ExecutionPlan.of(chain);
+        for (int i = 0; i < length; i++) {
+            SubRequestTiming timing = plan.getRequests().get("n" + i).getTiming();
+            timing.markDispatched();
+            timing.markCompleted();
+        }
+
+        CriticalPath criticalPath = new CompositeTimings(startNanos, plan).analyze();
+
+        assertThat(criticalPath.getSlackNanos()).hasSize(length);
+        assertThat(criticalPath.getSlackNanos().values()).allMatch(slack -> slack == 0);
+        assertThat(criticalPath.getReferenceIds()).startsWith("n0");
+    }
+
+    // ========== Helper Methods ==========
+
+    private void plan(SubRequestDto... subRequests) {
+        plan = ExecutionPlan.of(List.of(subRequests));
+    }
+
+    private SubRequestDto request(String referenceId, String url) {
+        return SubRequestDto.builder()
+                .referenceId(referenceId)
+                .method("GET")
+                .url(url)
+                .build();
+    }
+
+    private void execute(String referenceId) throws InterruptedException {
+        SubRequestTiming timing = plan.getRequests().get(referenceId).getTiming();
+        timing.markDispatched();
+        timing.markResolved();
+        timing.markSent();
+        Thread.sleep(2);
+        timing.markResponded();
+        Thread.sleep(1);
+        timing.markCompleted();
+    }
+}
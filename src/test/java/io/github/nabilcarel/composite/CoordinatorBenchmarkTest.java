@@ -0,0 +1,103 @@
+package io.github.nabilcarel.composite;
+
+import io.github.nabilcarel.composite.model.ExecutionPlan;
+import io.github.nabilcarel.composite.model.IndexedSubRequestCoordinator;
+import io.github.nabilcarel.composite.model.SubRequestCoordinator;
+import io.github.nabilcarel.composite.model.SubRequestCoordinatorImpl;
+import io.github.nabilcarel.composite.model.request.SubRequestDto;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the map-based {@link SubRequestCoordinatorImpl} with the
+ * {@link IndexedSubRequestCoordinator} by driving whole batches through each, from
+ * creation to the last resolution, on a single thread. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class CoordinatorBenchmarkTest {
+
+    private static final int SIZE = 1_000;
+
+    @Test
+    void fanOut() {
+        compare("fan-out", i -> subRequest("n" + i, i == 0 ? "/api/n" : "/api/n/${n0.id}"));
+    }
+
+    @Test
+    void chain() {
+        compare("chain", i -> subRequest("n" + i, i == 0 ? "/api/n" : "/api/n/${n" + (i - 1) + ".id}"));
+    }
+
+    @Test
+    void layered() {
+        // Ten levels of 100, each node depending on two nodes of the previous level
+        compare("layered", i -> {
+            if (i < 100) {
+                return subRequest("n" + i, "/api/n");
+            }
+            int above = i - 100;
+            int aboveNeighbour = above - above % 100 + (above + 1) % 100;
+            return subRequest("n" + i, "/api/n/${n" + above + ".id}/${n" + aboveNeighbour + ".id}");
+        });
+    }
+
+    // ========== Helper Methods ==========
+
+    private void compare(String shape, IntFunction<SubRequestDto> factory) {
+        List<SubRequestDto> batch = new ArrayList<>(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            batch.add(factory.apply(i));
+        }
+        ExecutionPlan plan = ExecutionPlan.of(batch);
+        assertThat(plan.getErrors()).isEmpty();
+
+        double mapBased = nanosPerNode(() -> new SubRequestCoordinatorImpl(plan.getDependencies()));
+        double indexed = nanosPerNode(() -> new IndexedSubRequestCoordinator(plan));
+        System.out.printf("%-8s map-based %8.0f ns/sub-request, indexed %8.0f ns/sub-request%n",
+                shape, mapBased, indexed);
+
+        // Generous margin: the point is to catch a regression, not to measure precisely
+        assertThat(indexed).isLessThan(mapBased * 1.5);
+    }
+
+    private double nanosPerNode(Supplier<SubRequestCoordinator> factory) {
+        int iterations = 200;
+        for (int i = 0; i < iterations; i++) {
+            run(factory.get());
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            run(factory.get());
+        }
+        return (System.nanoTime() - start) / (double) iterations / SIZE;
+    }
+
+    /** Executes the batch the way the batch context does, completing each sub-request at once. */
+    private void run(SubRequestCoordinator coordinator) {
+        Deque<String> ready = new ArrayDeque<>(coordinator.getInitialReadySubRequests());
+        while (!ready.isEmpty()) {
+            String id = ready.poll();
+            if (coordinator.markInProgress(id)) {
+                ready.addAll(coordinator.markResolved(id));
+            }
+        }
+        assertThat(coordinator.isBatchResolved()).isTrue();
+    }
+
+    private SubRequestDto subRequest(String referenceId, String url) {
+        return SubRequestDto.builder()
+                .referenceId(referenceId)
+                .method("GET")
+                .url(url)
+                .build();
+    }
+}
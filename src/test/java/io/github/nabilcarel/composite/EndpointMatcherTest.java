@@ -0,0 +1,167 @@
+package io.github.nabilcarel.composite;
+
+import io.github.nabilcarel.composite.config.EndpointMatcher;
+import io.github.nabilcarel.composite.config.EndpointRegistry.EndpointInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EndpointMatcherTest {
+
+    private EndpointMatcher matcher;
+
+    @BeforeEach
+    void setUp() {
+        matcher = new EndpointMatcher();
+    }
+
+    // ========== Trie Matching Tests ==========
+
+    @Test
+    void match_withLiteralAndVariableSegments_findsEndpoint() {
+        EndpointInfo orders = add("GET", "/api/users/{id}/orders");
+        add("GET", "/api/users/{id}");
+
+        assertThat(matcher.match("GET", "/api/users/42/orders")).isSameAs(orders);
+        assertThat(matcher.match("GET", "/api/users/42/invoices")).isNull();
+        assertThat(matcher.match("GET", "/api/users")).isNull();
+    }
+
+    @Test
+    void match_prefersLiteralSegmentOverVariable() {
+        EndpointInfo byId = add("GET", "/api/users/{id}");
+        EndpointInfo me = add("GET", "/api/users/me");
+
+        assertThat(matcher.match("GET", "/api/users/me")).isSameAs(me);
+        assertThat(matcher.match("GET", "/api/users/mel")).isSameAs(byId);
+    }
+
+    @Test
+    void match_backtracksToVariableWhenLiteralBranchFails() {
+        add("GET", "/api/users/me/settings");
+        EndpointInfo orders = add("GET", "/api/users/{id}/orders");
+
+        assertThat(matcher.match("GET", "/api/users/me/orders")).isSameAs(orders);
+    }
+
+    @Test
+    void match_isKeyedByMethodCaseInsensitively() {
+        EndpointInfo get = add("GET", "/api/users/{id}");
+        EndpointInfo delete = add("DELETE", "/api/users/{id}");
+
+        assertThat(matcher.match("get", "/api/users/1")).isSameAs(get);
+        assertThat(matcher.match("DELETE", "/api/users/1")).isSameAs(delete);
+        assertThat(matcher.match("POST", "/api/users/1")).isNull();
+    }
+
+    @Test
+    void match_ignoresQueryStringAndFragment() {
+        EndpointInfo users = add("GET", "/api/users/{id}");
+
+        assertThat(matcher.match("GET", "/api/users/1?expand=orders")).isSameAs(users);
+        assertThat(matcher.match("GET", "/api/users/1#top")).isSameAs(users);
+    }
+
+    @Test
+    void match_acrossManySiblingLiterals_findsEachEndpoint() {
+        for (int i = 0; i < 200; i++) {
+            add("GET", "/api/resource" + i + "/{id}");
+        }
+
+        for (int i = 0; i < 200; i++) {
+            assertThat(matcher.match("GET", "/api/resource" + i + "/7").getPattern())
+                    .isEqualTo("/api/resource" + i + "/{id}");
+        }
+        assertThat(matcher.match("GET", "/api/resource200/7")).isNull();
+    }
+
+    // ========== Security Tests ==========
+
+    @Test
+    void match_withDotSegments_neverMatches() {
+        add("GET", "/api/users/{id}");
+        add("GET", "/api/admin/{id}");
+
+        assertThat(matcher.match("GET", "/api/users/..")).isNull();
+        assertThat(matcher.match("GET", "/api/users/%2e%2E")).isNull();
+        assertThat(matcher.match("GET", "/api/users/../admin/1")).isNull();
+        assertThat(matcher.match("GET", "/api/./users/1")).isNull();
+    }
+
+    @Test
+    void match_withAbsoluteUrl_doesNotMatch() {
+        add("GET", "/api/users/{id}");
+
+        assertThat(matcher.match("GET", "http://evil.example/api/users/1")).isNull();
+    }
+
+    // ========== Fallback Tests ==========
+
+    @Test
+    void match_withComplexPattern_fallsBackToPathPattern() {
+        EndpointInfo numeric = add("GET", "/api/items/{id:\\d+}");
+        EndpointInfo files = add("GET", "/api/files/{*path}");
+
+        assertThat(matcher.match("GET", "/api/items/12")).isSameAs(numeric);
+        assertThat(matcher.match("GET", "/api/items/abc")).isNull();
+        assertThat(matcher.match("GET", "/api/files/a/b/c.txt")).isSameAs(files);
+        assertThat(matcher.match("GET", "/api/files/a/../../secret")).isNull();
+    }
+
+    // ========== Single Endpoint Tests ==========
+
+    @Test
+    void matches_withSubstitutedVariables_acceptsUrl() {
+        EndpointInfo orders = endpoint("/api/users/{id}/orders/{orderId}");
+
+        assertThat(EndpointMatcher.matches(orders, "/api/users/42/orders/7")).isTrue();
+        assertThat(EndpointMatcher.matches(orders, "/api/users/42/orders/7?expand=items")).isTrue();
+        assertThat(EndpointMatcher.matches(orders, "/api/users/42/orders")).isFalse();
+        assertThat(EndpointMatcher.matches(orders, "/api/users/42/orders/7/items")).isFalse();
+        assertThat(EndpointMatcher.matches(orders, "/api/accounts/42/orders/7")).isFalse();
+    }
+
+    @Test
+    void matches_whenSubstitutedValueTraversesOrEscapes_rejectsUrl() {
+        EndpointInfo users = endpoint("/api/users/{id}");
+
+        assertThat(EndpointMatcher.matches(users, "/api/users/..")).isFalse();
+        assertThat(EndpointMatcher.matches(users, "/api/users/%2E")).isFalse();
+        assertThat(EndpointMatcher.matches(users, "/api/users/../admin")).isFalse();
+        assertThat(EndpointMatcher.matches(users, "//evil.example/api/users/1")).isFalse();
+        assertThat(EndpointMatcher.matches(users, "http://evil.example/api/users/1")).isFalse();
+    }
+
+    @Test
+    void matches_withComplexPattern_usesPathPattern() {
+        EndpointInfo numeric = endpoint("/api/items/{id:\\d+}");
+        EndpointInfo files = endpoint("/api/files/{*path}");
+
+        assertThat(EndpointMatcher.matches(numeric, "/api/items/12")).isTrue();
+        assertThat(EndpointMatcher.matches(numeric, "/api/items/abc")).isFalse();
+        assertThat(EndpointMatcher.matches(files, "/api/files/a/b.txt")).isTrue();
+        assertThat(EndpointMatcher.matches(files, "/api/files/a/../../secret")).isFalse();
+    }
+
+    // ========== Helper Methods ==========
+
+    private EndpointInfo add(String method, String pattern) {
+        EndpointInfo info = EndpointInfo.builder()
+                .pattern(pattern)
+                .method(method)
+                .returnClass(Object.class)
+                .build();
+        matcher.add(method, PathPatternParser.defaultInstance.parse(pattern), info);
+        return info;
+    }
+
+    private EndpointInfo endpoint(String pattern) {
+        return EndpointInfo.builder()
+                .pattern(pattern)
+                .method("GET")
+                .returnClass(Object.class)
+                .build();
+    }
+}
@@ -1,8 +1,10 @@
 package io.github.nabilcarel.composite;
 
 import io.github.nabilcarel.composite.annotation.CompositeEndpoint;
+import io.github.nabilcarel.composite.config.CompositeProperties;
 import io.github.nabilcarel.composite.config.EndpointRegistry;
 import io.github.nabilcarel.composite.config.EndpointRegistry.EndpointInfo;
+import io.github.nabilcarel.composite.metrics.CompositeMetrics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,6 +21,8 @@ import org.springframework.web.util.pattern.PathPattern;
 import org.springframework.web.util.pattern.PathPatternParser;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -35,10 +39,14 @@ class EndpointRegistryTest {
     private RequestMappingHandlerMapping handlerMapping;
 
     private EndpointRegistry endpointRegistry;
+    private CompositeProperties properties;
+    private List<Boolean> cacheLookups;
 
     @BeforeEach
     void setUp() {
-        endpointRegistry = new EndpointRegistry(applicationContext, handlerMapping);
+        properties = new CompositeProperties();
+        cacheLookups = new ArrayList<>();
+        endpointRegistry = createRegistry();
     }
 
     @Test
@@ -124,8 +132,73 @@ class EndpointRegistryTest {
         assertThat(withSlash).isPresent();
     }
 
+    // ========== Refresh Tests ==========
+
+    @Test
+    void getEndpointInformations_beforeApplicationReady_discoversEndpointsOnFirstLookup() throws Exception {
+        setupEndpointDiscovery("/api/users/{id}", RequestMethod.GET, String.class);
+
+        assertThat(endpointRegistry.getLastRefresh()).isNull();
+        assertThat(endpointRegistry.getEndpointInformations("GET", "/api/users/1")).isPresent();
+        assertThat(endpointRegistry.getLastRefresh()).isNotNull();
+    }
+
+    @Test
+    void refresh_afterMappingRegisteredLater_replacesEndpointsAndCachedResults() throws Exception {
+        setupEndpointDiscovery("/api/users/{id}", RequestMethod.GET, String.class);
+        triggerDiscovery();
+        assertThat(endpointRegistry.getEndpointInformations("GET", "/api/orders/1")).isEmpty();
+
+        setupEndpointDiscovery("/api/orders/{id}", RequestMethod.GET, String.class);
+        int registered = endpointRegistry.refresh();
+
+        assertThat(registered).isEqualTo(1);
+        assertThat(endpointRegistry.getEndpointInformations("GET", "/api/orders/1")).isPresent();
+        assertThat(endpointRegistry.getEndpointInformations("GET", "/api/users/1")).isEmpty();
+    }
+
+    // ========== Match Cache Tests ==========
+
+    @Test
+    void getEndpointInformations_withRepeatedPath_hitsCacheIgnoringQuery() throws Exception {
+        setupEndpointDiscovery("/api/users/{id}", RequestMethod.GET, String.class);
+        triggerDiscovery();
+
+        Optional<EndpointInfo> first = endpointRegistry.getEndpointInformations("GET", "/api/users/me");
+        Optional<EndpointInfo> second = endpointRegistry.getEndpointInformations("get", "/api/users/me?expand=roles");
+        Optional<EndpointInfo> miss = endpointRegistry.getEndpointInformations("GET", "/api/orders/1");
+        Optional<EndpointInfo> negativeHit = endpointRegistry.getEndpointInformations("GET", "/api/orders/1");
+
+        assertThat(second).isSameAs(first).isPresent();
+        assertThat(miss).isEmpty();
+        assertThat(negativeHit).isEmpty();
+        assertThat(cacheLookups).containsExactly(false, true, false, true);
+    }
+
+    @Test
+    void getEndpointInformations_withCacheDisabled_recordsNoLookups() throws Exception {
+        properties.getEndpointCache().setEnabled(false);
+        endpointRegistry = createRegistry();
+        setupEndpointDiscovery("/api/users/{id}", RequestMethod.GET, String.class);
+        triggerDiscovery();
+
+        assertThat(endpointRegistry.getEndpointInformations("GET", "/api/users/1")).isPresent();
+        assertThat(endpointRegistry.getEndpointInformations("GET", "/api/users/1")).isPresent();
+        assertThat(cacheLookups).isEmpty();
+    }
+
     // ========== Helper Methods ==========
 
+    private EndpointRegistry createRegistry() {
+        CompositeMetrics metrics = new CompositeMetrics() {
+            @Override
+            public void recordEndpointCache(boolean hit) {
+                cacheLookups.add(hit);
+            }
+        };
+        return new EndpointRegistry(applicationContext, handlerMapping, properties, metrics);
+    }
+
     @CompositeEndpoint(String.class)
     public String dummyEndpoint() {
         return "";
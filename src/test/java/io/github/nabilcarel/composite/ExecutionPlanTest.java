@@ -0,0 +1,133 @@
+package io.github.nabilcarel.composite;
+
+import io.github.nabilcarel.composite.model.ExecutionPlan;
+import io.github.nabilcarel.composite.model.request.SubRequestDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExecutionPlanTest {
+
+    @Test
+    void of_withDiamond_computesDepthOrderAndLevelWidths() {
+        ExecutionPlan plan = ExecutionPlan.of(List.of(
+                subRequest("d", "/api/d/${b.id}/${c.id}"),
+                subRequest("b", "/api/b/${a.id}"),
+                subRequest("c", "/api/c/${a.id}"),
+                subRequest("a", "/api/a")
+        ));
+
+        assertThat(plan.getErrors()).isEmpty();
+        assertThat(plan.isCyclic()).isFalse();
+        assertThat(plan.getMaxDepth()).isEqualTo(2);
+        assertThat(plan.getLevelWidths()).containsExactly(1, 2, 1);
+        assertThat(plan.getTopologicalOrder()).containsExactly("a", "b", "c", "d");
+        assertThat(plan.getRequests()).containsOnlyKeys("a", "b", "c", "d");
+        assertThat(plan.getDependencies().get("d")).containsExactlyInAnyOrder("b", "c");
+    }
+
+    @Test
+    void of_withDuplicateReferenceId_keepsFirstDeclaration() {
+        ExecutionPlan plan = ExecutionPlan.of(List.of(
+                subRequest("a", "/api/first"),
+                subRequest("a", "/api/second")
+        ));
+
+        assertThat(plan.getErrors()).containsExactly("Duplicate reference ID found: a");
+        assertThat(plan.getRequests().get("a").getUrl()).isEqualTo("/api/first");
+    }
+
+    @Test
+    void of_withMissingDependency_reportsItAndOrdersTheRest() {
+        ExecutionPlan plan = ExecutionPlan.of(List.of(
+                subRequest("a", "/api/a/${ghost.id}")
+        ));
+
+        assertThat(plan.getErrors()).containsExactly("Missing dependency reference: 'ghost' for request: a");
+        assertThat(plan.getTopologicalOrder()).containsExactly("a");
+        assertThat(plan.getMaxDepth()).isZero();
+    }
+
+    @Test
+    void of_withCycle_reportsOnlyNodesOnTheCycle() {
+        ExecutionPlan plan = ExecutionPlan.of(List.of(
+                subRequest("root", "/api/root"),
+                subRequest("a", "/api/a/${b.id}/${root.id}"),
+                subRequest("b", "/api/b/${a.id}"),
+                subRequest("downstream", "/api/d/${b.id}")
+        ));
+
+        assertThat(plan.isCyclic()).isTrue();
+        assertThat(plan.getErrors()).containsExactly("Circular dependency detected in path: [a, b]");
+        assertThat(plan.getTopologicalOrder()).containsExactly("root");
+    }
+
+    @Test
+    void of_withSelfReference_isCyclic() {
+        ExecutionPlan plan = ExecutionPlan.of(List.of(
+                subRequest("a", "/api/a/${a.id}")
+        ));
+
+        assertThat(plan.isCyclic()).isTrue();
+        assertThat(plan.getErrors()).containsExactly("Circular dependency detected in path: [a]");
+        assertThat(plan.getLevelWidths()).isEmpty();
+    }
+
+    @Test
+    void of_withVeryLongChain_doesNotRecurse() {
+        int length = 20_000;
+        List<SubRequestDto> chain = new ArrayList<>(length);
+        chain.add(subRequest("n0", "/api/n"));
+        for (int i = 1; i < length; i++) {
+            chain.add(subRequest("n" + i, "/api/n/${n" + (i - 1) + ".id}"));
+        }
+
+        ExecutionPlan plan = ExecutionPlan.of(chain);
+
+        assertThat(plan.getErrors()).isEmpty();
+        assertThat(plan.getMaxDepth()).isEqualTo(length - 1);
+        assertThat(plan.getLevelWidths()).hasSize(length).containsOnly(1);
+    }
+
+    @Test
+    void bind_sharesStructureWithNewSubRequests() {
+        ExecutionPlan plan = ExecutionPlan.of(List.of(
+                subRequest("a", "/api/a/1"),
+                subRequest("b", "/api/b/${a.id}")
+        ));
+
+        ExecutionPlan bound = plan.bind(List.of(
+                subRequest("a", "/api/a/2"),
+                subRequest("b", "/api/b/${a.id}")
+        ));
+
+        assertThat(bound.getRequests().get("a").getUrl()).isEqualTo("/api/a/2");
+        assertThat(bound.getRequests().get("a")).isNotSameAs(plan.getRequests().get("a"));
+        assertThat(bound.getRequests().get("b").getDependencies()).containsExactly("a");
+        assertThat(bound.getDependencies()).isSameAs(plan.getDependencies());
+        assertThat(bound.getMaxDepth()).isEqualTo(1);
+    }
+
+    @Test
+    void bind_withDifferentReferenceIds_isRejected() {
+        ExecutionPlan plan = ExecutionPlan.of(List.of(subRequest("a", "/api/a")));
+
+        assertThatThrownBy(() -> plan.bind(List.of(subRequest("z", "/api/z"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unexpected sub-request: z");
+    }
+
+    // ========== Helper Methods ==========
+
+    private SubRequestDto subRequest(String referenceId, String url) {
+        return SubRequestDto.builder()
+                .referenceId(referenceId)
+                .method("GET")
+                .url(url)
+                .build();
+    }
+}
@@ -0,0 +1,176 @@
+package io.github.nabilcarel.composite;
+
+import io.github.nabilcarel.composite.model.ExecutionPlan;
+import io.github.nabilcarel.composite.model.IndexedResponseTracker;
+import io.github.nabilcarel.composite.model.request.SubRequestDto;
+import io.github.nabilcarel.composite.model.response.CompositeResponse;
+import io.github.nabilcarel.composite.model.response.SubResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IndexedResponseTrackerTest {
+
+    @Test
+    void completedResponse_listsResponsesInRequestOrder() {
+        IndexedResponseTracker tracker = tracker("c", "a", "b");
+
+        tracker.addResponse("b", response("b", 200));
+        tracker.addResponse("a", response("a", 200));
+        tracker.addResponse("c", response("c", 200));
+
+        CompositeResponse response = tracker.getFuture().join();
+        assertThat(response.getResponses().keySet()).containsExactly("c", "a", "b");
+        assertThat(response.getResponses().get("a").getReferenceId()).isEqualTo("a");
+        assertThat(response.isHasErrors()).isFalse();
+    }
+
+    @Test
+    void hasErrors_isSetByAnyNon2xxResponse() {
+        IndexedResponseTracker tracker = tracker("a", "b");
+
+        tracker.addResponse("a", response("a", 404));
+        tracker.addResponse("b", response("b", 200));
+
+        assertThat(tracker.getFuture().join().isHasErrors()).isTrue();
+    }
+
+    @Test
+    void duplicateResponse_isIgnoredAndDoesNotCompleteEarly() {
+        IndexedResponseTracker tracker = tracker("a", "b");
+        AtomicInteger callbacks = new AtomicInteger();
+        tracker.setOnSubRequestResolved(id -> callbacks.incrementAndGet());
+
+        tracker.addResponse("a", response("a", 200));
+        tracker.addResponse("a", response("a", 500));
+
+        assertThat(tracker.getFuture()).isNotDone();
+        assertThat(tracker.getSubResponseMap().get("a").getHttpStatus()).isEqualTo(200);
+        assertThat(callbacks).hasValue(1);
+
+        tracker.addResponse("b", response("b", 200));
+        assertThat(tracker.getFuture().join().isHasErrors()).isFalse();
+    }
+
+    @Test
+    void unknownResponse_isIgnored() {
+        IndexedResponseTracker tracker = tracker("a");
+
+        tracker.addResponse("ghost", response("ghost", 200));
+
+        assertThat(tracker.getFuture()).isNotDone();
+        assertThat(tracker.getSubResponseMap()).isEmpty();
+    }
+
+    @Test
+    void addResponses_skipsRecordedIdsAndCompletes() {
+        IndexedResponseTracker tracker = tracker("a", "b", "c");
+        tracker.addResponse("a", response("a", 500));
+
+        Map<String, SubResponse> skipped = new LinkedHashMap<>();
+        skipped.put("a", response("a", 424));
+        skipped.put("b", response("b", 424));
+        skipped.put("c", response("c", 424));
+        tracker.addResponses(skipped);
+
+        CompositeResponse response = tracker.getFuture().join();
+        assertThat(response.getResponses()).hasSize(3);
+        assertThat(response.getResponses().get("a").getHttpStatus()).isEqualTo(500);
+        assertThat(response.getResponses().get("c").getHttpStatus()).isEqualTo(424);
+    }
+
+    @Test
+    void subResponseMap_isALiveReadOnlyView() {
+        IndexedResponseTracker tracker = tracker("a", "b");
+        Map<String, SubResponse> view = tracker.getSubResponseMap();
+
+        assertThat(view).isEmpty();
+        tracker.addResponse("b", response("b", 200));
+
+        assertThat(view).hasSize(1).containsOnlyKeys("b");
+        assertThat(view.entrySet()).hasSize(1);
+        assertThat(view.containsKey("a")).isFalse();
+        assertThatThrownBy(() -> view.put("a", response("a", 200)))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void concurrentAddResponse_completesOnce() throws InterruptedException {
+        int count = 100;
+        String[] ids = new String[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = "r" + i;
+        }
+        IndexedResponseTracker tracker = tracker(ids);
+        AtomicInteger completions = new AtomicInteger();
+        tracker.setOnCompleted(response -> completions.incrementAndGet());
+
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        CountDownLatch latch = new CountDownLatch(count * 2);
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < count * 2; i++) {
+            String id = ids[i % count];
+            executor.submit(() -> {
+                try {
+                    tracker.addResponse(id, response(id, 200));
+                } catch (Throwable t) {
+                    failures.add(t);
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await(5, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertThat(failures).isEmpty();
+        assertThat(completions).hasValue(1);
+        assertThat(tracker.getFuture().join().getResponses().keySet()).containsExactly(ids);
+    }
+
+    @Test
+    void invalidPlan_isRejected() {
+        ExecutionPlan plan = ExecutionPlan.of(List.of(subRequest("a", "/api/a/${ghost.id}")));
+
+        assertThatThrownBy(() -> new IndexedResponseTracker(plan, Duration.ofSeconds(30)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // ========== Helper Methods ==========
+
+    private IndexedResponseTracker tracker(String... referenceIds) {
+        List<SubRequestDto> subRequests = new ArrayList<>();
+        for (String referenceId : referenceIds) {
+            subRequests.add(subRequest(referenceId, "/api/" + referenceId));
+        }
+        return new IndexedResponseTracker(ExecutionPlan.of(subRequests), Duration.ofSeconds(30));
+    }
+
+    private SubRequestDto subRequest(String referenceId, String url) {
+        return SubRequestDto.builder()
+                .referenceId(referenceId)
+                .method("GET")
+                .url(url)
+                .build();
+    }
+
+    private SubResponse response(String referenceId, int status) {
+        return SubResponse.builder()
+                .referenceId(referenceId)
+                .httpStatus(status)
+                .build();
+    }
+}
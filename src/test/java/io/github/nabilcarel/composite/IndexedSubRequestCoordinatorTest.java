@@ -0,0 +1,178 @@
+package io.github.nabilcarel.composite;
+
+import io.github.nabilcarel.composite.model.ExecutionPlan;
+import io.github.nabilcarel.composite.model.IndexedSubRequestCoordinator;
+import io.github.nabilcarel.composite.model.request.SubRequestDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IndexedSubRequestCoordinatorTest {
+
+    @Test
+    void getInitialReadySubRequests_returnsDependencyFreeNodesInDeclarationOrder() {
+        IndexedSubRequestCoordinator coordinator = coordinator(
+                subRequest("c", "/api/c/${a.id}"),
+                subRequest("b", "/api/b"),
+                subRequest("a", "/api/a"));
+
+        assertThat(coordinator.getInitialReadySubRequests()).containsExactly("b", "a");
+    }
+
+    @Test
+    void markResolved_releasesDependentsOnceAllDependenciesResolve() {
+        IndexedSubRequestCoordinator coordinator = coordinator(
+                subRequest("a", "/api/a"),
+                subRequest("b", "/api/b"),
+                subRequest("c", "/api/c/${a.id}/${b.id}"));
+        coordinator.markInProgress("a");
+        coordinator.markInProgress("b");
+
+        assertThat(coordinator.markResolved("a")).isEmpty();
+        assertThat(coordinator.markResolved("b")).containsExactly("c");
+        assertThat(coordinator.markResolved("b")).isEmpty();
+        assertThat(coordinator.isResolved("b")).isTrue();
+        assertThat(coordinator.isBatchResolved()).isFalse();
+
+        assertThat(coordinator.markInProgress("c")).isTrue();
+        assertThat(coordinator.markInProgress("c")).isFalse();
+        coordinator.markResolved("c");
+        assertThat(coordinator.isBatchResolved()).isTrue();
+    }
+
+    @Test
+    void failSubtree_failsAllTransitiveDependents() {
+        IndexedSubRequestCoordinator coordinator = coordinator(
+                subRequest("a", "/api/a"),
+                subRequest("b", "/api/b/${a.id}"),
+                subRequest("c", "/api/c/${b.id}"),
+                subRequest("d", "/api/d/${b.id}/${c.id}"),
+                subRequest("e", "/api/e"));
+        coordinator.markInProgress("a");
+        coordinator.markInProgress("e");
+
+        assertThat(coordinator.failSubtree("a")).containsExactly("b", "c", "d");
+        assertThat(coordinator.failSubtree("a")).isEmpty();
+        assertThat(coordinator.markInProgress("d")).isFalse();
+        assertThat(coordinator.isBatchResolved()).isFalse();
+
+        coordinator.markResolved("e");
+        assertThat(coordinator.isBatchResolved()).isTrue();
+    }
+
+    @Test
+    void failSubtree_coversSubtreesWiderThanTheDirectDependents() {
+        List<SubRequestDto> subRequests = new ArrayList<>();
+        subRequests.add(subRequest("root", "/api/root"));
+        subRequests.add(subRequest("hub", "/api/hub/${root.id}"));
+        List<String> leaves = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            leaves.add("leaf" + i);
+            subRequests.add(subRequest("leaf" + i, "/api/leaf/${hub.id}"));
+        }
+        IndexedSubRequestCoordinator coordinator = coordinator(subRequests.toArray(SubRequestDto[]::new));
+        coordinator.markInProgress("root");
+
+        List<String> failed = coordinator.failSubtree("root");
+
+        assertThat(failed).hasSize(21).startsWith("hub").containsAll(leaves);
+        assertThat(coordinator.isBatchResolved()).isTrue();
+    }
+
+    @Test
+    void cancelPending_cancelsOnlyUndispatchedRequests() {
+        IndexedSubRequestCoordinator coordinator = coordinator(
+                subRequest("a", "/api/a"),
+                subRequest("b", "/api/b/${a.id}"));
+        coordinator.markInProgress("a");
+
+        assertThat(coordinator.cancelPending()).containsExactly("b");
+        assertThat(coordinator.markResolved("a")).isEmpty();
+        assertThat(coordinator.cancelPending()).isEmpty();
+    }
+
+    @Test
+    void unknownIds_areIgnored() {
+        IndexedSubRequestCoordinator coordinator = coordinator(subRequest("a", "/api/a"));
+
+        assertThat(coordinator.markInProgress("ghost")).isFalse();
+        assertThat(coordinator.markResolved("ghost")).isEmpty();
+        assertThat(coordinator.failSubtree("ghost")).isEmpty();
+        assertThat(coordinator.isResolved("ghost")).isFalse();
+    }
+
+    @Test
+    void invalidPlan_isRejected() {
+        ExecutionPlan plan = ExecutionPlan.of(List.of(subRequest("a", "/api/a/${ghost.id}")));
+
+        assertThatThrownBy(() -> new IndexedSubRequestCoordinator(plan))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void concurrentMarkResolved_releasesDependentsOnce() throws InterruptedException {
+        IndexedSubRequestCoordinator coordinator = coordinator(
+                subRequest("a", "/api/a"),
+                subRequest("b", "/api/b/${a.id}"),
+                subRequest("c", "/api/c/${a.id}"));
+        coordinator.markInProgress("a");
+
+        int threadCount = 10;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+        List<List<String>> results = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < threadCount; i++) {
+            executor.submit(() -> {
+                try {
+                    results.add(coordinator.markResolved("a"));
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await(5, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertThat(results).filteredOn(ready -> !ready.isEmpty())
+                .singleElement()
+                .satisfies(ready -> assertThat(ready).containsExactly("b", "c"));
+    }
+
+    @Test
+    void boundPlans_getIndependentState() {
+        ExecutionPlan plan = ExecutionPlan.of(List.of(subRequest("a", "/api/a"), subRequest("b", "/api/b/${a.id}")));
+        IndexedSubRequestCoordinator first = new IndexedSubRequestCoordinator(plan);
+        IndexedSubRequestCoordinator second = new IndexedSubRequestCoordinator(
+                plan.bind(List.of(subRequest("a", "/api/a"), subRequest("b", "/api/b/${a.id}"))));
+
+        first.markInProgress("a");
+        first.markResolved("a");
+
+        assertThat(first.isResolved("a")).isTrue();
+        assertThat(second.isResolved("a")).isFalse();
+        assertThat(second.getInitialReadySubRequests()).containsExactly("a");
+    }
+
+    // ========== Helper Methods ==========
+
+    private IndexedSubRequestCoordinator coordinator(SubRequestDto... subRequests) {
+        return new IndexedSubRequestCoordinator(ExecutionPlan.of(List.of(subRequests)));
+    }
+
+    private SubRequestDto subRequest(String referenceId, String url) {
+        return SubRequestDto.builder()
+                .referenceId(referenceId)
+                .method("GET")
+                .url(url)
+                .build();
+    }
+}
@@ -0,0 +1,115 @@
+package io.github.nabilcarel.composite;
+
+import io.github.nabilcarel.composite.model.ExecutionPlan;
+import io.github.nabilcarel.composite.model.IndexedResponseTracker;
+import io.github.nabilcarel.composite.model.IndexedSubRequestCoordinator;
+import io.github.nabilcarel.composite.model.ResponseTracker;
+import io.github.nabilcarel.composite.model.request.ExecutionMode;
+import io.github.nabilcarel.composite.model.request.SubRequest;
+import io.github.nabilcarel.composite.model.request.SubRequestDto;
+import io.github.nabilcarel.composite.model.response.SubResponse;
+import io.github.nabilcarel.composite.service.CompositeBatchContextImpl;
+import io.github.nabilcarel.composite.service.CompositeRequestService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Measures the per-sub-request overhead of planning and coordinating a composite, from 10
+ * to 5,000 sub-requests. Sub-requests complete synchronously, so only the library's own
+ * bookkeeping is timed. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class LargeBatchBenchmarkTest {
+
+    private static final int[] SIZES = {10, 100, 1_000, 5_000};
+    private static final int MAX_CONCURRENCY = 64;
+
+    // Stub-only mocks do not record invocations, which would otherwise dominate the timings
+    private final HttpServletRequest servletRequest = mock(HttpServletRequest.class, withSettings().stubOnly());
+    private final CompositeRequestService requestService = mock(CompositeRequestService.class, withSettings().stubOnly());
+    private ResponseTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        // Completes every sub-request synchronously with a 200 on the batch being executed
+        when(requestService.forwardSubrequest(any(SubRequest.class), any(String.class), any(HttpServletRequest.class)))
+                .thenAnswer(invocation -> {
+                    SubRequest subRequest = invocation.getArgument(0);
+                    return Mono.fromRunnable(() -> tracker.addResponse(subRequest.getReferenceId(),
+                            SubResponse.builder().referenceId(subRequest.getReferenceId()).httpStatus(200).build()));
+                });
+    }
+
+    @Test
+    void independentSubRequests_haveFlatPerNodeOverhead() {
+        assertFlatOverhead("independent", i -> subRequest("n" + i, "/api/n/" + i));
+    }
+
+    @Test
+    void dependencyChain_hasFlatPerNodeOverhead() {
+        assertFlatOverhead("chain", i -> subRequest("n" + i, i == 0 ? "/api/n" : "/api/n/${n" + (i - 1) + ".id}"));
+    }
+
+    @Test
+    void fanOut_hasFlatPerNodeOverhead() {
+        assertFlatOverhead("fan-out", i -> subRequest("n" + i, i == 0 ? "/api/n" : "/api/n/${n0.id}"));
+    }
+
+    // ========== Helper Methods ==========
+
+    private void assertFlatOverhead(String shape, IntFunction<SubRequestDto> factory) {
+        double[] nanosPerNode = new double[SIZES.length];
+        for (int s = 0; s < SIZES.length; s++) {
+            List<SubRequestDto> batch = new ArrayList<>(SIZES[s]);
+            for (int i = 0; i < SIZES[s]; i++) {
+                batch.add(factory.apply(i));
+            }
+            int iterations = Math.max(5, 50_000 / SIZES[s]);
+            for (int i = 0; i < iterations; i++) {
+                execute(batch);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                execute(batch);
+            }
+            nanosPerNode[s] = (System.nanoTime() - start) / (double) iterations / SIZES[s];
+            System.out.printf("%-12s %6d sub-requests: %10.0f ns/sub-request%n", shape, SIZES[s], nanosPerNode[s]);
+        }
+
+        // Flat within a generous margin: quadratic behaviour would be ~50x worse at 5,000 than at 100
+        assertThat(nanosPerNode[SIZES.length - 1]).isLessThan(nanosPerNode[1] * 10);
+    }
+
+    private void execute(List<SubRequestDto> batch) {
+        ExecutionPlan plan = ExecutionPlan.of(batch);
+        tracker = new IndexedResponseTracker(plan, Duration.ofMinutes(1));
+
+        new CompositeBatchContextImpl(tracker, new IndexedSubRequestCoordinator(plan),
+                plan.getRequests(), requestService, "benchmark", servletRequest,
+                ExecutionMode.PARTIAL, MAX_CONCURRENCY).startInitialRequests();
+
+        assertThat(tracker.getFuture()).isCompleted();
+    }
+
+    private SubRequestDto subRequest(String referenceId, String url) {
+        return SubRequestDto.builder()
+                .referenceId(referenceId)
+                .method("GET")
+                .url(url)
+                .build();
+    }
+}
@@ -0,0 +1,164 @@
+package io.github.nabilcarel.composite;
+
+import io.github.nabilcarel.composite.metrics.CompositeMetrics;
+import io.github.nabilcarel.composite.metrics.MicrometerCompositeMetrics;
+import io.github.nabilcarel.composite.model.ResponseTracker;
+import io.github.nabilcarel.composite.model.response.CompositeResponse;
+import io.github.nabilcarel.composite.model.response.SubResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class MicrometerCompositeMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private ConcurrentMap<String, ResponseTracker> responseStore;
+    private MicrometerCompositeMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        responseStore = new ConcurrentHashMap<>();
+        metrics = new MicrometerCompositeMetrics(registry, responseStore);
+    }
+
+    @Test
+    void recordSubRequest_tagsByPatternAndStatusClass() {
+        metrics.recordSubRequest("/api/users/{id}", "GET", 200, Duration.ofMillis(5).toNanos());
+        metrics.recordSubRequest("/api/users/{id}", "GET", 204, Duration.ofMillis(7).toNanos());
+        metrics.recordSubRequest("/api/users/{id}", "GET", 404, Duration.ofMillis(1).toNanos());
+
+        assertThat(registry.get("composite.subrequest")
+                .tags("pattern", "/api/users/{id}", "method", "GET", "status", "2xx")
+                .timer().count()).isEqualTo(2);
+        assertThat(registry.get("composite.subrequest")
+                .tags("status", "4xx")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordBatch_recordsSizeAndDepth() {
+        metrics.recordBatch(5, 2);
+
+        assertThat(registry.get("composite.batch.size").summary().totalAmount()).isEqualTo(5);
+        assertThat(registry.get("composite.batch.depth").summary().totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    void recordComposite_tagsByOutcome() {
+        metrics.recordComposite("success", 1_000);
+        metrics.recordComposite("timeout", 1_000);
+
+        assertThat(registry.get("composite.request").tag("outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(registry.get("composite.request").tag("outcome", "timeout").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordFailedDependencies_incrementsByCount() {
+        metrics.recordFailedDependencies(3);
+        metrics.recordFailedDependencies(0);
+
+        assertThat(registry.get("composite.subrequest.failed.dependency").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void countFailedDependencies_countsOnly424Responses() {
+        CompositeResponse response = CompositeResponse.builder()
+                .responses(Map.of(
+                        "a", SubResponse.builder().referenceId("a").httpStatus(500).build(),
+                        "b", SubResponse.builder().referenceId("b").httpStatus(424).build(),
+                        "c", SubResponse.builder().referenceId("c").httpStatus(424).build(),
+                        "d", SubResponse.builder().referenceId("d").httpStatus(200).build()))
+                .build();
+
+        assertThat(CompositeMetrics.countFailedDependencies(response)).isEqualTo(2);
+    }
+
+    @Test
+    void recordTimeout_tagsByScope() {
+        metrics.recordTimeout("subrequest");
+        metrics.recordTimeout("subrequest");
+        metrics.recordTimeout("composite");
+
+        assertThat(registry.get("composite.timeouts").tag("scope", "subrequest").counter().count()).isEqualTo(2);
+        assertThat(registry.get("composite.timeouts").tag("scope", "composite").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordCriticalPath_recordsDurationAndCountsPatterns() {
+        metrics.recordCriticalPath(Duration.ofMillis(12).toNanos(), List.of("/api/users/{id}", "/api/orders/{id}"));
+        metrics.recordCriticalPath(Duration.ofMillis(4).toNanos(), List.of("/api/users/{id}"));
+
+        assertThat(registry.get("composite.critical.path").timer().count()).isEqualTo(2);
+        assertThat(registry.get("composite.critical.path.subrequests")
+                .tag("pattern", "/api/users/{id}").counter().count()).isEqualTo(2);
+        assertThat(registry.get("composite.critical.path.subrequests")
+                .tag("pattern", "/api/orders/{id}").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordRetry_tagsByPatternAndOutcome() {
+        metrics.recordRetry("/api/users/{id}", "retried");
+        metrics.recordRetry("/api/users/{id}", "retried");
+        metrics.recordRetry("/api/users/{id}", "budget_exhausted");
+
+        assertThat(registry.get("composite.subrequest.retries")
+                .tags("pattern", "/api/users/{id}", "outcome", "retried").counter().count()).isEqualTo(2);
+        assertThat(registry.get("composite.subrequest.retries")
+                .tag("outcome", "budget_exhausted").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordHedge_tagsByPatternAndOutcome() {
+        metrics.recordHedge("/api/users/{id}", "sent");
+        metrics.recordHedge("/api/users/{id}", "won");
+
+        assertThat(registry.get("composite.subrequest.hedges")
+                .tags("pattern", "/api/users/{id}", "outcome", "sent").counter().count()).isEqualTo(1);
+        assertThat(registry.get("composite.subrequest.hedges")
+                .tag("outcome", "won").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordCircuitBreaker_countsEventsAndTracksState() {
+        metrics.recordCircuitBreaker("GET", "/api/users/{id}", "opened");
+        metrics.recordCircuitBreaker("GET", "/api/users/{id}", "rejected");
+
+        assertThat(registry.get("composite.circuitbreaker.events")
+                .tags("method", "GET", "pattern", "/api/users/{id}", "event", "rejected").counter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("composite.circuitbreaker.state")
+                .tags("method", "GET", "pattern", "/api/users/{id}").gauge().value()).isEqualTo(1);
+
+        metrics.recordCircuitBreaker("GET", "/api/users/{id}", "half_opened");
+
+        assertThat(registry.get("composite.circuitbreaker.state").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void recordEndpointCache_countsHitsAndMisses() {
+        metrics.recordEndpointCache(true);
+        metrics.recordEndpointCache(true);
+        metrics.recordEndpointCache(false);
+
+        assertThat(registry.get("composite.endpoint.cache").tag("result", "hit").counter().count()).isEqualTo(2);
+        assertThat(registry.get("composite.endpoint.cache").tag("result", "miss").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void activeRequestsGauge_tracksResponseStoreSize() {
+        responseStore.put("req1", mock(ResponseTracker.class));
+        responseStore.put("req2", mock(ResponseTracker.class));
+
+        assertThat(registry.get("composite.requests.active").gauge().value()).isEqualTo(2);
+    }
+}
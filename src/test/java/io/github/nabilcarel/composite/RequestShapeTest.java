@@ -0,0 +1,72 @@
+package io.github.nabilcarel.composite;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.nabilcarel.composite.config.EndpointRegistry.EndpointInfo;
+import io.github.nabilcarel.composite.model.RequestShape;
+import io.github.nabilcarel.composite.model.request.SubRequestDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestShapeTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void of_ignoresLiteralValues() {
+        String first = RequestShape.of(List.of(
+                subRequest("/api/users/1?page=1", Map.of("X-Trace", "abc"), "{\"name\": \"Ada\", \"owner\": \"${me.id}\"}")));
+        String second = RequestShape.of(List.of(
+                subRequest("/api/users/2?page=2&sort=name", Map.of("X-Trace", "def"), "{\"name\": \"Grace\", \"owner\": \"${me.id}\"}")));
+
+        assertThat(first).isEqualTo(second);
+    }
+
+    @Test
+    void of_distinguishesEndpointsPlaceholdersAndBodyPresence() {
+        String shape = RequestShape.of(List.of(subRequest("/api/users/1", Map.of(), null)));
+
+        assertThat(RequestShape.of(List.of(subRequest("/api/admins/{id}", "/api/admins/1", Map.of(), null)))).isNotEqualTo(shape);
+        assertThat(RequestShape.of(List.of(subRequest("/api/users/${me.id}", Map.of(), null)))).isNotEqualTo(shape);
+        assertThat(RequestShape.of(List.of(subRequest("/api/users/1?owner=${me.id}", Map.of(), null)))).isNotEqualTo(shape);
+        assertThat(RequestShape.of(List.of(subRequest("/api/users/1", Map.of("X-Owner", "${me.id}"), null)))).isNotEqualTo(shape);
+        assertThat(RequestShape.of(List.of(subRequest("/api/users/1", Map.of(), "{}")))).isNotEqualTo(shape);
+    }
+
+    @Test
+    void of_recordsPlaceholderPositionsInTheBody() {
+        String owner = RequestShape.of(List.of(subRequest("/api/orders", Map.of(), "{\"owner\": \"${me.id}\", \"buyer\": \"x\"}")));
+        String buyer = RequestShape.of(List.of(subRequest("/api/orders", Map.of(), "{\"owner\": \"x\", \"buyer\": \"${me.id}\"}")));
+
+        assertThat(owner).isNotEqualTo(buyer);
+    }
+
+    // ========== Helper Methods ==========
+
+    private SubRequestDto subRequest(String url, Map<String, String> headers, String body) {
+        return subRequest("/api/users/{id}", url, headers, body);
+    }
+
+    private SubRequestDto subRequest(String pattern, String url, Map<String, String> headers, String body) {
+        try {
+            SubRequestDto subRequest = SubRequestDto.builder()
+                    .referenceId("ref")
+                    .method("POST")
+                    .url(url)
+                    .headers(headers)
+                    .body(body != null ? mapper.readTree(body) : null)
+                    .build();
+            subRequest.setEndpointInfo(EndpointInfo.builder()
+                    .pattern(pattern)
+                    .method("POST")
+                    .returnClass(Object.class)
+                    .build());
+            return subRequest;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import io.github.nabilcarel.composite.model.response.SubResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -242,4 +243,112 @@ class ResponseTrackerImplTest {
         tracker.addResponse("test2", response2);
         assertThat(callbackCount.get()).isEqualTo(1);
     }
+
+    @Test
+    void testOnCompleted_runsBeforeFutureCompletes() {
+        ResponseTrackerImpl single = new ResponseTrackerImpl(1);
+        List<Boolean> doneWhenCalled = new ArrayList<>();
+        single.setOnCompleted(response -> doneWhenCalled.add(single.getFuture().isDone()));
+
+        single.addResponse("test1", SubResponse.builder()
+            .referenceId("test1")
+            .httpStatus(200)
+            .build());
+
+        assertThat(doneWhenCalled).containsExactly(false);
+        assertThat(single.getFuture()).isCompleted();
+    }
+
+    @Test
+    void testOnCompleted_failureDoesNotPreventCompletion() {
+        ResponseTrackerImpl single = new ResponseTrackerImpl(1);
+        single.setOnCompleted(response -> {
+            throw new IllegalStateException("boom");
+        });
+
+        single.addResponse("test1", SubResponse.builder()
+            .referenceId("test1")
+            .httpStatus(200)
+            .build());
+
+        assertThat(single.getFuture()).isCompleted();
+    }
+
+    @Test
+    void testOnCancelled_invokedWhenFutureTimesOut() throws InterruptedException {
+        List<Throwable> causes = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        tracker.setOnCancelled(cause -> {
+            causes.add(cause);
+            latch.countDown();
+        });
+
+        tracker.getFuture().orTimeout(1, TimeUnit.MILLISECONDS);
+
+        assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(causes).singleElement().isInstanceOf(TimeoutException.class);
+    }
+
+    @Test
+    void testOnCancelled_invokedOnCancel() {
+        List<Throwable> causes = new ArrayList<>();
+        tracker.setOnCancelled(causes::add);
+
+        tracker.cancel(new CancellationException("Client disconnected"));
+
+        assertThat(causes).singleElement().isInstanceOf(CancellationException.class);
+    }
+
+    @Test
+    void testOnCancelled_notInvokedOnSuccess() {
+        ResponseTrackerImpl single = new ResponseTrackerImpl(1);
+        List<Throwable> causes = new ArrayList<>();
+        single.setOnCancelled(causes::add);
+
+        single.addResponse("test1", SubResponse.builder()
+            .referenceId("test1")
+            .httpStatus(200)
+            .build());
+        single.cancel(new CancellationException());
+
+        assertThat(causes).isEmpty();
+    }
+
+    @Test
+    void testAddResponses_recordsOnlyMissingResponsesAndCompletes() {
+        SubResponse original = SubResponse.builder()
+            .referenceId("test1")
+            .httpStatus(500)
+            .build();
+        SubResponse skipped = SubResponse.builder()
+            .httpStatus(424)
+            .build();
+        List<String> callbacks = new ArrayList<>();
+        tracker.setOnSubRequestResolved(callbacks::add);
+
+        tracker.addResponse("test1", original);
+        tracker.addResponses(Map.of("test1", skipped, "test2", skipped, "test3", skipped));
+
+        assertThat(tracker.getFuture()).isCompleted();
+        assertThat(tracker.getSubResponseMap()).containsEntry("test1", original).hasSize(3);
+        assertThat(callbacks).containsExactly("test1");
+    }
+
+    @Test
+    void testAddResponses_withEmptyMap_doesNotComplete() {
+        tracker.addResponses(Map.of());
+
+        assertThat(tracker.getFuture().isDone()).isFalse();
+    }
+
+    @Test
+    void testDeadline_isCappedToRemainingBudget() {
+        ResponseTrackerImpl withDeadline = new ResponseTrackerImpl(1, Duration.ofSeconds(5));
+
+        assertThat(withDeadline.getDeadline()).isNotNull();
+        assertThat(withDeadline.getDeadline().isExpired()).isFalse();
+        assertThat(withDeadline.getDeadline().cap(Duration.ofSeconds(60))).isLessThanOrEqualTo(Duration.ofSeconds(5));
+        assertThat(withDeadline.getDeadline().cap(Duration.ofSeconds(1))).isEqualTo(Duration.ofSeconds(1));
+        assertThat(tracker.getDeadline()).isNull();
+    }
 }
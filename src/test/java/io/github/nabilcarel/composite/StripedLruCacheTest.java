@@ -0,0 +1,65 @@
+package io.github.nabilcarel.composite;
+
+import io.github.nabilcarel.composite.util.StripedLruCache;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StripedLruCacheTest {
+
+    @Test
+    void get_returnsCachedValueOrNull() {
+        StripedLruCache<String, String> cache = new StripedLruCache<>(8);
+
+        cache.put("a", "1");
+
+        assertThat(cache.get("a")).isEqualTo("1");
+        assertThat(cache.get("b")).isNull();
+    }
+
+    @Test
+    void put_whenStripeFull_evictsLeastRecentlyUsed() {
+        // 32 entries over 16 stripes: keys 0, 16 and 32 share a stripe holding two entries
+        StripedLruCache<Integer, String> cache = new StripedLruCache<>(32);
+
+        cache.put(0, "zero");
+        cache.put(16, "sixteen");
+        cache.get(0);
+        cache.put(32, "thirty-two");
+
+        assertThat(cache.get(0)).isEqualTo("zero");
+        assertThat(cache.get(16)).isNull();
+        assertThat(cache.get(32)).isEqualTo("thirty-two");
+    }
+
+    @Test
+    void size_neverExceedsMaximumSize() {
+        StripedLruCache<Integer, Integer> cache = new StripedLruCache<>(100);
+
+        for (int i = 0; i < 1_000; i++) {
+            cache.put(i, i);
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(100).isGreaterThan(0);
+    }
+
+    @Test
+    void clear_removesEveryEntry() {
+        StripedLruCache<Integer, Integer> cache = new StripedLruCache<>(100);
+        for (int i = 0; i < 50; i++) {
+            cache.put(i, i);
+        }
+
+        cache.clear();
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.get(1)).isNull();
+    }
+
+    @Test
+    void constructor_withNonPositiveSize_throws() {
+        assertThatThrownBy(() -> new StripedLruCache<>(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -54,6 +54,57 @@ class SubRequestCoordinatorImplTest {
                 .doesNotContain("b", "c");
     }
 
+    @Test
+    void testFailSubtree_failsAllTransitiveDependents() {
+        dependencies.put("a", Set.of());
+        dependencies.put("b", Set.of("a"));
+        dependencies.put("c", Set.of("b"));
+        dependencies.put("d", Set.of("b", "c"));
+        dependencies.put("e", Set.of());
+
+        SubRequestCoordinatorImpl coordinator = new SubRequestCoordinatorImpl(dependencies);
+        coordinator.markInProgress("a");
+        coordinator.markInProgress("e");
+
+        List<String> failed = coordinator.failSubtree("a");
+
+        assertThat(failed).containsExactlyInAnyOrder("b", "c", "d");
+        assertThat(coordinator.isResolved("a")).isTrue();
+        assertThat(coordinator.markInProgress("d")).isFalse();
+        assertThat(coordinator.isBatchResolved()).isFalse();
+
+        coordinator.markResolved("e");
+        assertThat(coordinator.isBatchResolved()).isTrue();
+    }
+
+    @Test
+    void testFailSubtree_ignoresUnknownOrUnstartedRequests() {
+        dependencies.put("a", Set.of());
+        dependencies.put("b", Set.of("a"));
+
+        SubRequestCoordinatorImpl coordinator = new SubRequestCoordinatorImpl(dependencies);
+
+        assertThat(coordinator.failSubtree("nonexistent")).isEmpty();
+        assertThat(coordinator.failSubtree("a")).isEmpty();
+    }
+
+    @Test
+    void testCancelPending_cancelsOnlyUndispatchedRequests() {
+        dependencies.put("a", Set.of());
+        dependencies.put("b", Set.of("a"));
+        dependencies.put("c", Set.of("b"));
+
+        SubRequestCoordinatorImpl coordinator = new SubRequestCoordinatorImpl(dependencies);
+        coordinator.markInProgress("a");
+
+        List<String> cancelled = coordinator.cancelPending();
+
+        assertThat(cancelled).containsExactlyInAnyOrder("b", "c");
+        assertThat(coordinator.markInProgress("b")).isFalse();
+        assertThat(coordinator.markResolved("a")).isEmpty();
+        assertThat(coordinator.cancelPending()).isEmpty();
+    }
+
     @Test
     void testMarkResolved_triggersDependentRequests() {
         dependencies.put("a", Set.of());
@@ -0,0 +1,190 @@
+package io.github.nabilcarel.composite;
+
+import io.github.nabilcarel.composite.config.CompositeProperties;
+import io.github.nabilcarel.composite.config.EndpointRegistry.EndpointInfo;
+import io.github.nabilcarel.composite.metrics.CompositeMetrics;
+import io.github.nabilcarel.composite.metrics.LatencyHistogram;
+import io.github.nabilcarel.composite.model.response.SubResponse;
+import io.github.nabilcarel.composite.service.SubRequestHedger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SubRequestHedgerTest {
+
+    private static final String PATTERN = "/api/users/{id}";
+
+    private CompositeProperties properties;
+    private List<String> outcomes;
+    private SubRequestHedger hedger;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CompositeProperties();
+        properties.getHedging().setEnabled(true);
+        properties.getHedging().setMinSamples(5);
+        outcomes = new CopyOnWriteArrayList<>();
+        hedger = createHedger();
+    }
+
+    // ========== Eligibility Tests ==========
+
+    @Test
+    void isEligible_acceptsOnlyIdempotentRequestsWhenEnabled() {
+        assertThat(hedger.isEligible("GET", endpoint(false))).isTrue();
+        assertThat(hedger.isEligible("PUT", endpoint(true))).isTrue();
+        assertThat(hedger.isEligible("POST", endpoint(false))).isFalse();
+
+        properties.getHedging().setEnabled(false);
+
+        assertThat(hedger.isEligible("GET", endpoint(false))).isFalse();
+    }
+
+    // ========== Hedging Tests ==========
+
+    @Test
+    void withHedge_beforeMinSamples_sendsSingleAttempt() {
+        AtomicInteger subscriptions = new AtomicInteger();
+        Mono<SubResponse> attempt = slowThenFast(subscriptions, Duration.ofMillis(20));
+
+        SubResponse result = hedger.withHedge(attempt, "GET", PATTERN, null).block();
+
+        assertThat(result.getReferenceId()).isEqualTo("slow");
+        assertThat(subscriptions).hasValue(1);
+        assertThat(outcomes).isEmpty();
+    }
+
+    @Test
+    void withHedge_whenSlowerThanPercentile_firstResponseWins() {
+        warmUp();
+        AtomicInteger subscriptions = new AtomicInteger();
+        Mono<SubResponse> attempt = slowThenFast(subscriptions, Duration.ofSeconds(5));
+
+        SubResponse result = hedger.withHedge(attempt, "GET", PATTERN, null).block(Duration.ofSeconds(2));
+
+        assertThat(result.getReferenceId()).isEqualTo("fast");
+        assertThat(subscriptions).hasValue(2);
+        assertThat(outcomes).containsExactly("sent", "won");
+    }
+
+    @Test
+    void withHedge_whenBudgetExhausted_waitsForOriginalAttempt() {
+        properties.getHedging().setBudgetRatio(0);
+        properties.getHedging().setBudgetMaxTokens(0);
+        hedger = createHedger();
+        warmUp();
+        AtomicInteger subscriptions = new AtomicInteger();
+        Mono<SubResponse> attempt = slowThenFast(subscriptions, Duration.ofMillis(50));
+
+        SubResponse result = hedger.withHedge(attempt, "GET", PATTERN, null).block();
+
+        assertThat(result.getReferenceId()).isEqualTo("slow");
+        assertThat(subscriptions).hasValue(1);
+        assertThat(outcomes).containsExactly("budget_exhausted");
+    }
+
+    @Test
+    void withHedge_ignoresFailedAndCancelledAttemptsInLatency() {
+        for (int i = 0; i < properties.getHedging().getMinSamples(); i++) {
+            hedger.withHedge(Mono.just(response("failed", 500)), "GET", PATTERN, null).block();
+            hedger.withHedge(Mono.error(new IllegalStateException("boom")), "GET", PATTERN, null)
+                    .onErrorResume(e -> Mono.empty())
+                    .block();
+            hedger.withHedge(Mono.never(), "GET", PATTERN, null).timeout(Duration.ofMillis(1))
+                    .onErrorResume(e -> Mono.empty())
+                    .block();
+        }
+        AtomicInteger subscriptions = new AtomicInteger();
+        Mono<SubResponse> attempt = slowThenFast(subscriptions, Duration.ofMillis(20));
+
+        SubResponse result = hedger.withHedge(attempt, "GET", PATTERN, null).block();
+
+        // Still below min-samples, so no threshold yet and no hedge
+        assertThat(result.getReferenceId()).isEqualTo("slow");
+        assertThat(subscriptions).hasValue(1);
+        assertThat(outcomes).isEmpty();
+    }
+
+    // ========== Latency Histogram Tests ==========
+
+    @Test
+    void latencyHistogram_percentileIsUpperBoundOfBucket() {
+        LatencyHistogram histogram = new LatencyHistogram(1000);
+        assertThat(histogram.percentile(0.95)).isEqualTo(-1);
+
+        for (int i = 0; i < 95; i++) {
+            histogram.record(Duration.ofMillis(1).toNanos());
+        }
+        for (int i = 0; i < 5; i++) {
+            histogram.record(Duration.ofMillis(100).toNanos());
+        }
+
+        assertThat(histogram.percentile(0.95))
+                .isBetween(Duration.ofMillis(1).toNanos(), Duration.ofMillis(1).toNanos() * 6 / 5);
+        assertThat(histogram.percentile(0.99))
+                .isBetween(Duration.ofMillis(100).toNanos(), Duration.ofMillis(100).toNanos() * 6 / 5);
+    }
+
+    @Test
+    void latencyHistogram_decaysOnceWindowIsExceeded() {
+        LatencyHistogram histogram = new LatencyHistogram(10);
+
+        for (int i = 0; i < 19; i++) {
+            histogram.record(1_000_000);
+        }
+        assertThat(histogram.count()).isEqualTo(19);
+
+        histogram.record(1_000_000);
+        assertThat(histogram.count()).isEqualTo(10);
+    }
+
+    // ========== Helper Methods ==========
+
+    private SubRequestHedger createHedger() {
+        CompositeMetrics metrics = new CompositeMetrics() {
+            @Override
+            public void recordHedge(String pattern, String outcome) {
+                outcomes.add(outcome);
+            }
+        };
+        return new SubRequestHedger(properties, metrics);
+    }
+
+    private void warmUp() {
+        for (int i = 0; i < properties.getHedging().getMinSamples(); i++) {
+            hedger.withHedge(Mono.just(response("warm-up")), "GET", PATTERN, null).block();
+        }
+    }
+
+    private Mono<SubResponse> slowThenFast(AtomicInteger subscriptions, Duration slowDelay) {
+        return Mono.defer(() -> subscriptions.incrementAndGet() == 1
+                ? Mono.delay(slowDelay).thenReturn(response("slow"))
+                : Mono.just(response("fast")));
+    }
+
+    private EndpointInfo endpoint(boolean idempotent) {
+        return EndpointInfo.builder()
+                .pattern(PATTERN)
+                .returnClass(Object.class)
+                .idempotent(idempotent)
+                .build();
+    }
+
+    private SubResponse response(String referenceId) {
+        return response(referenceId, 200);
+    }
+
+    private SubResponse response(String referenceId, int status) {
+        return SubResponse.builder()
+                .referenceId(referenceId)
+                .httpStatus(status)
+                .build();
+    }
+}
@@ -0,0 +1,198 @@
+package io.github.nabilcarel.composite;
+
+import io.github.nabilcarel.composite.config.CompositeProperties;
+import io.github.nabilcarel.composite.config.EndpointRegistry.EndpointInfo;
+import io.github.nabilcarel.composite.metrics.CompositeMetrics;
+import io.github.nabilcarel.composite.model.Deadline;
+import io.github.nabilcarel.composite.model.response.SubResponse;
+import io.github.nabilcarel.composite.service.RetryBudget;
+import io.github.nabilcarel.composite.service.SubRequestRetrier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SubRequestRetrierTest {
+
+    private static final String PATTERN = "/api/users/{id}";
+
+    private CompositeProperties properties;
+    private List<String> outcomes;
+    private SubRequestRetrier retrier;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CompositeProperties();
+        properties.getRetry().setEnabled(true);
+        properties.getRetry().setInitialBackoff(Duration.ofMillis(1));
+        properties.getRetry().setMaxBackoff(Duration.ofMillis(5));
+        outcomes = new ArrayList<>();
+        retrier = createRetrier();
+    }
+
+    // ========== Eligibility Tests ==========
+
+    @Test
+    void isEligible_whenDisabled_returnsFalse() {
+        properties.getRetry().setEnabled(false);
+
+        assertThat(retrier.isEligible("GET", endpoint(false))).isFalse();
+    }
+
+    @Test
+    void isEligible_acceptsSafeMethodsAndIdempotentEndpoints() {
+        assertThat(retrier.isEligible("GET", endpoint(false))).isTrue();
+        assertThat(retrier.isEligible("head", endpoint(false))).isTrue();
+        assertThat(retrier.isEligible("PUT", endpoint(true))).isTrue();
+        assertThat(retrier.isEligible("POST", endpoint(false))).isFalse();
+    }
+
+    // ========== Retry Tests ==========
+
+    @Test
+    void withRetry_whenStatusRetryable_retriesUntilSuccess() {
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<SubResponse> attempt = Mono.fromSupplier(() ->
+                response(attempts.incrementAndGet() < 3 ? 503 : 200));
+
+        SubResponse result = retrier.withRetry(attempt, PATTERN, null).block();
+
+        assertThat(result.getHttpStatus()).isEqualTo(200);
+        assertThat(attempts).hasValue(3);
+        assertThat(outcomes).containsExactly("retried", "retried");
+    }
+
+    @Test
+    void withRetry_whenAttemptsExhausted_returnsLastResponse() {
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<SubResponse> attempt = Mono.fromSupplier(() -> {
+            attempts.incrementAndGet();
+            return response(502);
+        });
+
+        SubResponse result = retrier.withRetry(attempt, PATTERN, null).block();
+
+        assertThat(result.getHttpStatus()).isEqualTo(502);
+        assertThat(attempts).hasValue(properties.getRetry().getMaxAttempts());
+    }
+
+    @Test
+    void withRetry_whenConnectionFails_retries() {
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<SubResponse> attempt = Mono.defer(() -> attempts.incrementAndGet() == 1
+                ? Mono.<SubResponse>error(new IllegalStateException("wrapped", new IOException("Connection reset")))
+                : Mono.just(response(200)));
+
+        SubResponse result = retrier.withRetry(attempt, PATTERN, null).block();
+
+        assertThat(result.getHttpStatus()).isEqualTo(200);
+        assertThat(attempts).hasValue(2);
+    }
+
+    @Test
+    void withRetry_whenTimedOut_doesNotRetry() {
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<SubResponse> attempt = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(new TimeoutException("Did not observe any item"));
+        });
+
+        assertThatThrownBy(() -> retrier.withRetry(attempt, PATTERN, null).block())
+                .hasCauseInstanceOf(TimeoutException.class);
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void withRetry_whenDeadlineTooClose_doesNotRetry() {
+        properties.getRetry().setInitialBackoff(Duration.ofSeconds(1));
+        properties.getRetry().setMaxBackoff(Duration.ofSeconds(1));
+        properties.getRetry().setJitter(0);
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<SubResponse> attempt = Mono.fromSupplier(() -> {
+            attempts.incrementAndGet();
+            return response(503);
+        });
+        Deadline deadline = Deadline.of(System.nanoTime(), Duration.ofMillis(500));
+
+        SubResponse result = retrier.withRetry(attempt, PATTERN, deadline).block();
+
+        assertThat(result.getHttpStatus()).isEqualTo(503);
+        assertThat(attempts).hasValue(1);
+        assertThat(outcomes).isEmpty();
+    }
+
+    @Test
+    void withRetry_whenBudgetExhausted_stopsRetrying() {
+        properties.getRetry().setBudgetMaxTokens(1);
+        properties.getRetry().setBudgetRatio(0);
+        retrier = createRetrier();
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<SubResponse> attempt = Mono.fromSupplier(() -> {
+            attempts.incrementAndGet();
+            return response(503);
+        });
+
+        SubResponse result = retrier.withRetry(attempt, PATTERN, null).block();
+
+        assertThat(result.getHttpStatus()).isEqualTo(503);
+        assertThat(attempts).hasValue(2);
+        assertThat(outcomes).containsExactly("retried", "budget_exhausted");
+    }
+
+    // ========== Retry Budget Tests ==========
+
+    @Test
+    void retryBudget_refillsByRatioUpToCapacity() {
+        RetryBudget budget = new RetryBudget(0.5, 1);
+
+        assertThat(budget.tryWithdraw()).isTrue();
+        assertThat(budget.tryWithdraw()).isFalse();
+
+        budget.deposit();
+        assertThat(budget.tryWithdraw()).isFalse();
+        budget.deposit();
+        assertThat(budget.tryWithdraw()).isTrue();
+
+        for (int i = 0; i < 10; i++) {
+            budget.deposit();
+        }
+        assertThat(budget.tryWithdraw()).isTrue();
+        assertThat(budget.tryWithdraw()).isFalse();
+    }
+
+    // ========== Helper Methods ==========
+
+    private SubRequestRetrier createRetrier() {
+        CompositeMetrics metrics = new CompositeMetrics() {
+            @Override
+            public void recordRetry(String pattern, String outcome) {
+                outcomes.add(outcome);
+            }
+        };
+        return new SubRequestRetrier(properties, metrics);
+    }
+
+    private EndpointInfo endpoint(boolean idempotent) {
+        return EndpointInfo.builder()
+                .pattern(PATTERN)
+                .returnClass(Object.class)
+                .idempotent(idempotent)
+                .build();
+    }
+
+    private SubResponse response(int status) {
+        return SubResponse.builder()
+                .referenceId("user")
+                .httpStatus(status)
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package io.github.nabilcarel.composite.integration;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.nabilcarel.composite.config.EndpointRegistry;
 import io.github.nabilcarel.composite.model.request.CompositeRequest;
@@ -28,7 +29,11 @@ import static org.assertj.core.api.Assertions.*;
     "composite.base-path=/api/composite",
     "composite.controller.enabled=true",
     "composite.header-injection.enabled=true",
-    "composite.security.additional-auth-headers=X-Trace-Id,X-Span-Id"
+    "composite.security.additional-auth-headers=X-Trace-Id,X-Span-Id",
+    "composite.templates.user.parameters=userId",
+    "composite.templates.user.sub-requests[0].reference-id=user",
+    "composite.templates.user.sub-requests[0].method=GET",
+    "composite.templates.user.sub-requests[0].url=/api/users/{{userId}}"
 })
 class CompositeAdvancedIntegrationTest {
 
@@ -554,8 +559,42 @@ class CompositeAdvancedIntegrationTest {
         assertThat(response.getBody().getResponses().get("order1").getHttpStatus()).isEqualTo(HttpStatus.OK.value());
     }
 
+    // ========== Template Tests ==========
+
+    @Test
+    void testTemplateUrlParameterReachesHandlerDecoded() {
+        for (String userId : List.of("a b", "a%20b", "{b}")) {
+            ResponseEntity<CompositeResponse> response = executeTemplate("user",
+                objectMapper.createObjectNode().put("userId", userId).toString());
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            SubResponse user = response.getBody().getResponses().get("user");
+            assertThat(user.getHttpStatus()).isEqualTo(HttpStatus.OK.value());
+            assertThat(objectMapper.convertValue(user.getBody(), JsonNode.class).get("id").asText())
+                .isEqualTo(userId);
+        }
+    }
+
+    @Test
+    void testTemplateUrlParameterWithDelimiterIsRejected() {
+        ResponseEntity<CompositeResponse> response = executeTemplate("user", "{\"userId\": \"a/b\"}");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
     // ========== Helper Methods ==========
 
+    private ResponseEntity<CompositeResponse> executeTemplate(String name, String parameters) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return restTemplate.exchange(
+            baseUrl + "/api/composite/templates/" + name,
+            HttpMethod.POST,
+            new HttpEntity<>(parameters, headers),
+            CompositeResponse.class
+        );
+    }
+
     private ResponseEntity<CompositeResponse> executeCompositeRequest(CompositeRequest request) {
         return executeCompositeRequest(request, new HttpHeaders());
     }
@@ -0,0 +1,109 @@
+package io.github.nabilcarel.composite.integration;
+
+import io.github.nabilcarel.composite.model.request.CompositeRequest;
+import io.github.nabilcarel.composite.model.request.SubRequestDto;
+import io.github.nabilcarel.composite.model.response.CompositeResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(
+    classes = CompositeIntegrationTestApplication.class,
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT
+)
+@TestPropertySource(properties = {
+    "spring.main.web-application-type=reactive",
+    "composite.base-path=/api/composite",
+    "composite.controller.enabled=true",
+    "composite.debug-enabled=true"
+})
+class CompositeReactiveIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void testReactive_dependentRequests_resolveReferences() {
+        CompositeRequest request = CompositeRequest.builder()
+            .subRequests(List.of(
+                SubRequestDto.builder()
+                    .method("GET")
+                    .url("/api/users/123")
+                    .referenceId("user")
+                    .build(),
+                SubRequestDto.builder()
+                    .method("GET")
+                    .url("/api/users/${user.id}/orders")
+                    .referenceId("orders")
+                    .build()
+            ))
+            .build();
+
+        CompositeResponse response = executeCompositeRequest(request);
+
+        assertThat(response).isNotNull();
+        assertThat(response.getResponses()).containsKeys("user", "orders");
+        assertThat(response.getResponses().get("user").getHttpStatus()).isEqualTo(200);
+        assertThat(response.getResponses().get("orders").getHttpStatus()).isEqualTo(200);
+        assertThat(response.getDebug()).isNotNull();
+        assertThat(response.getDebug().getResolvedRequests().get("orders").getResolvedUrl())
+            .isEqualTo("/api/users/123/orders");
+    }
+
+    @Test
+    void testReactive_invalidRequest_returnsBadRequest() {
+        CompositeRequest request = CompositeRequest.builder()
+            .subRequests(List.of(
+                SubRequestDto.builder()
+                    .method("GET")
+                    .url("/api/not-registered")
+                    .referenceId("missing")
+                    .build()
+            ))
+            .build();
+
+        webTestClient.post()
+            .uri("/api/composite/execute")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(request)
+            .exchange()
+            .expectStatus().isBadRequest()
+            .expectBody(CompositeResponse.class)
+            .value(body -> {
+                assertThat(body.isHasErrors()).isTrue();
+                assertThat(body.getErrors()).isNotEmpty();
+            });
+    }
+
+    @Test
+    void testReactive_endpointsAreDiscoveredFromWebFluxMapping() {
+        webTestClient.get()
+            .uri("/api/composite/endpoints")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBodyList(Map.class)
+            .value(endpoints -> assertThat(endpoints).isNotEmpty());
+    }
+
+    // ========== Helper Methods ==========
+
+    private CompositeResponse executeCompositeRequest(CompositeRequest request) {
+        return webTestClient.post()
+            .uri("/api/composite/execute")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(request)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(CompositeResponse.class)
+            .returnResult()
+            .getResponseBody();
+    }
+}